@@ -1,14 +1,348 @@
 package com.reliaquest.api.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.controller.ConditionalResponses;
+import com.reliaquest.api.controller.ResponseBytesCache;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.EmployeeFields;
+import com.reliaquest.api.roster.KnownEmployeeIds;
+import com.reliaquest.api.roster.NameIndex;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.roster.RosterSnapshotFile;
+import com.reliaquest.api.roster.SalaryAnalytics;
+import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.service.EmployeeServiceImpl;
+import com.reliaquest.api.upstream.EmployeeQueryClient;
+import com.reliaquest.api.upstream.EmployeeShards;
+import com.reliaquest.api.upstream.EmployeeStreamAggregator;
+import com.reliaquest.api.upstream.EmployeeStreamWriter;
+import com.reliaquest.api.upstream.GzipDecompressingInterceptor;
+import com.reliaquest.api.upstream.HedgeBudget;
+import com.reliaquest.api.upstream.HedgedRequestExecutor;
+import com.reliaquest.api.upstream.LatencyTracker;
+import com.reliaquest.api.upstream.LoadBalancingInterceptor;
+import com.reliaquest.api.upstream.UpstreamFormats;
+import com.reliaquest.api.upstream.UpstreamRosterLoader;
+import com.reliaquest.api.upstream.UpstreamScheduler;
+import com.reliaquest.api.write.WriteBehindQueue;
+import com.reliaquest.api.write.WriteJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
 @Configuration
 public class AppConfig {
+    /*
+     * The JDK client upgrades the first cleartext request to h2c and then multiplexes every concurrent upstream call
+     * over that one connection; with HTTP/2 disabled it falls back to a pool of HTTP/1.1 connections.
+     */
+    @Bean
+    public HttpClient upstreamHttpClient(
+            @Value("${employee.api.http2.enabled:true}") boolean http2,
+            @Value("${employee.api.connect-timeout:2s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    /*
+     * With binary format enabled the Smile converter is listed first, so the Accept header RestTemplate derives from
+     * its converters asks the mock server for Smile ahead of JSON. JSON responses are still read as before.
+     */
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(
+            HttpClient upstreamHttpClient,
+            EmployeeShards employeeShards,
+            MeterRegistry meterRegistry,
+            @Value("${employee.api.load-balancing.enabled:false}") boolean loadBalancing,
+            @Value("${employee.api.load-balancing.ejection-time:30s}") Duration ejectionTime,
+            @Value("${employee.api.load-balancing.max-ejection-time:2m}") Duration maxEjectionTime,
+            @Value("${employee.api.read-timeout:5s}") Duration readTimeout,
+            @Value("${employee.api.gzip.enabled:true}") boolean gzip,
+            @Value("${employee.api.binary-format.enabled:true}") boolean binaryFormat) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(upstreamHttpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        if (loadBalancing) {
+            restTemplate.getInterceptors().add(
+                    new LoadBalancingInterceptor(employeeShards, ejectionTime, maxEjectionTime, meterRegistry));
+        }
+        if (gzip) {
+            restTemplate.getInterceptors().add(new GzipDecompressingInterceptor());
+        }
+        restTemplate.getMessageConverters().removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+        if (binaryFormat) {
+            restTemplate.getMessageConverters().add(0, new MappingJackson2SmileHttpMessageConverter());
+        }
+        return restTemplate;
+    }
+
+    /*
+     * Full-roster reads move the whole roster in one response and may stream it to a slow client, so they get their
+     * own, longer read timeout. The interceptors and converters are shared with the primary RestTemplate, so a replica
+     * ejected by one is ejected for both.
+     */
+    @Bean
+    public RestTemplate bulkRestTemplate(
+            HttpClient upstreamHttpClient,
+            RestTemplate restTemplate,
+            @Value("${employee.api.bulk-read-timeout:60s}") Duration bulkReadTimeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(upstreamHttpClient);
+        requestFactory.setReadTimeout(bulkReadTimeout);
+
+        RestTemplate bulkRestTemplate = new RestTemplate(requestFactory);
+        bulkRestTemplate.setInterceptors(restTemplate.getInterceptors());
+        bulkRestTemplate.setMessageConverters(restTemplate.getMessageConverters());
+        return bulkRestTemplate;
+    }
+
+    /*
+     * Lets the web layer write employees with only the fields a caller asked for. Upstream calls use RestTemplate's own
+     * converters and are unaffected.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer employeeFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(Employee.class, EmployeeFields.Filtered.class)
+                .filters(EmployeeFields.defaultFilters());
+    }
+
+    @Bean
+    public UpstreamFormats upstreamFormats(@Value("${employee.api.binary-format.enabled:true}") boolean binaryFormat) {
+        return new UpstreamFormats(binaryFormat);
+    }
+
+    @Bean
+    public EmployeeStreamAggregator employeeStreamAggregator(UpstreamFormats upstreamFormats) {
+        return new EmployeeStreamAggregator(upstreamFormats);
+    }
+
+    @Bean
+    public EmployeeStreamWriter employeeStreamWriter(
+            UpstreamFormats upstreamFormats,
+            @Value("${employee.api.streaming.flush-rows:512}") int flushRows) {
+        return new EmployeeStreamWriter(upstreamFormats, flushRows);
+    }
+
+    /*
+     * Without shard URLs every call goes to the mock server at the base URL, or is balanced over the replica URLs when
+     * there are any. With shard URLs, shard i is the i-th entry and must run with mock.shard.index=i and the same shard
+     * count and virtual node count; an entry may list several replicas of that shard separated by '|'.
+     */
+    @Bean
+    public EmployeeShards employeeShards(
+            @Value("${employee.api.base-url:" + EmployeeServiceImpl.DEFAULT_BASE_URL + "}") String baseUrl,
+            @Value("${employee.api.replicas.urls:}") List<String> replicaUrls,
+            @Value("${employee.api.shards.urls:}") List<String> shardUrls,
+            @Value("${employee.api.shards.virtual-nodes:128}") int virtualNodes) {
+        List<List<String>> shards = shardUrls.stream()
+                .map(AppConfig::employeeUrls)
+                .filter(replicas -> !replicas.isEmpty())
+                .toList();
+        if (shards.isEmpty()) {
+            List<String> replicas = employeeUrls(String.join("|", replicaUrls));
+            shards = List.of(replicas.isEmpty() ? List.of(baseUrl + "/employee") : replicas);
+        }
+        return EmployeeShards.replicated(shards, virtualNodes);
+    }
+
+    private static List<String> employeeUrls(String baseUrls) {
+        return Arrays.stream(baseUrls.split("\\|"))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> url + "/employee")
+                .toList();
+    }
+
+    /*
+     * The roster is parsed straight into columns and shared by every read until the time to live expires or a write
+     * invalidates it. A failed refresh keeps serving the previous roster and backs off before trying again.
+     */
+    @Bean
+    public RosterCache rosterCache(
+            @Qualifier("bulkRestTemplate") RestTemplate bulkRestTemplate,
+            UpstreamFormats upstreamFormats,
+            EmployeeShards employeeShards,
+            UpstreamScheduler upstreamScheduler,
+            @Value("${employee.api.roster-cache.enabled:false}") boolean enabled,
+            @Value("${employee.api.roster-cache.ttl:30s}") Duration ttl,
+            @Value("${employee.api.roster-cache.retry-backoff:5s}") Duration retryBackoff,
+            @Value("${employee.api.roster-snapshot.enabled:false}") boolean snapshotEnabled,
+            @Value("${employee.api.roster-snapshot.path:roster.snapshot}") Path snapshotPath,
+            @Value("${employee.api.roster-snapshot.max-age:24h}") Duration snapshotMaxAge) {
+        if (!enabled) {
+            return RosterCache.disabled();
+        }
+        return new RosterCache(
+                new UpstreamRosterLoader(bulkRestTemplate, upstreamFormats, employeeShards, upstreamScheduler), ttl,
+                retryBackoff, snapshotEnabled ? new RosterSnapshotFile(snapshotPath, snapshotMaxAge) : null);
+    }
+
+    /*
+     * Lets lookups and deletes of ids that certainly do not exist fail locally. The Bloom filter is built from the
+     * roster cache, so it is only consulted when that is enabled; the negative cache works either way.
+     */
+    @Bean
+    public KnownEmployeeIds knownEmployeeIds(
+            RosterCache rosterCache,
+            @Value("${employee.api.id-filter.enabled:false}") boolean enabled,
+            @Value("${employee.api.id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${employee.api.id-filter.max-age:30s}") Duration maxAge,
+            @Value("${employee.api.id-filter.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${employee.api.id-filter.negative-capacity:10000}") int negativeCapacity) {
+        if (!enabled) {
+            return KnownEmployeeIds.disabled();
+        }
+        return new KnownEmployeeIds(rosterCache, falsePositiveRate, maxAge, negativeTtl, negativeCapacity);
+    }
+
+    /*
+     * Backs the ranked name search. With the roster cache enabled the index is kept and brought up to each new roster
+     * version by indexing only the names it has not seen; otherwise every search indexes a freshly fetched roster.
+     */
+    @Bean
+    public NameIndex nameIndex(
+            @Value("${employee.api.name-search.max-edits:2}") int maxEdits,
+            @Value("${employee.api.name-search.max-results:50}") int maxResults) {
+        return new NameIndex(maxEdits, maxResults);
+    }
+
+    /*
+     * Backs the salary percentiles and histograms. With the roster cache enabled the per-title sketches are kept and
+     * only the titles whose salaries changed are sketched again for a new roster version.
+     */
+    @Bean
+    public SalaryAnalytics salaryAnalytics(@Value("${employee.api.salary-analytics.k:200}") int k) {
+        return new SalaryAnalytics(k);
+    }
+
+    /*
+     * Pollers of the roster-wide reads revalidate with If-None-Match and get 304 while the cached roster is unchanged.
+     * The tags come from the roster cache, so they are only sent when that is enabled. With response-bytes enabled,
+     * the JSON of those reads is also encoded once per roster revision and endpoint, and repeats are copied out as
+     * bytes, gzipped for clients that accept it.
+     */
+    @Bean
+    public ConditionalResponses conditionalResponses(
+            ObjectMapper objectMapper,
+            @Value("${employee.api.http-caching.enabled:false}") boolean enabled,
+            @Value("${employee.api.http-caching.max-age:0s}") Duration maxAge,
+            @Value("${employee.api.http-caching.response-bytes.enabled:false}") boolean responseBytes,
+            @Value("${employee.api.http-caching.response-bytes.max-entries:64}") int maxEntries) {
+        if (!enabled) {
+            return ConditionalResponses.disabled();
+        }
+        ResponseBytesCache bytesCache = responseBytes ? new ResponseBytesCache(objectMapper, maxEntries) : null;
+        return new ConditionalResponses(maxAge, bytesCache);
+    }
+
+    /*
+     * Lets clients opt into 202 Accepted for creates and deletes. Accepted writes are journalled to path first and sent
+     * upstream one at a time, at most one per min-interval, so a burst of writes waits out the mock server's rate limit
+     * instead of failing with 429.
+     */
+    @Bean
+    public WriteBehindQueue writeBehindQueue(
+            EmployeeService employeeService,
+            @Value("${employee.api.write-behind.enabled:false}") boolean enabled,
+            @Value("${employee.api.write-behind.path:writes.journal}") Path path,
+            @Value("${employee.api.write-behind.capacity:1000}") int capacity,
+            @Value("${employee.api.write-behind.min-interval:1s}") Duration minInterval,
+            @Value("${employee.api.write-behind.retry-backoff:30s}") Duration retryBackoff,
+            @Value("${employee.api.write-behind.max-attempts:10}") int maxAttempts,
+            @Value("${employee.api.write-behind.retained-statuses:10000}") int retainedStatuses) {
+        if (!enabled) {
+            return WriteBehindQueue.disabled();
+        }
+        WriteBehindQueue queue = new WriteBehindQueue(employeeService, new WriteJournal(path), capacity, minInterval,
+                retryBackoff, maxAttempts, retainedStatuses);
+        queue.start();
+        return queue;
+    }
+
+    @Bean
+    public EmployeeQueryClient employeeQueryClient(
+            RestTemplate restTemplate,
+            EmployeeShards employeeShards,
+            UpstreamScheduler upstreamScheduler,
+            @Value("${employee.api.query-pushdown.enabled:false}") boolean enabled,
+            @Value("${employee.api.query-pushdown.probe-backoff:60s}") Duration probeBackoff) {
+        if (!enabled) {
+            return EmployeeQueryClient.disabled();
+        }
+        return new EmployeeQueryClient(restTemplate, employeeShards, probeBackoff, upstreamScheduler);
+    }
+
+    /*
+     * Every upstream call waits for one of max-concurrent slots. Interactive reads outweigh writes, which outweigh
+     * roster refreshes; each class sheds callers beyond its queue limit and drops those still waiting after max-wait.
+     */
+    @Bean
+    public UpstreamScheduler upstreamScheduler(
+            @Value("${employee.api.scheduler.enabled:false}") boolean enabled,
+            @Value("${employee.api.scheduler.max-concurrent:4}") int maxConcurrent,
+            @Value("${employee.api.scheduler.interactive.weight:8}") int interactiveWeight,
+            @Value("${employee.api.scheduler.interactive.queue-limit:64}") int interactiveQueueLimit,
+            @Value("${employee.api.scheduler.interactive.max-wait:2s}") Duration interactiveMaxWait,
+            @Value("${employee.api.scheduler.write.weight:4}") int writeWeight,
+            @Value("${employee.api.scheduler.write.queue-limit:32}") int writeQueueLimit,
+            @Value("${employee.api.scheduler.write.max-wait:5s}") Duration writeMaxWait,
+            @Value("${employee.api.scheduler.background.weight:1}") int backgroundWeight,
+            @Value("${employee.api.scheduler.background.queue-limit:4}") int backgroundQueueLimit,
+            @Value("${employee.api.scheduler.background.max-wait:30s}") Duration backgroundMaxWait) {
+        if (!enabled) {
+            return UpstreamScheduler.disabled();
+        }
+        return new UpstreamScheduler(
+                maxConcurrent,
+                new UpstreamScheduler.Lane(interactiveWeight, interactiveQueueLimit, interactiveMaxWait),
+                new UpstreamScheduler.Lane(writeWeight, writeQueueLimit, writeMaxWait),
+                new UpstreamScheduler.Lane(backgroundWeight, backgroundQueueLimit, backgroundMaxWait));
+    }
+
+    /*
+     * Hedging only ever duplicates idempotent reads. The budget keeps hedges to a fraction of primary traffic and
+     * pauses them entirely after a 429, so they cannot be what pushes us into the mock server's rate limit. Primary
+     * attempts run on the request thread; at most {@code threads} hedges run at once and no more are queued.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HedgedRequestExecutor hedgedRequestExecutor(
+            @Value("${employee.api.hedging.enabled:false}") boolean enabled,
+            @Value("${employee.api.hedging.percentile:95}") double percentile,
+            @Value("${employee.api.hedging.min-delay:20ms}") Duration minDelay,
+            @Value("${employee.api.hedging.max-delay:1s}") Duration maxDelay,
+            @Value("${employee.api.hedging.window-size:256}") int windowSize,
+            @Value("${employee.api.hedging.min-samples:20}") int minSamples,
+            @Value("${employee.api.hedging.budget-ratio:0.1}") double budgetRatio,
+            @Value("${employee.api.hedging.budget-max-tokens:2}") double budgetMaxTokens,
+            @Value("${employee.api.hedging.throttle-cooldown:90s}") Duration throttleCooldown,
+            @Value("${employee.api.hedging.threads:8}") int threads) {
+        if (!enabled) {
+            return HedgedRequestExecutor.disabled();
+        }
+        return new HedgedRequestExecutor(
+                percentile,
+                minDelay,
+                maxDelay,
+                new LatencyTracker(windowSize, minSamples),
+                new HedgeBudget(budgetRatio, budgetMaxTokens, throttleCooldown),
+                threads);
     }
 }
 
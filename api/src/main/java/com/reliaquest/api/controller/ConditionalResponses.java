@@ -0,0 +1,138 @@
+package com.reliaquest.api.controller;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.reliaquest.api.controller.ResponseBytesCache.EncodedResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Enumeration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Gives reads answered from the cached roster a weak ETag derived from the roster revision, plus
+ * {@code Cache-Control}, and answers a matching {@code If-None-Match} with 304 before the answer is computed or
+ * serialized.
+ *
+ * <p>The tag is weak because the same revision is sent as JSON or Smile, and plain or gzip-compressed: the
+ * representations are equivalent, not byte for byte the same. Without a fresh cached roster, responses go out
+ * untagged.
+ *
+ * <p>With a {@link ResponseBytesCache}, full JSON answers are also written straight to the servlet response from bytes
+ * encoded once per revision, and the handler returns null.
+ */
+public class ConditionalResponses {
+
+    private final boolean enabled;
+    private final CacheControl cacheControl;
+    private final ResponseBytesCache bytesCache;
+
+    /**
+     * @param maxAge how long clients may reuse a response before revalidating it
+     */
+    public ConditionalResponses(Duration maxAge) {
+        this(maxAge, null);
+    }
+
+    /**
+     * @param bytesCache where full answers are kept encoded, or null to serialize them per request
+     */
+    public ConditionalResponses(Duration maxAge, ResponseBytesCache bytesCache) {
+        this(true, CacheControl.maxAge(maxAge).cachePrivate().mustRevalidate(), bytesCache);
+    }
+
+    private ConditionalResponses(boolean enabled, CacheControl cacheControl, ResponseBytesCache bytesCache) {
+        this.enabled = enabled;
+        this.cacheControl = cacheControl;
+        this.bytesCache = bytesCache;
+    }
+
+    public static ConditionalResponses disabled() {
+        return new ConditionalResponses(false, CacheControl.empty(), null);
+    }
+
+    /**
+     * @param revision the current roster revision, see {@code EmployeeService#rosterRevision()}
+     * @param response computes the full answer; only called if the client's copy is out of date
+     */
+    public <T> ResponseEntity<T> respond(Supplier<Optional<String>> revision, Supplier<ResponseEntity<T>> response) {
+        return respond(revision, null, response);
+    }
+
+    /**
+     * @param filters the projection the answer is serialized with, or null for every field
+     * @return the answer, or null if it was already written to the servlet response from the bytes cache
+     */
+    public <T> ResponseEntity<T> respond(
+            Supplier<Optional<String>> revision,
+            FilterProvider filters,
+            Supplier<ResponseEntity<T>> response
+    ) {
+        if (!enabled || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return response.get();
+        }
+        Optional<String> current = revision.get();
+        if (current.isEmpty()) {
+            return response.get();
+        }
+
+        String etag = "W/\"" + current.get() + '"';
+        HttpServletRequest request = attributes.getRequest();
+        if (matches(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        HttpServletResponse servletResponse = attributes.getResponse();
+        boolean cacheable = bytesCache != null && servletResponse != null && ResponseBytesCache.negotiatesJson(request);
+        String key = ResponseBytesCache.key(request);
+        if (cacheable) {
+            Optional<EncodedResponse> cached = bytesCache.get(key, current.get());
+            if (cached.isPresent()) {
+                write(cached.get(), etag, request, servletResponse);
+                return null;
+            }
+        }
+        ResponseEntity<T> computed = response.get();
+        if (computed.getStatusCode() != HttpStatus.OK) {
+            return computed;
+        }
+        // Answers carrying headers of their own are not cached, since only the body is kept.
+        if (cacheable && computed.getHeaders().isEmpty()) {
+            write(bytesCache.put(key, current.get(), computed.getBody(), filters), etag, request, servletResponse);
+            return null;
+        }
+        return ResponseEntity.ok()
+                .headers(computed.getHeaders())
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(computed.getBody());
+    }
+
+    private void write(EncodedResponse encoded, String etag, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        encoded.writeTo(request, response);
+    }
+
+    // If-None-Match compares weakly, so a tag matches with or without its W/ prefix.
+    private static boolean matches(HttpServletRequest request, String etag) {
+        String opaque = etag.substring(2);
+        Enumeration<String> values = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (values != null && values.hasMoreElements()) {
+            for (String candidate : values.nextElement().split(",")) {
+                String tag = candidate.strip();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
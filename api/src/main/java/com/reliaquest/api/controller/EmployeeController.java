@@ -1,10 +1,17 @@
 package com.reliaquest.api.controller;
 
+import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.SalaryHistogram;
+import com.reliaquest.api.dto.SalaryPercentiles;
+import com.reliaquest.api.dto.WriteStatus;
 import com.reliaquest.api.entity.Employee;
 import com.reliaquest.api.entity.EmployeeByIdResponse;
+import com.reliaquest.api.entity.EmployeeFields;
 import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
 import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.write.WriteBehindQueue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,10 +20,17 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,16 +40,45 @@ import java.util.stream.Collectors;
 public class EmployeeController implements IEmployeeController {
 
     private final EmployeeService employeeService;
+    private final WriteBehindQueue writeBehindQueue;
+    private final ConditionalResponses conditionalResponses;
 
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
 
-    @Operation(summary = "Get all employees", description = "Retrieve a list of all employees")
+    private static final String DEFAULT_PERCENTILES = "25,50,75,90,99";
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String PREFER_ASYNC = "respond-async";
+
+    @Operation(summary = "Get all employees",
+            description = "Retrieve a list of all employees, optionally with only the fields listed in `fields`")
     @Override
     public ResponseEntity<List<Employee>> getAllEmployees() throws EmployeeServiceException {
         logger.debug("Request to get all employees");
-        List<Employee> employees = employeeService.getAllEmployees();
-        logger.info("Retrieved {} employee(s) successfully", employees.size());
-        return ResponseEntity.ok(employees);
+        EmployeeFields fields = requestedFields();
+        FilterProvider filters = fields.isAll() ? null : fields.filterProvider();
+        return conditionalResponses.respond(employeeService::rosterRevision, filters, () -> {
+            List<Employee> employees =
+                    fields.isAll() ? employeeService.getAllEmployees() : employeeService.getAllEmployees(fields);
+            logger.info("Retrieved {} employee(s) successfully", employees.size());
+            return ResponseEntity.ok(employees);
+        });
+    }
+
+    /*
+     * Same content as getAllEmployees, but written while it is read from upstream or the roster cache, so the first
+     * rows go out before the last have arrived and memory does not grow with the roster.
+     */
+    @Operation(summary = "Stream all employees",
+            description = "Retrieve all employees as a JSON array written incrementally, optionally with only `fields`")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees(@RequestParam(required = false) String fields)
+            throws EmployeeServiceException {
+        logger.debug("Request to stream all employees");
+        EmployeeFields projection = EmployeeFields.parse(fields);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> employeeService.writeAllEmployees(projection, out));
     }
 
     @Operation(summary = "Search employees by name", description = "Retrieve a list of employees matching the provided name")
@@ -53,6 +96,26 @@ public class EmployeeController implements IEmployeeController {
         return ResponseEntity.ok(employees);
     }
 
+    @Operation(summary = "Search employees by partial or misspelled name",
+            description = "Retrieve employees whose names contain, start with or nearly match the words provided, "
+                    + "best match first")
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<Employee>> searchEmployeesByName(
+            @RequestParam @NotBlank String name,
+            @RequestParam(defaultValue = "0") int limit
+    ) throws EmployeeServiceException {
+        logger.debug("Ranked search for employees by name: {}", name);
+        List<Employee> employees = employeeService.searchEmployeesByName(name, limit);
+
+        if (employees.isEmpty()) {
+            logger.info("No employees found close to name '{}'", name);
+            return ResponseEntity.noContent().build();
+        }
+
+        logger.info("Found {} employee(s) close to the name '{}'", employees.size(), name);
+        return ResponseEntity.ok(employees);
+    }
+
     @Operation(summary = "Get employee by ID", description = "Retrieve employee details using their ID")
     @Override
     public ResponseEntity<Employee> getEmployeeById(@PathVariable @NotBlank String id) throws EmployeeServiceException {
@@ -66,28 +129,78 @@ public class EmployeeController implements IEmployeeController {
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() throws EmployeeServiceException {
         logger.debug("Request to get highest salary among all employees");
-        int highestSalary = employeeService.getHighestSalaryOfEmployees();
-        logger.info("The highest salary '{}' retrieved successfully", highestSalary);
-        return ResponseEntity.ok(highestSalary);
+        return conditionalResponses.respond(employeeService::rosterRevision, () -> {
+            int highestSalary = employeeService.getHighestSalaryOfEmployees();
+            logger.info("The highest salary '{}' retrieved successfully", highestSalary);
+            return ResponseEntity.ok(highestSalary);
+        });
+    }
+
+    @Operation(summary = "Get salary percentiles",
+            description = "Estimate salary percentiles `p` (0 to 100) of the employees with `title`, or of all "
+                    + "employees, within the rank error reported")
+    @GetMapping("/salary/percentiles")
+    public ResponseEntity<SalaryPercentiles> getSalaryPercentiles(
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = DEFAULT_PERCENTILES) List<Double> p
+    ) throws EmployeeServiceException {
+        logger.debug("Request for salary percentiles {} of title '{}'", p, title);
+        SalaryPercentiles percentiles = employeeService.getSalaryPercentiles(title, p);
+        logger.info("Estimated salary percentiles of {} employee(s)", percentiles.count());
+        return ResponseEntity.ok(percentiles);
+    }
+
+    @Operation(summary = "Get salary percentiles by title",
+            description = "Estimate salary percentiles `p` (0 to 100) of every title, within the rank error reported")
+    @GetMapping("/salary/percentiles/by-title")
+    public ResponseEntity<Map<String, SalaryPercentiles>> getSalaryPercentilesByTitle(
+            @RequestParam(defaultValue = DEFAULT_PERCENTILES) List<Double> p
+    ) throws EmployeeServiceException {
+        logger.debug("Request for salary percentiles {} by title", p);
+        Map<String, SalaryPercentiles> byTitle = employeeService.getSalaryPercentilesByTitle(p);
+
+        if (byTitle.isEmpty()) {
+            logger.info("No titled employees found for salary percentiles");
+            return ResponseEntity.noContent().build();
+        }
+
+        logger.info("Estimated salary percentiles of {} title(s)", byTitle.size());
+        return ResponseEntity.ok(byTitle);
+    }
+
+    @Operation(summary = "Get salary histogram",
+            description = "Estimate how many employees with `title`, or of all employees, earn within each of "
+                    + "`buckets` equal salary ranges")
+    @GetMapping("/salary/histogram")
+    public ResponseEntity<SalaryHistogram> getSalaryHistogram(
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "10") int buckets
+    ) throws EmployeeServiceException {
+        logger.debug("Request for a salary histogram of title '{}' in {} bucket(s)", title, buckets);
+        SalaryHistogram histogram = employeeService.getSalaryHistogram(title, buckets);
+        logger.info("Estimated salary histogram of {} employee(s)", histogram.count());
+        return ResponseEntity.ok(histogram);
     }
 
     @Operation(summary = "Get top 10 highest earning employees", description = "Retrieve the names of top 10 employees with highest earnings")
     @Override
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() throws EmployeeServiceException {
         logger.debug("Request to get top 10 highest earning employees");
-        List<Employee> employees = employeeService.getTopHighestEarningEmployees(10);
+        return conditionalResponses.respond(employeeService::rosterRevision, () -> {
+            List<Employee> employees = employeeService.getTopHighestEarningEmployees(10);
 
-        if (employees.isEmpty()) {
-            logger.info("No employees found for top earnings list");
-            return ResponseEntity.noContent().build();
-        }
+            if (employees.isEmpty()) {
+                logger.info("No employees found for top earnings list");
+                return ResponseEntity.noContent().build();
+            }
 
-        List<String> employeeNames = employees.stream()
-                .map(Employee::getEmployeeName)
-                .collect(Collectors.toList());
+            List<String> employeeNames = employees.stream()
+                    .map(Employee::getEmployeeName)
+                    .collect(Collectors.toList());
 
-        logger.info("Top 10 highest earning employees retrieved successfully");
-        return ResponseEntity.ok(employeeNames);
+            logger.info("Top 10 highest earning employees retrieved successfully");
+            return ResponseEntity.ok(employeeNames);
+        });
     }
 
     @Operation(summary = "Create a new employee", description = "Create a new employee with provided details")
@@ -103,7 +216,6 @@ public class EmployeeController implements IEmployeeController {
     @Override
     public ResponseEntity<String> deleteEmployeeById(@PathVariable @NotBlank String id) throws EmployeeServiceException {
         logger.debug("Request to delete employee by ID: {}", id.toLowerCase());
-
         // First get the employee to retrieve their name
         EmployeeByIdResponse employeeResponse = employeeService.getEmployeeById(id);
         String employeeName = employeeResponse.getData().getEmployeeName();
@@ -114,4 +226,90 @@ public class EmployeeController implements IEmployeeController {
         logger.info("Employee with ID '{}' and name '{}' deleted successfully", id.toLowerCase(), employeeName);
         return ResponseEntity.ok("Employee with name " + employeeName + " got deleted successfully");
     }
+
+    /**
+     * Requests carrying a {@code Prefer} header are routed here rather than to {@link #createEmployee}, whose signature
+     * IEmployeeController fixes. Answered 202 with the {@link WriteStatus} when {@code respond-async} is among the
+     * preferences and the write-behind queue is enabled; otherwise the preference is ignored, as RFC 7240 allows, and
+     * the answer is that of {@link #createEmployee}.
+     */
+    @Operation(summary = "Create a new employee, asynchronously if preferred",
+            description = "With `Prefer: respond-async` the create is queued and answered 202 with its write status")
+    @PostMapping(value = "/create", headers = PREFER)
+    public ResponseEntity<?> createEmployeeWithPreference(
+            @RequestBody @Valid EmployeeCreateRequest employee,
+            @RequestHeader(PREFER) List<String> preferences
+    ) throws EmployeeServiceException {
+        if (!prefersAsync(preferences) || !writeBehindQueue.isEnabled()) {
+            return createEmployee(employee);
+        }
+        WriteStatus status = writeBehindQueue.submitCreate(employee);
+        logger.info("Create of employee accepted as write {}", status.trackingId());
+        return accepted(status);
+    }
+
+    /**
+     * The {@code Prefer} counterpart of {@link #deleteEmployeeById}, answered 202 with the {@link WriteStatus} in the
+     * same way as {@link #createEmployeeWithPreference}.
+     */
+    @Operation(summary = "Delete employee by ID, asynchronously if preferred",
+            description = "With `Prefer: respond-async` the delete is queued and answered 202 with its write status")
+    @DeleteMapping(value = "/{id}", headers = PREFER)
+    public ResponseEntity<?> deleteEmployeeByIdWithPreference(
+            @PathVariable @NotBlank String id,
+            @RequestHeader(PREFER) List<String> preferences
+    ) throws EmployeeServiceException {
+        if (!prefersAsync(preferences) || !writeBehindQueue.isEnabled()) {
+            return deleteEmployeeById(id);
+        }
+        WriteStatus status = writeBehindQueue.submitDelete(id);
+        logger.info("Delete of employee with ID '{}' accepted as write {}", id.toLowerCase(), status.trackingId());
+        return accepted(status);
+    }
+
+    @Operation(summary = "Get the status of an asynchronous write",
+            description = "Retrieve the progress of a create or delete accepted with `Prefer: respond-async`")
+    @GetMapping("/writes/{trackingId}")
+    public ResponseEntity<WriteStatus> getWriteStatus(@PathVariable @NotBlank String trackingId)
+            throws EmployeeServiceException {
+        logger.debug("Request for the status of write {}", trackingId);
+        WriteStatus status = writeBehindQueue.status(trackingId)
+                .orElseThrow(() -> new EmployeeServiceException(ErrorKind.NOT_FOUND, "Write not found: " + trackingId));
+        return ResponseEntity.ok(status);
+    }
+
+    /*
+     * IEmployeeController fixes the signature of getAllEmployees, so the optional fields parameter is read from the
+     * current request. The parsed projection is left on the request for EmployeeFieldsResponseBodyAdvice.
+     */
+    private static EmployeeFields requestedFields() throws EmployeeServiceException {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return EmployeeFields.ALL;
+        }
+        EmployeeFields fields = EmployeeFields.parse(servletAttributes.getRequest().getParameter("fields"));
+        attributes.setAttribute(EmployeeFieldsResponseBodyAdvice.ATTRIBUTE, fields, RequestAttributes.SCOPE_REQUEST);
+        return fields;
+    }
+
+    /*
+     * RFC 7240 preferences may share one header, separated by commas, or come in several.
+     */
+    private static boolean prefersAsync(List<String> preferences) {
+        for (String header : preferences) {
+            for (String preference : header.split(",")) {
+                if (preference.strip().equalsIgnoreCase(PREFER_ASYNC)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<WriteStatus> accepted(WriteStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/employees/writes/" + status.trackingId()))
+                .header(PREFERENCE_APPLIED, PREFER_ASYNC)
+                .body(status);
+    }
 }
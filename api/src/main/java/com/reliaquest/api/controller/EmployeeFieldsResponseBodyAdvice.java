@@ -0,0 +1,36 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.entity.EmployeeFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the {@link EmployeeFields} a handler stored under {@link #ATTRIBUTE} as the property filter of its JSON
+ * response, so the employees are written with only those fields and without being copied first.
+ */
+@ControllerAdvice
+public class EmployeeFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    public static final String ATTRIBUTE = EmployeeFields.class.getName();
+
+    @Override
+    protected void beforeBodyWriteInternal(
+            MappingJacksonValue bodyContainer,
+            MediaType contentType,
+            MethodParameter returnType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ATTRIBUTE) instanceof EmployeeFields fields
+                && !fields.isAll()) {
+            bodyContainer.setFilters(fields.filterProvider());
+        }
+    }
+}
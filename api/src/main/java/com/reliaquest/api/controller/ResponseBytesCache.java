@@ -0,0 +1,216 @@
+package com.reliaquest.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.reliaquest.api.entity.EmployeeFields;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the final JSON bytes of the answers {@link ConditionalResponses} tags, plain and gzip-compressed, for the
+ * roster revision they were encoded from. A repeated read of an unchanged roster is copied to the servlet output
+ * stream without being computed or serialized again.
+ *
+ * <p>Entries are keyed by endpoint and {@code fields} projection, so other query parameters, or the same fields
+ * listed in another order, share one entry. They are replaced once the revision moves on. The gzip form is made the
+ * first time a client accepts it. At most {@code maxEntries} keys are kept, evicting the least recently used.
+ */
+public class ResponseBytesCache {
+
+    // Below this gzip saves nothing worth the Content-Encoding header.
+    private static final int MIN_GZIP_BYTES = 256;
+    private static final String GZIP = "gzip";
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    // Access-ordered, so every get moves an entry to the back and the eldest is the least recently used.
+    private final Map<String, EncodedResponse> entries;
+
+    /**
+     * @param objectMapper the mapper Spring MVC writes JSON with, so cached bytes match uncached answers
+     */
+    public ResponseBytesCache(ObjectMapper objectMapper, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Response bytes cache must hold at least one entry");
+        }
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EncodedResponse> eldest) {
+                return size() > ResponseBytesCache.this.maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @return the bytes encoded for {@code key} at {@code revision}, if still cached
+     */
+    Optional<EncodedResponse> get(String key, String revision) {
+        EncodedResponse entry = entries.get(key);
+        return entry != null && entry.revision.equals(revision) ? Optional.of(entry) : Optional.empty();
+    }
+
+    /**
+     * Serializes {@code body} and caches the bytes under {@code key}, replacing those of an older revision or, when
+     * full, those least recently used.
+     *
+     * @param filters the projection to write {@code body} with, or null for every field
+     */
+    EncodedResponse put(String key, String revision, Object body, FilterProvider filters) {
+        byte[] bytes;
+        try {
+            bytes = (filters == null ? objectMapper.writer() : objectMapper.writer(filters)).writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response: " + e.getMessage(), e);
+        }
+        EncodedResponse encoded = new EncodedResponse(revision, bytes);
+        entries.put(key, encoded);
+        return encoded;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the key for the resource the request reads: its path, plus the projection the controller parsed from
+     *         {@code fields} in canonical order, if any
+     */
+    static String key(HttpServletRequest request) {
+        Object fields = request.getAttribute(EmployeeFieldsResponseBodyAdvice.ATTRIBUTE);
+        if (fields instanceof EmployeeFields projection && !projection.isAll()) {
+            return request.getRequestURI() + "?fields=" + projection.toQueryParam();
+        }
+        return request.getRequestURI();
+    }
+
+    /**
+     * Content negotiation picks JSON for the request, the same way Spring MVC would. Requests for Smile, or for nothing
+     * that is served, are left to the message converters.
+     */
+    static boolean negotiatesJson(HttpServletRequest request) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(Collections.list(request.getHeaders(HttpHeaders.ACCEPT)));
+            if (acceptable.isEmpty()) {
+                return true;
+            }
+            MimeTypeUtils.sortBySpecificity(acceptable);
+        } catch (IllegalArgumentException e) {
+            // Malformed, or more types than Spring sorts; the converters answer those.
+            return false;
+        }
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (values != null && values.hasMoreElements()) {
+            for (String coding : values.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].strip();
+                if ((name.equalsIgnoreCase(GZIP) || name.equals("*")) && !refused(parts)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // A coding listed with q=0 is explicitly not acceptable.
+    private static boolean refused(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].strip();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static final class EncodedResponse {
+
+        private final String revision;
+        private final byte[] plain;
+        private volatile byte[] gzip;
+
+        private EncodedResponse(String revision, byte[] plain) {
+            this.revision = revision;
+            this.plain = plain;
+        }
+
+        /**
+         * Writes the bytes as a 200 JSON answer, compressed when the client accepts gzip. Headers set on
+         * {@code response} before, such as the ETag, go out with them.
+         */
+        void writeTo(HttpServletRequest request, HttpServletResponse response) {
+            byte[] body = plain;
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (plain.length >= MIN_GZIP_BYTES && acceptsGzip(request)) {
+                body = gzip();
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+            response.setContentLength(body.length);
+            try {
+                response.getOutputStream().write(body);
+                response.flushBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write the cached response", e);
+            }
+        }
+
+        byte[] plain() {
+            return plain;
+        }
+
+        // Racing requests may both compress; either result is the same bytes.
+        byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 64);
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                    gzipOut.write(plain);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                compressed = out.toByteArray();
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.reliaquest.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.reliaquest.api.roster.SalarySketch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Salaries of the roster or of one title in equal-width buckets from the lowest to the highest salary. The bucket
+ * counts add up to {@code count} exactly; each one is within twice {@code rankError} of {@code count} of the true
+ * number.
+ *
+ * @param title the title, or {@code null} for the whole roster
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SalaryHistogram(String title, long count, double rankError, List<Bucket> buckets) {
+
+    /**
+     * @param lower lowest salary in the bucket
+     * @param upper highest salary in the bucket
+     */
+    public record Bucket(int lower, int upper, long count) {}
+
+    /**
+     * @param buckets at most this many buckets, fewer when there are fewer distinct salaries in the range
+     */
+    public static SalaryHistogram of(String title, SalarySketch sketch, int buckets) {
+        List<Bucket> histogram = new ArrayList<>();
+        if (!sketch.isEmpty()) {
+            long min = sketch.min();
+            long range = (long) sketch.max() - min + 1;
+            long width = (range + buckets - 1) / buckets;
+            for (long lower = min; lower <= sketch.max(); lower += width) {
+                long upper = Math.min(lower + width - 1, sketch.max());
+                histogram.add(new Bucket((int) lower, (int) upper, sketch.countBetween((int) lower, (int) upper)));
+            }
+        }
+        return new SalaryHistogram(title, sketch.count(), sketch.rankError(), histogram);
+    }
+}
@@ -0,0 +1,40 @@
+package com.reliaquest.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.reliaquest.api.roster.SalarySketch;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Salary percentiles of the roster or of one title. {@code min}, {@code max} and {@code count} are exact; each
+ * percentile is the salary at a rank within {@code rankError} (a fraction of {@code count}) of the one asked for.
+ *
+ * @param title the title, or {@code null} for the whole roster
+ * @param percentiles salary by percentile, e.g. {@code p50} or {@code p99.9}, in the order asked for
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SalaryPercentiles(
+        String title,
+        long count,
+        int min,
+        int max,
+        double rankError,
+        Map<String, Integer> percentiles
+) {
+
+    /**
+     * @param percents the percentiles to estimate, each from 0 to 100
+     */
+    public static SalaryPercentiles of(String title, SalarySketch sketch, List<Double> percents) {
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        for (double percent : percents) {
+            String name = "p" + BigDecimal.valueOf(percent).stripTrailingZeros().toPlainString();
+            percentiles.put(name, sketch.quantile(percent / 100));
+        }
+        return new SalaryPercentiles(
+                title, sketch.count(), sketch.min(), sketch.max(), sketch.rankError(), percentiles);
+    }
+}
@@ -0,0 +1,46 @@
+package com.reliaquest.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.reliaquest.api.entity.Employee;
+
+import java.time.Instant;
+
+/**
+ * Progress of a create or delete accepted for asynchronous processing.
+ *
+ * @param employeeId the employee to delete; for a create, unset until it succeeded
+ * @param attempts how often the write was sent upstream so far
+ * @param employee the employee created or deleted, once the write succeeded
+ * @param error why the write failed, or why its last attempt did while it is retried
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WriteStatus(
+        String trackingId,
+        Operation operation,
+        State state,
+        String employeeId,
+        Instant submittedAt,
+        Instant completedAt,
+        int attempts,
+        Employee employee,
+        String error
+) {
+
+    public enum Operation {
+        CREATE,
+        DELETE
+    }
+
+    public enum State {
+        /** Waiting for its turn, possibly after a failed attempt. */
+        QUEUED,
+        /** Being sent upstream. */
+        RUNNING,
+        SUCCEEDED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.reliaquest.api.entity;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A projection of {@link Employee} onto some of its JSON fields, as asked for with {@code fields=id,employee_name}.
+ *
+ * <p>The projection is sent on to the mock server so it leaves the other fields out of the response, and applied again
+ * when the API writes its own response: {@link Employee} carries the {@link Filtered} mix-in on the web ObjectMapper,
+ * so the property filter skips the other fields while serializing the employees as they are.
+ */
+public final class EmployeeFields {
+
+    public static final String FILTER_ID = "employeeFields";
+
+    public static final List<String> NAMES = List.of(
+            "id", "employee_name", "employee_salary", "employee_age", "employee_title", "employee_email");
+
+    public static final EmployeeFields ALL = new EmployeeFields(Set.copyOf(NAMES));
+
+    private final Set<String> names;
+
+    private EmployeeFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * @param fields comma separated JSON field names, or null or blank for all of them
+     * @throws EmployeeServiceException for a name that is not a field of {@link Employee}
+     */
+    public static EmployeeFields parse(String fields) throws EmployeeServiceException {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!NAMES.contains(trimmed)) {
+                throw new EmployeeServiceException(ErrorKind.INVALID_INPUT,
+                        "Unknown field '" + trimmed + "', expected any of " + String.join(",", NAMES));
+            }
+            names.add(trimmed);
+        }
+        return names.size() == NAMES.size() ? ALL : new EmployeeFields(Set.copyOf(names));
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    /**
+     * @return the fields in canonical order, as the value of a {@code fields} query parameter
+     */
+    public String toQueryParam() {
+        return String.join(",", NAMES.stream().filter(names::contains).toList());
+    }
+
+    public FilterProvider filterProvider() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    /**
+     * @return filters that write every field, for serialization without a projection
+     */
+    public static FilterProvider defaultFilters() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    /**
+     * Mix-in for {@link Employee}. An ObjectMapper using it needs a default filter, see {@link #defaultFilters()}.
+     */
+    @JsonFilter(FILTER_ID)
+    public interface Filtered {
+    }
+}
@@ -1,11 +1,36 @@
 package com.reliaquest.api.exception;
 
 public class EmployeeServiceException extends RuntimeException {
+
+    private final ErrorKind kind;
+
     public EmployeeServiceException(String message) {
         super(message);
+        this.kind = null;
     }
 
     public EmployeeServiceException(String message, Throwable cause) {
         super(message, cause);
+        this.kind = null;
+    }
+
+    /**
+     * An expected failure. No stack trace is captured and it is not suppressible: under a 429 storm these are thrown
+     * on every request, and walking the stack would cost more than the request itself.
+     */
+    public EmployeeServiceException(ErrorKind kind, String message) {
+        this(kind, message, null);
+    }
+
+    public EmployeeServiceException(ErrorKind kind, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.kind = kind;
+    }
+
+    /**
+     * @return the classification of an expected failure, or {@code null} for an unexpected one
+     */
+    public ErrorKind getKind() {
+        return kind;
     }
-}
\ No newline at end of file
+}
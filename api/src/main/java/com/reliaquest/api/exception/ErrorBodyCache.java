@@ -0,0 +1,87 @@
+package com.reliaquest.api.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized {@link ErrorResponse} bodies for classified failures. The part shared by every failure of one
+ * {@link ErrorKind} within the same second (timestamp, status and reason) is serialized once and reused; only the
+ * message and path, which usually carry the employee id, are serialized per request and appended to it. During a 429
+ * storm this keeps building the body cheap, while the cache stays bounded by the number of kinds. Timestamps are
+ * truncated to the second accordingly.
+ */
+final class ErrorBodyCache {
+
+    private static final byte[] MESSAGE = ",\"message\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PATH = ",\"path\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Map<Key, Head> heads = new ConcurrentHashMap<>();
+
+    ErrorBodyCache(ObjectMapper objectMapper, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    byte[] body(HttpStatus status, ErrorKind kind, String message, String path) {
+        byte[] head = head(status, kind);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(head.length + 128);
+        out.write(head, 0, head.length - 1);
+        if (message != null) {
+            out.writeBytes(MESSAGE);
+            out.writeBytes(serialize(message));
+        }
+        if (path != null) {
+            out.writeBytes(PATH);
+            out.writeBytes(serialize(path));
+        }
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    /*
+     * The body without message and path, as a complete JSON object whose closing brace the caller drops.
+     */
+    private byte[] head(HttpStatus status, ErrorKind kind) {
+        long second = clock.instant().getEpochSecond();
+        Key key = new Key(status.value(), kind);
+        Head cached = heads.get(key);
+        if (cached != null && cached.second() == second) {
+            return cached.bytes();
+        }
+
+        byte[] bytes = serialize(ErrorResponse.builder()
+                .timestamp(LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS))
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .build());
+        heads.put(key, new Head(second, bytes));
+        return bytes;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Key(int status, ErrorKind kind) {
+    }
+
+    private record Head(long second, byte[] bytes) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.reliaquest.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * What went wrong, decided where the failure is detected rather than by inspecting the exception later. Every kind is
+ * an expected outcome of talking to the mock server, so exceptions carrying one are created without a stack trace and
+ * answered with a pre-built body.
+ */
+public enum ErrorKind {
+    /** The caller sent something unusable, or the upstream rejected it as such. */
+    INVALID_INPUT(HttpStatus.BAD_REQUEST),
+    /** The employee does not exist, or the upstream returned nothing. */
+    NOT_FOUND(HttpStatus.BAD_REQUEST),
+    /** The upstream answered 429. */
+    RATE_LIMITED(HttpStatus.BAD_REQUEST),
+    /** The upstream answered, but without the data asked for. */
+    UPSTREAM_ERROR(HttpStatus.BAD_REQUEST),
+    /** The upstream answered, but did not carry out a create or delete. */
+    OPERATION_FAILED(HttpStatus.BAD_REQUEST),
+    /** A queue in front of the upstream is full; the caller should retry later. */
+    QUEUE_FULL(HttpStatus.SERVICE_UNAVAILABLE),
+    /** A call waited too long for its turn at the upstream and was dropped; the caller should retry later. */
+    DEADLINE_EXCEEDED(HttpStatus.SERVICE_UNAVAILABLE);
+
+    private final HttpStatus status;
+
+    ErrorKind(HttpStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the status the API answers with; everything but shed load keeps the historical 400
+     */
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -1,12 +1,16 @@
 package com.reliaquest.api.exception;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.api.dto.ErrorResponse;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,6 +19,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,8 +32,30 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     private static final String INVALID_REQUEST_CONTENT = "Invalid request content";
     private static final String INVALID_REQUEST_PARAMS = "Invalid request parameters";
 
+    private final boolean lightweight;
+    private final Clock clock;
+    private final ErrorBodyCache errorBodies;
+
+    /**
+     * @param lightweight answer classified {@link EmployeeServiceException}s with cached, pre-serialized bodies and log
+     *                    them at debug level only
+     */
+    @Autowired
+    public GlobalExceptionHandler(
+            ObjectMapper objectMapper,
+            @Value("${employee.api.errors.lightweight.enabled:true}") boolean lightweight
+    ) {
+        this(objectMapper, lightweight, Clock.systemDefaultZone());
+    }
+
+    GlobalExceptionHandler(ObjectMapper objectMapper, boolean lightweight, Clock clock) {
+        this.lightweight = lightweight;
+        this.clock = clock;
+        this.errorBodies = new ErrorBodyCache(objectMapper, clock);
+    }
+
     @ExceptionHandler({EmployeeServiceException.class, ConstraintViolationException.class})
-    public ResponseEntity<ErrorResponse> handleBadRequestExceptions(Exception ex, WebRequest request) {
+    public ResponseEntity<?> handleBadRequestExceptions(Exception ex, WebRequest request) {
         if (ex instanceof EmployeeServiceException) {
             return handleEmployeeServiceException((EmployeeServiceException) ex, request);
         } else if (ex instanceof ConstraintViolationException) {
@@ -78,18 +105,26 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
-    private ResponseEntity<ErrorResponse> handleEmployeeServiceException(EmployeeServiceException ex, WebRequest request) {
-        logger.warn("Employee service exception: {}", ex.getMessage());
+    private ResponseEntity<?> handleEmployeeServiceException(EmployeeServiceException ex, WebRequest request) {
+        if (lightweight && ex.getKind() != null) {
+            logger.debug("Employee service exception ({}): {}", ex.getKind(), ex.getMessage());
+            HttpStatus status = ex.getKind().getStatus();
+            byte[] body = errorBodies.body(status, ex.getKind(), ex.getMessage(), extractPath(request));
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+
+        logger.warn("Employee service exception: {}", ex.getMessage(), ex.getCause());
 
+        HttpStatus status = ex.getKind() == null ? HttpStatus.BAD_REQUEST : ex.getKind().getStatus();
         ErrorResponse errorResponse = buildErrorResponse(
-                HttpStatus.BAD_REQUEST,
-                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                status,
+                status.getReasonPhrase(),
                 ex.getMessage(),
                 request,
                 null
         );
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errorResponse, status);
     }
 
     private ResponseEntity<ErrorResponse> handleConstraintViolationException(
@@ -125,7 +160,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             List<ErrorResponse.ValidationError> validationErrors
     ) {
         return ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(LocalDateTime.now(clock))
                 .status(status.value())
                 .error(errorTitle)
                 .message(message)
@@ -0,0 +1,384 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented copy of the employee roster. Salaries and ages are plain {@code int[]}, titles are
+ * dictionary encoded, and ids, names and emails are packed UTF-8 columns, so a scan such as salary top-N walks a single
+ * primitive array instead of chasing one object and several strings per row.
+ *
+ * <p>Queries return row numbers or primitives; {@link Employee} objects are only built for the rows that are actually
+ * returned to a caller.
+ */
+public final class ColumnarRoster {
+
+    public static final int UNKNOWN_AGE = Integer.MIN_VALUE;
+    private static final int NO_TITLE = -1;
+
+    private final int size;
+    private final int[] salaries;
+    private final int[] ages;
+    private final int[] titleCodes;
+    private final String[] titles;
+    private final PackedStrings ids;
+    private final PackedStrings names;
+    private final PackedStrings emails;
+    private final int[] nameKeys;
+    private final int[] idSlots;
+
+    private ColumnarRoster(Builder builder) {
+        this.size = builder.size;
+        this.salaries = Arrays.copyOf(builder.salaries, size);
+        this.ages = Arrays.copyOf(builder.ages, size);
+        this.titleCodes = Arrays.copyOf(builder.titleCodes, size);
+        this.titles = builder.titles.toArray(new String[0]);
+        this.ids = builder.ids.build();
+        this.names = builder.names.build();
+        this.emails = builder.emails.build();
+        this.nameKeys = Arrays.copyOf(builder.nameKeys, size);
+        this.idSlots = buildIdIndex();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public static ColumnarRoster of(List<Employee> employees) {
+        Builder builder = builder(employees.size());
+        employees.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @return one roster holding the rows of every part, in order
+     */
+    public static ColumnarRoster concat(List<ColumnarRoster> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        Builder builder = builder(parts.stream().mapToInt(ColumnarRoster::size).sum());
+        for (ColumnarRoster part : parts) {
+            for (int row = 0; row < part.size; row++) {
+                builder.add(part.id(row), part.name(row), part.salaries[row], part.ages[row], part.title(row),
+                        part.email(row));
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int salary(int row) {
+        return salaries[row];
+    }
+
+    public String id(int row) {
+        return ids.get(row);
+    }
+
+    public String name(int row) {
+        return names.get(row);
+    }
+
+    /**
+     * @return the age, or {@link #UNKNOWN_AGE}
+     */
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public String title(int row) {
+        return titleCodes[row] == NO_TITLE ? null : titles[titleCodes[row]];
+    }
+
+    /**
+     * @return the row's index into the distinct titles, below {@link #titleCount()}, or {@code -1} without a title
+     */
+    int titleCode(int row) {
+        return titleCodes[row];
+    }
+
+    int titleCount() {
+        return titles.length;
+    }
+
+    String titleOf(int code) {
+        return titles[code];
+    }
+
+    public String email(int row) {
+        return emails.get(row);
+    }
+
+    public Employee employee(int row) {
+        return new Employee(
+                ids.get(row),
+                names.get(row),
+                salaries[row],
+                ages[row] == UNKNOWN_AGE ? null : Integer.toString(ages[row]),
+                title(row),
+                emails.get(row));
+    }
+
+    public List<Employee> employees(int[] rows) {
+        List<Employee> employees = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            employees.add(employee(row));
+        }
+        return employees;
+    }
+
+    public List<Employee> toEmployees() {
+        List<Employee> employees = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            employees.add(employee(row));
+        }
+        return employees;
+    }
+
+    /**
+     * @return the highest salary, or {@code 0} for an empty roster
+     */
+    public int maxSalary() {
+        if (size == 0) {
+            return 0;
+        }
+        int max = salaries[0];
+        for (int row = 1; row < size; row++) {
+            max = Math.max(max, salaries[row]);
+        }
+        return max;
+    }
+
+    /**
+     * Bounded top-N over the salary column with a min-heap of row numbers. Equal salaries keep roster order, like a
+     * stable descending sort would.
+     *
+     * @return row numbers of the highest earners, highest first
+     */
+    public int[] topBySalary(int limit) {
+        int k = Math.min(Math.max(limit, 0), size);
+        int[] heap = new int[k];
+        int heapSize = 0;
+
+        for (int row = 0; row < size; row++) {
+            if (heapSize < k) {
+                heap[heapSize] = row;
+                siftUp(heap, heapSize++);
+            } else if (k > 0 && ranksAbove(row, heap[0])) {
+                heap[0] = row;
+                siftDown(heap, 0, heapSize);
+            }
+        }
+
+        int[] ranked = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, 0, heapSize);
+        }
+        return ranked;
+    }
+
+    /**
+     * Case-insensitive exact name match, with the same semantics as {@link String#equalsIgnoreCase(String)}. A
+     * precomputed per-row key rules out almost every row without decoding its name.
+     */
+    public int[] findByName(String name) {
+        int key = nameKey(name);
+        int[] matches = new int[4];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (nameKeys[row] == key && name.equalsIgnoreCase(names.get(row))) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = row;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * @return the row holding the given id, or {@code -1}
+     */
+    public int rowOfId(String id) {
+        if (id == null || idSlots.length == 0) {
+            return -1;
+        }
+        byte[] encoded = id.getBytes(StandardCharsets.UTF_8);
+        int mask = idSlots.length - 1;
+        for (int slot = id.hashCode() & mask; idSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = idSlots[slot] - 1;
+            if (ids.matches(row, encoded)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return approximate bytes held by the column arrays, for comparing against the object representation
+     */
+    public long retainedBytes() {
+        long bytes = 4L * (salaries.length + ages.length + titleCodes.length + nameKeys.length + idSlots.length);
+        for (String title : titles) {
+            bytes += 40 + 2L * title.length();
+        }
+        return bytes + ids.retainedBytes() + names.retainedBytes() + emails.retainedBytes();
+    }
+
+    // Open addressing table of row + 1, sized to a power of two at most half full.
+    private int[] buildIdIndex() {
+        int capacity = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+        int[] slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int row = 0; row < size; row++) {
+            String id = ids.get(row);
+            if (id == null) {
+                continue;
+            }
+            int slot = id.hashCode() & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = row + 1;
+        }
+        return slots;
+    }
+
+    // Mirrors the per-character folding String.equalsIgnoreCase uses, so equal keys are necessary for a match.
+    static int nameKey(String name) {
+        if (name == null) {
+            return 0;
+        }
+        int hash = 1;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return hash;
+    }
+
+    private boolean ranksAbove(int row, int other) {
+        return salaries[row] > salaries[other] || (salaries[row] == salaries[other] && row < other);
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksAbove(heap[parent], heap[index])) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int index, int heapSize) {
+        while (true) {
+            int lowest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < heapSize && ranksAbove(heap[lowest], heap[left])) {
+                lowest = left;
+            }
+            if (right < heapSize && ranksAbove(heap[lowest], heap[right])) {
+                lowest = right;
+            }
+            if (lowest == index) {
+                return;
+            }
+            swap(heap, index, lowest);
+            index = lowest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    public static final class Builder {
+
+        private int size;
+        private int[] salaries;
+        private int[] ages;
+        private int[] titleCodes;
+        private int[] nameKeys;
+        private final List<String> titles = new ArrayList<>();
+        private final Map<String, Integer> titleDictionary = new HashMap<>();
+        private final PackedStrings.Builder ids;
+        private final PackedStrings.Builder names;
+        private final PackedStrings.Builder emails;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            this.salaries = new int[capacity];
+            this.ages = new int[capacity];
+            this.titleCodes = new int[capacity];
+            this.nameKeys = new int[capacity];
+            this.ids = new PackedStrings.Builder(capacity);
+            this.names = new PackedStrings.Builder(capacity);
+            this.emails = new PackedStrings.Builder(capacity);
+        }
+
+        public Builder add(Employee employee) {
+            return add(
+                    employee.getId(),
+                    employee.getEmployeeName(),
+                    employee.getEmployeeSalary(),
+                    parseAge(employee.getEmployeeAge()),
+                    employee.getEmployeeTitle(),
+                    employee.getEmployeeEmail());
+        }
+
+        public Builder add(String id, String name, int salary, int age, String title, String email) {
+            if (size == salaries.length) {
+                int capacity = size * 2;
+                salaries = Arrays.copyOf(salaries, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                titleCodes = Arrays.copyOf(titleCodes, capacity);
+                nameKeys = Arrays.copyOf(nameKeys, capacity);
+            }
+            salaries[size] = salary;
+            ages[size] = age;
+            titleCodes[size] = title == null ? NO_TITLE : titleDictionary.computeIfAbsent(title, this::newTitle);
+            nameKeys[size] = nameKey(name);
+            ids.add(id);
+            names.add(name);
+            emails.add(email);
+            size++;
+            return this;
+        }
+
+        public ColumnarRoster build() {
+            return new ColumnarRoster(this);
+        }
+
+        private int newTitle(String title) {
+            titles.add(title);
+            return titles.size() - 1;
+        }
+
+        static int parseAge(String age) {
+            if (age == null) {
+                return UNKNOWN_AGE;
+            }
+            try {
+                return Integer.parseInt(age.trim());
+            } catch (NumberFormatException e) {
+                return UNKNOWN_AGE;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.reliaquest.api.roster;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Reads the upstream {@code {"data": [...], "status": ...}} envelope token by token straight into a
+ * {@link ColumnarRoster}, so a roster refresh never builds the intermediate {@code List<Employee>}.
+ */
+public class ColumnarRosterReader {
+
+    private static final String DATA_FIELD = "data";
+
+    /**
+     * @return the roster, or empty if the envelope carried no {@code data} array
+     */
+    public Optional<ColumnarRoster> read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return Optional.empty();
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (DATA_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                return Optional.of(readRows(parser));
+            }
+            parser.skipChildren();
+        }
+        return Optional.empty();
+    }
+
+    private ColumnarRoster readRows(JsonParser parser) throws IOException {
+        ColumnarRoster.Builder builder = ColumnarRoster.builder(64);
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String id = null;
+            String name = null;
+            String title = null;
+            String email = null;
+            int salary = 0;
+            int age = ColumnarRoster.UNKNOWN_AGE;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case "id" -> id = parser.getValueAsString();
+                    case "employee_name" -> name = parser.getValueAsString();
+                    case "employee_salary" -> salary = parser.getValueAsInt();
+                    case "employee_age" -> age = value == JsonToken.VALUE_NULL
+                            ? ColumnarRoster.UNKNOWN_AGE
+                            : parser.getValueAsInt(ColumnarRoster.UNKNOWN_AGE);
+                    case "employee_title" -> title = parser.getValueAsString();
+                    case "employee_email" -> email = parser.getValueAsString();
+                    default -> {
+                        // unknown field, already consumed
+                    }
+                }
+            }
+            builder.add(id, name, salary, age, title, email);
+        }
+        return builder.build();
+    }
+}
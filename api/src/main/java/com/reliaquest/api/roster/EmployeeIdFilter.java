@@ -0,0 +1,77 @@
+package com.reliaquest.api.roster;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over employee ids. {@link #mightContain} never answers {@code false} for an id that was added, and
+ * answers {@code true} for one that was not with roughly the false positive rate it was sized for. Ids may be added
+ * while others are looked up. They cannot be removed, so a deleted employee simply stays a positive.
+ */
+final class EmployeeIdFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    EmployeeIdFilter(int expectedIds, double falsePositiveRate) {
+        int n = Math.max(1, expectedIds);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = 64L * wordCount;
+        this.hashes = (int) Math.max(1, Math.round((double) bits / n * LN2));
+    }
+
+    void add(String id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(String id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return bits / 8;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, finished with the murmur3 mixer so that close ids spread out.
+    private static long hash(String id) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
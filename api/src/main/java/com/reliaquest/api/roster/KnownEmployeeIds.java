@@ -0,0 +1,177 @@
+package com.reliaquest.api.roster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Answers, without an upstream call, whether an employee id certainly does not exist, so lookups and deletes of
+ * unknown ids stop costing a round trip and a slot in the mock server's rate limit.
+ *
+ * <p>Two sources are consulted:
+ * <ul>
+ *     <li>a Bloom filter of every id in the latest {@link RosterSnapshot}, updated with the ids this API creates. It is
+ *     rebuilt on the roster cache's background thread whenever the {@link RosterCache} moves to a new version, and the
+ *     previous filter answers until then, so no request waits for a rebuild. As employees created by other clients of
+ *     the mock server are not in it, it is trusted only while the cache holds a fresh snapshot, and never once the
+ *     snapshot it was built from is older than {@code maxAge};</li>
+ *     <li>a negative cache of ids the mock server recently confirmed missing, kept for {@code negativeTtl}.</li>
+ * </ul>
+ * Anything else, including every Bloom filter false positive, is looked up upstream as before.
+ */
+public class KnownEmployeeIds {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownEmployeeIds.class);
+
+    private final RosterCache rosterCache;
+    private final double falsePositiveRate;
+    private final Duration maxAge;
+    private final Duration negativeTtl;
+    private final int negativeCapacity;
+    private final Clock clock;
+    private final boolean enabled;
+    private final ConcurrentMap<String, Instant> misses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Instant> created = new ConcurrentHashMap<>();
+
+    private volatile Filter filter;
+
+    public KnownEmployeeIds(
+            RosterCache rosterCache,
+            double falsePositiveRate,
+            Duration maxAge,
+            Duration negativeTtl,
+            int negativeCapacity
+    ) {
+        this(rosterCache, falsePositiveRate, maxAge, negativeTtl, negativeCapacity, Clock.systemUTC(), true);
+    }
+
+    KnownEmployeeIds(
+            RosterCache rosterCache,
+            double falsePositiveRate,
+            Duration maxAge,
+            Duration negativeTtl,
+            int negativeCapacity,
+            Clock clock,
+            boolean enabled
+    ) {
+        this.rosterCache = rosterCache;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxAge = maxAge;
+        this.negativeTtl = negativeTtl;
+        this.negativeCapacity = negativeCapacity;
+        this.clock = clock;
+        this.enabled = enabled;
+        if (enabled) {
+            rosterCache.onRefresh(this::rebuild);
+        }
+    }
+
+    public static KnownEmployeeIds disabled() {
+        return new KnownEmployeeIds(RosterCache.disabled(), 0.01, Duration.ZERO, Duration.ZERO, 0,
+                Clock.systemUTC(), false);
+    }
+
+    /**
+     * @return {@code true} only if the id certainly does not exist; {@code false} means it has to be looked up
+     */
+    public boolean isKnownMissing(String id) {
+        if (!enabled || id == null) {
+            return false;
+        }
+        String key = normalize(id);
+        Instant now = clock.instant();
+        Instant expiry = misses.get(key);
+        if (expiry != null) {
+            if (now.isBefore(expiry)) {
+                return true;
+            }
+            misses.remove(key, expiry);
+        }
+        Filter current = currentFilter(now);
+        return current != null && !current.ids().mightContain(key);
+    }
+
+    /**
+     * Remembers an id the mock server just answered 404 for.
+     */
+    public void recordMissing(String id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        if (misses.size() >= negativeCapacity) {
+            misses.values().removeIf(expiry -> !now.isBefore(expiry));
+            if (misses.size() >= negativeCapacity) {
+                misses.clear();
+            }
+        }
+        misses.put(normalize(id), now.plus(negativeTtl));
+    }
+
+    /**
+     * Adds an id created through this API, which the snapshot the filter was built from cannot contain yet.
+     */
+    public synchronized void recordCreated(String id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        String key = normalize(id);
+        misses.remove(key);
+        created.put(key, clock.instant());
+        Filter current = filter;
+        if (current != null) {
+            current.ids().add(key);
+        }
+    }
+
+    // The filter may still be that of the previous snapshot while the current one's is being built.
+    private Filter currentFilter(Instant now) {
+        Filter current = filter;
+        if (current == null || rosterCache.peek().isEmpty() || now.isAfter(current.fetchedAt().plus(maxAge))) {
+            return null;
+        }
+        return current;
+    }
+
+    /*
+     * Called by the roster cache on its background thread. Synchronized with recordCreated, so an id created while the
+     * filter is rebuilt ends up in the new one. Creates that raced the snapshot's fetch are replayed; older ones are in
+     * the snapshot and are forgotten.
+     */
+    private synchronized void rebuild(RosterSnapshot snapshot) {
+        Filter current = filter;
+        if (current != null && current.version() >= snapshot.version()) {
+            return;
+        }
+
+        ColumnarRoster roster = snapshot.roster();
+        EmployeeIdFilter ids = new EmployeeIdFilter(roster.size() + Math.max(1024, roster.size() / 4),
+                falsePositiveRate);
+        for (int row = 0; row < roster.size(); row++) {
+            String id = roster.id(row);
+            if (id != null) {
+                ids.add(normalize(id));
+            }
+        }
+        Instant horizon = snapshot.fetchedAt().minus(maxAge);
+        created.values().removeIf(createdAt -> createdAt.isBefore(horizon));
+        created.keySet().forEach(ids::add);
+
+        filter = new Filter(ids, snapshot.version(), snapshot.fetchedAt());
+        logger.debug("Rebuilt employee id filter from roster version {} with {} id(s) in {} bytes",
+                snapshot.version(), roster.size(), ids.sizeInBytes());
+    }
+
+    private static String normalize(String id) {
+        return id.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Filter(EmployeeIdFilter ids, long version, Instant fetchedAt) {
+    }
+}
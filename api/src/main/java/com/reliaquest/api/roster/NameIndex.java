@@ -0,0 +1,556 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranked, typo-tolerant search over employee names, for queries such as {@code "john"}, {@code "smi"} or
+ * {@code "jonh smith"}.
+ *
+ * <p>Names are lower-cased and split into words. Every distinct word is indexed once, by its trigrams padded with a
+ * space at both ends, and points at the distinct names containing it. Each word of a query is matched against the
+ * vocabulary as an exact word, a word prefix, a substring of a word (at least three characters, found by intersecting
+ * trigram postings) or, from four characters on, a word within a small edit distance that also counts swapped letters
+ * (candidates must share enough trigrams before the distance is computed). A name matches when every query word
+ * matches one of its words; names are ranked by the sum of their best per-word scores, with a bonus for the whole name,
+ * then by length.
+ *
+ * <p>The index follows {@link RosterSnapshot} versions incrementally: a new version only indexes the names that were
+ * not seen before, and names that left the roster are skipped until they outnumber the live ones and the index is
+ * rebuilt. Searches run under a read lock and see one consistent version.
+ */
+public class NameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameIndex.class);
+
+    private static final int EXACT = 100;
+    private static final int PREFIX = 60;
+    private static final int SUBSTRING = 40;
+    private static final int FUZZY = 30;
+    private static final int PER_EDIT = 10;
+    private static final int FULL_NAME = 100;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int COMPACTION_MIN_NAMES = 1024;
+    private static final int DEFAULT_MAX_EDITS = 2;
+    private static final int DEFAULT_MAX_RESULTS = 50;
+
+    private final int maxEdits;
+    private final int maxResults;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Only refresh writes these, under the write lock; searches read them under the read lock.
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final TreeMap<String, Integer> wordIds = new TreeMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<IntList> wordNames = new ArrayList<>();
+    private final Map<String, IntList> trigramWords = new HashMap<>();
+    private ColumnarRoster roster = ColumnarRoster.of(List.of());
+    private int[] rowStart = {0};
+    private int[] rowsByName = new int[0];
+
+    private volatile long version = -1;
+
+    public NameIndex() {
+        this(DEFAULT_MAX_EDITS, DEFAULT_MAX_RESULTS);
+    }
+
+    /**
+     * @param maxEdits the largest edit distance a fuzzy match may have, applied to query words of eight characters or
+     * more; shorter words allow at most one edit
+     * @param maxResults the most employees a search returns
+     */
+    public NameIndex(int maxEdits, int maxResults) {
+        this.maxEdits = maxEdits;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Searches the given snapshot, first bringing the index up to its version.
+     *
+     * @param limit the most employees to return, capped at {@code maxResults}; zero or less for {@code maxResults}
+     */
+    public List<Employee> search(RosterSnapshot snapshot, String query, int limit) {
+        if (snapshot.version() != version) {
+            refresh(snapshot);
+        }
+        lock.readLock().lock();
+        try {
+            return roster.employees(searchRows(query, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches a roster that is not kept, with a throwaway index configured like this one.
+     */
+    public List<Employee> searchOnce(ColumnarRoster roster, String query, int limit) {
+        return new NameIndex(maxEdits, maxResults).search(new RosterSnapshot(roster, 0, Instant.EPOCH), query, limit);
+    }
+
+    /**
+     * @return rows of the indexed roster, best match first
+     */
+    int[] searchRows(String query, int limit) {
+        int wanted = limit <= 0 ? maxResults : Math.min(limit, maxResults);
+        List<String> tokens = List.copyOf(new LinkedHashSet<>(words(query)));
+        if (tokens.isEmpty() || wanted <= 0) {
+            return new int[0];
+        }
+
+        ScoreTable scores = null;
+        for (String token : tokens) {
+            ScoreTable matches = nameMatches(token);
+            scores = scores == null ? matches : scores.intersectSum(matches);
+            if (scores.size() == 0) {
+                return new int[0];
+            }
+        }
+
+        String fullName = String.join(" ", tokens);
+        long[] ranked = new long[scores.size()];
+        int count = 0;
+        for (int slot = 0; slot < scores.capacity(); slot++) {
+            int name = scores.keyAt(slot);
+            if (name >= 0) {
+                int score = scores.valueAt(slot) + (names.get(name).equals(fullName) ? FULL_NAME : 0);
+                ranked[count++] = rankKey(score, names.get(name).length(), name);
+            }
+        }
+        Arrays.sort(ranked);
+
+        int[] rows = new int[wanted];
+        int found = 0;
+        for (int i = 0; i < ranked.length && found < wanted; i++) {
+            int name = (int) (ranked[i] & 0x3FFFFFF);
+            for (int r = rowStart[name]; r < rowStart[name + 1] && found < wanted; r++) {
+                rows[found++] = rowsByName[r];
+            }
+        }
+        return Arrays.copyOf(rows, found);
+    }
+
+    // Ascending order is best first: highest score, then shortest name, then the name seen first.
+    private static long rankKey(int score, int length, int name) {
+        long inverted = 0x7FFFFF - Math.min(score, 0x7FFFFF);
+        return inverted << 40 | (long) Math.min(length, 0x3FFF) << 26 | name;
+    }
+
+    private ScoreTable nameMatches(String token) {
+        ScoreTable wordScores = new ScoreTable();
+
+        for (Map.Entry<String, Integer> word : wordIds.subMap(token, true, token + Character.MAX_VALUE, false)
+                .entrySet()) {
+            wordScores.putMax(word.getValue(), word.getKey().equals(token) ? EXACT : PREFIX);
+        }
+        if (token.length() >= 3) {
+            addSubstringMatches(token, wordScores);
+        }
+        int edits = Math.min(maxEdits, token.length() < 8 ? 1 : 2);
+        if (token.length() >= MIN_FUZZY_LENGTH && edits > 0) {
+            addFuzzyMatches(token, edits, wordScores);
+        }
+
+        ScoreTable nameScores = new ScoreTable();
+        for (int slot = 0; slot < wordScores.capacity(); slot++) {
+            int word = wordScores.keyAt(slot);
+            if (word < 0) {
+                continue;
+            }
+            int score = wordScores.valueAt(slot);
+            IntList postings = wordNames.get(word);
+            for (int i = 0; i < postings.size(); i++) {
+                int name = postings.get(i);
+                if (rowStart[name + 1] > rowStart[name]) {
+                    nameScores.putMax(name, score);
+                }
+            }
+        }
+        return nameScores;
+    }
+
+    // Every trigram of the token must occur in the word; the shortest posting list is checked against the others.
+    private void addSubstringMatches(String token, ScoreTable wordScores) {
+        List<IntList> postings = new ArrayList<>();
+        for (String trigram : trigrams(token)) {
+            IntList posting = trigramWords.get(trigram);
+            if (posting == null) {
+                return;
+            }
+            postings.add(posting);
+        }
+        postings.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        IntList shortest = postings.get(0);
+        candidates:
+        for (int i = 0; i < shortest.size(); i++) {
+            int word = shortest.get(i);
+            for (int p = 1; p < postings.size(); p++) {
+                if (!postings.get(p).contains(word)) {
+                    continue candidates;
+                }
+            }
+            if (words.get(word).contains(token)) {
+                wordScores.putMax(word, SUBSTRING);
+            }
+        }
+    }
+
+    /*
+     * An insertion, deletion or substitution changes at most three of the padded trigrams and a swap of two letters at
+     * most four, so a word within the allowed edits shares all but four per edit of the token's trigrams. Words below
+     * that count, or too different in length, are never compared.
+     */
+    private void addFuzzyMatches(String token, int edits, ScoreTable wordScores) {
+        Set<String> trigrams = paddedTrigrams(token);
+        ScoreTable shared = new ScoreTable();
+        for (String trigram : trigrams) {
+            IntList posting = trigramWords.get(trigram);
+            if (posting != null) {
+                for (int i = 0; i < posting.size(); i++) {
+                    shared.add(posting.get(i), 1);
+                }
+            }
+        }
+
+        int threshold = Math.max(1, trigrams.size() - 4 * edits);
+        for (int slot = 0; slot < shared.capacity(); slot++) {
+            int word = shared.keyAt(slot);
+            if (word < 0 || shared.valueAt(slot) < threshold) {
+                continue;
+            }
+            String candidate = words.get(word);
+            if (Math.abs(candidate.length() - token.length()) > edits) {
+                continue;
+            }
+            int distance = editDistance(token, candidate, edits);
+            if (distance > 0 && distance <= edits) {
+                wordScores.putMax(word, FUZZY - PER_EDIT * distance);
+            }
+        }
+    }
+
+    private synchronized void refresh(RosterSnapshot snapshot) {
+        if (snapshot.version() == version) {
+            return;
+        }
+        long start = System.nanoTime();
+        Update update = prepare(snapshot.roster());
+        boolean compact = update.deadNames() > Math.max(COMPACTION_MIN_NAMES, update.liveNames());
+
+        lock.writeLock().lock();
+        try {
+            if (compact) {
+                clear();
+                update = prepare(snapshot.roster());
+            }
+            apply(update, snapshot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Name index moved to roster version {}: {} new name(s), {} word(s), compacted {}, in {} ms",
+                snapshot.version(), update.added().size(), words.size(), compact,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /*
+     * Runs outside the write lock, so searches on the previous version continue meanwhile. It only reads the
+     * dictionaries, which no one else writes, and numbers the names it has not seen after the existing ones.
+     */
+    private Update prepare(ColumnarRoster next) {
+        int known = names.size();
+        Map<String, Integer> added = new LinkedHashMap<>();
+        int[] rowName = new int[next.size()];
+        for (int row = 0; row < next.size(); row++) {
+            String name = next.name(row);
+            if (name == null) {
+                rowName[row] = -1;
+                continue;
+            }
+            Integer id = nameIds.get(name);
+            if (id == null) {
+                id = added.computeIfAbsent(name, k -> known + added.size());
+            }
+            rowName[row] = id;
+        }
+
+        int total = known + added.size();
+        int[] start = new int[total + 1];
+        for (int name : rowName) {
+            if (name >= 0) {
+                start[name + 1]++;
+            }
+        }
+        int live = 0;
+        for (int name = 0; name < total; name++) {
+            live += start[name + 1] > 0 ? 1 : 0;
+            start[name + 1] += start[name];
+        }
+        int[] rows = new int[start[total]];
+        int[] cursor = Arrays.copyOf(start, total);
+        for (int row = 0; row < rowName.length; row++) {
+            if (rowName[row] >= 0) {
+                rows[cursor[rowName[row]]++] = row;
+            }
+        }
+        return new Update(next, added, start, rows, live, total - live);
+    }
+
+    private void apply(Update update, RosterSnapshot snapshot) {
+        for (Map.Entry<String, Integer> name : update.added().entrySet()) {
+            List<String> nameWords = words(name.getKey());
+            nameIds.put(name.getKey(), name.getValue());
+            names.add(String.join(" ", nameWords));
+            for (String word : new LinkedHashSet<>(nameWords)) {
+                wordNames.get(wordId(word)).add(name.getValue());
+            }
+        }
+        roster = update.roster();
+        rowStart = update.rowStart();
+        rowsByName = update.rowsByName();
+        version = snapshot.version();
+    }
+
+    private int wordId(String word) {
+        Integer id = wordIds.get(word);
+        if (id != null) {
+            return id;
+        }
+        int added = words.size();
+        wordIds.put(word, added);
+        words.add(word);
+        wordNames.add(new IntList());
+        for (String trigram : paddedTrigrams(word)) {
+            trigramWords.computeIfAbsent(trigram, k -> new IntList()).add(added);
+        }
+        return added;
+    }
+
+    private void clear() {
+        nameIds.clear();
+        names.clear();
+        wordIds.clear();
+        words.clear();
+        wordNames.clear();
+        trigramWords.clear();
+    }
+
+    /**
+     * @return the lower-cased runs of letters and digits in {@code text}
+     */
+    static List<String> words(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null) {
+            return result;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(text.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static Set<String> paddedTrigrams(String word) {
+        return trigrams(" " + word + " ");
+    }
+
+    /**
+     * @return the edit distance between {@code a} and {@code b}, counting insertions, deletions, substitutions and
+     * swaps of adjacent characters as one edit each, or {@code max + 1} once it is known to exceed {@code max}
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                char ca = a.charAt(i - 1);
+                char cb = b.charAt(j - 1);
+                int distance = Math.min(previous[j - 1] + (ca == cb ? 0 : 1),
+                        Math.min(previous[j], current[j - 1]) + 1);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            // A swap can bring a later row back down by one, so only a margin of two proves the bound is exceeded.
+            if (rowMin > max + 1) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private record Update(
+            ColumnarRoster roster,
+            Map<String, Integer> added,
+            int[] rowStart,
+            int[] rowsByName,
+            int liveNames,
+            int deadNames
+    ) {
+    }
+
+    // Growable list of ascending ids; ids are only ever appended in increasing order.
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+
+    // Open addressing map from non-negative int keys to int values, for per-search scores without boxing.
+    private static final class ScoreTable {
+
+        private int[] keys = new int[16];
+        private int[] values = new int[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        int keyAt(int slot) {
+            return keys[slot] - 1;
+        }
+
+        int valueAt(int slot) {
+            return values[slot];
+        }
+
+        void putMax(int key, int value) {
+            int slot = slot(key);
+            if (keys[slot] == 0) {
+                insert(slot, key, value);
+            } else if (values[slot] < value) {
+                values[slot] = value;
+            }
+        }
+
+        void add(int key, int delta) {
+            int slot = slot(key);
+            if (keys[slot] == 0) {
+                insert(slot, key, delta);
+            } else {
+                values[slot] += delta;
+            }
+        }
+
+        int get(int key) {
+            int slot = slot(key);
+            return keys[slot] == 0 ? -1 : values[slot];
+        }
+
+        /**
+         * @return the keys present in both tables, with their values summed
+         */
+        ScoreTable intersectSum(ScoreTable other) {
+            ScoreTable smaller = size <= other.size ? this : other;
+            ScoreTable larger = smaller == this ? other : this;
+            ScoreTable result = new ScoreTable();
+            for (int slot = 0; slot < smaller.keys.length; slot++) {
+                int key = smaller.keyAt(slot);
+                if (key >= 0) {
+                    int value = larger.get(key);
+                    if (value >= 0) {
+                        result.putMax(key, smaller.values[slot] + value);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private int slot(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (keys[slot] != 0 && keys[slot] != key + 1) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void insert(int slot, int key, int value) {
+            keys[slot] = key + 1;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                int[] oldKeys = keys;
+                int[] oldValues = values;
+                keys = new int[oldKeys.length * 2];
+                values = new int[oldValues.length * 2];
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != 0) {
+                        int moved = slot(oldKeys[i] - 1);
+                        keys[moved] = oldKeys[i];
+                        values[moved] = oldValues[i];
+                    }
+                }
+            }
+        }
+    }
+}
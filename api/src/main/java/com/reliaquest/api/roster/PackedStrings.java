@@ -0,0 +1,77 @@
+package com.reliaquest.api.roster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable column of strings packed back to back as UTF-8 into one {@code byte[]}, addressed by an offsets array.
+ * A million short strings cost one array plus four bytes of offset each, instead of a million {@code String} objects
+ * with their own headers and backing arrays.
+ */
+final class PackedStrings {
+
+    private final byte[] data;
+    private final int[] offsets;
+    private final BitSet nulls;
+
+    private PackedStrings(byte[] data, int[] offsets, BitSet nulls) {
+        this.data = data;
+        this.offsets = offsets;
+        this.nulls = nulls;
+    }
+
+    String get(int row) {
+        if (nulls.get(row)) {
+            return null;
+        }
+        return new String(data, offsets[row], offsets[row + 1] - offsets[row], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the stored bytes of a row against an already encoded value without decoding the row.
+     */
+    boolean matches(int row, byte[] encoded) {
+        return !nulls.get(row) && Arrays.equals(data, offsets[row], offsets[row + 1], encoded, 0, encoded.length);
+    }
+
+    long retainedBytes() {
+        return data.length + 4L * offsets.length + nulls.size() / 8;
+    }
+
+    static final class Builder {
+
+        private byte[] data;
+        private int[] offsets;
+        private final BitSet nulls = new BitSet();
+        private int size;
+
+        Builder(int expectedSize) {
+            this.data = new byte[Math.max(16, expectedSize * 16)];
+            this.offsets = new int[Math.max(1, expectedSize) + 1];
+        }
+
+        void add(String value) {
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            int start = offsets[size];
+            if (value == null) {
+                nulls.set(size);
+            } else {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                if (start + encoded.length > data.length) {
+                    data = Arrays.copyOf(data, Math.max(data.length * 2, start + encoded.length));
+                }
+                System.arraycopy(encoded, 0, data, start, encoded.length);
+                start += encoded.length;
+            }
+            offsets[++size] = start;
+        }
+
+        PackedStrings build() {
+            return new PackedStrings(
+                    Arrays.copyOf(data, offsets[size]), Arrays.copyOf(offsets, size + 1), (BitSet) nulls.clone());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.reliaquest.api.roster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Holds the most recent {@link RosterSnapshot} and refreshes it from the {@link RosterLoader} once it is older than
+ * the configured time to live or has been invalidated by a write.
+ *
+ * <p>Readers of a fresh snapshot never block. Refreshes are single-flight, so a burst of requests against an expired
+ * cache costs one upstream call. If a refresh fails while an older snapshot exists, the old snapshot keeps being served
+ * and the next attempt waits for {@code retryBackoff}, which keeps us from hammering a rate-limited mock server.
+ *
+ * <p>With a {@link RosterSnapshotFile}, every successful refresh is also written to disk, and a new cache starts from
+ * the stored snapshot. That restored snapshot is served straight away, even though it is past its time to live, while
+ * it is revalidated against the loader in the background; it is replaced as soon as a refresh succeeds. A write through
+ * this API invalidates it like any other snapshot, after which reads wait for a refresh again.
+ *
+ * <p>Disk writes, revalidation and refresh listeners run on one daemon thread, never on a reader's. Snapshots refreshed
+ * while a write or an announcement is pending replace it, so only the newest one is written and announced.
+ */
+public class RosterCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterCache.class);
+
+    private final RosterLoader loader;
+    private final Duration ttl;
+    private final Duration retryBackoff;
+    private final Clock clock;
+    private final boolean enabled;
+    private final RosterSnapshotFile snapshotFile;
+    private final Executor background;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    private final AtomicReference<RosterSnapshot> unsaved = new AtomicReference<>();
+    private final AtomicReference<RosterSnapshot> unannounced = new AtomicReference<>();
+    private final List<Consumer<RosterSnapshot>> refreshListeners = new CopyOnWriteArrayList<>();
+
+    private volatile RosterSnapshot current;
+    private volatile RosterSnapshot restored;
+    private volatile boolean invalidated;
+    private volatile Instant nextAttempt = Instant.MIN;
+
+    public RosterCache(RosterLoader loader, Duration ttl, Duration retryBackoff) {
+        this(loader, ttl, retryBackoff, null);
+    }
+
+    /**
+     * @param snapshotFile where the last good roster is kept across restarts, or {@code null} to keep it in memory only
+     */
+    public RosterCache(RosterLoader loader, Duration ttl, Duration retryBackoff, RosterSnapshotFile snapshotFile) {
+        this(loader, ttl, retryBackoff, Clock.systemUTC(), true, snapshotFile, Executors.newSingleThreadExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "roster-cache");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    // Without a snapshot file only refresh listeners run in the background, here on the refreshing thread.
+    RosterCache(RosterLoader loader, Duration ttl, Duration retryBackoff, Clock clock, boolean enabled) {
+        this(loader, ttl, retryBackoff, clock, enabled, null, Runnable::run);
+    }
+
+    /**
+     * @param background runs snapshot writes, revalidation and refresh listeners, one at a time
+     */
+    RosterCache(
+            RosterLoader loader,
+            Duration ttl,
+            Duration retryBackoff,
+            Clock clock,
+            boolean enabled,
+            RosterSnapshotFile snapshotFile,
+            Executor background
+    ) {
+        this.loader = loader;
+        this.ttl = ttl;
+        this.retryBackoff = retryBackoff;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.snapshotFile = snapshotFile;
+        this.background = background;
+        if (enabled && snapshotFile != null) {
+            snapshotFile.read(clock.instant()).ifPresent(snapshot -> {
+                logger.info("Restored roster version {} with {} employee(s) fetched at {} from {}", snapshot.version(),
+                        snapshot.roster().size(), snapshot.fetchedAt(), snapshotFile.getPath());
+                current = snapshot;
+                restored = snapshot;
+            });
+        }
+    }
+
+    public static RosterCache disabled() {
+        return new RosterCache(null, Duration.ZERO, Duration.ZERO, Clock.systemUTC(), false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return a snapshot no older than the time to live, or a stale one if refreshing it just failed
+     * @throws RuntimeException whatever the loader threw, when there is no snapshot to fall back to
+     */
+    public RosterSnapshot get() {
+        RosterSnapshot snapshot = current;
+        if (snapshot != null && isFresh(snapshot)) {
+            return snapshot;
+        }
+        if (snapshot != null && isRestored(snapshot)) {
+            revalidateInBackground();
+            return snapshot;
+        }
+        return refresh(true);
+    }
+
+    /**
+     * @return the current snapshot if it is still fresh, or restored from disk and not yet revalidated, without ever
+     * calling the loader
+     */
+    public Optional<RosterSnapshot> peek() {
+        RosterSnapshot snapshot = current;
+        return snapshot != null && (isFresh(snapshot) || isRestored(snapshot))
+                ? Optional.of(snapshot)
+                : Optional.empty();
+    }
+
+    /**
+     * @return the current snapshot however old it is, without ever calling the loader
+     */
+    public Optional<RosterSnapshot> latest() {
+        return Optional.ofNullable(current);
+    }
+
+    /**
+     * Calls {@code listener} on the background thread with every snapshot the cache moves to, starting with the
+     * current one if there is any. A listener that falls behind is only called with the newest snapshot.
+     */
+    public void onRefresh(Consumer<RosterSnapshot> listener) {
+        refreshListeners.add(listener);
+        RosterSnapshot snapshot = current;
+        if (snapshot != null) {
+            announceInBackground(snapshot);
+        }
+    }
+
+    /**
+     * Marks the current snapshot stale so the next read refreshes it, e.g. after an employee was created or deleted.
+     */
+    public void invalidate() {
+        invalidated = true;
+        nextAttempt = Instant.MIN;
+    }
+
+    // A reader is blocked on the result, unlike a background revalidation; the loader may prioritize its call.
+    private synchronized RosterSnapshot refresh(boolean reader) {
+        RosterSnapshot snapshot = current;
+        if (snapshot != null && (isFresh(snapshot) || clock.instant().isBefore(nextAttempt))) {
+            return snapshot;
+        }
+
+        boolean wasInvalidated = invalidated;
+        try {
+            invalidated = false;
+            ColumnarRoster roster = reader ? loader.loadForReader() : loader.load();
+            long version = snapshot == null ? 1 : snapshot.version() + 1;
+            RosterSnapshot refreshed = new RosterSnapshot(roster, version, clock.instant());
+            current = refreshed;
+            restored = null;
+            logger.debug("Refreshed roster to version {} with {} employee(s)", version, roster.size());
+            if (snapshotFile != null) {
+                saveInBackground(refreshed);
+            }
+            if (!refreshListeners.isEmpty()) {
+                announceInBackground(refreshed);
+            }
+            return refreshed;
+        } catch (RuntimeException e) {
+            invalidated = invalidated || wasInvalidated;
+            if (snapshot == null) {
+                throw e;
+            }
+            nextAttempt = clock.instant().plus(retryBackoff);
+            logger.warn("Roster refresh failed, serving version {}: {}", snapshot.version(), e.getMessage());
+            return snapshot;
+        }
+    }
+
+    private boolean isFresh(RosterSnapshot snapshot) {
+        return !invalidated && clock.instant().isBefore(snapshot.fetchedAt().plus(ttl));
+    }
+
+    private boolean isRestored(RosterSnapshot snapshot) {
+        return !invalidated && snapshot == restored;
+    }
+
+    // Single-flight, and idle while a failed attempt is backing off, so a stream of reads queues at most one attempt.
+    private void revalidateInBackground() {
+        if (clock.instant().isBefore(nextAttempt) || !revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        background.execute(() -> {
+            try {
+                refresh(false);
+            } catch (RuntimeException e) {
+                logger.warn("Roster revalidation failed: {}", e.getMessage());
+            } finally {
+                revalidating.set(false);
+            }
+        });
+    }
+
+    // A write is queued only when none is pending; a pending one picks up whichever snapshot is newest when it runs.
+    private void saveInBackground(RosterSnapshot snapshot) {
+        if (unsaved.getAndSet(snapshot) == null) {
+            background.execute(() -> snapshotFile.write(unsaved.getAndSet(null)));
+        }
+    }
+
+    // Coalesced like snapshot writes; a listener that fails is logged and does not keep the others from running.
+    private void announceInBackground(RosterSnapshot snapshot) {
+        if (unannounced.getAndSet(snapshot) != null) {
+            return;
+        }
+        background.execute(() -> {
+            RosterSnapshot newest = unannounced.getAndSet(null);
+            for (Consumer<RosterSnapshot> listener : refreshListeners) {
+                try {
+                    listener.accept(newest);
+                } catch (RuntimeException e) {
+                    logger.warn("Roster refresh listener failed for version {}: {}", newest.version(), e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.reliaquest.api.roster;
+
+/**
+ * Fetches a complete, fresh copy of the roster from wherever the API gets its employees from.
+ */
+@FunctionalInterface
+public interface RosterLoader {
+
+    ColumnarRoster load();
+
+    /**
+     * Loads for a read that is blocked until the roster arrives. Loaders that schedule their calls give it the priority
+     * of that read rather than that of a background refresh.
+     */
+    default ColumnarRoster loadForReader() {
+        return load();
+    }
+}
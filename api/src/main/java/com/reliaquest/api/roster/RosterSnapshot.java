@@ -0,0 +1,8 @@
+package com.reliaquest.api.roster;
+
+import java.time.Instant;
+
+/**
+ * A roster as fetched at one point in time. The version increases by one with every successful refresh.
+ */
+public record RosterSnapshot(ColumnarRoster roster, long version, Instant fetchedAt) {}
@@ -0,0 +1,216 @@
+package com.reliaquest.api.roster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Keeps the last good {@link RosterSnapshot} on local disk, so a restarted API has a roster to serve before the mock
+ * server lets it fetch one.
+ *
+ * <p>The file is a header (magic, format, snapshot version, fetch time, title dictionary) followed by one fixed-layout
+ * record per row: salary, age and title code as ints, then id, name and email as length-prefixed UTF-8, with
+ * {@code -1} for null. A CRC-32 trailer covers everything before it. Writes go to a temporary sibling that is synced
+ * and then atomically renamed over the old file, so a crash never leaves a torn snapshot behind. A read decodes the
+ * whole file into the columns of a {@link ColumnarRoster} on the heap; mapping it only saves copying the bytes through
+ * a stream buffer first.
+ */
+public class RosterSnapshotFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterSnapshotFile.class);
+
+    private static final int MAGIC = 0x52535452; // "RSTR"
+    private static final int FORMAT = 1;
+    private static final int NULL_LENGTH = -1;
+
+    private final Path path;
+    private final Duration maxAge;
+
+    public RosterSnapshotFile(Path path, Duration maxAge) {
+        this.path = path;
+        this.maxAge = maxAge;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @param now used to discard snapshots older than the configured maximum age
+     * @return the stored snapshot, or empty if there is none, it is too old, or it is unreadable
+     */
+    public Optional<RosterSnapshot> read(Instant now) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                logger.warn("Ignoring roster snapshot {}: {} bytes is too large to map", path, size);
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            RosterSnapshot snapshot = decode(buffer);
+            if (snapshot.fetchedAt().plus(maxAge).isBefore(now)) {
+                logger.info("Ignoring roster snapshot {} fetched at {}, older than {}", path, snapshot.fetchedAt(),
+                        maxAge);
+                return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable roster snapshot {}: {}", path, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the stored snapshot. Failures are logged and otherwise ignored; the in-memory cache stays authoritative.
+     */
+    public void write(RosterSnapshot snapshot) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                CRC32 checksum = new CRC32();
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), checksum));
+                encode(snapshot, out);
+                out.flush();
+                out.writeInt((int) checksum.getValue());
+                out.flush();
+                channel.force(true);
+            }
+            move(temporary, path);
+            logger.debug("Wrote roster version {} to {}", snapshot.version(), path);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write roster snapshot to {}: {}", path, e.toString());
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // Overwritten by the next successful write.
+            }
+        }
+    }
+
+    private static void encode(RosterSnapshot snapshot, DataOutputStream out) throws IOException {
+        ColumnarRoster roster = snapshot.roster();
+        List<String> titles = new ArrayList<>();
+        Map<String, Integer> titleCodes = new HashMap<>();
+        int[] rowTitles = new int[roster.size()];
+        for (int row = 0; row < roster.size(); row++) {
+            String title = roster.title(row);
+            rowTitles[row] = title == null ? NULL_LENGTH : titleCodes.computeIfAbsent(title, key -> {
+                titles.add(key);
+                return titles.size() - 1;
+            });
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(snapshot.version());
+        out.writeLong(snapshot.fetchedAt().toEpochMilli());
+        out.writeInt(roster.size());
+        out.writeInt(titles.size());
+        for (String title : titles) {
+            writeString(out, title);
+        }
+        for (int row = 0; row < roster.size(); row++) {
+            out.writeInt(roster.salary(row));
+            out.writeInt(roster.age(row));
+            out.writeInt(rowTitles[row]);
+            writeString(out, roster.id(row));
+            writeString(out, roster.name(row));
+            writeString(out, roster.email(row));
+        }
+    }
+
+    private static RosterSnapshot decode(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < 4) {
+            throw new IOException("truncated file");
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().limit(buffer.limit() - 4));
+        if ((int) checksum.getValue() != buffer.getInt(buffer.limit() - 4)) {
+            throw new IOException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("not a roster snapshot");
+        }
+        int format = buffer.getInt();
+        if (format != FORMAT) {
+            throw new IOException("unsupported format " + format);
+        }
+
+        long version = buffer.getLong();
+        Instant fetchedAt = Instant.ofEpochMilli(buffer.getLong());
+        int size = buffer.getInt();
+        String[] titles = new String[buffer.getInt()];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = readString(buffer);
+        }
+
+        ColumnarRoster.Builder builder = ColumnarRoster.builder(size);
+        for (int row = 0; row < size; row++) {
+            int salary = buffer.getInt();
+            int age = buffer.getInt();
+            int title = buffer.getInt();
+            builder.add(readString(buffer), readString(buffer), salary, age,
+                    title == NULL_LENGTH ? null : titles[title], readString(buffer));
+        }
+        return new RosterSnapshot(builder.build(), version, fetchedAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.reliaquest.api.roster;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Salary distributions of the whole roster and of every title, kept as {@link SalarySketch}es that follow the
+ * versions of a {@link RosterCache}.
+ *
+ * <p>A new roster version is compared with the previous one title by title, on the count and an order-independent
+ * hash of the salaries. Only titles whose salaries changed are sketched again; the others keep their sketch, and the
+ * roster-wide distribution is the merge of the per-title sketches. Memory is therefore about {@code 3k} salaries per
+ * title, whatever the roster size.
+ *
+ * <p>Titles match case-insensitively. Employees without a title only count towards the roster-wide distribution.
+ * Every refresh publishes new, no longer written sketches, so readers never block.
+ */
+public class SalaryAnalytics {
+
+    private static final String UNTITLED = "";
+
+    private final int k;
+    private volatile Distributions current;
+
+    public SalaryAnalytics() {
+        this(SalarySketch.DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter of every sketch, see {@link SalarySketch#rankError(int)}
+     */
+    public SalaryAnalytics(int k) {
+        this.k = k;
+        this.current = new Distributions(-1, Map.of(), new SalarySketch(k));
+    }
+
+    /**
+     * @return the distributions of {@code snapshot}, updated from those of the previous version if it changed
+     */
+    public Distributions distributions(RosterSnapshot snapshot) {
+        Distributions distributions = current;
+        return distributions.version == snapshot.version() ? distributions : refresh(snapshot);
+    }
+
+    /**
+     * @return the distributions of a roster that is not kept, sketched from scratch
+     */
+    public Distributions distributionsOnce(ColumnarRoster roster) {
+        return build(roster, -1, Map.of());
+    }
+
+    private synchronized Distributions refresh(RosterSnapshot snapshot) {
+        Distributions distributions = current;
+        if (distributions.version != snapshot.version()) {
+            distributions = build(snapshot.roster(), snapshot.version(), distributions.titles);
+            current = distributions;
+        }
+        return distributions;
+    }
+
+    private Distributions build(ColumnarRoster roster, long version, Map<String, TitleSketch> previous) {
+        // Group 0 is the employees without a title; titles spelt differently share a group.
+        Map<String, Integer> groupOfKey = new HashMap<>();
+        int[] groupOfCode = new int[roster.titleCount()];
+        String[] keys = new String[roster.titleCount() + 1];
+        String[] titles = new String[keys.length];
+        keys[0] = UNTITLED;
+        int groups = 1;
+        for (int code = 0; code < groupOfCode.length; code++) {
+            String title = roster.titleOf(code).strip();
+            String key = title.toLowerCase(Locale.ROOT);
+            Integer group = key.isEmpty() ? Integer.valueOf(0) : groupOfKey.get(key);
+            if (group == null) {
+                group = groups++;
+                groupOfKey.put(key, group);
+                keys[group] = key;
+                titles[group] = title;
+            }
+            groupOfCode[code] = group;
+        }
+
+        int[] rowGroups = new int[roster.size()];
+        long[] counts = new long[groups];
+        long[] hashes = new long[groups];
+        for (int row = 0; row < roster.size(); row++) {
+            int code = roster.titleCode(row);
+            int group = code < 0 ? 0 : groupOfCode[code];
+            rowGroups[row] = group;
+            counts[group]++;
+            hashes[group] += mix(roster.salary(row));
+        }
+
+        SalarySketch[] sketches = new SalarySketch[groups];
+        boolean[] rebuilt = new boolean[groups];
+        boolean changed = false;
+        for (int group = 0; group < groups; group++) {
+            TitleSketch kept = previous.get(keys[group]);
+            if (kept != null && kept.hash == hashes[group] && kept.sketch.count() == counts[group]) {
+                sketches[group] = kept.sketch;
+            } else if (counts[group] > 0) {
+                sketches[group] = new SalarySketch(k);
+                rebuilt[group] = true;
+                changed = true;
+            }
+        }
+        if (changed) {
+            for (int row = 0; row < rowGroups.length; row++) {
+                if (rebuilt[rowGroups[row]]) {
+                    sketches[rowGroups[row]].add(roster.salary(row));
+                }
+            }
+        }
+
+        Map<String, TitleSketch> sketched = new HashMap<>();
+        SalarySketch overall = new SalarySketch(k);
+        for (int group = 0; group < groups; group++) {
+            if (sketches[group] != null) {
+                sketched.put(keys[group], new TitleSketch(titles[group], hashes[group], sketches[group]));
+                overall.merge(sketches[group]);
+            }
+        }
+        return new Distributions(version, sketched, overall);
+    }
+
+    // Summing a 64-bit mix of each salary gives a hash that ignores row order; murmur3's finalizer.
+    private static long mix(int salary) {
+        long h = salary;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record TitleSketch(String title, long hash, SalarySketch sketch) {}
+
+    /**
+     * The salary distributions of one roster version. Read-only.
+     */
+    public static final class Distributions {
+
+        private final long version;
+        private final Map<String, TitleSketch> titles;
+        private final SalarySketch overall;
+        private final SortedMap<String, SalarySketch> byTitle;
+
+        private Distributions(long version, Map<String, TitleSketch> titles, SalarySketch overall) {
+            this.version = version;
+            this.titles = titles;
+            this.overall = overall;
+            SortedMap<String, SalarySketch> byTitle = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Map.Entry<String, TitleSketch> entry : titles.entrySet()) {
+                if (!entry.getKey().equals(UNTITLED)) {
+                    byTitle.put(entry.getValue().title, entry.getValue().sketch);
+                }
+            }
+            this.byTitle = Collections.unmodifiableSortedMap(byTitle);
+        }
+
+        public long version() {
+            return version;
+        }
+
+        /**
+         * @return the distribution of every salary in the roster, titled or not
+         */
+        public SalarySketch overall() {
+            return overall;
+        }
+
+        /**
+         * @return the distribution of the salaries of employees with {@code title}, ignoring case, if there are any
+         */
+        public Optional<SalarySketch> title(String title) {
+            String key = title.strip().toLowerCase(Locale.ROOT);
+            TitleSketch sketch = key.isEmpty() ? null : titles.get(key);
+            return sketch == null ? Optional.empty() : Optional.of(sketch.sketch);
+        }
+
+        /**
+         * @return the distribution of every title, by title in alphabetical order
+         */
+        public SortedMap<String, SalarySketch> byTitle() {
+            return byTitle;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.reliaquest.api.roster;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch of salaries (a KLL sketch). Salaries are kept in levels of compactors; an item at level
+ * {@code h} stands for {@code 2^h} salaries. When a level fills up it is sorted and every other item, starting at a
+ * random offset, moves one level up with twice the weight, so the sketch retains about {@code 3k} items however many
+ * salaries were added.
+ *
+ * <p>The count, minimum and maximum are exact. A rank or quantile is off by at most {@link #rankError()} of the count
+ * with high probability; {@code SalarySketchTest} checks that bound on skewed, sorted and merged input. The compaction
+ * coin is seeded, so the same salaries added in the same order always give the same answers.
+ *
+ * <p>Not thread-safe while salaries are added or merged; a sketch that is no longer written may be read concurrently.
+ */
+public final class SalarySketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_K = 8;
+    private static final int MIN_CAPACITY = 8;
+    private static final double DECAY = 2.0 / 3.0;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int k;
+    private int[][] levels = {new int[MIN_CAPACITY]};
+    private int[] sizes = new int[1];
+    private long count;
+    private int retained;
+    private int totalCapacity;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private long random = SEED;
+    private volatile SortedView view;
+
+    public SalarySketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter; the rank error shrinks and the retained items grow roughly linearly with it
+     */
+    public SalarySketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("k must be at least " + MIN_K);
+        }
+        this.k = k;
+        this.totalCapacity = capacity(0, 1);
+    }
+
+    /**
+     * @return the normalized rank error of a sketch with accuracy parameter {@code k}
+     */
+    public static double rankError(int k) {
+        return 2.5 / k;
+    }
+
+    public double rankError() {
+        return rankError(k);
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return the lowest salary added, or {@code 0} for an empty sketch
+     */
+    public int min() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return the highest salary added, or {@code 0} for an empty sketch
+     */
+    public int max() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * @return the number of salaries the sketch holds, which bounds its memory
+     */
+    public int retainedItems() {
+        return retained;
+    }
+
+    public void add(int salary) {
+        append(0, salary);
+        count++;
+        min = Math.min(min, salary);
+        max = Math.max(max, salary);
+        view = null;
+        if (++retained >= totalCapacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds every salary {@code other} summarizes, as if they had been added to this sketch. {@code other} is unchanged.
+     */
+    public void merge(SalarySketch other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a sketch into itself");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (other.levels.length > levels.length) {
+            addLevels(other.levels.length);
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        retained += other.retained;
+        view = null;
+        compress();
+    }
+
+    /**
+     * @return the estimated fraction of salaries at or below {@code salary}
+     */
+    public double rank(int salary) {
+        return count == 0 ? 0 : (double) sortedView().weightAtOrBelow(salary) / count;
+    }
+
+    /**
+     * @param fraction between 0 and 1; 0 gives the exact minimum and 1 the exact maximum
+     * @return the estimated salary below or at which {@code fraction} of the salaries lie, or {@code 0} when empty
+     */
+    public int quantile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Fraction must be between 0 and 1: " + fraction);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+        return sortedView().quantile(Math.max(1, (long) Math.ceil(fraction * count)));
+    }
+
+    /**
+     * @return the estimated number of salaries from {@code lower} to {@code upper}, both included
+     */
+    public long countBetween(int lower, int upper) {
+        if (count == 0 || upper < lower) {
+            return 0;
+        }
+        SortedView sorted = sortedView();
+        return sorted.weightAtOrBelow(upper) - (lower == Integer.MIN_VALUE ? 0 : sorted.weightAtOrBelow(lower - 1));
+    }
+
+    private int capacity(int level, int height) {
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, height - 1 - level)));
+    }
+
+    private void addLevels(int height) {
+        int previous = levels.length;
+        levels = Arrays.copyOf(levels, height);
+        sizes = Arrays.copyOf(sizes, height);
+        totalCapacity = 0;
+        for (int level = 0; level < height; level++) {
+            if (level >= previous) {
+                levels[level] = new int[MIN_CAPACITY];
+            }
+            totalCapacity += capacity(level, height);
+        }
+    }
+
+    private void append(int level, int salary) {
+        if (level == levels.length) {
+            addLevels(level + 1);
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = salary;
+    }
+
+    /*
+     * Levels are only compacted once the sketch as a whole is full, and then the lowest full level first: keeping
+     * more items at low weight while there is room makes the answers more accurate for the same memory.
+     */
+    private void compress() {
+        while (retained >= totalCapacity) {
+            int level = 0;
+            while (sizes[level] < capacity(level, levels.length)) {
+                level++;
+            }
+            compact(level);
+        }
+    }
+
+    private void compact(int level) {
+        int[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int kept = size % 2;
+        for (int i = kept + nextBit(); i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        sizes[level] = kept;
+        retained -= (size - kept) / 2;
+    }
+
+    // xorshift64*: a fixed sequence, so compaction and therefore every answer is reproducible.
+    private int nextBit() {
+        random ^= random >>> 12;
+        random ^= random << 25;
+        random ^= random >>> 27;
+        return (int) ((random * 0x2545F4914F6CDD1DL) >>> 63);
+    }
+
+    private SortedView sortedView() {
+        SortedView sorted = view;
+        if (sorted == null) {
+            sorted = new SortedView(levels, sizes);
+            view = sorted;
+        }
+        return sorted;
+    }
+
+    /**
+     * Every retained salary in ascending order with the running total of the weights up to and including it.
+     */
+    private static final class SortedView {
+
+        private final int[] salaries;
+        private final long[] cumulativeWeights;
+
+        SortedView(int[][] levels, int[] sizes) {
+            int retained = 0;
+            for (int size : sizes) {
+                retained += size;
+            }
+            // Salary in the high bits, flipped to sort unsigned, and the level in the low six.
+            long[] packed = new long[retained];
+            int n = 0;
+            for (int level = 0; level < levels.length; level++) {
+                for (int i = 0; i < sizes[level]; i++) {
+                    packed[n++] = ((long) (levels[level][i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL) << 6 | level;
+                }
+            }
+            Arrays.sort(packed);
+
+            this.salaries = new int[retained];
+            this.cumulativeWeights = new long[retained];
+            long total = 0;
+            for (int i = 0; i < retained; i++) {
+                salaries[i] = (int) (packed[i] >>> 6) ^ Integer.MIN_VALUE;
+                total += 1L << (packed[i] & 63);
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        long weightAtOrBelow(int salary) {
+            int low = 0;
+            int high = salaries.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (salaries[mid] <= salary) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low == 0 ? 0 : cumulativeWeights[low - 1];
+        }
+
+        int quantile(long weight) {
+            int low = 0;
+            int high = salaries.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulativeWeights[mid] < weight) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return salaries[low];
+        }
+    }
+}
@@ -2,23 +2,76 @@ package com.reliaquest.api.service;
 
 
 import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.SalaryHistogram;
+import com.reliaquest.api.dto.SalaryPercentiles;
 import com.reliaquest.api.entity.Employee;
 import com.reliaquest.api.entity.EmployeeByIdResponse;
+import com.reliaquest.api.entity.EmployeeFields;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface EmployeeService {
 
     List<Employee> getAllEmployees();
 
+    /**
+     * All employees, of which the caller only writes {@code fields}; the others may be left unset.
+     */
+    default List<Employee> getAllEmployees(EmployeeFields fields) {
+        return getAllEmployees();
+    }
+
+    /**
+     * Writes all employees to {@code out} as a JSON array, row by row, without holding the whole roster in memory.
+     */
+    void writeAllEmployees(EmployeeFields fields, OutputStream out) throws IOException;
+
     List<Employee> getEmployeesByNameSearch(String name);
 
+    /**
+     * Ranked search for names containing, starting with or close to the words of {@code query}, best match first.
+     *
+     * @param limit the most employees to return; zero or less for the configured maximum
+     */
+    List<Employee> searchEmployeesByName(String query, int limit);
+
     EmployeeByIdResponse getEmployeeById(String id);
 
     int getHighestSalaryOfEmployees();
 
     List<Employee> getTopHighestEarningEmployees(int size);
 
+    /**
+     * Estimated salary percentiles of the employees with {@code title}, or of every employee when it is {@code null}.
+     *
+     * @param percents the percentiles to estimate, each from 0 to 100
+     */
+    SalaryPercentiles getSalaryPercentiles(String title, List<Double> percents);
+
+    /**
+     * Estimated salary percentiles of every title, by title.
+     */
+    Map<String, SalaryPercentiles> getSalaryPercentilesByTitle(List<Double> percents);
+
+    /**
+     * Estimated salary histogram of the employees with {@code title}, or of every employee when it is {@code null}.
+     */
+    SalaryHistogram getSalaryHistogram(String title, int buckets);
+
+    /**
+     * Identifies the cached roster the roster-wide reads are answered from, without ever loading it. Equal revisions
+     * mean equal answers, also across restarts.
+     *
+     * @return the revision, or empty when there is no fresh cached roster to answer reads from
+     */
+    default Optional<String> rosterRevision() {
+        return Optional.empty();
+    }
+
     EmployeeByIdResponse createEmployee(EmployeeCreateRequest employee);
 
     void deleteEmployee(String name);
@@ -1,62 +1,209 @@
 package com.reliaquest.api.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.reliaquest.api.dto.DeleteResponse;
 import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.SalaryHistogram;
+import com.reliaquest.api.dto.SalaryPercentiles;
 import com.reliaquest.api.entity.Employee;
 import com.reliaquest.api.entity.EmployeeByIdResponse;
+import com.reliaquest.api.entity.EmployeeFields;
 import com.reliaquest.api.entity.EmployeeResponse;
 import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import com.reliaquest.api.roster.ColumnarRoster;
+import com.reliaquest.api.roster.KnownEmployeeIds;
+import com.reliaquest.api.roster.NameIndex;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.roster.RosterSnapshot;
+import com.reliaquest.api.roster.SalaryAnalytics;
+import com.reliaquest.api.roster.SalarySketch;
+import com.reliaquest.api.upstream.EmployeeQueryClient;
+import com.reliaquest.api.upstream.EmployeeShards;
+import com.reliaquest.api.upstream.EmployeeStreamAggregator;
+import com.reliaquest.api.upstream.EmployeeStreamAggregator.SalaryAggregate;
+import com.reliaquest.api.upstream.EmployeeStreamWriter;
+import com.reliaquest.api.upstream.EmployeeStreamWriter.ClientDisconnectedException;
+import com.reliaquest.api.upstream.HedgedRequestExecutor;
+import com.reliaquest.api.upstream.UpstreamScheduler;
+import com.reliaquest.api.upstream.UpstreamScheduler.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.stream.Collectors;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
-    private static final String BASE_URL = "http://localhost:8112/api/v1";
-    private static final String EMPLOYEE_URL = BASE_URL + "/employee";
-    private static final String EMPLOYEE_BY_ID_URL = BASE_URL + "/employee/";
+    public static final String DEFAULT_BASE_URL = "http://localhost:8112/api/v1";
 
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeServiceImpl.class);
+
+    private static final String NO_EMPLOYEES = "No employees available";
+    private static final String NO_EMPLOYEES_FOR_SALARY = "No employees available to determine highest salary";
+    private static final int MAX_PERCENTILES = 100;
+    private static final int MAX_HISTOGRAM_BUCKETS = 100;
+
+    private final EmployeeShards shards;
     private final RestTemplate restTemplate;
+    private final RestTemplate bulkRestTemplate;
+    private final HedgedRequestExecutor hedgedRequestExecutor;
+    private final EmployeeStreamAggregator employeeStreamAggregator;
+    private final RosterCache rosterCache;
+    private final EmployeeQueryClient employeeQueryClient;
+    private final KnownEmployeeIds knownEmployeeIds;
+    private final EmployeeStreamWriter employeeStreamWriter;
+    private final NameIndex nameIndex;
+    private final SalaryAnalytics salaryAnalytics;
+    private final UpstreamScheduler upstreamScheduler;
+    private final boolean streamingAggregation;
 
     public EmployeeServiceImpl(RestTemplate restTemplate) {
+        this(restTemplate, HedgedRequestExecutor.disabled(), new EmployeeStreamAggregator(), RosterCache.disabled(),
+                EmployeeQueryClient.disabled(), EmployeeShards.single(DEFAULT_BASE_URL + "/employee"), false);
+    }
+
+    public EmployeeServiceImpl(
+            RestTemplate restTemplate,
+            HedgedRequestExecutor hedgedRequestExecutor,
+            EmployeeStreamAggregator employeeStreamAggregator,
+            RosterCache rosterCache,
+            EmployeeQueryClient employeeQueryClient,
+            EmployeeShards shards,
+            boolean streamingAggregation
+    ) {
+        this(restTemplate, restTemplate, hedgedRequestExecutor, employeeStreamAggregator, rosterCache,
+                employeeQueryClient, shards, KnownEmployeeIds.disabled(), new EmployeeStreamWriter(), new NameIndex(),
+                new SalaryAnalytics(), UpstreamScheduler.disabled(), streamingAggregation);
+    }
+
+    /*
+     * Full-roster reads go through the bulk RestTemplate, which has a longer read timeout than single-employee calls.
+     */
+    @Autowired
+    public EmployeeServiceImpl(
+            RestTemplate restTemplate,
+            @Qualifier("bulkRestTemplate") RestTemplate bulkRestTemplate,
+            HedgedRequestExecutor hedgedRequestExecutor,
+            EmployeeStreamAggregator employeeStreamAggregator,
+            RosterCache rosterCache,
+            EmployeeQueryClient employeeQueryClient,
+            EmployeeShards shards,
+            KnownEmployeeIds knownEmployeeIds,
+            EmployeeStreamWriter employeeStreamWriter,
+            NameIndex nameIndex,
+            SalaryAnalytics salaryAnalytics,
+            UpstreamScheduler upstreamScheduler,
+            @Value("${employee.api.streaming-aggregation.enabled:true}") boolean streamingAggregation
+    ) {
+        this.shards = shards;
         this.restTemplate = restTemplate;
+        this.bulkRestTemplate = bulkRestTemplate;
+        this.hedgedRequestExecutor = hedgedRequestExecutor;
+        this.employeeStreamAggregator = employeeStreamAggregator;
+        this.rosterCache = rosterCache;
+        this.employeeQueryClient = employeeQueryClient;
+        this.knownEmployeeIds = knownEmployeeIds;
+        this.employeeStreamWriter = employeeStreamWriter;
+        this.nameIndex = nameIndex;
+        this.salaryAnalytics = salaryAnalytics;
+        this.upstreamScheduler = upstreamScheduler;
+        this.streamingAggregation = streamingAggregation;
     }
 
     @Override
     public List<Employee> getAllEmployees() throws EmployeeServiceException {
-        try {
-            EmployeeResponse response = restTemplate.getForObject(EMPLOYEE_URL, EmployeeResponse.class);
+        if (rosterCache.isEnabled()) {
+            return cachedRoster().toEmployees();
+        }
 
-            if (response == null || response.getData() == null) {
-                throw new EmployeeServiceException("No employees found in response");
+        return fetchAllEmployees("");
+    }
+
+    /*
+     * The cached roster already holds every field. Without it the projection is pushed to the mock server, which then
+     * leaves the other fields out of its response; a server that ignores the parameter just sends all of them.
+     */
+    @Override
+    public List<Employee> getAllEmployees(EmployeeFields fields) throws EmployeeServiceException {
+        if (fields.isAll() || rosterCache.isEnabled()) {
+            return getAllEmployees();
+        }
+
+        return fetchAllEmployees("?fields=" + fields.toQueryParam());
+    }
+
+    /*
+     * Nothing is written before the cached roster is loaded or, without the cache, before the first shard has answered
+     * 2xx, so those failures are still answered with an error status. Shards are streamed one after the other into the
+     * same array. The generator is only closed, and so flushed, on success: after a later failure the client gets
+     * the rows already flushed and an unclosed array rather than a response that looks whole. A client that goes away
+     * stops the upstream read and is only logged.
+     */
+    @Override
+    public void writeAllEmployees(EmployeeFields fields, OutputStream out) throws IOException {
+        ColumnarRoster roster = rosterCache.isEnabled() ? cachedRoster() : null;
+        String query = fields.isAll() ? "" : "?fields=" + fields.toQueryParam();
+
+        JsonGenerator generator = employeeStreamWriter.createGenerator(out);
+        try {
+            if (roster != null) {
+                generator.writeStartArray();
+                employeeStreamWriter.writeRows(roster, generator, fields);
+            } else {
+                for (int shard = 0; shard < shards.size(); shard++) {
+                    streamEmployees(shards.employeeUrl(shard) + query, generator, fields, shard == 0);
+                }
             }
-            return response.getData();
-        } catch (RestClientException e) {
-            throw handleRestClientException("Failed to fetch employees from external API", e);
+            generator.writeEndArray();
+            generator.close();
+        } catch (ClientDisconnectedException e) {
+            logger.debug("Client went away while streaming employees: {}", e.getMessage());
         }
     }
 
     @Override
     public EmployeeByIdResponse getEmployeeById(String id) throws EmployeeServiceException {
         validateId(id);
+        if (knownEmployeeIds.isKnownMissing(id)) {
+            throw new EmployeeServiceException(ErrorKind.NOT_FOUND, "Employee not found with ID: " + id);
+        }
 
         try {
-            EmployeeByIdResponse response = restTemplate.getForObject(EMPLOYEE_BY_ID_URL + id, EmployeeByIdResponse.class);
+            // The slot is taken before the hedge timer starts, so time spent queued for it does not read as a slow
+            // upstream and set off a hedge. A hedge shares the slot of the call it duplicates.
+            EmployeeByIdResponse response = upstreamScheduler.call(Priority.INTERACTIVE, () -> hedgedRequestExecutor
+                    .execute(() -> restTemplate.getForObject(
+                            shards.ownerUrl(id) + "/" + id, EmployeeByIdResponse.class)));
 
             if (response == null || response.getData() == null) {
-                throw new EmployeeServiceException("Employee not found with ID: " + id);
+                knownEmployeeIds.recordMissing(id);
+                throw new EmployeeServiceException(ErrorKind.NOT_FOUND, "Employee not found with ID: " + id);
             }
             return response;
+        } catch (HttpClientErrorException.NotFound e) {
+            knownEmployeeIds.recordMissing(id);
+            throw handleRestClientException("Error while fetching employee with ID: " + id, e);
         } catch (RestClientException e) {
             throw handleRestClientException("Error while fetching employee with ID: " + id, e);
         }
@@ -65,10 +212,19 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     public List<Employee> getEmployeesByNameSearch(String name) throws EmployeeServiceException {
         if (name == null || name.trim().isEmpty()) {
-            throw new EmployeeServiceException("Name parameter cannot be empty");
+            throw new EmployeeServiceException(ErrorKind.INVALID_INPUT, "Name parameter cannot be empty");
         }
 
         try {
+            if (!hasFreshRoster() && employeeQueryClient.supportsQuery()) {
+                return employeeQueryClient.findByName(name.trim());
+            }
+
+            if (rosterCache.isEnabled()) {
+                ColumnarRoster roster = cachedRoster();
+                return roster.employees(roster.findByName(name.trim()));
+            }
+
             List<Employee> employees = getAllEmployees();
             return employees.stream()
                     .filter(employee -> employee.getEmployeeName() != null &&
@@ -77,35 +233,109 @@ public class EmployeeServiceImpl implements EmployeeService {
         } catch (EmployeeServiceException e) {
             throw e;
         } catch (Exception e) {
-            throw new EmployeeServiceException("Error searching employees by name: " + name, e);
+            throw wrap("Error searching employees by name: " + name, e);
+        }
+    }
+
+    /*
+     * Ranked search needs every name. The cached roster keeps a persistent index that follows its versions; without
+     * the cache the roster is fetched and indexed for this one search.
+     */
+    @Override
+    public List<Employee> searchEmployeesByName(String query, int limit) throws EmployeeServiceException {
+        if (query == null || query.isBlank()) {
+            throw new EmployeeServiceException(ErrorKind.INVALID_INPUT, "Name parameter cannot be empty");
+        }
+
+        try {
+            if (rosterCache.isEnabled()) {
+                return nameIndex.search(cachedSnapshot(), query, limit);
+            }
+            return nameIndex.searchOnce(ColumnarRoster.of(getAllEmployees()), query, limit);
+        } catch (EmployeeServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw wrap("Error searching employees by name: " + query, e);
         }
     }
 
     @Override
     public int getHighestSalaryOfEmployees() throws EmployeeServiceException {
         try {
+            if (!hasFreshRoster() && employeeQueryClient.supportsStats()) {
+                return employeeQueryClient.maxSalary().orElseThrow(() -> noEmployees(NO_EMPLOYEES_FOR_SALARY));
+            }
+
+            if (!hasFreshRoster() && employeeQueryClient.supportsQuery()) {
+                List<Employee> top = employeeQueryClient.topBySalary(1);
+                if (top.isEmpty()) {
+                    throw noEmployees(NO_EMPLOYEES_FOR_SALARY);
+                }
+                return top.get(0).getEmployeeSalary();
+            }
+
+            if (rosterCache.isEnabled()) {
+                ColumnarRoster roster = cachedRoster();
+                if (roster.size() == 0) {
+                    throw noEmployees(NO_EMPLOYEES_FOR_SALARY);
+                }
+                return roster.maxSalary();
+            }
+
+            if (streamingAggregation) {
+                SalaryAggregate aggregate = fetchSalaryAggregate(0);
+                if (aggregate.count() == 0) {
+                    throw noEmployees(NO_EMPLOYEES_FOR_SALARY);
+                }
+                return aggregate.maxSalary();
+            }
+
             List<Employee> employeeList = getTopHighestEarningEmployees(1);
             if (employeeList.isEmpty()) {
-                throw new EmployeeServiceException("No employees available to determine highest salary");
+                throw noEmployees(NO_EMPLOYEES_FOR_SALARY);
             }
             return employeeList.get(0).getEmployeeSalary();
         } catch (EmployeeServiceException e) {
             throw e;
         } catch (Exception e) {
-            throw new EmployeeServiceException("Error determining highest salary", e);
+            throw wrap("Error determining highest salary", e);
         }
     }
 
     @Override
     public List<Employee> getTopHighestEarningEmployees(int size) throws EmployeeServiceException {
         if (size <= 0) {
-            throw new EmployeeServiceException("Size must be a positive number");
+            throw new EmployeeServiceException(ErrorKind.INVALID_INPUT, "Size must be a positive number");
         }
 
         try {
+            if (!hasFreshRoster() && employeeQueryClient.supportsQuery()) {
+                List<Employee> top = employeeQueryClient.topBySalary(size);
+                if (top.isEmpty()) {
+                    throw noEmployees(NO_EMPLOYEES);
+                }
+                return top;
+            }
+
+            if (rosterCache.isEnabled()) {
+                ColumnarRoster roster = cachedRoster();
+                if (roster.size() == 0) {
+                    throw noEmployees(NO_EMPLOYEES);
+                }
+                return roster.employees(roster.topBySalary(size));
+            }
+
+            if (streamingAggregation) {
+                SalaryAggregate aggregate = fetchSalaryAggregate(size);
+                if (aggregate.count() == 0) {
+                    throw noEmployees(NO_EMPLOYEES);
+                }
+                return aggregate.topEarners();
+            }
+
             List<Employee> employeeList = getAllEmployees();
             if (employeeList.isEmpty()) {
-                throw new EmployeeServiceException("No employees available");
+                throw noEmployees(NO_EMPLOYEES);
             }
 
             return employeeList.stream()
@@ -115,29 +345,91 @@ public class EmployeeServiceImpl implements EmployeeService {
         } catch (EmployeeServiceException e) {
             throw e;
         } catch (Exception e) {
-            throw new EmployeeServiceException("Error fetching top earning employees", e);
+            throw wrap("Error fetching top earning employees", e);
+        }
+    }
+
+    @Override
+    public SalaryPercentiles getSalaryPercentiles(String title, List<Double> percents) throws EmployeeServiceException {
+        validatePercents(percents);
+        try {
+            return SalaryPercentiles.of(normalizeTitle(title), salarySketch(title), percents);
+        } catch (EmployeeServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw wrap("Error estimating salary percentiles", e);
+        }
+    }
+
+    @Override
+    public Map<String, SalaryPercentiles> getSalaryPercentilesByTitle(List<Double> percents)
+            throws EmployeeServiceException {
+        validatePercents(percents);
+        try {
+            Map<String, SalaryPercentiles> byTitle = new LinkedHashMap<>();
+            salaryDistributions().byTitle()
+                    .forEach((title, sketch) -> byTitle.put(title, SalaryPercentiles.of(title, sketch, percents)));
+            return byTitle;
+        } catch (EmployeeServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw wrap("Error estimating salary percentiles by title", e);
+        }
+    }
+
+    @Override
+    public SalaryHistogram getSalaryHistogram(String title, int buckets) throws EmployeeServiceException {
+        if (buckets < 1 || buckets > MAX_HISTOGRAM_BUCKETS) {
+            throw new EmployeeServiceException(ErrorKind.INVALID_INPUT,
+                    "Buckets must be between 1 and " + MAX_HISTOGRAM_BUCKETS);
+        }
+        try {
+            return SalaryHistogram.of(normalizeTitle(title), salarySketch(title), buckets);
+        } catch (EmployeeServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw wrap("Error estimating salary histogram", e);
+        }
+    }
+
+    /*
+     * The version alone restarts at every start without a roster snapshot file, so the fetch time tells those apart.
+     * Only peeks: the tag is taken before the read runs, and an expired roster must not be reloaded just to tag an
+     * answer that the query pushdowns could give without it.
+     */
+    @Override
+    public Optional<String> rosterRevision() {
+        if (!rosterCache.isEnabled()) {
+            return Optional.empty();
         }
+        return rosterCache.peek()
+                .map(snapshot -> snapshot.version() + "-" + Long.toString(snapshot.fetchedAt().toEpochMilli(), 36));
     }
 
     @Override
     public EmployeeByIdResponse createEmployee(EmployeeCreateRequest employee) throws EmployeeServiceException {
         try {
             HttpEntity<EmployeeCreateRequest> requestEntity = new HttpEntity<>(employee, getJsonHeaders());
-            ResponseEntity<EmployeeByIdResponse> response = restTemplate.exchange(
-                    EMPLOYEE_URL,
-                    HttpMethod.POST,
-                    requestEntity,
-                    EmployeeByIdResponse.class
-            );
+            ResponseEntity<EmployeeByIdResponse> response = upstreamScheduler.call(Priority.WRITE,
+                    () -> restTemplate.exchange(
+                            shards.nextCreateUrl(),
+                            HttpMethod.POST,
+                            requestEntity,
+                            EmployeeByIdResponse.class
+                    ));
 
             if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null || response.getBody().getData() == null) {
-                throw new EmployeeServiceException("Create operation failed with status: " + response.getStatusCode());
+                throw new EmployeeServiceException(
+                        ErrorKind.OPERATION_FAILED, "Create operation failed with status: " + response.getStatusCode());
             }
 
             if (!"Successfully processed request.".equalsIgnoreCase(response.getBody().getStatus())) {
-                throw new EmployeeServiceException("Create operation failed: " + response.getBody().getStatus());
+                throw new EmployeeServiceException(
+                        ErrorKind.OPERATION_FAILED, "Create operation failed: " + response.getBody().getStatus());
             }
 
+            knownEmployeeIds.recordCreated(response.getBody().getData().getId());
+            rosterCache.invalidate();
             return response.getBody();
         } catch (Exception e) {
             throw handleRestClientException("Error creating employee", e);
@@ -154,21 +446,171 @@ public class EmployeeServiceImpl implements EmployeeService {
 
             HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, getJsonHeaders());
 
-            ResponseEntity<DeleteResponse> response = restTemplate.exchange(
-                    EMPLOYEE_URL,
-                    HttpMethod.DELETE,
-                    requestEntity,
-                    DeleteResponse.class
-            );
+            // Names are not partitioned, so shards are asked in order until one of them removes a match.
+            boolean deleted = false;
+            for (int shard = 0; shard < shards.size() && !deleted; shard++) {
+                String employeeUrl = shards.employeeUrl(shard);
+                ResponseEntity<DeleteResponse> response = upstreamScheduler.call(Priority.WRITE,
+                        () -> restTemplate.exchange(
+                                employeeUrl,
+                                HttpMethod.DELETE,
+                                requestEntity,
+                                DeleteResponse.class
+                        ));
+                deleted = response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                        && response.getBody().isData();
+            }
 
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null || !response.getBody().isData()) {
-                throw new EmployeeServiceException("Delete operation failed");
+            if (!deleted) {
+                throw new EmployeeServiceException(ErrorKind.OPERATION_FAILED, "Delete operation failed");
             }
+            rosterCache.invalidate();
         } catch (Exception e) {
             throw handleRestClientException("Error deleting employee", e);
         }
     }
 
+    /*
+     * Streams the roster envelope through the aggregator instead of binding it, so only the top-N candidate rows are
+     * ever turned into Employee objects.
+     */
+    private SalaryAggregate fetchSalaryAggregate(int topSize) throws EmployeeServiceException {
+        try {
+            return SalaryAggregate.merge(
+                    shards.scatter(shard -> fetchSalaryAggregate(shards.employeeUrl(shard), topSize)), topSize);
+        } catch (RestClientException e) {
+            throw handleRestClientException("Failed to fetch employees from external API", e);
+        }
+    }
+
+    private SalaryAggregate fetchSalaryAggregate(String employeeUrl, int topSize) {
+        Optional<SalaryAggregate> aggregate = upstreamScheduler.call(
+                Priority.INTERACTIVE, () -> bulkRestTemplate.execute(
+                        employeeUrl,
+                        HttpMethod.GET,
+                        request -> request.getHeaders().setAccept(employeeStreamAggregator.acceptedMediaTypes()),
+                        response -> employeeStreamAggregator.aggregate(
+                                response.getBody(), response.getHeaders().getContentType(), topSize)
+                ));
+
+        if (aggregate == null || aggregate.isEmpty()) {
+            throw new EmployeeServiceException(ErrorKind.UPSTREAM_ERROR, "No employees found in response");
+        }
+        return aggregate.get();
+    }
+
+    // The first shard opens the array, once its response has turned out successful.
+    private void streamEmployees(String employeeUrl, JsonGenerator generator, EmployeeFields fields, boolean first)
+            throws IOException {
+        OptionalInt rows;
+        try {
+            // Not scheduled: rows are copied to the client as they are read, so a slot would be held for as long as the
+            // slowest client takes and stall every other upstream call.
+            rows = bulkRestTemplate.execute(
+                    employeeUrl,
+                    HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(employeeStreamWriter.acceptedMediaTypes()),
+                    response -> {
+                        if (first) {
+                            generator.writeStartArray();
+                        }
+                        return employeeStreamWriter.copyRows(
+                                response.getBody(), response.getHeaders().getContentType(), generator, fields);
+                    }
+            );
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof ClientDisconnectedException disconnected) {
+                throw disconnected;
+            }
+            throw handleRestClientException("Failed to stream employees from external API", e);
+        } catch (RestClientException e) {
+            throw handleRestClientException("Failed to stream employees from external API", e);
+        }
+
+        if (rows == null || rows.isEmpty()) {
+            throw new EmployeeServiceException(ErrorKind.UPSTREAM_ERROR, "No employees found in response");
+        }
+    }
+
+    private List<Employee> fetchAllEmployees(String query) throws EmployeeServiceException {
+        try {
+            List<Employee> employees = new ArrayList<>();
+            shards.scatter(shard -> fetchEmployees(shards.employeeUrl(shard) + query)).forEach(employees::addAll);
+            return employees;
+        } catch (RestClientException e) {
+            throw handleRestClientException("Failed to fetch employees from external API", e);
+        }
+    }
+
+    private List<Employee> fetchEmployees(String employeeUrl) {
+        EmployeeResponse response = upstreamScheduler.call(
+                Priority.INTERACTIVE, () -> bulkRestTemplate.getForObject(employeeUrl, EmployeeResponse.class));
+
+        if (response == null || response.getData() == null) {
+            throw new EmployeeServiceException(ErrorKind.UPSTREAM_ERROR, "No employees found in response");
+        }
+        return response.getData();
+    }
+
+    /*
+     * A fresh cached roster answers without any upstream call. Otherwise pushed-down queries and server-side stats
+     * transfer only what is asked for, which is cheaper than refreshing the cache or streaming the whole roster.
+     */
+    private boolean hasFreshRoster() {
+        return rosterCache.isEnabled() && rosterCache.peek().isPresent();
+    }
+
+    private ColumnarRoster cachedRoster() throws EmployeeServiceException {
+        return cachedSnapshot().roster();
+    }
+
+    private RosterSnapshot cachedSnapshot() throws EmployeeServiceException {
+        try {
+            return rosterCache.get();
+        } catch (RestClientException e) {
+            throw handleRestClientException("Failed to fetch employees from external API", e);
+        }
+    }
+
+    /*
+     * The cached roster keeps its sketches from version to version; without the cache the roster is fetched and
+     * sketched for this one request.
+     */
+    private SalaryAnalytics.Distributions salaryDistributions() throws EmployeeServiceException {
+        if (rosterCache.isEnabled()) {
+            return salaryAnalytics.distributions(cachedSnapshot());
+        }
+        return salaryAnalytics.distributionsOnce(ColumnarRoster.of(getAllEmployees()));
+    }
+
+    private SalarySketch salarySketch(String title) throws EmployeeServiceException {
+        SalaryAnalytics.Distributions distributions = salaryDistributions();
+        if (normalizeTitle(title) == null) {
+            if (distributions.overall().isEmpty()) {
+                throw noEmployees(NO_EMPLOYEES);
+            }
+            return distributions.overall();
+        }
+        return distributions.title(title)
+                .orElseThrow(() -> noEmployees("No employees found with title: " + title.strip()));
+    }
+
+    private static String normalizeTitle(String title) {
+        return title == null || title.isBlank() ? null : title.strip();
+    }
+
+    private static void validatePercents(List<Double> percents) throws EmployeeServiceException {
+        if (percents == null || percents.isEmpty() || percents.size() > MAX_PERCENTILES) {
+            throw new EmployeeServiceException(ErrorKind.INVALID_INPUT,
+                    "Between 1 and " + MAX_PERCENTILES + " percentiles must be requested");
+        }
+        for (Double percent : percents) {
+            if (percent == null || !(percent >= 0 && percent <= 100)) {
+                throw new EmployeeServiceException(ErrorKind.INVALID_INPUT,
+                        "Percentiles must be between 0 and 100: " + percent);
+            }
+        }
+    }
 
     private HttpHeaders getJsonHeaders() {
         HttpHeaders headers = new HttpHeaders();
@@ -178,21 +620,48 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private void validateId(String id) throws EmployeeServiceException {
         if (id == null || id.trim().isEmpty()) {
-            throw new EmployeeServiceException("Employee ID cannot be empty");
+            throw new EmployeeServiceException(ErrorKind.INVALID_INPUT, "Employee ID cannot be empty");
         }
     }
 
     private EmployeeServiceException handleRestClientException(String message, Exception e) {
-        if (e instanceof HttpClientErrorException.BadRequest) {
-            return new EmployeeServiceException("Bad request: " + e.getMessage(), e);
+        if (e instanceof EmployeeServiceException serviceException) {
+            return serviceException;
+        } else if (e instanceof HttpClientErrorException.BadRequest) {
+            return new EmployeeServiceException(ErrorKind.INVALID_INPUT, "Bad request: " + e.getMessage(), e);
         } else if (e instanceof HttpClientErrorException.NotFound) {
-            return new EmployeeServiceException("Resource not found: " + e.getMessage(), e);
+            return new EmployeeServiceException(ErrorKind.NOT_FOUND, "Resource not found: " + e.getMessage(), e);
         } else if (e instanceof HttpServerErrorException) {
             return new EmployeeServiceException("Server error: " + e.getMessage(), e);
         } else if (e instanceof RestClientException) {
-            return new EmployeeServiceException(message, e);
+            return wrap(message, e);
         } else {
             return new EmployeeServiceException("Unexpected error: " + e.getMessage(), e);
         }
     }
+
+    private static EmployeeServiceException noEmployees(String message) {
+        return new EmployeeServiceException(ErrorKind.NOT_FOUND, message);
+    }
+
+    /*
+     * The answers the mock server is known to give (429, 400, 404) are expected, so they are classified and thrown
+     * without a stack trace of their own. Server errors, timeouts, refused connections and anything else keep the full
+     * trace and their cause, so they are still logged as warnings worth looking into.
+     */
+    private static EmployeeServiceException wrap(String message, Exception e) {
+        ErrorKind kind = classify(e);
+        return kind == null ? new EmployeeServiceException(message, e) : new EmployeeServiceException(kind, message, e);
+    }
+
+    private static ErrorKind classify(Exception e) {
+        if (e instanceof HttpClientErrorException.TooManyRequests) {
+            return ErrorKind.RATE_LIMITED;
+        } else if (e instanceof HttpClientErrorException.BadRequest) {
+            return ErrorKind.INVALID_INPUT;
+        } else if (e instanceof HttpClientErrorException.NotFound) {
+            return ErrorKind.NOT_FOUND;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,222 @@
+package com.reliaquest.api.startup;
+
+import com.reliaquest.api.roster.ColumnarRoster;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.upstream.EmployeeQueryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gets the API ready for its first wave of traffic before readiness reports it healthy, so a fresh deploy does not
+ * stampede the mock server. Once the application has started it, in the background:
+ * <ol>
+ *     <li>loads the roster into the cache, which also builds its indexes, and probes upstream capabilities;</li>
+ *     <li>calls the hot read endpoints over loopback HTTP, so the JIT has compiled the whole request path. These calls
+ *     are served from the cached roster and never reach the mock server.</li>
+ * </ol>
+ * {@link WarmupHealthIndicator} turns the progress into a readiness status.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        DISABLED
+    }
+
+    private final RosterCache rosterCache;
+    private final EmployeeQueryClient employeeQueryClient;
+    private final Duration timeout;
+    private final Duration retryBackoff;
+    private final int iterations;
+    private final WarmupFallback fallback;
+    private final Clock clock;
+
+    private volatile State state;
+    private volatile Instant startedAt;
+    private volatile Instant deadline;
+    private volatile int completedIterations;
+    private volatile String lastFailure;
+
+    @Autowired
+    public StartupWarmup(
+            RosterCache rosterCache,
+            EmployeeQueryClient employeeQueryClient,
+            @Value("${employee.api.warmup.enabled:false}") boolean enabled,
+            @Value("${employee.api.warmup.timeout:30s}") Duration timeout,
+            @Value("${employee.api.warmup.retry-backoff:5s}") Duration retryBackoff,
+            @Value("${employee.api.warmup.iterations:100}") int iterations,
+            @Value("${employee.api.warmup.timeout-fallback:accept-traffic}") WarmupFallback fallback
+    ) {
+        this(rosterCache, employeeQueryClient, enabled, timeout, retryBackoff, iterations, fallback,
+                Clock.systemUTC());
+    }
+
+    StartupWarmup(
+            RosterCache rosterCache,
+            EmployeeQueryClient employeeQueryClient,
+            boolean enabled,
+            Duration timeout,
+            Duration retryBackoff,
+            int iterations,
+            WarmupFallback fallback,
+            Clock clock
+    ) {
+        this.rosterCache = rosterCache;
+        this.employeeQueryClient = employeeQueryClient;
+        this.timeout = timeout;
+        this.retryBackoff = retryBackoff;
+        this.iterations = iterations;
+        this.fallback = fallback;
+        this.clock = clock;
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (state != State.PENDING) {
+            return;
+        }
+        URI baseUri = event.getApplicationContext() instanceof WebServerApplicationContext webContext
+                ? URI.create("http://localhost:" + webContext.getWebServer().getPort())
+                : null;
+
+        Thread thread = new Thread(() -> run(baseUri), "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs the warm-up on the calling thread.
+     *
+     * @param baseUri where this application listens, or {@code null} to skip the endpoint calls
+     */
+    void run(URI baseUri) {
+        startedAt = clock.instant();
+        deadline = startedAt.plus(timeout);
+        state = State.RUNNING;
+        logger.info("Warming up, readiness is held back for up to {}", timeout);
+
+        employeeQueryClient.supportsQuery();
+        ColumnarRoster roster = rosterCache.isEnabled() ? prefetchRoster() : null;
+        if (roster != null && baseUri != null) {
+            warmEndpoints(baseUri, roster);
+        }
+
+        state = State.COMPLETED;
+        logger.info("Warm-up completed in {} ms after {} endpoint round(s)",
+                Duration.between(startedAt, clock.instant()).toMillis(), completedIterations);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return whether readiness may report healthy: warm-up is done, disabled, or has timed out with a fallback that
+     * accepts traffic
+     */
+    public boolean isReady() {
+        return switch (state) {
+            case COMPLETED, DISABLED -> true;
+            case PENDING -> false;
+            case RUNNING -> fallback == WarmupFallback.ACCEPT_TRAFFIC && isPastDeadline();
+        };
+    }
+
+    public boolean isTimedOut() {
+        return state == State.RUNNING && isPastDeadline();
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    // Keeps retrying while readiness is held back; gives up at the deadline when the fallback accepts traffic anyway.
+    private ColumnarRoster prefetchRoster() {
+        while (true) {
+            try {
+                ColumnarRoster roster = rosterCache.get().roster();
+                logger.info("Warm-up loaded {} employee(s) into the roster cache", roster.size());
+                return roster;
+            } catch (RuntimeException e) {
+                lastFailure = e.getMessage();
+                if (fallback == WarmupFallback.ACCEPT_TRAFFIC && isPastDeadline()) {
+                    logger.warn("Warm-up could not load the roster before its deadline: {}", e.getMessage());
+                    return null;
+                }
+                logger.warn("Warm-up could not load the roster, retrying in {}: {}", retryBackoff, e.getMessage());
+                if (!sleep(retryBackoff)) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    private void warmEndpoints(URI baseUri, ColumnarRoster roster) {
+        List<URI> endpoints = new ArrayList<>(List.of(
+                baseUri.resolve("/employees"),
+                baseUri.resolve("/employees/highest-salary"),
+                baseUri.resolve("/employees/top-10-highest-earning")));
+        if (roster.size() > 0) {
+            endpoints.add(UriComponentsBuilder.fromUri(baseUri)
+                    .path("/employees/search")
+                    .queryParam("name", "{name}")
+                    .encode()
+                    .buildAndExpand(roster.name(0))
+                    .toUri());
+        }
+
+        RestTemplate loopback = new RestTemplate();
+        for (int i = 0; i < iterations && !isPastDeadline() && rosterCache.peek().isPresent(); i++) {
+            for (URI endpoint : endpoints) {
+                try {
+                    loopback.getForObject(endpoint, String.class);
+                } catch (RestClientException e) {
+                    lastFailure = e.getMessage();
+                    logger.debug("Warm-up call to {} failed: {}", endpoint, e.getMessage());
+                }
+            }
+            completedIterations = i + 1;
+        }
+    }
+
+    private boolean isPastDeadline() {
+        Instant currentDeadline = deadline;
+        return currentDeadline != null && !clock.instant().isBefore(currentDeadline);
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
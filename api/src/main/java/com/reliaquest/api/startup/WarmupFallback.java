@@ -0,0 +1,13 @@
+package com.reliaquest.api.startup;
+
+/**
+ * What readiness reports when warm-up has not finished within its timeout.
+ */
+public enum WarmupFallback {
+
+    /** Report ready anyway and serve with whatever is warm so far. */
+    ACCEPT_TRAFFIC,
+
+    /** Keep reporting not ready; warm-up keeps retrying the roster until it succeeds. */
+    REFUSE_TRAFFIC
+}
@@ -0,0 +1,33 @@
+package com.reliaquest.api.startup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@link StartupWarmup} progress as the {@code warmup} health contributor, which the readiness group includes
+ * so that {@code /actuator/health/readiness} stays down until the API is warm.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmup startupWarmup;
+
+    public WarmupHealthIndicator(StartupWarmup startupWarmup) {
+        this.startupWarmup = startupWarmup;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = startupWarmup.isReady() ? Health.up() : Health.outOfService();
+        health.withDetail("state", startupWarmup.getState())
+                .withDetail("iterations", startupWarmup.getCompletedIterations());
+        if (startupWarmup.isTimedOut()) {
+            health.withDetail("timedOut", true);
+        }
+        if (startupWarmup.getLastFailure() != null) {
+            health.withDetail("lastFailure", startupWarmup.getLastFailure());
+        }
+        return health.build();
+    }
+}
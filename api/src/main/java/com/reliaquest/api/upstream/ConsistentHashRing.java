@@ -0,0 +1,64 @@
+package com.reliaquest.api.upstream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Assigns employee ids to shards by consistent hashing. Each shard owns {@code virtualNodes} points on a 64-bit ring
+ * and an id belongs to the first point at or after its own hash, wrapping around.
+ *
+ * <p>The mock server decides which ids it may hand out with an identical ring, so the hashing here must stay in step
+ * with {@code com.reliaquest.server.service.ConsistentHashRing}.
+ */
+public final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int shards;
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashRing(int shards, int virtualNodes) {
+        if (shards < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one shard and one virtual node per shard");
+        }
+        this.shards = shards;
+        for (int shard = 0; shard < shards; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.putIfAbsent(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * @return the index of the shard owning the given id
+     */
+    public int shardOf(String id) {
+        if (shards == 1) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> owner = ring.ceilingEntry(hash(id));
+        return (owner != null ? owner : ring.firstEntry()).getValue();
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so short, similar keys spread over the ring.
+    static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,214 @@
+package com.reliaquest.api.upstream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.EmployeeResponse;
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import com.reliaquest.api.upstream.UpstreamScheduler.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Pushes filters, sorting and limits down to the mock server's query endpoint, and reads its precomputed roster
+ * statistics, so only result rows or a few numbers cross the wire.
+ *
+ * <p>Which of those endpoints the server has is discovered once through its capabilities endpoint. A server that answers
+ * the probe with an error status is remembered as unsupported; older mock servers route the path to
+ * {@code /{id}} and fail with a 500. Rate limiting and I/O failures are retried after {@code probeBackoff}, and callers
+ * fall back to fetching the full roster in the meantime.
+ *
+ * <p>Against a sharded cluster every query is scattered to all shards and the partial results merged here; the probe
+ * asks the first shard only, as every shard runs the same server. All of these are {@link Priority#INTERACTIVE} calls
+ * for the {@link UpstreamScheduler}.
+ */
+public class EmployeeQueryClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeQueryClient.class);
+
+    private static final String QUERY_CAPABILITY = "query";
+    private static final String STATS_CAPABILITY = "stats";
+
+    private final RestTemplate restTemplate;
+    private final EmployeeShards shards;
+    private final Duration probeBackoff;
+    private final UpstreamScheduler scheduler;
+    private final Clock clock;
+    private final boolean enabled;
+
+    private volatile Set<String> capabilities;
+    private volatile Instant nextProbe = Instant.MIN;
+
+    public EmployeeQueryClient(RestTemplate restTemplate, String employeeUrl, Duration probeBackoff) {
+        this(restTemplate, EmployeeShards.single(employeeUrl), probeBackoff);
+    }
+
+    public EmployeeQueryClient(RestTemplate restTemplate, EmployeeShards shards, Duration probeBackoff) {
+        this(restTemplate, shards, probeBackoff, UpstreamScheduler.disabled());
+    }
+
+    public EmployeeQueryClient(
+            RestTemplate restTemplate,
+            EmployeeShards shards,
+            Duration probeBackoff,
+            UpstreamScheduler scheduler
+    ) {
+        this(restTemplate, shards, probeBackoff, scheduler, Clock.systemUTC(), true);
+    }
+
+    EmployeeQueryClient(
+            RestTemplate restTemplate,
+            EmployeeShards shards,
+            Duration probeBackoff,
+            UpstreamScheduler scheduler,
+            Clock clock,
+            boolean enabled
+    ) {
+        this.restTemplate = restTemplate;
+        this.shards = shards;
+        this.probeBackoff = probeBackoff;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.enabled = enabled;
+    }
+
+    public static EmployeeQueryClient disabled() {
+        return new EmployeeQueryClient(
+                null, null, Duration.ZERO, UpstreamScheduler.disabled(), Clock.systemUTC(), false);
+    }
+
+    /**
+     * @return whether queries can be pushed down; probes the server on first use
+     */
+    public boolean supportsQuery() {
+        return supports(QUERY_CAPABILITY);
+    }
+
+    public boolean supportsStats() {
+        return supports(STATS_CAPABILITY);
+    }
+
+    public List<Employee> findByName(String name) {
+        List<Employee> matches = new ArrayList<>();
+        shards.scatter(shard -> query(UriComponentsBuilder.fromHttpUrl(shards.employeeUrl(shard))
+                .path("/query")
+                .queryParam("name", "{name}")
+                .encode()
+                .buildAndExpand(name)
+                .toUri())).forEach(matches::addAll);
+        return matches;
+    }
+
+    /**
+     * @return the highest earners, highest first, with ties in roster order
+     */
+    public List<Employee> topBySalary(int limit) {
+        List<List<Employee>> partials = shards.scatter(shard -> query(
+                UriComponentsBuilder.fromHttpUrl(shards.employeeUrl(shard))
+                        .path("/query")
+                        .queryParam("sort", "SALARY")
+                        .queryParam("direction", "DESC")
+                        .queryParam("limit", limit)
+                        .build()
+                        .toUri()));
+        if (partials.size() == 1) {
+            return partials.get(0);
+        }
+        // Each shard's top N is sorted already; a stable sort of their concatenation keeps ties in shard order.
+        return partials.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingInt(Employee::getEmployeeSalary).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return the highest salary from the server's maintained aggregates, or empty for an empty roster
+     */
+    public OptionalInt maxSalary() {
+        return shards.scatter(shard -> maxSalary(shards.employeeUrl(shard))).stream()
+                .filter(OptionalInt::isPresent)
+                .mapToInt(OptionalInt::getAsInt)
+                .max();
+    }
+
+    private OptionalInt maxSalary(String employeeUrl) {
+        JsonNode response = scheduler.call(
+                Priority.INTERACTIVE, () -> restTemplate.getForObject(employeeUrl + "/stats", JsonNode.class));
+        if (response == null || !response.path("data").isObject()) {
+            throw new EmployeeServiceException(ErrorKind.UPSTREAM_ERROR, "No stats found in response");
+        }
+        JsonNode maxSalary = response.path("data").path("maxSalary");
+        return maxSalary.isNumber() ? OptionalInt.of(maxSalary.intValue()) : OptionalInt.empty();
+    }
+
+    private List<Employee> query(URI uri) {
+        EmployeeResponse response = scheduler.call(
+                Priority.INTERACTIVE, () -> restTemplate.getForObject(uri, EmployeeResponse.class));
+        if (response == null || response.getData() == null) {
+            throw new EmployeeServiceException(ErrorKind.UPSTREAM_ERROR, "No employees found in response");
+        }
+        return response.getData();
+    }
+
+    private boolean supports(String capability) {
+        if (!enabled) {
+            return false;
+        }
+        Set<String> known = capabilities;
+        return (known != null ? known : probe()).contains(capability);
+    }
+
+    private synchronized Set<String> probe() {
+        if (capabilities != null) {
+            return capabilities;
+        }
+        if (clock.instant().isBefore(nextProbe)) {
+            return Set.of();
+        }
+
+        try {
+            JsonNode response = scheduler.call(Priority.INTERACTIVE,
+                    () -> restTemplate.getForObject(shards.employeeUrl(0) + "/capabilities", JsonNode.class));
+            capabilities = parseCapabilities(response);
+            logger.info("Upstream capabilities: {}", capabilities);
+            return capabilities;
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            nextProbe = clock.instant().plus(probeBackoff);
+            logger.debug("Capability probe rate limited, retrying after {}", probeBackoff);
+            return Set.of();
+        } catch (HttpStatusCodeException e) {
+            capabilities = Set.of();
+            logger.info("Upstream has no capabilities endpoint ({}), pushdown disabled", e.getStatusCode());
+            return capabilities;
+        } catch (RestClientException | EmployeeServiceException e) {
+            nextProbe = clock.instant().plus(probeBackoff);
+            logger.debug("Capability probe failed, retrying after {}: {}", probeBackoff, e.getMessage());
+            return Set.of();
+        }
+    }
+
+    private static Set<String> parseCapabilities(JsonNode response) {
+        Set<String> capabilities = new HashSet<>();
+        if (response != null) {
+            response.path("data").forEach(capability -> capabilities.add(capability.asText()));
+        }
+        return Set.copyOf(capabilities);
+    }
+}
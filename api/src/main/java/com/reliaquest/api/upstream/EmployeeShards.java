@@ -0,0 +1,153 @@
+package com.reliaquest.api.upstream;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * The mock server instances the API talks to. Each shard owns the employee ids its {@link ConsistentHashRing} partition
+ * maps to, so a call for one id goes to exactly one shard, while list, search and top-N calls are scattered to every
+ * shard in parallel and their partial results gathered in shard order.
+ *
+ * <p>A shard may be served by several replicas; every call to it goes to the replica its {@link ReplicaPool} picks.
+ *
+ * <p>With a single shard, which is the default, every call runs on the caller's thread.
+ */
+public class EmployeeShards implements AutoCloseable {
+
+    private final List<ReplicaPool> pools;
+    private final Map<String, Replica> replicasByAuthority = new LinkedHashMap<>();
+    private final ConsistentHashRing ring;
+    private final Clock clock;
+    private final ExecutorService executor;
+    private final AtomicInteger nextCreate = new AtomicInteger();
+
+    /**
+     * @param employeeUrls the {@code /employee} endpoint of every shard, in shard index order
+     */
+    public EmployeeShards(List<String> employeeUrls, int virtualNodes) {
+        this(employeeUrls.stream().map(url -> new ReplicaPool(List.of(url))).toList(), virtualNodes,
+                Clock.systemUTC());
+    }
+
+    EmployeeShards(List<ReplicaPool> pools, int virtualNodes, Clock clock) {
+        if (pools.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.pools = List.copyOf(pools);
+        this.ring = new ConsistentHashRing(pools.size(), virtualNodes);
+        this.clock = clock;
+        pools.forEach(pool -> pool.getReplicas()
+                .forEach(replica -> replicasByAuthority.putIfAbsent(replica.getAuthority(), replica)));
+        this.executor = pools.size() == 1
+                ? null
+                : Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "upstream-scatter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static EmployeeShards single(String employeeUrl) {
+        return new EmployeeShards(List.of(employeeUrl), 1);
+    }
+
+    /**
+     * @param replicaUrls for every shard in index order, the {@code /employee} endpoints of its replicas
+     */
+    public static EmployeeShards replicated(List<List<String>> replicaUrls, int virtualNodes) {
+        return new EmployeeShards(replicaUrls.stream().map(ReplicaPool::new).toList(), virtualNodes,
+                Clock.systemUTC());
+    }
+
+    public int size() {
+        return pools.size();
+    }
+
+    /**
+     * @return the {@code /employee} endpoint of the replica picked to serve the next call to the shard
+     */
+    public String employeeUrl(int shard) {
+        return pools.get(shard).choose(clock.instant()).getEmployeeUrl();
+    }
+
+    /**
+     * @return the replica listening at {@code host:port}, if it is one of ours
+     */
+    public Optional<Replica> replica(String authority) {
+        return Optional.ofNullable(replicasByAuthority.get(authority));
+    }
+
+    public List<Replica> replicas() {
+        return List.copyOf(replicasByAuthority.values());
+    }
+
+    /**
+     * @return whether calls to a shard of the replica can be routed to another replica while it is ejected
+     */
+    public boolean hasAlternative(Replica replica) {
+        return pools.stream().anyMatch(pool -> pool.getReplicas().size() > 1 && pool.getReplicas().contains(replica));
+    }
+
+    /**
+     * @return the {@code /employee} endpoint of a replica of the shard owning the id. Ids are hashed in the lower case form the
+     * mock server generates them in.
+     */
+    public String ownerUrl(String id) {
+        return employeeUrl(ring.shardOf(id.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * @return the shard a new employee is created on; the server assigns it an id from its own partition
+     */
+    public String nextCreateUrl() {
+        return employeeUrl(Math.floorMod(nextCreate.getAndIncrement(), pools.size()));
+    }
+
+    /**
+     * Calls every shard in parallel and waits for all of them.
+     *
+     * @param call invoked with each shard index
+     * @return the results in shard order
+     * @throws RuntimeException the failure of the lowest numbered shard that failed
+     */
+    public <T> List<T> scatter(IntFunction<T> call) {
+        if (executor == null) {
+            return List.of(call.apply(0));
+        }
+
+        List<CompletableFuture<T>> calls = new ArrayList<>(pools.size());
+        for (int shard = 0; shard < pools.size(); shard++) {
+            int index = shard;
+            calls.add(CompletableFuture.supplyAsync(() -> call.apply(index), executor));
+        }
+
+        List<T> results = new ArrayList<>(calls.size());
+        for (CompletableFuture<T> result : calls) {
+            try {
+                results.add(result.join());
+            } catch (CompletionException e) {
+                calls.forEach(pending -> pending.cancel(true));
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.reliaquest.api.upstream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.reliaquest.api.entity.Employee;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Computes salary aggregates straight off the upstream {@code {"data": [...], "status": ...}} envelope with a streaming
+ * parser, so the roster is never materialized as a {@code List<Employee>}.
+ *
+ * <p>Only the rows that are still candidates for the top-N are turned into {@link Employee} objects; every other row
+ * is skipped as soon as its salary shows it cannot make the cut. Memory is therefore O(topSize) regardless of the
+ * roster size.
+ *
+ * <p>The envelope may arrive as JSON or as Smile; the parser is picked from the response content type.
+ */
+public class EmployeeStreamAggregator {
+
+    private static final String DATA_FIELD = "data";
+    private static final String ID_FIELD = "id";
+    private static final String NAME_FIELD = "employee_name";
+    private static final String SALARY_FIELD = "employee_salary";
+    private static final String AGE_FIELD = "employee_age";
+    private static final String TITLE_FIELD = "employee_title";
+    private static final String EMAIL_FIELD = "employee_email";
+
+    // Ties keep upstream order, matching the stable sort this replaces: a later row ranks below an earlier one.
+    private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingInt(Candidate::salary)
+            .thenComparing(Comparator.comparingInt(Candidate::index).reversed());
+
+    private final UpstreamFormats formats;
+
+    public EmployeeStreamAggregator() {
+        this(false);
+    }
+
+    public EmployeeStreamAggregator(boolean preferBinary) {
+        this(new UpstreamFormats(preferBinary));
+    }
+
+    public EmployeeStreamAggregator(UpstreamFormats formats) {
+        this.formats = formats;
+    }
+
+    public List<MediaType> acceptedMediaTypes() {
+        return formats.acceptedMediaTypes();
+    }
+
+    /**
+     * @param body upstream response body
+     * @param topSize number of highest earners to keep, {@code 0} to only compute the count and maximum
+     * @return the aggregate, or empty if the envelope carried no {@code data} array
+     */
+    public Optional<SalaryAggregate> aggregate(InputStream body, int topSize) throws IOException {
+        return aggregate(body, MediaType.APPLICATION_JSON, topSize);
+    }
+
+    public Optional<SalaryAggregate> aggregate(InputStream body, MediaType contentType, int topSize)
+            throws IOException {
+        try (JsonParser parser = formats.createParser(body, contentType)) {
+            return aggregate(parser, topSize);
+        }
+    }
+
+    public Optional<SalaryAggregate> aggregate(JsonParser parser, int topSize) throws IOException {
+        if (topSize < 0) {
+            throw new IllegalArgumentException("Top size must not be negative");
+        }
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return Optional.empty();
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (DATA_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                return Optional.of(aggregateRows(parser, topSize));
+            }
+            parser.skipChildren();
+        }
+        return Optional.empty();
+    }
+
+    private SalaryAggregate aggregateRows(JsonParser parser, int topSize) throws IOException {
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Math.max(1, topSize), WORST_FIRST);
+        int count = 0;
+        int maxSalary = Integer.MIN_VALUE;
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Candidate candidate = readRow(parser, count, topSize, candidates);
+            count++;
+            maxSalary = Math.max(maxSalary, candidate.salary());
+
+            if (candidate.employee() != null) {
+                candidates.add(candidate);
+                if (candidates.size() > topSize) {
+                    candidates.poll();
+                }
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(candidates);
+        ranked.sort(WORST_FIRST.reversed());
+        List<Employee> topEarners = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            topEarners.add(candidate.employee());
+        }
+        return new SalaryAggregate(count, count == 0 ? 0 : maxSalary, topEarners);
+    }
+
+    /*
+     * Reads one row object. Text fields seen before the salary are kept because the row might still qualify; once the
+     * salary rules the row out the remaining fields are skipped without being decoded.
+     */
+    private Candidate readRow(JsonParser parser, int index, int topSize, PriorityQueue<Candidate> candidates)
+            throws IOException {
+        String id = null;
+        String name = null;
+        String age = null;
+        String title = null;
+        String email = null;
+        Integer salary = null;
+        boolean wanted = topSize > 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (SALARY_FIELD.equals(field)) {
+                salary = parser.getValueAsInt();
+                wanted = wanted && (candidates.size() < topSize || salary > candidates.peek().salary());
+            } else if (!wanted || value.isStructStart()) {
+                parser.skipChildren();
+            } else if (ID_FIELD.equals(field)) {
+                id = parser.getValueAsString();
+            } else if (NAME_FIELD.equals(field)) {
+                name = parser.getValueAsString();
+            } else if (AGE_FIELD.equals(field)) {
+                age = parser.getValueAsString();
+            } else if (TITLE_FIELD.equals(field)) {
+                title = parser.getValueAsString();
+            } else if (EMAIL_FIELD.equals(field)) {
+                email = parser.getValueAsString();
+            }
+        }
+
+        int salaryValue = salary == null ? 0 : salary;
+        if (!wanted || (salary == null && candidates.size() >= topSize)) {
+            return new Candidate(null, index, salaryValue);
+        }
+        return new Candidate(new Employee(id, name, salaryValue, age, title, email), index, salaryValue);
+    }
+
+    public record SalaryAggregate(int count, int maxSalary, List<Employee> topEarners) {
+
+        /**
+         * Combines the aggregates of consecutive parts of one roster, e.g. one per shard, as if it had been aggregated
+         * whole: ties between parts keep part order.
+         */
+        public static SalaryAggregate merge(List<SalaryAggregate> parts, int topSize) {
+            if (parts.size() == 1) {
+                return parts.get(0);
+            }
+            int count = 0;
+            int maxSalary = 0;
+            List<Employee> candidates = new ArrayList<>();
+            for (SalaryAggregate part : parts) {
+                if (part.count() == 0) {
+                    continue;
+                }
+                maxSalary = count == 0 ? part.maxSalary() : Math.max(maxSalary, part.maxSalary());
+                count += part.count();
+                candidates.addAll(part.topEarners());
+            }
+            List<Employee> topEarners = candidates.stream()
+                    .sorted(Comparator.comparingInt(Employee::getEmployeeSalary).reversed())
+                    .limit(topSize)
+                    .toList();
+            return new SalaryAggregate(count, maxSalary, topEarners);
+        }
+    }
+
+    private record Candidate(Employee employee, int index, int salary) {}
+}
@@ -0,0 +1,217 @@
+package com.reliaquest.api.upstream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.reliaquest.api.entity.EmployeeFields;
+import com.reliaquest.api.roster.ColumnarRoster;
+import org.springframework.http.MediaType;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Writes employees to a client as one JSON array, a row at a time, from either an upstream
+ * {@code {"data": [...], "status": ...}} envelope or a cached {@link ColumnarRoster}. Upstream rows are copied token by
+ * token from the streaming parser to the generator, so neither path builds {@code Employee} objects or a list of them:
+ * memory stays at the parser and generator buffers whatever the roster size.
+ *
+ * <p>The output matches what {@code GET /employees} writes for the same rows, including the age as a string, and
+ * honours the requested {@link EmployeeFields}. The generator is flushed every {@code flushRows} rows so a slow
+ * upstream does not hold back rows that have already arrived.
+ *
+ * <p>Failures writing to the client surface as {@link ClientDisconnectedException}, so callers can tell a client that
+ * went away from an upstream that failed.
+ */
+public class EmployeeStreamWriter {
+
+    public static final int DEFAULT_FLUSH_ROWS = 512;
+
+    private static final String DATA_FIELD = "data";
+    private static final String AGE_FIELD = "employee_age";
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("employee_name");
+    private static final SerializableString SALARY = new SerializedString("employee_salary");
+    private static final SerializableString AGE = new SerializedString(AGE_FIELD);
+    private static final SerializableString TITLE = new SerializedString("employee_title");
+    private static final SerializableString EMAIL = new SerializedString("employee_email");
+
+    // Closing after a failure must not complete the array, or a truncated response would look whole.
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+            .build();
+    private final UpstreamFormats formats;
+    private final int flushRows;
+
+    public EmployeeStreamWriter() {
+        this(new UpstreamFormats(false), DEFAULT_FLUSH_ROWS);
+    }
+
+    public EmployeeStreamWriter(UpstreamFormats formats, int flushRows) {
+        if (flushRows < 1) {
+            throw new IllegalArgumentException("Flush rows must be positive");
+        }
+        this.formats = formats;
+        this.flushRows = flushRows;
+    }
+
+    public List<MediaType> acceptedMediaTypes() {
+        return formats.acceptedMediaTypes();
+    }
+
+    /**
+     * @param out the client response body, left open when the generator is closed
+     */
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return jsonFactory.createGenerator(new ClientOutputStream(out));
+    }
+
+    /**
+     * Copies the rows of an upstream envelope into the array {@code out} is writing.
+     *
+     * @return the number of rows copied, or empty if the envelope carried no {@code data} array
+     */
+    public OptionalInt copyRows(InputStream body, MediaType contentType, JsonGenerator out, EmployeeFields fields)
+            throws IOException {
+        try (JsonParser parser = formats.createParser(body, contentType)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return OptionalInt.empty();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (DATA_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    return OptionalInt.of(copyRows(parser, out, fields.names()));
+                }
+                parser.skipChildren();
+            }
+            return OptionalInt.empty();
+        }
+    }
+
+    private int copyRows(JsonParser parser, JsonGenerator out, Set<String> fields) throws IOException {
+        int rows = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            out.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!fields.contains(field)) {
+                    parser.skipChildren();
+                } else if (AGE_FIELD.equals(field) && value.isNumeric()) {
+                    out.writeFieldName(AGE);
+                    out.writeString(parser.getValueAsString());
+                } else {
+                    out.writeFieldName(field);
+                    out.copyCurrentStructure(parser);
+                }
+            }
+            out.writeEndObject();
+            if (++rows % flushRows == 0) {
+                out.flush();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes every row of a cached roster into the array {@code out} is writing.
+     */
+    public void writeRows(ColumnarRoster roster, JsonGenerator out, EmployeeFields fields) throws IOException {
+        Set<String> names = fields.names();
+        boolean id = names.contains(ID.getValue());
+        boolean name = names.contains(NAME.getValue());
+        boolean salary = names.contains(SALARY.getValue());
+        boolean age = names.contains(AGE.getValue());
+        boolean title = names.contains(TITLE.getValue());
+        boolean email = names.contains(EMAIL.getValue());
+
+        for (int row = 0; row < roster.size(); row++) {
+            out.writeStartObject();
+            if (id) {
+                out.writeFieldName(ID);
+                out.writeString(roster.id(row));
+            }
+            if (name) {
+                out.writeFieldName(NAME);
+                out.writeString(roster.name(row));
+            }
+            if (salary) {
+                out.writeFieldName(SALARY);
+                out.writeNumber(roster.salary(row));
+            }
+            if (age) {
+                out.writeFieldName(AGE);
+                int value = roster.age(row);
+                out.writeString(value == ColumnarRoster.UNKNOWN_AGE ? null : Integer.toString(value));
+            }
+            if (title) {
+                out.writeFieldName(TITLE);
+                out.writeString(roster.title(row));
+            }
+            if (email) {
+                out.writeFieldName(EMAIL);
+                out.writeString(roster.email(row));
+            }
+            out.writeEndObject();
+            if ((row + 1) % flushRows == 0) {
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * The client closed the connection or stopped reading; nothing more can be written to it.
+     */
+    public static class ClientDisconnectedException extends IOException {
+
+        public ClientDisconnectedException(IOException cause) {
+            super("Client disconnected: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static class ClientOutputStream extends FilterOutputStream {
+
+        ClientOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                out.write(b);
+            } catch (IOException e) {
+                throw new ClientDisconnectedException(e);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                out.write(b, off, len);
+            } catch (IOException e) {
+                throw new ClientDisconnectedException(e);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new ClientDisconnectedException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.reliaquest.api.upstream;
+
+import java.time.Duration;
+
+/**
+ * Token bucket that bounds how many hedged (duplicate) upstream calls we may send. Every primary request earns
+ * {@code tokensPerRequest} tokens up to {@code maxTokens}, and every hedge spends a whole token, so hedges can never
+ * exceed that fraction of the primary traffic.
+ *
+ * <p>The mock server rate limits aggressively, so as soon as it answers 429 the bucket is emptied and hedging is
+ * paused for {@code throttleCooldown}; a hedge must never be the request that trips the limiter.
+ */
+public class HedgeBudget {
+
+    private final double tokensPerRequest;
+    private final double maxTokens;
+    private final long throttleCooldownNanos;
+
+    private double tokens;
+    private long pausedUntilNanos;
+    private boolean paused;
+
+    public HedgeBudget(double tokensPerRequest, double maxTokens, Duration throttleCooldown) {
+        if (tokensPerRequest < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("Hedge budget must not be negative");
+        }
+        this.tokensPerRequest = tokensPerRequest;
+        this.maxTokens = maxTokens;
+        this.throttleCooldownNanos = throttleCooldown.toNanos();
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + tokensPerRequest);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (paused) {
+            if (System.nanoTime() - pausedUntilNanos < 0) {
+                return false;
+            }
+            paused = false;
+        }
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized void onThrottled() {
+        tokens = 0;
+        paused = true;
+        pausedUntilNanos = System.nanoTime() + throttleCooldownNanos;
+    }
+}
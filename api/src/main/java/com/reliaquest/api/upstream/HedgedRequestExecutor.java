@@ -0,0 +1,252 @@
+package com.reliaquest.api.upstream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs an idempotent upstream call and, if it has not answered within the tracked latency percentile, sends a second
+ * identical call. Whichever attempt succeeds first wins and the other one is cancelled.
+ *
+ * <p>The primary attempt runs on the caller's thread, so a call that is never hedged costs no extra thread. Hedges run
+ * on a pool of {@code threads} threads that queues nothing: when every hedge thread is busy, the call simply goes
+ * unhedged. A hedge that wins interrupts the caller to cut the primary attempt short.
+ *
+ * <p>Hedges are paid for out of a {@link HedgeBudget}, which keeps the duplicate traffic to a small fraction of the
+ * primary traffic and stops hedging entirely while the mock server is rate limiting us.
+ */
+public class HedgedRequestExecutor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedRequestExecutor.class);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final LatencyTracker latencyTracker;
+    private final HedgeBudget budget;
+    private final ExecutorService hedges;
+    private final ScheduledExecutorService timer;
+
+    public HedgedRequestExecutor(
+            double percentile,
+            Duration minDelay,
+            Duration maxDelay,
+            LatencyTracker latencyTracker,
+            HedgeBudget budget,
+            int threads
+    ) {
+        this(true, percentile, minDelay, maxDelay, latencyTracker, budget,
+                new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                        daemon("upstream-hedge"), new ThreadPoolExecutor.AbortPolicy()),
+                newTimer());
+    }
+
+    private HedgedRequestExecutor(
+            boolean enabled,
+            double percentile,
+            Duration minDelay,
+            Duration maxDelay,
+            LatencyTracker latencyTracker,
+            HedgeBudget budget,
+            ExecutorService hedges,
+            ScheduledExecutorService timer
+    ) {
+        if (minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("Minimum hedge delay must not exceed the maximum hedge delay");
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.latencyTracker = latencyTracker;
+        this.budget = budget;
+        this.hedges = hedges;
+        this.timer = timer;
+    }
+
+    /**
+     * @return an executor that simply runs every call on the caller's thread
+     */
+    public static HedgedRequestExecutor disabled() {
+        return new HedgedRequestExecutor(false, 100, Duration.ZERO, Duration.ZERO, null, null, null, null);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        budget.onRequest();
+        Race<T> race = new Race<>(call);
+        ScheduledFuture<?> hedgeTimer = timer.schedule(race::hedge, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        long start = System.nanoTime();
+        T value = null;
+        RuntimeException failure = null;
+        try {
+            value = attempt(call);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            hedgeTimer.cancel(false);
+            race.primaryDone();
+        }
+
+        Future<?> hedge = race.hedgeTask();
+        if (hedge == null) {
+            if (failure != null) {
+                throw failure;
+            }
+            latencyTracker.record(System.nanoTime() - start);
+            return value;
+        }
+        if (failure == null && !race.hedgeWon()) {
+            hedge.cancel(true);
+            latencyTracker.record(System.nanoTime() - start);
+            return value;
+        }
+        // The hedge won and cut the primary short, or the primary failed and the hedge is all that is left.
+        try {
+            return race.hedgeResult().get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            hedge.cancel(true);
+            throw interrupted(e);
+        }
+    }
+
+    long hedgeDelayNanos() {
+        long delay = latencyTracker.percentile(percentile).orElse(maxDelayNanos);
+        return Math.max(minDelayNanos, Math.min(delay, maxDelayNanos));
+    }
+
+    @Override
+    public void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+            hedges.shutdownNow();
+        }
+    }
+
+    private <T> T attempt(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            budget.onThrottled();
+            throw e;
+        }
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, daemon("upstream-hedge-timer"));
+        // Nearly every timer is cancelled by a primary that answered in time; drop those right away.
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static RuntimeException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new ResourceAccessException("Interrupted while waiting for upstream response: " + e.getMessage());
+    }
+
+    /*
+     * One call's primary attempt, on the caller's thread, against at most one hedge. The caller is only interrupted
+     * while its primary attempt is running, and the interrupt is cleared again once the attempt is over.
+     */
+    private final class Race<T> {
+
+        private final Supplier<T> call;
+        private final Thread caller = Thread.currentThread();
+        private final CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+        private boolean primaryDone;
+        private boolean hedgeWon;
+        private Future<?> hedgeTask;
+
+        private Race(Supplier<T> call) {
+            this.call = call;
+        }
+
+        // On the timer thread, once the primary attempt has taken longer than the hedge delay.
+        private synchronized void hedge() {
+            if (primaryDone || !budget.tryAcquire()) {
+                return;
+            }
+            try {
+                hedgeTask = hedges.submit(() -> {
+                    try {
+                        T value = attempt(call);
+                        hedgeResult.complete(value);
+                        won();
+                    } catch (Throwable e) {
+                        hedgeResult.completeExceptionally(e);
+                    }
+                });
+                logger.debug("Upstream call exceeded p{} latency, sent hedged request", percentile);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Every hedge thread is busy, not hedging");
+            }
+        }
+
+        private synchronized void won() {
+            if (!primaryDone) {
+                hedgeWon = true;
+                caller.interrupt();
+            }
+        }
+
+        private synchronized void primaryDone() {
+            primaryDone = true;
+            if (hedgeWon) {
+                Thread.interrupted();
+            }
+        }
+
+        private synchronized Future<?> hedgeTask() {
+            return hedgeTask;
+        }
+
+        private synchronized boolean hedgeWon() {
+            return hedgeWon;
+        }
+
+        private CompletableFuture<T> hedgeResult() {
+            return hedgeResult;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.reliaquest.api.upstream;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps a sliding window of the most recent upstream call latencies so that callers can ask for a percentile
+ * without keeping a full histogram around. The window is small on purpose: the hedge delay should follow the
+ * current behaviour of the mock server, not its lifetime average.
+ */
+public class LatencyTracker {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final int minSamples;
+
+    public LatencyTracker(int windowSize, int minSamples) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be a positive number");
+        }
+        this.samples = new AtomicLongArray(windowSize);
+        this.minSamples = Math.max(1, Math.min(minSamples, windowSize));
+    }
+
+    public void record(long latencyNanos) {
+        long slot = recorded.getAndIncrement() % samples.length();
+        samples.set((int) slot, latencyNanos);
+    }
+
+    /**
+     * @param percentile value in the range (0, 100]
+     * @return the latency at the given percentile, or empty while fewer than {@code minSamples} calls were recorded
+     */
+    public OptionalLong percentile(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in the range (0, 100]");
+        }
+
+        int count = (int) Math.min(recorded.get(), samples.length());
+        if (count < minSamples) {
+            return OptionalLong.empty();
+        }
+
+        long[] snapshot = new long[count];
+        for (int i = 0; i < count; i++) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+
+        int rank = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return OptionalLong.of(snapshot[Math.max(0, Math.min(rank, count - 1))]);
+    }
+}
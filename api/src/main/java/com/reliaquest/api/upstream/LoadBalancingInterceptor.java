@@ -0,0 +1,128 @@
+package com.reliaquest.api.upstream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds the outcome of every upstream call back into the {@link Replica} it was sent to, which is what the
+ * {@link ReplicaPool} balances on. A 429, a 5xx or an I/O failure ejects the replica, so calls are routed around an
+ * instance sitting in its rate limit backoff until the ejection time has passed. An ejection is logged as a warning only
+ * when it takes an admitted replica out of a pool that has others to route to; repeats while it is already ejected,
+ * and failures of a replica that is alone in its shard, are logged at debug level.
+ *
+ * <p>Per replica, it also publishes to Micrometer:
+ * <ul>
+ *     <li>{@code employee.upstream.requests}: a latency timer tagged with the replica and the outcome;</li>
+ *     <li>{@code employee.upstream.outstanding}: requests in flight;</li>
+ *     <li>{@code employee.upstream.ejected}: {@code 1} while ejected.</li>
+ * </ul>
+ * Latency is measured until the response headers arrive, as the body of a streamed response is read after this
+ * interceptor has returned.
+ */
+public class LoadBalancingInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadBalancingInterceptor.class);
+
+    private static final String REQUESTS_METRIC = "employee.upstream.requests";
+
+    private final EmployeeShards shards;
+    private final Duration ejectionTime;
+    private final Duration maxEjectionTime;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public LoadBalancingInterceptor(
+            EmployeeShards shards,
+            Duration ejectionTime,
+            Duration maxEjectionTime,
+            MeterRegistry meterRegistry
+    ) {
+        this(shards, ejectionTime, maxEjectionTime, meterRegistry, Clock.systemUTC());
+    }
+
+    LoadBalancingInterceptor(
+            EmployeeShards shards,
+            Duration ejectionTime,
+            Duration maxEjectionTime,
+            MeterRegistry meterRegistry,
+            Clock clock
+    ) {
+        this.shards = shards;
+        this.ejectionTime = ejectionTime;
+        this.maxEjectionTime = maxEjectionTime;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        for (Replica replica : shards.replicas()) {
+            Gauge.builder("employee.upstream.outstanding", replica, Replica::getOutstanding)
+                    .tag("replica", replica.getAuthority())
+                    .register(meterRegistry);
+            Gauge.builder("employee.upstream.ejected", replica, r -> r.isAdmitted(clock.instant()) ? 0 : 1)
+                    .tag("replica", replica.getAuthority())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Optional<Replica> target = shards.replica(request.getURI().getRawAuthority());
+        if (target.isEmpty()) {
+            return execution.execute(request, body);
+        }
+
+        Replica replica = target.get();
+        replica.onStart();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            long elapsed = System.nanoTime() - start;
+            HttpStatusCode status = response.getStatusCode();
+            if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value() || status.is5xxServerError()) {
+                fail(replica, elapsed, Integer.toString(status.value()));
+            } else {
+                replica.onSuccess(elapsed);
+                record(replica, elapsed, "success");
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            fail(replica, System.nanoTime() - start, "io-error");
+            throw e;
+        }
+    }
+
+    private void fail(Replica replica, long elapsedNanos, String outcome) {
+        Instant now = clock.instant();
+        boolean wasAdmitted = replica.isAdmitted(now);
+        replica.onFailure(elapsedNanos, now, ejectionTime, maxEjectionTime);
+        record(replica, elapsedNanos, outcome);
+        if (wasAdmitted && shards.hasAlternative(replica)) {
+            logger.warn("Ejected upstream replica {} until {} after {}", replica, replica.getEjectedUntil(), outcome);
+        } else {
+            logger.debug("Upstream replica {} ejected until {} after {}", replica, replica.getEjectedUntil(), outcome);
+        }
+    }
+
+    private void record(Replica replica, long elapsedNanos, String outcome) {
+        Timer.builder(REQUESTS_METRIC)
+                .tag("replica", replica.getAuthority())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,88 @@
+package com.reliaquest.api.upstream;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One mock server instance behind a shard, with the load and health state the balancer picks replicas by: requests in
+ * flight, a moving average of response latency, and how long it is ejected for after answering 429 or 5xx.
+ */
+public final class Replica {
+
+    // Weight of the newest sample in the latency average; about the last ten requests dominate it.
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final String employeeUrl;
+    private final String authority;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveEjections = new AtomicInteger();
+
+    private volatile double latencyNanos;
+    private volatile Instant ejectedUntil = Instant.MIN;
+
+    public Replica(String employeeUrl) {
+        this.employeeUrl = employeeUrl;
+        this.authority = URI.create(employeeUrl).getRawAuthority();
+    }
+
+    public String getEmployeeUrl() {
+        return employeeUrl;
+    }
+
+    /**
+     * @return {@code host:port}, which identifies the replica an outgoing request is addressed to
+     */
+    public String getAuthority() {
+        return authority;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public double getLatencyMillis() {
+        return latencyNanos / 1_000_000d;
+    }
+
+    public Instant getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    public boolean isAdmitted(Instant now) {
+        return !now.isBefore(ejectedUntil);
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    void onSuccess(long elapsedNanos) {
+        outstanding.decrementAndGet();
+        recordLatency(elapsedNanos);
+        consecutiveEjections.set(0);
+    }
+
+    /**
+     * Ejects the replica for {@code ejectionTime}, doubled for every ejection since its last success and capped at
+     * {@code maxEjectionTime}, so a replica that keeps failing is probed less and less often.
+     */
+    void onFailure(long elapsedNanos, Instant now, Duration ejectionTime, Duration maxEjectionTime) {
+        outstanding.decrementAndGet();
+        recordLatency(elapsedNanos);
+        int ejections = Math.min(consecutiveEjections.getAndIncrement(), 16);
+        Duration ejection = ejectionTime.multipliedBy(1L << ejections);
+        ejectedUntil = now.plus(ejection.compareTo(maxEjectionTime) > 0 ? maxEjectionTime : ejection);
+    }
+
+    private void recordLatency(long elapsedNanos) {
+        double previous = latencyNanos;
+        latencyNanos = previous == 0 ? elapsedNanos : previous + LATENCY_SMOOTHING * (elapsedNanos - previous);
+    }
+
+    @Override
+    public String toString() {
+        return authority;
+    }
+}
@@ -0,0 +1,63 @@
+package com.reliaquest.api.upstream;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The replicas serving one shard, picked by power of two choices: two distinct admitted replicas are drawn at random
+ * and the one with fewer requests in flight wins, with the lower average latency breaking ties. That spreads load
+ * almost as well as always taking the least loaded replica, without every caller herding onto the same one.
+ *
+ * <p>Ejected replicas are skipped until their ejection ends. If every replica is ejected, the one that is due back
+ * first is used anyway rather than failing the call locally.
+ */
+public final class ReplicaPool {
+
+    private static final Comparator<Replica> LEAST_LOADED = Comparator.comparingInt(Replica::getOutstanding)
+            .thenComparingDouble(Replica::getLatencyMillis);
+
+    private final List<Replica> replicas;
+
+    public ReplicaPool(List<String> employeeUrls) {
+        if (employeeUrls.isEmpty()) {
+            throw new IllegalArgumentException("A shard needs at least one replica");
+        }
+        this.replicas = employeeUrls.stream().map(Replica::new).toList();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public Replica choose(Instant now) {
+        if (replicas.size() == 1) {
+            return replicas.get(0);
+        }
+
+        List<Replica> admitted = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isAdmitted(now)) {
+                admitted.add(replica);
+            }
+        }
+        if (admitted.isEmpty()) {
+            return replicas.stream().min(Comparator.comparing(Replica::getEjectedUntil)).orElseThrow();
+        }
+        if (admitted.size() == 1) {
+            return admitted.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(admitted.size());
+        int second = random.nextInt(admitted.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Replica a = admitted.get(first);
+        Replica b = admitted.get(second);
+        return LEAST_LOADED.compare(a, b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,44 @@
+package com.reliaquest.api.upstream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire formats the API reads from the mock server when it parses responses itself instead of going through
+ * RestTemplate's message converters: the Accept header to send and the streaming parser for what came back.
+ */
+public class UpstreamFormats {
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final List<MediaType> JSON_ONLY = List.of(MediaType.APPLICATION_JSON);
+    private static final List<MediaType> SMILE_PREFERRED =
+            List.of(SMILE, new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9")));
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final boolean preferBinary;
+
+    public UpstreamFormats(boolean preferBinary) {
+        this.preferBinary = preferBinary;
+    }
+
+    /**
+     * @return the Accept header to send upstream: Smile first when binary format is preferred, JSON otherwise
+     */
+    public List<MediaType> acceptedMediaTypes() {
+        return preferBinary ? SMILE_PREFERRED : JSON_ONLY;
+    }
+
+    public JsonParser createParser(InputStream body, MediaType contentType) throws IOException {
+        JsonFactory factory = contentType != null && SMILE.isCompatibleWith(contentType) ? smileFactory : jsonFactory;
+        return factory.createParser(body);
+    }
+}
@@ -0,0 +1,76 @@
+package com.reliaquest.api.upstream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import com.reliaquest.api.roster.ColumnarRoster;
+import com.reliaquest.api.roster.ColumnarRosterReader;
+import com.reliaquest.api.roster.RosterLoader;
+import com.reliaquest.api.upstream.UpstreamScheduler.Priority;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+
+/**
+ * Loads the roster from the mock server's list endpoint, parsing the response straight into columns. A sharded roster
+ * is fetched from every shard in parallel and concatenated in shard order. For the {@link UpstreamScheduler}, a load
+ * that a user's read is blocked on is {@link Priority#INTERACTIVE}, and any other refresh {@link Priority#BACKGROUND}.
+ */
+public class UpstreamRosterLoader implements RosterLoader {
+
+    private final RestTemplate restTemplate;
+    private final UpstreamFormats formats;
+    private final ColumnarRosterReader reader = new ColumnarRosterReader();
+    private final EmployeeShards shards;
+    private final UpstreamScheduler scheduler;
+
+    public UpstreamRosterLoader(RestTemplate restTemplate, UpstreamFormats formats, EmployeeShards shards) {
+        this(restTemplate, formats, shards, UpstreamScheduler.disabled());
+    }
+
+    public UpstreamRosterLoader(
+            RestTemplate restTemplate,
+            UpstreamFormats formats,
+            EmployeeShards shards,
+            UpstreamScheduler scheduler
+    ) {
+        this.restTemplate = restTemplate;
+        this.formats = formats;
+        this.shards = shards;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public ColumnarRoster load() {
+        return load(Priority.BACKGROUND);
+    }
+
+    @Override
+    public ColumnarRoster loadForReader() {
+        return load(Priority.INTERACTIVE);
+    }
+
+    private ColumnarRoster load(Priority priority) {
+        return ColumnarRoster.concat(shards.scatter(shard -> load(shards.employeeUrl(shard), priority)));
+    }
+
+    private ColumnarRoster load(String employeeUrl, Priority priority) {
+        Optional<ColumnarRoster> roster = scheduler.call(priority, () -> restTemplate.execute(
+                employeeUrl,
+                HttpMethod.GET,
+                request -> request.getHeaders().setAccept(formats.acceptedMediaTypes()),
+                response -> {
+                    try (JsonParser parser = formats.createParser(
+                            response.getBody(), response.getHeaders().getContentType())) {
+                        return reader.read(parser);
+                    }
+                }
+        ));
+
+        if (roster == null || roster.isEmpty()) {
+            throw new EmployeeServiceException(ErrorKind.UPSTREAM_ERROR, "No employees found in response");
+        }
+        return roster.get();
+    }
+}
@@ -0,0 +1,211 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Admits upstream calls a few at a time and decides which waiting call goes next, so that when the mock server's
+ * budget is scarce a user looking up one employee is not stuck behind a full roster refresh.
+ *
+ * <p>At most {@code maxConcurrent} calls are in flight. Further callers wait in one queue per {@link Priority}, and a
+ * freed slot goes to the waiter with the smallest virtual finish time: every call of a class advances that class's
+ * clock by {@code 1 / weight}, starting no earlier than the call being served. While several classes are waiting, each
+ * therefore gets slots in proportion to its weight, and a class that was idle cannot bank credit for later.
+ *
+ * <p>A class whose queue already holds {@code queueLimit} callers sheds new ones with {@link ErrorKind#QUEUE_FULL}. A
+ * caller not admitted within its class's {@code maxWait} has most likely been given up on by its own client, so it
+ * stops waiting and fails with {@link ErrorKind#DEADLINE_EXCEEDED} rather than spend a slot on an unread answer.
+ */
+public class UpstreamScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamScheduler.class);
+
+    public enum Priority {
+        /** Reads a user is waiting for. */
+        INTERACTIVE,
+        /** Creates and deletes. */
+        WRITE,
+        /** Roster refreshes, which can be served stale. */
+        BACKGROUND
+    }
+
+    /**
+     * How one {@link Priority} is scheduled.
+     *
+     * @param weight share of the slots while other classes are waiting too
+     * @param queueLimit callers that may wait at once; more are shed
+     * @param maxWait how long a caller waits to be admitted before it is dropped
+     */
+    public record Lane(int weight, int queueLimit, Duration maxWait) {
+
+        public Lane {
+            if (weight < 1 || queueLimit < 0 || maxWait.isNegative()) {
+                throw new IllegalArgumentException("Lane weight must be positive, queue limit and wait not negative");
+            }
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final Lane[] lanes;
+    private final Deque<Waiter>[] queues;
+    private final double[] lastFinish;
+
+    private double virtualTime;
+    private int inFlight;
+
+    public UpstreamScheduler(int maxConcurrent, Lane interactive, Lane write, Lane background) {
+        this(true, maxConcurrent, new Lane[] {interactive, write, background});
+    }
+
+    @SuppressWarnings("unchecked")
+    private UpstreamScheduler(boolean enabled, int maxConcurrent, Lane[] lanes) {
+        if (enabled && maxConcurrent < 1) {
+            throw new IllegalArgumentException("At least one concurrent upstream call must be allowed");
+        }
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.lanes = lanes;
+        this.queues = new Deque[lanes.length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.lastFinish = new double[lanes.length];
+    }
+
+    /**
+     * @return a scheduler that runs every call straight away on the caller's thread
+     */
+    public static UpstreamScheduler disabled() {
+        return new UpstreamScheduler(false, 0, new Lane[Priority.values().length]);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code call} on the caller's thread once a slot is free and it is this caller's turn.
+     *
+     * @throws EmployeeServiceException with {@link ErrorKind#QUEUE_FULL} when too many calls of this priority are
+     * waiting, or with {@link ErrorKind#DEADLINE_EXCEEDED} when the call waited longer than its lane allows
+     */
+    public <T> T call(Priority priority, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        acquire(priority);
+        try {
+            return call.get();
+        } finally {
+            release();
+        }
+    }
+
+    synchronized int waiting(Priority priority) {
+        return queues[priority.ordinal()].size();
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private synchronized void acquire(Priority priority) {
+        int lane = priority.ordinal();
+        double start = Math.max(virtualTime, lastFinish[lane]);
+        if (inFlight < maxConcurrent) {
+            lastFinish[lane] = start + 1.0 / lanes[lane].weight();
+            virtualTime = start;
+            inFlight++;
+            return;
+        }
+
+        Deque<Waiter> queue = queues[lane];
+        if (queue.size() >= lanes[lane].queueLimit()) {
+            logger.debug("Shedding {} upstream call, {} already waiting", priority, queue.size());
+            throw new EmployeeServiceException(ErrorKind.QUEUE_FULL,
+                    "Too many " + priority.name().toLowerCase() + " requests waiting for the upstream, retry later");
+        }
+        Waiter waiter = new Waiter(start, start + 1.0 / lanes[lane].weight(),
+                System.nanoTime() + lanes[lane].maxWait().toNanos());
+        lastFinish[lane] = waiter.finish;
+        queue.add(waiter);
+
+        try {
+            while (!waiter.admitted) {
+                long remaining = waiter.deadline - System.nanoTime();
+                if (waiter.dropped || remaining <= 0) {
+                    queue.remove(waiter);
+                    logger.debug("Dropping {} upstream call after waiting {}", priority, lanes[lane].maxWait());
+                    throw new EmployeeServiceException(ErrorKind.DEADLINE_EXCEEDED,
+                            "Gave up waiting for the upstream after " + lanes[lane].maxWait() + ", retry later");
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException e) {
+            if (waiter.admitted) {
+                inFlight--;
+                dispatch();
+            } else {
+                queue.remove(waiter);
+            }
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for an upstream slot: " + e.getMessage());
+        }
+    }
+
+    private synchronized void release() {
+        inFlight--;
+        dispatch();
+    }
+
+    // Hands free slots to the waiters with the smallest finish time, skipping those already past their deadline.
+    private void dispatch() {
+        long now = System.nanoTime();
+        while (inFlight < maxConcurrent) {
+            Deque<Waiter> next = null;
+            for (Deque<Waiter> queue : queues) {
+                Waiter head = queue.peek();
+                if (head != null && (next == null || head.finish < next.peek().finish)) {
+                    next = queue;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Waiter waiter = next.remove();
+            if (now - waiter.deadline >= 0) {
+                waiter.dropped = true;
+                continue;
+            }
+            waiter.admitted = true;
+            virtualTime = Math.max(virtualTime, waiter.start);
+            inFlight++;
+        }
+        notifyAll();
+    }
+
+    private static final class Waiter {
+
+        private final double start;
+        private final double finish;
+        private final long deadline;
+        private boolean admitted;
+        private boolean dropped;
+
+        private Waiter(double start, double finish, long deadline) {
+            this.start = start;
+            this.finish = finish;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.reliaquest.api.write;
+
+import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.WriteStatus;
+import com.reliaquest.api.dto.WriteStatus.Operation;
+import com.reliaquest.api.dto.WriteStatus.State;
+import com.reliaquest.api.entity.Employee;
+
+import java.time.Instant;
+
+/**
+ * A create or delete accepted by the {@link WriteBehindQueue}: what to send upstream, and how far it got. Changed
+ * only by the queue, under its lock.
+ */
+public final class PendingWrite {
+
+    private final String trackingId;
+    private final Operation operation;
+    private final EmployeeCreateRequest request;
+    private final String employeeId;
+    private final Instant submittedAt;
+
+    private State state = State.QUEUED;
+    private int attempts;
+    private Instant completedAt;
+    private Employee employee;
+    private String error;
+
+    private PendingWrite(
+            String trackingId,
+            Operation operation,
+            EmployeeCreateRequest request,
+            String employeeId,
+            Instant submittedAt
+    ) {
+        this.trackingId = trackingId;
+        this.operation = operation;
+        this.request = request;
+        this.employeeId = employeeId;
+        this.submittedAt = submittedAt;
+    }
+
+    public static PendingWrite create(String trackingId, EmployeeCreateRequest request, Instant submittedAt) {
+        return new PendingWrite(trackingId, Operation.CREATE, request, null, submittedAt);
+    }
+
+    public static PendingWrite delete(String trackingId, String employeeId, Instant submittedAt) {
+        return new PendingWrite(trackingId, Operation.DELETE, null, employeeId, submittedAt);
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the employee to create, or {@code null} for a delete
+     */
+    public EmployeeCreateRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * @return the id of the employee to delete, or {@code null} for a create
+     */
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public WriteStatus toStatus() {
+        String id = employeeId != null ? employeeId : employee == null ? null : employee.getId();
+        return new WriteStatus(trackingId, operation, state, id, submittedAt, completedAt, attempts, employee, error);
+    }
+
+    void start() {
+        state = State.RUNNING;
+        attempts++;
+    }
+
+    void retry(String failure) {
+        state = State.QUEUED;
+        error = failure;
+    }
+
+    void finish(State finalState, Instant at, Employee result, String failure) {
+        state = finalState;
+        completedAt = at;
+        employee = result;
+        error = failure;
+    }
+
+    void restoreFinished(State finalState, Instant at, int attemptsMade, Employee result, String failure) {
+        attempts = attemptsMade;
+        finish(finalState, at, result, failure);
+    }
+}
@@ -0,0 +1,331 @@
+package com.reliaquest.api.write;
+
+import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.WriteStatus;
+import com.reliaquest.api.dto.WriteStatus.State;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import com.reliaquest.api.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Accepts creates and deletes for asynchronous processing and sends them upstream from a single background thread,
+ * so callers are acknowledged straight away and a burst of writes outlasts the mock server's 429 window.
+ *
+ * <p>Writes are journalled in a {@link WriteJournal} before they are acknowledged and replayed on start-up, so an
+ * accepted write is not lost to a restart. They are sent in the order they were accepted, at most one every
+ * {@code minInterval}. A write that was rate limited, shed or failed upstream stays at the head of the queue and is
+ * retried after {@code retryBackoff}, up to {@code maxAttempts} times, holding back the writes behind it: writes to
+ * the same employee are therefore applied in order. Other failures, such as deleting an unknown employee, are final.
+ *
+ * <p>Delivery is at least once: a write that was in flight when the process stopped, or whose upstream response was
+ * lost, is sent again.
+ *
+ * <p>At most {@code capacity} writes wait at a time; further ones are refused with {@link ErrorKind#QUEUE_FULL}. The
+ * outcome of the last {@code retainedStatuses} finished writes stays available by tracking id.
+ */
+public class WriteBehindQueue implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final EmployeeService employeeService;
+    private final WriteJournal journal;
+    private final int capacity;
+    private final Duration minInterval;
+    private final Duration retryBackoff;
+    private final int maxAttempts;
+    private final int retainedStatuses;
+    private final Clock clock;
+    private final boolean enabled;
+
+    private final Deque<PendingWrite> pending = new ArrayDeque<>();
+    private final Map<String, PendingWrite> writes = new LinkedHashMap<>();
+    private final Deque<PendingWrite> finished = new ArrayDeque<>();
+    private int journalRecords;
+    private Instant notBefore = Instant.EPOCH;
+    private boolean closed;
+    private Thread drainer;
+
+    public WriteBehindQueue(
+            EmployeeService employeeService,
+            WriteJournal journal,
+            int capacity,
+            Duration minInterval,
+            Duration retryBackoff,
+            int maxAttempts,
+            int retainedStatuses
+    ) {
+        this(employeeService, journal, capacity, minInterval, retryBackoff, maxAttempts, retainedStatuses,
+                Clock.systemUTC(), true);
+    }
+
+    WriteBehindQueue(
+            EmployeeService employeeService,
+            WriteJournal journal,
+            int capacity,
+            Duration minInterval,
+            Duration retryBackoff,
+            int maxAttempts,
+            int retainedStatuses,
+            Clock clock,
+            boolean enabled
+    ) {
+        this.employeeService = employeeService;
+        this.journal = journal;
+        this.capacity = capacity;
+        this.minInterval = minInterval;
+        this.retryBackoff = retryBackoff;
+        this.maxAttempts = maxAttempts;
+        this.retainedStatuses = retainedStatuses;
+        this.clock = clock;
+        this.enabled = enabled;
+        if (enabled) {
+            recover();
+        }
+    }
+
+    public static WriteBehindQueue disabled() {
+        return new WriteBehindQueue(null, null, 0, Duration.ZERO, Duration.ZERO, 0, 0, Clock.systemUTC(), false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts sending the queued writes upstream in the background.
+     */
+    public synchronized void start() {
+        if (!enabled || drainer != null) {
+            return;
+        }
+        drainer = new Thread(this::drain, "write-behind");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * @throws EmployeeServiceException with {@link ErrorKind#QUEUE_FULL} when {@code capacity} writes are waiting
+     */
+    public WriteStatus submitCreate(EmployeeCreateRequest employee) throws EmployeeServiceException {
+        return submit(PendingWrite.create(UUID.randomUUID().toString(), employee, clock.instant()));
+    }
+
+    /**
+     * @throws EmployeeServiceException with {@link ErrorKind#QUEUE_FULL} when {@code capacity} writes are waiting
+     */
+    public WriteStatus submitDelete(String id) throws EmployeeServiceException {
+        return submit(PendingWrite.delete(UUID.randomUUID().toString(), id, clock.instant()));
+    }
+
+    /**
+     * @return the write's progress, or empty if the id is unknown or its outcome is no longer retained
+     */
+    public synchronized Optional<WriteStatus> status(String trackingId) {
+        PendingWrite write = writes.get(trackingId);
+        return write == null ? Optional.empty() : Optional.of(write.toStatus());
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = drainer;
+            notifyAll();
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(Duration.ofSeconds(5).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Sends the write at the head of the queue upstream once, on the calling thread, whatever its pacing.
+     *
+     * @return whether there was a write to send
+     */
+    boolean drainOne() {
+        PendingWrite write;
+        synchronized (this) {
+            write = pending.peek();
+            if (write == null) {
+                return false;
+            }
+            write.start();
+        }
+
+        Employee employee = null;
+        EmployeeServiceException failure = null;
+        try {
+            employee = apply(write);
+        } catch (EmployeeServiceException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = new EmployeeServiceException(e.getMessage(), e);
+        }
+
+        synchronized (this) {
+            Instant now = clock.instant();
+            notBefore = now.plus(minInterval);
+            if (failure == null) {
+                logger.debug("{} {} succeeded after {} attempt(s)", write.getOperation(), write.getTrackingId(),
+                        write.getAttempts());
+                finish(write, State.SUCCEEDED, now, employee, null);
+            } else if (isRetryable(failure) && write.getAttempts() < maxAttempts) {
+                logger.info("{} {} failed, retrying in {}: {}", write.getOperation(), write.getTrackingId(),
+                        retryBackoff, failure.getMessage());
+                write.retry(failure.getMessage());
+                notBefore = now.plus(retryBackoff);
+            } else {
+                logger.warn("{} {} failed after {} attempt(s): {}", write.getOperation(), write.getTrackingId(),
+                        write.getAttempts(), failure.getMessage());
+                finish(write, State.FAILED, now, null, failure.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private synchronized WriteStatus submit(PendingWrite write) throws EmployeeServiceException {
+        if (!enabled || closed) {
+            throw new IllegalStateException("Write-behind queue is not accepting writes");
+        }
+        if (pending.size() >= capacity) {
+            throw new EmployeeServiceException(ErrorKind.QUEUE_FULL,
+                    "Too many writes waiting to be processed, retry later");
+        }
+        try {
+            journal.appendSubmitted(write);
+        } catch (IOException e) {
+            throw new EmployeeServiceException("Could not persist the write", e);
+        }
+        journalRecords++;
+        pending.add(write);
+        writes.put(write.getTrackingId(), write);
+        notifyAll();
+        return write.toStatus();
+    }
+
+    private Employee apply(PendingWrite write) {
+        return switch (write.getOperation()) {
+            case CREATE -> employeeService.createEmployee(write.getRequest()).getData();
+            case DELETE -> {
+                Employee employee = employeeService.getEmployeeById(write.getEmployeeId()).getData();
+                employeeService.deleteEmployee(employee.getEmployeeName());
+                yield employee;
+            }
+        };
+    }
+
+    private static boolean isRetryable(EmployeeServiceException e) {
+        return e.getKind() == null || switch (e.getKind()) {
+            case RATE_LIMITED, UPSTREAM_ERROR, QUEUE_FULL, DEADLINE_EXCEEDED -> true;
+            default -> false;
+        };
+    }
+
+    private void finish(PendingWrite write, State state, Instant at, Employee employee, String error) {
+        pending.remove(write);
+        write.finish(state, at, employee, error);
+        finished.add(write);
+        while (finished.size() > retainedStatuses) {
+            writes.remove(finished.remove().getTrackingId());
+        }
+        try {
+            journal.appendFinished(write);
+            journalRecords++;
+        } catch (IOException e) {
+            logger.warn("Could not journal the outcome of {}, it will be sent again after a restart: {}",
+                    write.getTrackingId(), e.toString());
+        }
+        compactIfNeeded();
+    }
+
+    // Every write is journalled at least once and finished ones twice; rewrite once the file holds mostly history.
+    private void compactIfNeeded() {
+        if (journalRecords < Math.max(MIN_COMPACTION_RECORDS, 4 * writes.size())) {
+            return;
+        }
+        try {
+            journal.rewrite(new ArrayList<>(writes.values()));
+            journalRecords = writes.size() + finished.size();
+        } catch (IOException e) {
+            logger.warn("Could not compact write journal {}: {}", journal.getPath(), e.toString());
+        }
+    }
+
+    private void recover() {
+        List<PendingWrite> recovered;
+        try {
+            recovered = journal.open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open write journal " + journal.getPath(), e);
+        }
+        for (PendingWrite write : recovered) {
+            writes.put(write.getTrackingId(), write);
+            if (write.getState().isFinished()) {
+                finished.add(write);
+            } else {
+                pending.add(write);
+            }
+            journalRecords += write.getState().isFinished() ? 2 : 1;
+        }
+        while (finished.size() > retainedStatuses) {
+            writes.remove(finished.remove().getTrackingId());
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Recovered {} pending write(s) from {}", pending.size(), journal.getPath());
+        }
+    }
+
+    private void drain() {
+        while (awaitTurn()) {
+            drainOne();
+        }
+    }
+
+    // Waits until a write is queued and the pacing allows sending it; false once the queue is closed.
+    private synchronized boolean awaitTurn() {
+        try {
+            while (!closed) {
+                long waitMillis = pending.isEmpty() ? 0 : Duration.between(clock.instant(), notBefore).toMillis();
+                if (!pending.isEmpty() && waitMillis <= 0) {
+                    return true;
+                }
+                wait(Math.max(0, waitMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+}
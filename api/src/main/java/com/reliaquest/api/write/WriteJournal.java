@@ -0,0 +1,296 @@
+package com.reliaquest.api.write;
+
+import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.WriteStatus.Operation;
+import com.reliaquest.api.dto.WriteStatus.State;
+import com.reliaquest.api.entity.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of the writes a {@link WriteBehindQueue} accepted and of how each one finished, so writes that were
+ * acknowledged but not yet sent upstream survive a restart.
+ *
+ * <p>Each record is its length, the record itself and a CRC-32 of it. A write is recorded when it is accepted and
+ * again when it succeeds or fails for good; every append is synced before it returns. Replaying stops at the first
+ * torn or corrupt record, which is what a crash in the middle of an append leaves behind, and cuts the file there.
+ * {@link #rewrite} replaces the file with only the writes still worth keeping, through a synced temporary sibling
+ * that is atomically renamed over it.
+ */
+public class WriteJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteJournal.class);
+
+    private static final byte SUBMITTED = 1;
+    private static final byte FINISHED = 2;
+    private static final int NULL_LENGTH = -1;
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    private final Path path;
+    private FileChannel channel;
+
+    public WriteJournal(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Replays the journal and opens it for appending.
+     *
+     * @return every write recorded, in the order they were accepted, with how they finished if they did
+     */
+    public synchronized List<PendingWrite> open() throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Map<String, PendingWrite> writes = new LinkedHashMap<>();
+        long valid = replay(writes);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > valid) {
+            logger.warn("Discarding {} byte(s) of torn or corrupt records at the end of {}", channel.size() - valid,
+                    path);
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        channel.position(valid);
+        return new ArrayList<>(writes.values());
+    }
+
+    public synchronized void appendSubmitted(PendingWrite write) throws IOException {
+        append(encodeSubmitted(write));
+    }
+
+    public synchronized void appendFinished(PendingWrite write) throws IOException {
+        append(encodeFinished(write));
+    }
+
+    /**
+     * Replaces the journal with {@code writes} only, e.g. the pending writes and the statuses still retained.
+     */
+    public synchronized void rewrite(Collection<PendingWrite> writes) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel rewritten = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (PendingWrite write : writes) {
+                writeFully(rewritten, encodeSubmitted(write));
+                if (write.getState().isFinished()) {
+                    writeFully(rewritten, encodeFinished(write));
+                }
+            }
+            rewritten.force(true);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        if (channel == null) {
+            throw new IOException("Write journal " + path + " is not open");
+        }
+        writeFully(channel, record);
+        channel.force(false);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer record) throws IOException {
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    // Returns the length of the intact prefix of the file.
+    private long replay(Map<String, PendingWrite> writes) throws IOException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                byte[] record = readRecord(in);
+                if (record == null) {
+                    return valid;
+                }
+                apply(writes, new DataInputStream(new ByteArrayInputStream(record)));
+                valid += Integer.BYTES + record.length + Integer.BYTES;
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Stopped replaying {} at byte {}: {}", path, valid, e.toString());
+            return valid;
+        }
+    }
+
+    // Null at a clean end of the file, or where a record was torn or corrupted.
+    private static byte[] readRecord(DataInputStream data) throws IOException {
+        int length;
+        try {
+            length = data.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length <= 0 || length > MAX_RECORD_LENGTH) {
+            return null;
+        }
+        byte[] record = new byte[length];
+        try {
+            data.readFully(record);
+            CRC32 checksum = new CRC32();
+            checksum.update(record);
+            return (int) checksum.getValue() == data.readInt() ? record : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static void apply(Map<String, PendingWrite> writes, DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        String trackingId = readString(in);
+        if (type == SUBMITTED) {
+            Operation operation = Operation.values()[in.readByte()];
+            Instant submittedAt = Instant.ofEpochMilli(in.readLong());
+            PendingWrite write = operation == Operation.CREATE
+                    ? PendingWrite.create(trackingId, new EmployeeCreateRequest(
+                            readString(in), readInteger(in), readInteger(in), readString(in)), submittedAt)
+                    : PendingWrite.delete(trackingId, readString(in), submittedAt);
+            writes.put(trackingId, write);
+        } else if (type == FINISHED) {
+            State state = State.values()[in.readByte()];
+            Instant completedAt = Instant.ofEpochMilli(in.readLong());
+            int attempts = in.readInt();
+            String error = readString(in);
+            Employee employee = in.readBoolean()
+                    ? new Employee(readString(in), readString(in), in.readInt(), readString(in), readString(in),
+                            readString(in))
+                    : null;
+            PendingWrite write = writes.get(trackingId);
+            if (write != null) {
+                write.restoreFinished(state, completedAt, attempts, employee, error);
+            }
+        } else {
+            throw new IOException("unknown record type " + type);
+        }
+    }
+
+    private static ByteBuffer encodeSubmitted(PendingWrite write) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(SUBMITTED);
+        writeString(out, write.getTrackingId());
+        out.writeByte(write.getOperation().ordinal());
+        out.writeLong(write.getSubmittedAt().toEpochMilli());
+        if (write.getOperation() == Operation.CREATE) {
+            EmployeeCreateRequest request = write.getRequest();
+            writeString(out, request.getName());
+            writeInteger(out, request.getSalary());
+            writeInteger(out, request.getAge());
+            writeString(out, request.getTitle());
+        } else {
+            writeString(out, write.getEmployeeId());
+        }
+        return frame(bytes.toByteArray());
+    }
+
+    private static ByteBuffer encodeFinished(PendingWrite write) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FINISHED);
+        writeString(out, write.getTrackingId());
+        out.writeByte(write.getState().ordinal());
+        out.writeLong(write.getCompletedAt().toEpochMilli());
+        out.writeInt(write.getAttempts());
+        writeString(out, write.getError());
+        Employee employee = write.getEmployee();
+        out.writeBoolean(employee != null);
+        if (employee != null) {
+            writeString(out, employee.getId());
+            writeString(out, employee.getEmployeeName());
+            out.writeInt(employee.getEmployeeSalary());
+            writeString(out, employee.getEmployeeAge());
+            writeString(out, employee.getEmployeeTitle());
+            writeString(out, employee.getEmployeeEmail());
+        }
+        return frame(bytes.toByteArray());
+    }
+
+    private static ByteBuffer frame(byte[] record) {
+        CRC32 checksum = new CRC32();
+        checksum.update(record);
+        return ByteBuffer.allocate(Integer.BYTES + record.length + Integer.BYTES)
+                .putInt(record.length)
+                .put(record)
+                .putInt((int) checksum.getValue())
+                .flip();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] encoded = new byte[length];
+        in.readFully(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeInt(value == null ? 0 : value);
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        boolean present = in.readBoolean();
+        int value = in.readInt();
+        return present ? value : null;
+    }
+}
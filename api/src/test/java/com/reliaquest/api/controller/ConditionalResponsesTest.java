@@ -0,0 +1,140 @@
+package com.reliaquest.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalResponsesTest {
+
+    private final ConditionalResponses conditionalResponses = new ConditionalResponses(Duration.ofSeconds(5));
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void respond_ShouldTagFullAnswerWeaklyWithRevision() {
+        ResponseEntity<Integer> response = conditionalResponses.respond(() -> Optional.of("7-abc"), this::answer);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(42, response.getBody());
+        assertEquals("W/\"7-abc\"", response.getHeaders().getETag());
+        assertEquals("max-age=5, must-revalidate, private", response.getHeaders().getCacheControl());
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    void respond_WhenClientHoldsRevision_ShouldAnswerNotModifiedWithoutComputing() {
+        request.addHeader("If-None-Match", "W/\"6-abc\", \"7-abc\"");
+
+        ResponseEntity<Integer> response = conditionalResponses.respond(() -> Optional.of("7-abc"), this::answer);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("W/\"7-abc\"", response.getHeaders().getETag());
+        assertEquals(0, computed.get());
+    }
+
+    @Test
+    void respond_WhenRevisionChanged_ShouldAnswerInFull() {
+        request.addHeader("If-None-Match", "\"6-abc\"");
+
+        ResponseEntity<Integer> response = conditionalResponses.respond(() -> Optional.of("7-abc"), this::answer);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    void respond_WithoutRevisionOrWhenDisabled_ShouldLeaveAnswerUntagged() {
+        request.addHeader("If-None-Match", "*");
+
+        ResponseEntity<Integer> uncached = conditionalResponses.respond(Optional::empty, this::answer);
+        ResponseEntity<Integer> disabled =
+                ConditionalResponses.disabled().respond(() -> Optional.of("7-abc"), this::answer);
+
+        assertEquals(HttpStatus.OK, uncached.getStatusCode());
+        assertNull(uncached.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, disabled.getStatusCode());
+        assertNull(disabled.getHeaders().getETag());
+        assertEquals(2, computed.get());
+    }
+
+    @Test
+    void respond_ShouldNotTagEmptyAnswers() {
+        ResponseEntity<Integer> response = conditionalResponses.respond(() -> Optional.of("7-abc"),
+                () -> ResponseEntity.noContent().build());
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void respond_WithBytesCache_ShouldWriteAnswerOncePerRevisionAsBytes() throws Exception {
+        ConditionalResponses cached =
+                new ConditionalResponses(Duration.ofSeconds(5), new ResponseBytesCache(new ObjectMapper(), 8));
+
+        MockHttpServletResponse first = respondInto(cached, "7-abc");
+        MockHttpServletResponse second = respondInto(cached, "7-abc");
+
+        assertEquals(1, computed.get());
+        for (MockHttpServletResponse response : new MockHttpServletResponse[] {first, second}) {
+            assertEquals(200, response.getStatus());
+            assertEquals("42", response.getContentAsString());
+            assertEquals("application/json", response.getContentType());
+            assertEquals("W/\"7-abc\"", response.getHeader("ETag"));
+            assertEquals("max-age=5, must-revalidate, private", response.getHeader("Cache-Control"));
+        }
+
+        respondInto(cached, "8-abc");
+        assertEquals(2, computed.get());
+    }
+
+    @Test
+    void respond_WithBytesCache_WhenSmileRequested_ShouldLeaveAnswerToConverters() {
+        ConditionalResponses cached =
+                new ConditionalResponses(Duration.ofSeconds(5), new ResponseBytesCache(new ObjectMapper(), 8));
+        request.addHeader("Accept", "application/x-jackson-smile");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, servletResponse));
+
+        ResponseEntity<Integer> response = cached.respond(() -> Optional.of("7-abc"), this::answer);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("W/\"7-abc\"", response.getHeaders().getETag());
+        assertEquals(0, servletResponse.getContentLength());
+    }
+
+    private MockHttpServletResponse respondInto(ConditionalResponses conditional, String revision) {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, servletResponse));
+        assertNull(conditional.respond(() -> Optional.of(revision), this::answer));
+        return servletResponse;
+    }
+
+    private ResponseEntity<Integer> answer() {
+        computed.incrementAndGet();
+        return ResponseEntity.ok(42);
+    }
+}
@@ -1,20 +1,30 @@
 package com.reliaquest.api.controller;
 
 import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.WriteStatus;
 import com.reliaquest.api.entity.Employee;
 import com.reliaquest.api.entity.EmployeeByIdResponse;
 import com.reliaquest.api.entity.EmployeeResponse;
 import com.reliaquest.api.exception.EmployeeServiceException;
 import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.write.WriteBehindQueue;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,6 +37,12 @@ class EmployeeControllerTest {
     @Mock
     private EmployeeService employeeService;
 
+    @Mock
+    private WriteBehindQueue writeBehindQueue;
+
+    @Spy
+    private ConditionalResponses conditionalResponses = ConditionalResponses.disabled();
+
     @InjectMocks
     private EmployeeController employeeController;
 
@@ -41,6 +57,11 @@ class EmployeeControllerTest {
         employeeList = Arrays.asList(employee1, employee2);
     }
 
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     @Test
     void getAllEmployees_ShouldReturnAllEmployees() throws EmployeeServiceException {
         EmployeeResponse response = new EmployeeResponse();
@@ -144,6 +165,59 @@ class EmployeeControllerTest {
         verify(employeeService, times(1)).deleteEmployee(employeeName);
     }
 
+    @Test
+    void createEmployee_WhenAsyncPreferred_ShouldQueueAndAccept() throws EmployeeServiceException {
+        EmployeeCreateRequest newEmployee = new EmployeeCreateRequest("Tiger Nixon", 320800, 61, "System Architect");
+        WriteStatus queued = new WriteStatus("abc", WriteStatus.Operation.CREATE, WriteStatus.State.QUEUED, null,
+                Instant.now(), null, 0, null, null);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.submitCreate(newEmployee)).thenReturn(queued);
+
+        ResponseEntity<?> result =
+                employeeController.createEmployeeWithPreference(newEmployee, List.of("wait=10, respond-async"));
+
+        assertEquals(HttpStatus.ACCEPTED, result.getStatusCode());
+        assertEquals("/employees/writes/abc", result.getHeaders().getLocation().toString());
+        assertEquals("respond-async", result.getHeaders().getFirst("Preference-Applied"));
+        assertSame(queued, result.getBody());
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    void createEmployee_WhenAsyncPreferredWithoutQueue_ShouldCreateRightAway() throws EmployeeServiceException {
+        EmployeeCreateRequest newEmployee = new EmployeeCreateRequest("Tiger Nixon", 320800, 61, "System Architect");
+        EmployeeByIdResponse response = new EmployeeByIdResponse();
+        response.setData(employee1);
+        when(writeBehindQueue.isEnabled()).thenReturn(false);
+        when(employeeService.createEmployee(newEmployee)).thenReturn(response);
+
+        ResponseEntity<?> result = employeeController.createEmployeeWithPreference(newEmployee, List.of("respond-async"));
+
+        assertEquals(HttpStatus.CREATED, result.getStatusCode());
+        assertSame(employee1, result.getBody());
+        verify(writeBehindQueue, never()).submitCreate(any());
+    }
+
+    @Test
+    void deleteEmployeeById_ShouldBeRoutedByPreferHeader() throws Exception {
+        EmployeeByIdResponse response = new EmployeeByIdResponse();
+        response.setData(employee1);
+        WriteStatus queued = new WriteStatus("abc", WriteStatus.Operation.DELETE, WriteStatus.State.QUEUED, "1",
+                Instant.now(), null, 0, null, null);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.submitDelete("1")).thenReturn(queued);
+        when(employeeService.getEmployeeById("1")).thenReturn(response);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(employeeController).build();
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/employees/1").header("Prefer", "respond-async"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Location", "/employees/writes/abc"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/employees/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(writeBehindQueue, times(1)).submitDelete("1");
+        verify(employeeService, times(1)).deleteEmployee("John Doe");
+    }
 
     @Test
     void getAllEmployees_ShouldThrowException_WhenServiceFails() throws EmployeeServiceException {
@@ -0,0 +1,117 @@
+package com.reliaquest.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.controller.ResponseBytesCache.EncodedResponse;
+import com.reliaquest.api.entity.EmployeeFields;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBytesCacheTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final List<String> NAMES = Collections.nCopies(100, "Tiger Nixon");
+
+    private final ResponseBytesCache cache = new ResponseBytesCache(new ObjectMapper(), 2);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+
+    @Test
+    void get_ShouldOnlyReturnBytesOfTheSameRevision() {
+        EncodedResponse encoded = cache.put("/employees", "7-abc", NAMES, null);
+
+        assertSame(encoded, cache.get("/employees", "7-abc").orElseThrow());
+        assertTrue(cache.get("/employees", "8-abc").isEmpty());
+        assertTrue(cache.get("/employees?fields=name", "7-abc").isEmpty());
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        cache.put("/a", "1", NAMES, null);
+        cache.put("/b", "1", NAMES, null);
+        cache.get("/a", "1");
+        cache.put("/c", "1", NAMES, null);
+        cache.put("/a", "2", NAMES, null);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("/b", "1").isEmpty());
+        assertTrue(cache.get("/c", "1").isPresent());
+        assertTrue(cache.get("/a", "2").isPresent());
+    }
+
+    @Test
+    void key_ShouldOnlyDependOnPathAndProjection() throws Exception {
+        MockHttpServletRequest plain = new MockHttpServletRequest("GET", "/employees");
+        plain.setQueryString("_=1712345678");
+        MockHttpServletRequest projected = new MockHttpServletRequest("GET", "/employees");
+        projected.setQueryString("fields=employee_salary,employee_name&_=1");
+        projected.setAttribute(EmployeeFieldsResponseBodyAdvice.ATTRIBUTE,
+                EmployeeFields.parse("employee_salary,employee_name"));
+        MockHttpServletRequest reordered = new MockHttpServletRequest("GET", "/employees");
+        reordered.setAttribute(EmployeeFieldsResponseBodyAdvice.ATTRIBUTE,
+                EmployeeFields.parse("employee_name, employee_salary"));
+
+        assertEquals("/employees", ResponseBytesCache.key(plain));
+        assertEquals("/employees?fields=employee_name,employee_salary", ResponseBytesCache.key(projected));
+        assertEquals(ResponseBytesCache.key(projected), ResponseBytesCache.key(reordered));
+    }
+
+    @Test
+    void writeTo_WhenGzipAccepted_ShouldWriteCompressedBytes() throws IOException {
+        EncodedResponse encoded = cache.put("/employees", "7-abc", NAMES, null);
+        request.addHeader("Accept-Encoding", "br;q=1.0, gzip;q=0.8");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        encoded.writeTo(request, response);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertArrayEquals(encoded.plain(), in.readAllBytes());
+        }
+        assertSame(encoded.gzip(), encoded.gzip());
+    }
+
+    @Test
+    void writeTo_WhenGzipRefusedOrBodySmall_ShouldWritePlainBytes() {
+        request.addHeader("Accept-Encoding", "gzip;q=0");
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        cache.put("/employees", "7-abc", NAMES, null).writeTo(request, refused);
+
+        MockHttpServletRequest small = new MockHttpServletRequest("GET", "/employees/highestSalary");
+        small.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse plain = new MockHttpServletResponse();
+        cache.put("/employees/highestSalary", "7-abc", 320800, null).writeTo(small, plain);
+
+        assertNull(refused.getHeader("Content-Encoding"));
+        assertTrue(refused.getContentLength() > 256);
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertArrayEquals("320800".getBytes(), plain.getContentAsByteArray());
+    }
+
+    @Test
+    void negotiatesJson_ShouldFollowAcceptHeader() {
+        assertTrue(ResponseBytesCache.negotiatesJson(withAccept()));
+        assertTrue(ResponseBytesCache.negotiatesJson(withAccept("*/*")));
+        assertTrue(ResponseBytesCache.negotiatesJson(withAccept(SMILE + ";q=0.5, application/json")));
+        assertFalse(ResponseBytesCache.negotiatesJson(withAccept(SMILE + ", application/json;q=0.5")));
+        assertFalse(ResponseBytesCache.negotiatesJson(withAccept("text/html")));
+        assertFalse(ResponseBytesCache.negotiatesJson(withAccept("not a media type")));
+    }
+
+    private static MockHttpServletRequest withAccept(String... accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+        for (String value : accept) {
+            request.addHeader("Accept", value);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,63 @@
+package com.reliaquest.api.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeFieldsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .addMixIn(Employee.class, EmployeeFields.Filtered.class)
+            .setFilterProvider(EmployeeFields.defaultFilters());
+
+    private final Employee employee =
+            new Employee("1", "Tiger Nixon", 320800, "61", "Vice Chair", "tnixon@company.com");
+
+    @Test
+    void parse_WithoutFields_ShouldSelectAll() {
+        assertSame(EmployeeFields.ALL, EmployeeFields.parse(null));
+        assertSame(EmployeeFields.ALL, EmployeeFields.parse(" "));
+        assertSame(EmployeeFields.ALL, EmployeeFields.parse(String.join(",", EmployeeFields.NAMES)));
+    }
+
+    @Test
+    void parse_ShouldTrimNamesAndKeepCanonicalOrder() {
+        EmployeeFields fields = EmployeeFields.parse("employee_salary, id");
+
+        assertFalse(fields.isAll());
+        assertEquals(Set.of("id", "employee_salary"), fields.names());
+        assertEquals("id,employee_salary", fields.toQueryParam());
+    }
+
+    @Test
+    void parse_WithUnknownField_ShouldRejectAsInvalidInput() {
+        EmployeeServiceException e =
+                assertThrows(EmployeeServiceException.class, () -> EmployeeFields.parse("id,salary"));
+
+        assertEquals(ErrorKind.INVALID_INPUT, e.getKind());
+        assertTrue(e.getMessage().contains("'salary'"));
+    }
+
+    @Test
+    void write_WithoutProjection_ShouldWriteAllFields() throws Exception {
+        String json = objectMapper.writeValueAsString(employee);
+
+        for (String name : EmployeeFields.NAMES) {
+            assertTrue(json.contains('"' + name + '"'), json);
+        }
+    }
+
+    @Test
+    void write_WithProjection_ShouldWriteOnlyThoseFields() throws Exception {
+        EmployeeFields fields = EmployeeFields.parse("id,employee_name,employee_salary");
+
+        String json = objectMapper.writer(fields.filterProvider()).writeValueAsString(employee);
+
+        assertEquals("{\"id\":\"1\",\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800}", json);
+    }
+}
@@ -0,0 +1,123 @@
+package com.reliaquest.api.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays a 429 storm through the error path: the upstream failure is wrapped in an {@link EmployeeServiceException}
+ * thrown from a realistically deep stack, handled by {@link GlobalExceptionHandler} and serialized. Reports throughput
+ * and bytes allocated per failed request with the lightweight error mode off and on. The upstream exception itself is
+ * created once, as RestTemplate pays for it the same way in both modes. Run with {@code ./gradlew api:benchmark}.
+ */
+@Tag("benchmark")
+class ErrorPathBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 50_000;
+    private static final int WARMUP_REQUESTS = 20_000;
+    private static final int STACK_DEPTH = 120;
+    private static final String MESSAGE = "Failed to fetch employees from external API";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final HttpClientErrorException tooManyRequests = HttpClientErrorException.create(
+            HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+
+    @Test
+    void compareRegularAndLightweightErrorPath() throws Exception {
+        GlobalExceptionHandler regular = new GlobalExceptionHandler(objectMapper, false);
+        GlobalExceptionHandler lightweight = new GlobalExceptionHandler(objectMapper, true);
+
+        Supplier<EmployeeServiceException> unclassified =
+                () -> new EmployeeServiceException(MESSAGE, tooManyRequests);
+        Supplier<EmployeeServiceException> classified =
+                () -> new EmployeeServiceException(ErrorKind.RATE_LIMITED, MESSAGE, tooManyRequests);
+
+        Result regularResult = storm(() -> serialize(regular
+                .handleBadRequestExceptions(atDepth(STACK_DEPTH, unclassified), request())
+                .getBody()));
+        Result lightweightResult = storm(() -> serialize(lightweight
+                .handleBadRequestExceptions(atDepth(STACK_DEPTH, classified), request())
+                .getBody()));
+
+        System.out.printf("%d threads x %,d failed requests%n", THREADS, REQUESTS_PER_THREAD);
+        System.out.printf("regular     %,.0f req/s, %,d bytes/req%n",
+                regularResult.requestsPerSecond(), regularResult.bytesPerRequest());
+        System.out.printf("lightweight %,.0f req/s, %,d bytes/req%n",
+                lightweightResult.requestsPerSecond(), lightweightResult.bytesPerRequest());
+
+        assertTrue(lightweightResult.bytesPerRequest() < regularResult.bytesPerRequest());
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return body instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/employee"));
+    }
+
+    /*
+     * Exceptions are built at the bottom of a controller, service and RestTemplate call chain; filling in the stack
+     * trace costs in proportion to its depth.
+     */
+    private static EmployeeServiceException atDepth(int depth, Supplier<EmployeeServiceException> exception) {
+        return depth == 0 ? exception.get() : atDepth(depth - 1, exception);
+    }
+
+    private static Result storm(Supplier<byte[]> failedRequest) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            assertTrue(failedRequest.get().length > 0);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Long>> workers = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        failedRequest.get();
+                    }
+                    return threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                }));
+            }
+            long allocated = 0;
+            for (Future<Long> worker : workers) {
+                allocated += worker.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            int requests = THREADS * REQUESTS_PER_THREAD;
+            return new Result(requests * 1_000_000_000.0 / elapsed, allocated / requests);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Result(double requestsPerSecond, long bytesPerRequest) {
+    }
+}
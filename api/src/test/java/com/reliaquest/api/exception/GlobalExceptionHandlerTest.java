@@ -0,0 +1,141 @@
+package com.reliaquest.api.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.api.dto.ErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private static final String PATH = "/api/v1/employee/4a3a170b";
+
+    // Configured as Spring Boot configures the application's mapper.
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void classifiedException_ShouldBeStackless() {
+        EmployeeServiceException expected = new EmployeeServiceException(ErrorKind.NOT_FOUND, "Employee not found");
+        EmployeeServiceException unexpected = new EmployeeServiceException("Employee not found");
+
+        assertEquals(0, expected.getStackTrace().length);
+        assertEquals(ErrorKind.NOT_FOUND, expected.getKind());
+        assertTrue(unexpected.getStackTrace().length > 0);
+        assertNull(unexpected.getKind());
+    }
+
+    @Test
+    void lightweight_ShouldAnswerWithSameBodyAsRegularMode() throws Exception {
+        EmployeeServiceException ex = new EmployeeServiceException(ErrorKind.NOT_FOUND, "Employee not found");
+
+        ResponseEntity<?> regular = new GlobalExceptionHandler(objectMapper, false, clock)
+                .handleBadRequestExceptions(ex, request());
+        ResponseEntity<?> lightweight = new GlobalExceptionHandler(objectMapper, true, clock)
+                .handleBadRequestExceptions(ex, request());
+
+        assertEquals(HttpStatus.BAD_REQUEST, lightweight.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, lightweight.getHeaders().getContentType());
+        ErrorResponse expected = (ErrorResponse) regular.getBody();
+        JsonNode body = objectMapper.readTree((byte[]) lightweight.getBody());
+        assertEquals(expected.getStatus(), body.get("status").asInt());
+        assertEquals(expected.getError(), body.get("error").asText());
+        assertEquals(expected.getMessage(), body.get("message").asText());
+        assertEquals(PATH, body.get("path").asText());
+        assertEquals("2024-01-01T00:00:00", body.get("timestamp").asText());
+    }
+
+    @Test
+    void lightweight_ShouldKeepEachRequestsMessageAndPathWithinTheSameSecond() throws Exception {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(objectMapper, true, clock);
+
+        Object first = handler.handleBadRequestExceptions(
+                new EmployeeServiceException(ErrorKind.NOT_FOUND, "Employee not found: 4a3a170b"), request()).getBody();
+        clock.advance(Duration.ofMillis(500));
+        Object second = handler.handleBadRequestExceptions(
+                new EmployeeServiceException(ErrorKind.NOT_FOUND, "Employee not found: \"5b\""),
+                request("/api/v1/employee/5b")).getBody();
+
+        JsonNode firstBody = objectMapper.readTree((byte[]) first);
+        JsonNode secondBody = objectMapper.readTree((byte[]) second);
+        assertEquals("Employee not found: 4a3a170b", firstBody.get("message").asText());
+        assertEquals(PATH, firstBody.get("path").asText());
+        assertEquals("Employee not found: \"5b\"", secondBody.get("message").asText());
+        assertEquals("/api/v1/employee/5b", secondBody.get("path").asText());
+        assertEquals(firstBody.get("timestamp"), secondBody.get("timestamp"));
+    }
+
+    @Test
+    void lightweight_ShouldRefreshTimestampEverySecond() throws Exception {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(objectMapper, true, clock);
+        EmployeeServiceException ex = new EmployeeServiceException(ErrorKind.RATE_LIMITED, "Too many requests");
+
+        clock.advance(Duration.ofMillis(999));
+        Object first = handler.handleBadRequestExceptions(ex, request()).getBody();
+        clock.advance(Duration.ofMillis(1));
+        Object second = handler.handleBadRequestExceptions(ex, request()).getBody();
+
+        assertEquals("2024-01-01T00:00:00", objectMapper.readTree((byte[]) first).get("timestamp").asText());
+        assertEquals("2024-01-01T00:00:01", objectMapper.readTree((byte[]) second).get("timestamp").asText());
+    }
+
+    @Test
+    void unclassifiedException_ShouldGetFreshErrorResponse() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(objectMapper, true, clock);
+
+        ResponseEntity<?> response = handler.handleBadRequestExceptions(
+                new EmployeeServiceException("Unexpected error: boom"), request());
+
+        ErrorResponse body = assertInstanceOf(ErrorResponse.class, response.getBody());
+        assertEquals("Unexpected error: boom", body.getMessage());
+    }
+
+    private static WebRequest request() {
+        return request(PATH);
+    }
+
+    private static WebRequest request(String path) {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", path));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
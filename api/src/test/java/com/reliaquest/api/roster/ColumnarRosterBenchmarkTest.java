@@ -0,0 +1,101 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds a million-row roster as {@code List<Employee>} and as a {@link ColumnarRoster} and reports the heap each one
+ * retains plus the time for a top-10 salary scan and a name lookup. Run with {@code ./gradlew api:benchmark}.
+ */
+@Tag("benchmark")
+class ColumnarRosterBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int TOP = 10;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 10;
+    private static final String[] TITLES = {
+            "Documentation Engineer", "Financial Advisor", "Vice Chair Executive", "Senior Javascript Developer",
+            "Regional Marketing Coordinator", "Lead Security Architect", "Dynamic Hospitality Technician"
+    };
+
+    @Test
+    void compareObjectAndColumnarRoster() {
+        long objectBytes = retainedHeap(ColumnarRosterBenchmarkTest::roster);
+        List<Employee> employees = roster();
+        long columnarBytes = retainedHeap(() -> ColumnarRoster.of(employees));
+        ColumnarRoster roster = ColumnarRoster.of(employees);
+        String name = employees.get(ROWS / 2).getEmployeeName();
+
+        double objectTopMillis = averageMillis(() -> employees.stream()
+                .sorted(Comparator.comparingInt(Employee::getEmployeeSalary).reversed())
+                .limit(TOP)
+                .toList());
+        double columnarTopMillis = averageMillis(() -> roster.topBySalary(TOP));
+        double objectSearchMillis = averageMillis(() -> employees.stream()
+                .filter(employee -> name.equalsIgnoreCase(employee.getEmployeeName()))
+                .toList());
+        double columnarSearchMillis = averageMillis(() -> roster.findByName(name));
+
+        System.out.printf("%,d rows%n", ROWS);
+        System.out.printf("heap       objects %,d KB, columnar %,d KB (estimate %,d KB)%n",
+                objectBytes / 1024, columnarBytes / 1024, roster.retainedBytes() / 1024);
+        System.out.printf("top-%d      objects %.1f ms, columnar %.1f ms%n", TOP, objectTopMillis, columnarTopMillis);
+        System.out.printf("name search objects %.1f ms, columnar %.1f ms%n", objectSearchMillis, columnarSearchMillis);
+
+        assertEquals(employees.stream().mapToInt(Employee::getEmployeeSalary).max().orElseThrow(), roster.maxSalary());
+        assertTrue(columnarBytes < objectBytes);
+    }
+
+    private static List<Employee> roster() {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(new Employee(
+                    UUID.randomUUID().toString(),
+                    "Employee " + i,
+                    30_000 + random.nextInt(470_000),
+                    Integer.toString(16 + random.nextInt(55)),
+                    TITLES[random.nextInt(TITLES.length)],
+                    "employee" + i + "@company.com"));
+        }
+        return employees;
+    }
+
+    private static long retainedHeap(Supplier<Object> allocation) {
+        long before = usedHeap();
+        Object retained = allocation.get();
+        long after = usedHeap();
+        assertNotNull(retained);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double averageMillis(Runnable task) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,113 @@
+package com.reliaquest.api.roster;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarRosterTest {
+
+    private final ColumnarRoster roster = ColumnarRoster.of(List.of(
+            new Employee("1", "Tiger Nixon", 320800, "61", "System Architect", "tiger@company.com"),
+            new Employee("2", "Garrett Winters", 170750, "63", "Accountant", "garrett@company.com"),
+            new Employee("3", "Ashton Cox", 86000, null, "System Architect", null),
+            new Employee("4", "Cedric Kelly", 433060, "22", null, "cedric@company.com"),
+            new Employee("5", "tiger nixon", 170750, "30", "Accountant", "tiger2@company.com")));
+
+    @Test
+    void employee_ShouldRoundTripEveryColumn() {
+        assertEquals(5, roster.size());
+        assertEmployee(roster.employee(0), "1", "Tiger Nixon", 320800, "61", "System Architect", "tiger@company.com");
+        assertEmployee(roster.employee(2), "3", "Ashton Cox", 86000, null, "System Architect", null);
+        assertNull(roster.title(3));
+    }
+
+    @Test
+    void topBySalary_ShouldReturnHighestFirstAndKeepRosterOrderForTies() {
+        assertEquals(List.of("Cedric Kelly", "Tiger Nixon", "Garrett Winters", "tiger nixon"),
+                names(roster.employees(roster.topBySalary(4))));
+        assertEquals(5, roster.topBySalary(10).length);
+        assertEquals(0, roster.topBySalary(0).length);
+    }
+
+    @Test
+    void maxSalary_ShouldScanSalaryColumn() {
+        assertEquals(433060, roster.maxSalary());
+        assertEquals(0, ColumnarRoster.of(List.of()).maxSalary());
+    }
+
+    @Test
+    void findByName_ShouldMatchIgnoringCase() {
+        assertArrayEquals(new int[] {0, 4}, roster.findByName("TIGER NIXON"));
+        assertEquals(0, roster.findByName("Tiger").length);
+    }
+
+    @Test
+    void rowOfId_ShouldUseIdIndex() {
+        assertEquals(3, roster.rowOfId("4"));
+        assertEquals(-1, roster.rowOfId("missing"));
+        assertEquals(-1, roster.rowOfId(null));
+    }
+
+    @Test
+    void builder_ShouldGrowPastExpectedSize() {
+        ColumnarRoster.Builder builder = ColumnarRoster.builder(1);
+        for (int i = 0; i < 1_000; i++) {
+            builder.add(Integer.toString(i), "Employee \u00fc" + i, i, 30, "Title " + (i % 3), null);
+        }
+        ColumnarRoster grown = builder.build();
+
+        assertEquals(1_000, grown.size());
+        assertEquals("Employee \u00fc999", grown.name(999));
+        assertEquals(999, grown.rowOfId("999"));
+        assertEquals(999, grown.maxSalary());
+    }
+
+    @Test
+    void reader_ShouldParseEnvelopeIntoColumns() throws IOException {
+        String body = """
+                {
+                  "status": "Successfully processed request.",
+                  "data": [
+                    {"id": "1", "employee_name": "Tiger Nixon", "employee_salary": 320800, "employee_age": 61,
+                     "employee_title": "System Architect", "employee_email": "tiger@company.com",
+                     "extra": {"nested": [1, 2]}},
+                    {"id": "2", "employee_name": "Ashton Cox", "employee_salary": 86000, "employee_age": null}
+                  ]
+                }
+                """;
+
+        Optional<ColumnarRoster> read = new ColumnarRosterReader().read(new JsonFactory().createParser(body));
+
+        assertTrue(read.isPresent());
+        assertEquals(2, read.get().size());
+        assertEmployee(read.get().employee(0), "1", "Tiger Nixon", 320800, "61", "System Architect", "tiger@company.com");
+        assertEmployee(read.get().employee(1), "2", "Ashton Cox", 86000, null, null, null);
+    }
+
+    @Test
+    void reader_WithoutDataArray_ShouldReturnEmpty() throws IOException {
+        assertTrue(new ColumnarRosterReader()
+                .read(new JsonFactory().createParser("{\"status\": \"Failed\"}"))
+                .isEmpty());
+    }
+
+    private static void assertEmployee(
+            Employee employee, String id, String name, int salary, String age, String title, String email) {
+        assertEquals(id, employee.getId());
+        assertEquals(name, employee.getEmployeeName());
+        assertEquals(salary, employee.getEmployeeSalary());
+        assertEquals(age, employee.getEmployeeAge());
+        assertEquals(title, employee.getEmployeeTitle());
+        assertEquals(email, employee.getEmployeeEmail());
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(Employee::getEmployeeName).toList();
+    }
+}
@@ -0,0 +1,189 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnownEmployeeIdsTest {
+
+    private static final int ROWS = 1_000;
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    private final MutableClock clock = new MutableClock();
+    private final List<Employee> employees = roster();
+    private final RosterCache rosterCache = new RosterCache(() -> ColumnarRoster.of(employees), TTL,
+            Duration.ofSeconds(5), clock, true);
+    private final KnownEmployeeIds knownIds = new KnownEmployeeIds(rosterCache, 0.01, MAX_AGE, NEGATIVE_TTL, 100,
+            clock, true);
+
+    @Test
+    void isKnownMissing_ShouldNeverRejectRosterIds() {
+        rosterCache.get();
+
+        for (Employee employee : employees) {
+            assertFalse(knownIds.isKnownMissing(employee.getId()));
+            assertFalse(knownIds.isKnownMissing(employee.getId().toUpperCase()));
+        }
+    }
+
+    @Test
+    void isKnownMissing_ShouldRejectMostUnknownIds() {
+        rosterCache.get();
+
+        int passed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (!knownIds.isKnownMissing(UUID.randomUUID().toString())) {
+                passed++;
+            }
+        }
+        assertTrue(passed < 300, "false positives: " + passed);
+    }
+
+    @Test
+    void isKnownMissing_WithoutSnapshot_ShouldNotGuess() {
+        assertFalse(knownIds.isKnownMissing(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void isKnownMissing_WithSnapshotOlderThanMaxAge_ShouldNotGuess() {
+        rosterCache.get();
+        clock.advance(MAX_AGE.plusSeconds(1));
+
+        assertFalse(knownIds.isKnownMissing(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void isKnownMissing_WithExpiredSnapshot_ShouldNotGuess() {
+        rosterCache.get();
+        clock.advance(TTL);
+
+        assertFalse(knownIds.isKnownMissing(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void isKnownMissing_WithInvalidatedSnapshot_ShouldNotGuess() {
+        rosterCache.get();
+        rosterCache.invalidate();
+
+        assertFalse(knownIds.isKnownMissing(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void recordCreated_ShouldAdmitIdMissingFromSnapshot() {
+        rosterCache.get();
+        String id = UUID.randomUUID().toString();
+        assertTrue(knownIds.isKnownMissing(id));
+
+        knownIds.recordCreated(id);
+
+        assertFalse(knownIds.isKnownMissing(id));
+    }
+
+    @Test
+    void recordCreated_ShouldSurviveRebuildFromOlderSnapshot() {
+        rosterCache.get();
+        String id = UUID.randomUUID().toString();
+        knownIds.recordCreated(id);
+
+        rosterCache.invalidate();
+        rosterCache.get();
+
+        assertFalse(knownIds.isKnownMissing(id));
+    }
+
+    @Test
+    void isKnownMissing_WhileRebuilding_ShouldServePreviousFilter() {
+        List<Runnable> background = new ArrayList<>();
+        RosterCache cache = new RosterCache(() -> ColumnarRoster.of(employees), TTL, Duration.ofSeconds(5), clock, true,
+                null, background::add);
+        KnownEmployeeIds ids = new KnownEmployeeIds(cache, 0.01, MAX_AGE, NEGATIVE_TTL, 100, clock, true);
+        String unknown = UUID.randomUUID().toString();
+
+        cache.get();
+        assertFalse(ids.isKnownMissing(unknown));
+        runAll(background);
+        assertTrue(ids.isKnownMissing(unknown));
+
+        Employee added = new Employee(UUID.randomUUID().toString(), "Added", 50_000, "30", "Engineer",
+                "added@company.com");
+        employees.add(added);
+        cache.invalidate();
+        cache.get();
+
+        assertEquals(1, background.size());
+        assertTrue(ids.isKnownMissing(unknown));
+        runAll(background);
+        assertFalse(ids.isKnownMissing(added.getId()));
+        assertTrue(ids.isKnownMissing(unknown));
+    }
+
+    @Test
+    void recordMissing_ShouldRejectUntilNegativeTtlExpires() {
+        String id = employees.get(0).getId();
+        knownIds.recordMissing(id);
+        assertTrue(knownIds.isKnownMissing(id));
+
+        clock.advance(NEGATIVE_TTL);
+
+        assertFalse(knownIds.isKnownMissing(id));
+    }
+
+    @Test
+    void disabled_ShouldNeverReject() {
+        KnownEmployeeIds disabled = KnownEmployeeIds.disabled();
+        disabled.recordMissing("missing");
+
+        assertFalse(disabled.isKnownMissing("missing"));
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static List<Employee> roster() {
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(new Employee(UUID.randomUUID().toString(), "Employee " + i, 50_000 + i, "30",
+                    "Engineer", "employee" + i + "@company.com"));
+        }
+        return employees;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Indexes a million names drawn from a few thousand first and last names, moves the index to a roster version with a
+ * new name in it, and reports the average time of typical exact, prefix, substring and misspelled queries. Run with
+ * {@code ./gradlew api:benchmark}.
+ */
+@Tag("benchmark")
+class NameIndexBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int FIRST_NAMES = 3_000;
+    private static final int LAST_NAMES = 5_000;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS = 2_000;
+    private static final String LETTERS = "aeioubcdfghklmnprstvz";
+
+    @Test
+    void searchMillionNames() {
+        Random random = new Random(42);
+        String[] first = words(random, FIRST_NAMES);
+        String[] last = words(random, LAST_NAMES);
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(employee(i, first[random.nextInt(first.length)] + " " + last[random.nextInt(last.length)]));
+        }
+
+        NameIndex index = new NameIndex();
+        long start = System.nanoTime();
+        index.search(new RosterSnapshot(ColumnarRoster.of(employees), 1, Instant.now()), "warmup", 0);
+        double buildMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        employees.set(ROWS / 2, employee(ROWS / 2, "Newcomer Person"));
+        RosterSnapshot snapshot = new RosterSnapshot(ColumnarRoster.of(employees), 2, Instant.now());
+        start = System.nanoTime();
+        List<Employee> newcomer = index.search(snapshot, "newcomer", 0);
+        double refreshMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        String[] name = employees.get(ROWS / 3).getEmployeeName().toLowerCase().split(" ");
+        String firstName = name[0];
+        String lastName = name[1];
+        String[] queries = {
+                firstName,
+                lastName.substring(0, 3),
+                firstName.substring(1, 4),
+                swapped(firstName),
+                firstName + " " + lastName.substring(0, 2),
+        };
+
+        System.out.printf("%,d rows, build %.0f ms, incremental refresh %.0f ms%n", ROWS, buildMillis, refreshMillis);
+        for (String query : queries) {
+            int matches = index.search(snapshot, query, 0).size();
+            double millis = averageMillis(() -> index.search(snapshot, query, 0));
+            System.out.printf("%-24s %.3f ms, %d result(s)%n", '"' + query + '"', millis, matches);
+            assertTrue(millis < 1, query + " took " + millis + " ms");
+        }
+        assertEquals("Newcomer Person", newcomer.get(0).getEmployeeName());
+    }
+
+    private static Employee employee(int row, String name) {
+        return new Employee(Integer.toString(row), name, 50_000, "30", "Engineer", "employee" + row + "@company.com");
+    }
+
+    private static String[] words(Random random, int count) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder word = new StringBuilder().append((char) ('A' + random.nextInt(26)));
+            int length = 4 + random.nextInt(6);
+            while (word.length() < length) {
+                word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static String swapped(String word) {
+        char[] chars = word.toCharArray();
+        char second = chars[1];
+        chars[1] = chars[2];
+        chars[2] = second;
+        return new String(chars);
+    }
+
+    private static double averageMillis(Runnable task) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
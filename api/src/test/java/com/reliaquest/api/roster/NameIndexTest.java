@@ -0,0 +1,114 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameIndexTest {
+
+    private final NameIndex index = new NameIndex(2, 50);
+
+    @Test
+    void search_ShouldRankExactWordsAbovePrefixesAndSubstrings() {
+        RosterSnapshot snapshot = snapshot(1, "Alice Johnson", "Johnny Appleseed", "John Smith");
+
+        List<Employee> matches = index.search(snapshot, "john", 0);
+
+        assertEquals(List.of("John Smith", "Alice Johnson", "Johnny Appleseed"), names(matches));
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsOfWords() {
+        RosterSnapshot snapshot = snapshot(1, "Alice Johnson", "Mary-Jane O'Neil", "Bob Marley");
+
+        assertEquals(List.of("Alice Johnson"), names(index.search(snapshot, "ohnso", 0)));
+        assertEquals(List.of("Mary-Jane O'Neil"), names(index.search(snapshot, "neil", 0)));
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        RosterSnapshot snapshot = snapshot(1, "John Smith", "Cedric Kelly", "Johnny Appleseed");
+
+        assertEquals(List.of("John Smith"), names(index.search(snapshot, "smtih", 0)));
+        assertEquals(List.of("John Smith"), names(index.search(snapshot, "jonh smith", 0)));
+        assertEquals(List.of("Johnny Appleseed"), names(index.search(snapshot, "appleseeed", 0)));
+        assertTrue(index.search(snapshot, "xyz", 0).isEmpty());
+    }
+
+    @Test
+    void search_ShouldRequireEveryQueryWordAndPreferTheWholeName() {
+        RosterSnapshot snapshot = snapshot(1, "Smith John", "John Smithers", "John Smith", "John Doe");
+
+        List<Employee> matches = index.search(snapshot, "John Smith", 0);
+
+        assertEquals(List.of("John Smith", "Smith John", "John Smithers"), names(matches));
+    }
+
+    @Test
+    void search_ShouldReturnEveryRowOfAName() {
+        RosterSnapshot snapshot = snapshot(1, "John Smith", "Cedric Kelly", "John Smith");
+
+        List<Employee> matches = index.search(snapshot, "smith", 0);
+
+        assertEquals(List.of("0", "2"), matches.stream().map(Employee::getId).toList());
+    }
+
+    @Test
+    void search_ShouldStopAtLimit() {
+        RosterSnapshot snapshot = snapshot(1, "John Smith", "John Doe", "John Kelly");
+
+        assertEquals(2, index.search(snapshot, "john", 2).size());
+        assertEquals(3, new NameIndex(2, 50).search(snapshot, "john", 100).size());
+        assertEquals(1, new NameIndex(2, 1).search(snapshot, "john", 0).size());
+    }
+
+    @Test
+    void search_ShouldFollowRosterVersions() {
+        assertEquals(1, index.search(snapshot(1, "John Smith", "Cedric Kelly"), "smith", 0).size());
+
+        RosterSnapshot next = snapshot(2, "Cedric Kelly", "Zed Zimmer");
+
+        assertTrue(index.search(next, "smith", 0).isEmpty());
+        assertEquals(List.of("Zed Zimmer"), names(index.search(next, "zimer", 0)));
+        assertEquals(List.of("Cedric Kelly"), names(index.search(next, "cedric", 0)));
+    }
+
+    @Test
+    void search_AfterMostNamesLeft_ShouldStillFindTheRest() {
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            many.add("Person" + i + " Example");
+        }
+        index.search(snapshot(1, many.toArray(String[]::new)), "example", 0);
+
+        RosterSnapshot next = snapshot(2, "Person7 Example", "Cedric Kelly");
+
+        assertEquals(List.of("Person7 Example"), names(index.search(next, "example", 0)));
+        assertEquals(List.of("Cedric Kelly"), names(index.search(next, "kelly", 0)));
+    }
+
+    @Test
+    void editDistance_ShouldCountSwapsAsOneEdit() {
+        assertEquals(1, NameIndex.editDistance("jonh", "john", 2));
+        assertEquals(1, NameIndex.editDistance("smith", "smyth", 2));
+        assertEquals(3, NameIndex.editDistance("smith", "smithers", 2));
+        assertEquals(3, NameIndex.editDistance("abcdef", "ghijkl", 2));
+    }
+
+    private static RosterSnapshot snapshot(long version, String... names) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            employees.add(new Employee(Integer.toString(i), names[i], 50_000, "30", "Engineer", "e" + i + "@x.com"));
+        }
+        return new RosterSnapshot(ColumnarRoster.of(employees), version, Instant.EPOCH);
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(Employee::getEmployeeName).toList();
+    }
+}
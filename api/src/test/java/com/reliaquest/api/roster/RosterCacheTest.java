@@ -0,0 +1,210 @@
+package com.reliaquest.api.roster;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile RuntimeException failure;
+
+    private final RosterCache cache = new RosterCache(() -> {
+        loads.incrementAndGet();
+        if (failure != null) {
+            throw failure;
+        }
+        return ColumnarRoster.of(List.of());
+    }, TTL, RETRY_BACKOFF, clock, true);
+
+    @Test
+    void get_WithinTtl_ShouldReuseSnapshot() {
+        RosterSnapshot first = cache.get();
+        clock.advance(TTL.minusSeconds(1));
+
+        assertSame(first, cache.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldRefreshAndBumpVersion() {
+        RosterSnapshot first = cache.get();
+        clock.advance(TTL);
+
+        RosterSnapshot second = cache.get();
+        assertEquals(first.version() + 1, second.version());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldForceRefreshOnNextRead() {
+        cache.get();
+        cache.invalidate();
+
+        assertEquals(2, cache.get().version());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenRefreshFails_ShouldServeStaleSnapshotAndBackOff() {
+        RosterSnapshot first = cache.get();
+        clock.advance(TTL);
+        failure = new IllegalStateException("Too many requests");
+
+        assertSame(first, cache.get());
+        assertSame(first, cache.get());
+        assertEquals(2, loads.get());
+
+        clock.advance(RETRY_BACKOFF);
+        failure = null;
+        assertEquals(2, cache.get().version());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_WhenFirstLoadFails_ShouldPropagate() {
+        failure = new IllegalStateException("Too many requests");
+
+        assertThrows(IllegalStateException.class, cache::get);
+    }
+
+    @Test
+    void get_WithSnapshotFile_ShouldServeRestoredRosterWhileRevalidating(@TempDir Path directory)
+            throws InterruptedException {
+        RosterSnapshotFile file = new RosterSnapshotFile(directory.resolve("roster.snapshot"), Duration.ofDays(1));
+        RosterCache first = new RosterCache(() -> ColumnarRoster.of(List.of()), TTL, RETRY_BACKOFF, clock, true, file,
+                Runnable::run);
+        first.get();
+        clock.advance(TTL.multipliedBy(10));
+
+        CountDownLatch revalidated = new CountDownLatch(1);
+        RosterCache restarted = new RosterCache(() -> {
+            revalidated.countDown();
+            throw new IllegalStateException("Too many requests");
+        }, TTL, RETRY_BACKOFF, clock, true, file, Runnable::run);
+
+        assertEquals(1, restarted.peek().orElseThrow().version());
+        assertEquals(1, restarted.get().version());
+        assertTrue(revalidated.await(5, TimeUnit.SECONDS));
+        assertEquals(1, restarted.get().version());
+    }
+
+    @Test
+    void get_WithSnapshotFile_ShouldWriteNewestSnapshotInBackground(@TempDir Path directory) {
+        RosterSnapshotFile file = new RosterSnapshotFile(directory.resolve("roster.snapshot"), Duration.ofDays(1));
+        List<Runnable> background = new ArrayList<>();
+        RosterCache writer = new RosterCache(() -> ColumnarRoster.of(List.of()), TTL, RETRY_BACKOFF, clock, true, file,
+                background::add);
+
+        writer.get();
+        writer.invalidate();
+        writer.get();
+
+        assertTrue(file.read(clock.instant()).isEmpty());
+        assertEquals(1, background.size());
+        background.get(0).run();
+        assertEquals(2, file.read(clock.instant()).orElseThrow().version());
+    }
+
+    @Test
+    void get_ShouldLoadForReaderOnlyWhenReaderWaits(@TempDir Path directory) throws InterruptedException {
+        RosterSnapshotFile file = new RosterSnapshotFile(directory.resolve("roster.snapshot"), Duration.ofDays(1));
+        CountDownLatch background = new CountDownLatch(1);
+        AtomicInteger readerLoads = new AtomicInteger();
+        RosterLoader loader = new RosterLoader() {
+            @Override
+            public ColumnarRoster load() {
+                background.countDown();
+                throw new IllegalStateException("Too many requests");
+            }
+
+            @Override
+            public ColumnarRoster loadForReader() {
+                readerLoads.incrementAndGet();
+                return ColumnarRoster.of(List.of());
+            }
+        };
+        new RosterCache(loader, TTL, RETRY_BACKOFF, clock, true, file, Runnable::run).get();
+        assertEquals(1, readerLoads.get());
+
+        clock.advance(TTL);
+        new RosterCache(loader, TTL, RETRY_BACKOFF, clock, true, file, Runnable::run).get();
+        assertTrue(background.await(5, TimeUnit.SECONDS));
+        assertEquals(1, readerLoads.get());
+    }
+
+    @Test
+    void onRefresh_ShouldAnnounceNewestSnapshotInBackground() {
+        List<Runnable> background = new ArrayList<>();
+        RosterCache announcing = new RosterCache(() -> ColumnarRoster.of(List.of()), TTL, RETRY_BACKOFF, clock, true,
+                null, background::add);
+        List<Long> announced = new ArrayList<>();
+        announcing.onRefresh(snapshot -> announced.add(snapshot.version()));
+
+        announcing.get();
+        announcing.invalidate();
+        announcing.get();
+
+        assertTrue(announced.isEmpty());
+        assertEquals(1, background.size());
+        background.get(0).run();
+        assertEquals(List.of(2L), announced);
+    }
+
+    @Test
+    void onRefresh_WithSnapshot_ShouldAnnounceItRightAway() {
+        RosterSnapshot snapshot = cache.get();
+        List<RosterSnapshot> announced = new ArrayList<>();
+
+        cache.onRefresh(announced::add);
+
+        assertEquals(List.of(snapshot), announced);
+    }
+
+    @Test
+    void disabled_ShouldReportDisabled() {
+        assertFalse(RosterCache.disabled().isEnabled());
+        assertTrue(cache.isEnabled());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterSnapshotFileTest {
+
+    private static final Instant FETCHED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final RosterSnapshot snapshot = new RosterSnapshot(ColumnarRoster.of(List.of(
+            new Employee("1", "Tiger Nixon", 320800, "61", "System Architect", "tiger@company.com"),
+            new Employee("2", "Ashton Cox \u00fc", 86000, null, null, null),
+            new Employee("3", "Cedric Kelly", 433060, "22", "System Architect", "cedric@company.com"))),
+            7, FETCHED_AT);
+
+    @Test
+    void read_ShouldRoundTripWrittenSnapshot() {
+        Path path = directory.resolve("nested/roster.snapshot");
+        RosterSnapshotFile file = new RosterSnapshotFile(path, Duration.ofHours(1));
+        file.write(snapshot);
+
+        RosterSnapshot read = file.read(FETCHED_AT.plusSeconds(60)).orElseThrow();
+
+        assertEquals(7, read.version());
+        assertEquals(FETCHED_AT, read.fetchedAt());
+        assertEquals(3, read.roster().size());
+        Employee ashton = read.roster().employee(1);
+        assertEquals("Ashton Cox \u00fc", ashton.getEmployeeName());
+        assertNull(ashton.getEmployeeAge());
+        assertNull(ashton.getEmployeeTitle());
+        assertNull(ashton.getEmployeeEmail());
+        assertEquals("System Architect", read.roster().title(2));
+        assertEquals(2, read.roster().rowOfId("3"));
+        assertFalse(Files.exists(path.resolveSibling("roster.snapshot.tmp")));
+    }
+
+    @Test
+    void read_WhenMissingOrTooOld_ShouldReturnEmpty() {
+        RosterSnapshotFile file = new RosterSnapshotFile(directory.resolve("roster.snapshot"), Duration.ofHours(1));
+        assertTrue(file.read(FETCHED_AT).isEmpty());
+
+        file.write(snapshot);
+        assertTrue(file.read(FETCHED_AT.plus(Duration.ofHours(2))).isEmpty());
+    }
+
+    @Test
+    void read_WhenCorrupted_ShouldReturnEmpty() throws IOException {
+        Path path = directory.resolve("roster.snapshot");
+        RosterSnapshotFile file = new RosterSnapshotFile(path, Duration.ofHours(1));
+        file.write(snapshot);
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x7f;
+        Files.write(path, bytes);
+
+        assertTrue(file.read(FETCHED_AT).isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryAnalyticsTest {
+
+    private final SalaryAnalytics analytics = new SalaryAnalytics();
+
+    @Test
+    void distributions_ShouldGroupTitlesIgnoringCase() {
+        RosterSnapshot snapshot = snapshot(1, List.of(
+                employee("1", 100_000, "Engineer"),
+                employee("2", 120_000, " engineer "),
+                employee("3", 90_000, "Manager"),
+                employee("4", 300_000, null)));
+
+        SalaryAnalytics.Distributions distributions = analytics.distributions(snapshot);
+
+        assertEquals(List.of("Engineer", "Manager"), List.copyOf(distributions.byTitle().keySet()));
+        assertEquals(2, distributions.title("ENGINEER").orElseThrow().count());
+        assertEquals(120_000, distributions.title("engineer").orElseThrow().max());
+        assertTrue(distributions.title("Director").isEmpty());
+        assertTrue(distributions.title(" ").isEmpty());
+        assertEquals(4, distributions.overall().count());
+        assertEquals(300_000, distributions.overall().max());
+    }
+
+    @Test
+    void distributions_ShouldOnlySketchChangedTitlesAgain() {
+        List<Employee> employees = new ArrayList<>(List.of(
+                employee("1", 100_000, "Engineer"),
+                employee("2", 120_000, "Engineer"),
+                employee("3", 90_000, "Manager")));
+        SalaryAnalytics.Distributions first = analytics.distributions(snapshot(1, employees));
+
+        employees.add(0, employees.remove(1));
+        employees.add(employee("4", 95_000, "Manager"));
+        SalaryAnalytics.Distributions second = analytics.distributions(snapshot(2, employees));
+
+        assertSame(first.byTitle().get("Engineer"), second.byTitle().get("Engineer"));
+        assertNotSame(first.byTitle().get("Manager"), second.byTitle().get("Manager"));
+        assertEquals(2, second.byTitle().get("Manager").count());
+        assertEquals(4, second.overall().count());
+    }
+
+    @Test
+    void distributions_ShouldSketchAgainWhenASalaryChanges() {
+        SalaryAnalytics.Distributions first =
+                analytics.distributions(snapshot(1, List.of(employee("1", 100_000, "Engineer"))));
+        SalaryAnalytics.Distributions second =
+                analytics.distributions(snapshot(2, List.of(employee("1", 110_000, "Engineer"))));
+
+        assertNotSame(first.byTitle().get("Engineer"), second.byTitle().get("Engineer"));
+        assertEquals(110_000, second.title("Engineer").orElseThrow().quantile(0.5));
+    }
+
+    @Test
+    void distributions_ShouldBeReusedForTheSameVersion() {
+        RosterSnapshot snapshot = snapshot(3, List.of(employee("1", 100_000, "Engineer")));
+
+        assertSame(analytics.distributions(snapshot), analytics.distributions(snapshot));
+    }
+
+    @Test
+    void distributionsOnce_ShouldNotReplaceTheKeptDistributions() {
+        RosterSnapshot snapshot = snapshot(1, List.of(employee("1", 100_000, "Engineer")));
+        SalaryAnalytics.Distributions kept = analytics.distributions(snapshot);
+
+        SalaryAnalytics.Distributions once =
+                analytics.distributionsOnce(ColumnarRoster.of(List.of(employee("2", 50_000, "Manager"))));
+
+        assertEquals(List.of("Manager"), List.copyOf(once.byTitle().keySet()));
+        assertSame(kept, analytics.distributions(snapshot));
+    }
+
+    @Test
+    void distributions_OfAnEmptyRoster_ShouldBeEmpty() {
+        SalaryAnalytics.Distributions distributions = analytics.distributions(snapshot(1, List.of()));
+
+        assertTrue(distributions.overall().isEmpty());
+        assertTrue(distributions.byTitle().isEmpty());
+    }
+
+    private static Employee employee(String id, int salary, String title) {
+        return new Employee(id, "Employee " + id, salary, "30", title, "employee" + id + "@company.com");
+    }
+
+    private static RosterSnapshot snapshot(long version, List<Employee> employees) {
+        return new RosterSnapshot(ColumnarRoster.of(employees), version, Instant.now());
+    }
+}
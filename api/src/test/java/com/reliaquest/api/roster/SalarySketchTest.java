@@ -0,0 +1,168 @@
+package com.reliaquest.api.roster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalarySketchTest {
+
+    private static final int ROWS = 200_000;
+
+    @Test
+    void quantile_ShouldBeExactWhileNothingWasCompacted() {
+        SalarySketch sketch = new SalarySketch();
+        for (int salary = 100; salary >= 1; salary--) {
+            sketch.add(salary * 1_000);
+        }
+
+        assertEquals(100, sketch.count());
+        assertEquals(1_000, sketch.quantile(0));
+        assertEquals(50_000, sketch.quantile(0.5));
+        assertEquals(90_000, sketch.quantile(0.9));
+        assertEquals(100_000, sketch.quantile(1));
+        assertEquals(0.25, sketch.rank(25_000));
+        assertEquals(11, sketch.countBetween(40_000, 50_000));
+    }
+
+    @Test
+    void rank_ShouldStayWithinRankError_OnUniformSortedAndSkewedSalaries() {
+        Random random = new Random(7);
+        assertWithinRankError(row -> 30_000 + random.nextInt(470_000));
+        assertWithinRankError(row -> 30_000 + row);
+        assertWithinRankError(row -> 500_000 - row);
+        assertWithinRankError(row -> (int) Math.exp(11 + random.nextGaussian()));
+        assertWithinRankError(row -> 50_000 + 10_000 * random.nextInt(5));
+    }
+
+    @Test
+    void merge_ShouldStayWithinRankError_AndKeepExactCountAndExtremes() {
+        Random random = new Random(11);
+        int[] salaries = new int[ROWS];
+        SalarySketch merged = new SalarySketch();
+        for (int part = 0; part < 40; part++) {
+            SalarySketch sketch = new SalarySketch();
+            for (int row = part; row < ROWS; row += 40) {
+                salaries[row] = 30_000 + random.nextInt(470_000) + part * 1_000;
+                sketch.add(salaries[row]);
+            }
+            merged.merge(sketch);
+        }
+
+        Arrays.sort(salaries);
+        assertEquals(ROWS, merged.count());
+        assertEquals(salaries[0], merged.min());
+        assertEquals(salaries[ROWS - 1], merged.max());
+        assertTrue(maxRankError(merged, salaries) <= merged.rankError());
+    }
+
+    @Test
+    void retainedItems_ShouldStayBoundedWhateverTheCount() {
+        SalarySketch sketch = new SalarySketch();
+        int retainedAtTenThousand = 0;
+        for (int row = 0; row < 2_000_000; row++) {
+            sketch.add(row);
+            if (row == 10_000) {
+                retainedAtTenThousand = sketch.retainedItems();
+            }
+        }
+
+        assertTrue(sketch.retainedItems() <= 4 * SalarySketch.DEFAULT_K, "retained " + sketch.retainedItems());
+        assertTrue(sketch.retainedItems() < 2 * retainedAtTenThousand);
+    }
+
+    @Test
+    void quantile_ShouldBeReproducible() {
+        SalarySketch first = new SalarySketch(50);
+        SalarySketch second = new SalarySketch(50);
+        Random random = new Random(3);
+        for (int row = 0; row < 50_000; row++) {
+            int salary = random.nextInt(1_000_000);
+            first.add(salary);
+            second.add(salary);
+        }
+
+        for (double fraction = 0; fraction <= 1; fraction += 0.05) {
+            assertEquals(first.quantile(fraction), second.quantile(fraction));
+        }
+    }
+
+    @Test
+    void histogramCounts_ShouldAddUpToTheCount() {
+        SalarySketch sketch = new SalarySketch();
+        Random random = new Random(5);
+        for (int row = 0; row < ROWS; row++) {
+            sketch.add(30_000 + random.nextInt(470_000));
+        }
+
+        long total = 0;
+        for (int lower = 30_000; lower < 500_000; lower += 47_000) {
+            long count = sketch.countBetween(lower, lower + 46_999);
+            assertEquals(ROWS / 10.0, count, 2 * sketch.rankError() * ROWS);
+            total += count;
+        }
+        assertEquals(ROWS, total);
+    }
+
+    @Test
+    void emptySketch_ShouldAnswerZero() {
+        SalarySketch sketch = new SalarySketch();
+
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(0, sketch.rank(100));
+        assertEquals(0, sketch.countBetween(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new SalarySketch(4));
+    }
+
+    private static void assertWithinRankError(IntUnaryOperator salaryOfRow) {
+        int[] salaries = new int[ROWS];
+        SalarySketch sketch = new SalarySketch();
+        for (int row = 0; row < ROWS; row++) {
+            salaries[row] = salaryOfRow.applyAsInt(row);
+            sketch.add(salaries[row]);
+        }
+
+        Arrays.sort(salaries);
+        double error = maxRankError(sketch, salaries);
+        assertTrue(error <= sketch.rankError(), "rank error " + error);
+        for (double fraction : new double[] {0.01, 0.25, 0.5, 0.9, 0.99}) {
+            int quantile = sketch.quantile(fraction);
+            double trueRank = (double) upperBound(salaries, quantile) / ROWS;
+            double rankBelow = (double) upperBound(salaries, quantile - 1) / ROWS;
+            assertTrue(trueRank >= fraction - sketch.rankError() && rankBelow <= fraction + sketch.rankError(),
+                    "quantile " + fraction + " was " + quantile);
+        }
+    }
+
+    // Largest difference between the estimated and the true rank over every distinct salary.
+    private static double maxRankError(SalarySketch sketch, int[] sorted) {
+        double worst = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i + 1 < sorted.length && sorted[i + 1] == sorted[i]) {
+                continue;
+            }
+            double trueRank = (double) (i + 1) / sorted.length;
+            worst = Math.max(worst, Math.abs(sketch.rank(sorted[i]) - trueRank));
+        }
+        return worst;
+    }
+
+    private static int upperBound(int[] sorted, int salary) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= salary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
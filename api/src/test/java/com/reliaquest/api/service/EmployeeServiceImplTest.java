@@ -3,9 +3,17 @@ package com.reliaquest.api.service;
 
 import com.reliaquest.api.dto.DeleteResponse;
 import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.SalaryPercentiles;
 import com.reliaquest.api.entity.Employee;
 import com.reliaquest.api.entity.EmployeeByIdResponse;
+import com.reliaquest.api.entity.EmployeeFields;
 import com.reliaquest.api.entity.EmployeeResponse;
+import com.reliaquest.api.roster.ColumnarRoster;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.upstream.EmployeeQueryClient;
+import com.reliaquest.api.upstream.EmployeeShards;
+import com.reliaquest.api.upstream.EmployeeStreamAggregator;
+import com.reliaquest.api.upstream.HedgedRequestExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -16,10 +24,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class EmployeeServiceImplTest {
@@ -55,6 +67,22 @@ class EmployeeServiceImplTest {
         assertEquals(employees, result);
     }
 
+    @Test
+    void testGetAllEmployees_WithFields_ShouldPushProjectionUpstream() {
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        List<Employee> employees = List.of(new Employee("1", "Tiger Nixon", 320800, null, null, null));
+        mockResponse.setData(employees);
+        when(restTemplate.getForObject(anyString(), eq(EmployeeResponse.class))).thenReturn(mockResponse);
+
+        List<Employee> result =
+                employeeService.getAllEmployees(EmployeeFields.parse("employee_salary,id,employee_name"));
+
+        assertEquals(employees, result);
+        verify(restTemplate).getForObject(
+                EmployeeServiceImpl.DEFAULT_BASE_URL + "/employee?fields=id,employee_name,employee_salary",
+                EmployeeResponse.class);
+    }
+
     @Test
     void testGetEmployeesByNameSearch() {
         // Mock response from the API
@@ -108,6 +136,47 @@ class EmployeeServiceImplTest {
         assertEquals(320809, result);;
     }
 
+    @Test
+    void testGetSalaryPercentilesByTitle() {
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        mockResponse.setData(Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, age, "Lead", ""),
+                new Employee("2", "Garrett Winters", 170750, age, "lead", ""),
+                new Employee("3", "Ashton Cox", 86000, age, "Junior Technical Author", ""),
+                new Employee("4", "Cedric Kelly", 433060, age, null, "")
+        ));
+        when(restTemplate.getForObject(anyString(), eq(EmployeeResponse.class))).thenReturn(mockResponse);
+
+        SalaryPercentiles overall = employeeService.getSalaryPercentiles(null, List.of(0.0, 50.0, 100.0));
+        Map<String, SalaryPercentiles> byTitle = employeeService.getSalaryPercentilesByTitle(List.of(50.0));
+
+        assertEquals(4, overall.count());
+        assertEquals(Map.of("p0", 86000, "p50", 170750, "p100", 433060), overall.percentiles());
+        assertEquals(List.of("Junior Technical Author", "Lead"), List.copyOf(byTitle.keySet()));
+        assertEquals(2, byTitle.get("Lead").count());
+        assertEquals(170750, byTitle.get("Lead").percentiles().get("p50"));
+    }
+
+    @Test
+    void testRosterRevision() {
+        assertTrue(employeeService.rosterRevision().isEmpty());
+
+        RosterCache rosterCache = new RosterCache(() -> ColumnarRoster.of(List.of(
+                new Employee("1", "Tiger Nixon", 320800, age, "Lead", ""))), Duration.ofMinutes(1), Duration.ZERO);
+        EmployeeServiceImpl cachedService = new EmployeeServiceImpl(restTemplate, HedgedRequestExecutor.disabled(),
+                new EmployeeStreamAggregator(), rosterCache, EmployeeQueryClient.disabled(),
+                EmployeeShards.single(EmployeeServiceImpl.DEFAULT_BASE_URL + "/employee"), false);
+
+        assertTrue(cachedService.rosterRevision().isEmpty());
+        rosterCache.get();
+        String revision = cachedService.rosterRevision().orElseThrow();
+        assertEquals(revision, cachedService.rosterRevision().orElseThrow());
+        rosterCache.invalidate();
+        assertTrue(cachedService.rosterRevision().isEmpty());
+        rosterCache.get();
+        assertNotEquals(revision, cachedService.rosterRevision().orElseThrow());
+    }
+
     @Test
     void testGetTop10HighestEarningEmployeeNames() {
         // Mock response from the API
@@ -1,17 +1,30 @@
 package com.reliaquest.api.service;
 
 import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.reliaquest.api.dto.EmployeeCreateRequest;
 import com.reliaquest.api.entity.Employee;
 import com.reliaquest.api.entity.EmployeeByIdResponse;
+import com.reliaquest.api.entity.EmployeeFields;
 import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.upstream.EmployeeQueryClient;
+import com.reliaquest.api.upstream.EmployeeShards;
+import com.reliaquest.api.upstream.EmployeeStreamAggregator;
+import com.reliaquest.api.upstream.HedgedRequestExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,6 +68,134 @@ class EmployeeServiceImplWireMockTest {
         assertEquals("Tiger Nixon", employees.get(0).getEmployeeName());
     }
 
+    @Test
+    void testGetTopHighestEarningEmployees_withStreamingAggregation() throws EmployeeServiceException {
+        EmployeeServiceImpl streamingService = new EmployeeServiceImpl(
+                new RestTemplate(), HedgedRequestExecutor.disabled(), new EmployeeStreamAggregator(),
+                RosterCache.disabled(), EmployeeQueryClient.disabled(),
+                EmployeeShards.single(EmployeeServiceImpl.DEFAULT_BASE_URL + "/employee"), true);
+        String response = """
+        {
+          "data": [
+            {
+              "id": "1",
+              "employee_name": "Tiger Nixon",
+              "employee_salary": 320800,
+              "employee_age": 61,
+              "employee_title": "Vice Chair Executive",
+              "employee_email": "tnixon@company.com"
+            },
+            {
+              "id": "2",
+              "employee_name": "Cedric Kelly",
+              "employee_salary": 433060,
+              "employee_age": 22,
+              "employee_title": "Senior Javascript Developer",
+              "employee_email": "ckelly@company.com"
+            }
+          ],
+          "status": "Successfully processed request."
+        }
+        """;
+
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(response)));
+
+        List<Employee> topEarners = streamingService.getTopHighestEarningEmployees(1);
+        assertEquals(1, topEarners.size());
+        assertEquals("Cedric Kelly", topEarners.get(0).getEmployeeName());
+        assertEquals(433060, streamingService.getHighestSalaryOfEmployees());
+    }
+
+    @Test
+    void testWriteAllEmployees_ShouldStreamUpstreamRowsAsArray() throws IOException {
+        String response = """
+        {
+          "data": [
+            {
+              "id": "1",
+              "employee_name": "Tiger Nixon",
+              "employee_salary": 320800,
+              "employee_age": 61,
+              "employee_title": "Vice Chair Executive",
+              "employee_email": "tnixon@company.com"
+            },
+            {
+              "id": "2",
+              "employee_name": "Cedric Kelly",
+              "employee_salary": 433060,
+              "employee_age": 22,
+              "employee_title": "Senior Javascript Developer",
+              "employee_email": "ckelly@company.com"
+            }
+          ],
+          "status": "Successfully processed request."
+        }
+        """;
+
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(response)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        employeeService.writeAllEmployees(EmployeeFields.ALL, out);
+
+        assertEquals("[{\"id\":\"1\",\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,"
+                + "\"employee_age\":\"61\",\"employee_title\":\"Vice Chair Executive\","
+                + "\"employee_email\":\"tnixon@company.com\"},{\"id\":\"2\",\"employee_name\":\"Cedric Kelly\","
+                + "\"employee_salary\":433060,\"employee_age\":\"22\","
+                + "\"employee_title\":\"Senior Javascript Developer\",\"employee_email\":\"ckelly@company.com\"}]",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteAllEmployees_WithFields_ShouldPushProjectionUpstream() throws IOException {
+        WireMock.stubFor(WireMock.get("/api/v1/employee?fields=id,employee_salary")
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"data\":[{\"id\":\"1\",\"employee_salary\":320800}],\"status\":\"ok\"}")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        employeeService.writeAllEmployees(EmployeeFields.parse("employee_salary,id"), out);
+
+        assertEquals("[{\"id\":\"1\",\"employee_salary\":320800}]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteAllEmployees_WhenFirstShardIsThrottled_ShouldWriteNothing() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(429)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"status\":\"Too many requests\"}")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(EmployeeServiceException.class, () -> employeeService.writeAllEmployees(EmployeeFields.ALL, out));
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testWriteAllEmployees_WhenClientDisconnects_ShouldStopQuietly() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"data\":[" + "{\"id\":\"1\",\"employee_name\":\"Tiger Nixon\"},".repeat(10_000)
+                                + "{\"id\":\"2\"}],\"status\":\"ok\"}")));
+
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertDoesNotThrow(() -> employeeService.writeAllEmployees(EmployeeFields.ALL, disconnected));
+    }
+
     @Test
     void testGetEmployeeById() throws EmployeeServiceException {
         String id = "123";
@@ -156,6 +297,29 @@ class EmployeeServiceImplWireMockTest {
         assertThrows(EmployeeServiceException.class, () -> employeeService.getAllEmployees());
     }
 
+    @Test
+    void testGetAllEmployees_whenRateLimited_shouldThrowClassifiedExceptionWithoutStackTrace() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse().withStatus(429)));
+
+        EmployeeServiceException e = assertThrows(EmployeeServiceException.class,
+                () -> employeeService.getAllEmployees());
+        assertEquals(ErrorKind.RATE_LIMITED, e.getKind());
+        assertEquals(0, e.getStackTrace().length);
+    }
+
+    @Test
+    void testGetAllEmployees_whenConnectionFails_shouldKeepStackTraceAndCause() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        EmployeeServiceException e = assertThrows(EmployeeServiceException.class,
+                () -> employeeService.getAllEmployees());
+        assertNull(e.getKind());
+        assertTrue(e.getStackTrace().length > 0);
+        assertInstanceOf(ResourceAccessException.class, e.getCause());
+    }
+
     @Test
     void testGetEmployeeById_whenNotFound_shouldThrowException() {
         String invalidId = "invalid-id";
@@ -0,0 +1,113 @@
+package com.reliaquest.api.startup;
+
+import com.reliaquest.api.roster.ColumnarRoster;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.roster.RosterLoader;
+import com.reliaquest.api.upstream.EmployeeQueryClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupWarmupTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    @Test
+    void run_ShouldLoadRosterAndReportReady() {
+        AtomicInteger loads = new AtomicInteger();
+        RosterCache rosterCache = new RosterCache(() -> {
+            loads.incrementAndGet();
+            return ColumnarRoster.of(List.of());
+        }, TTL, Duration.ZERO);
+        StartupWarmup warmup = warmup(rosterCache, Duration.ofSeconds(30), WarmupFallback.ACCEPT_TRAFFIC);
+
+        assertFalse(warmup.isReady());
+        warmup.run(null);
+
+        assertTrue(warmup.isReady());
+        assertEquals(StartupWarmup.State.COMPLETED, warmup.getState());
+        assertEquals(1, loads.get());
+        assertTrue(rosterCache.peek().isPresent());
+    }
+
+    @Test
+    void run_WhenRosterKeepsFailingPastTimeout_ShouldAcceptTraffic() {
+        RosterCache rosterCache = new RosterCache(() -> {
+            throw new IllegalStateException("Too many requests");
+        }, TTL, Duration.ZERO);
+        StartupWarmup warmup = warmup(rosterCache, Duration.ZERO, WarmupFallback.ACCEPT_TRAFFIC);
+
+        warmup.run(null);
+
+        assertTrue(warmup.isReady());
+        assertEquals("Too many requests", warmup.getLastFailure());
+    }
+
+    @Test
+    void isReady_WithRefuseFallback_ShouldWaitForRosterPastTimeout() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RosterLoader loader = () -> {
+            if (release.getCount() > 0) {
+                throw new IllegalStateException("Too many requests");
+            }
+            return ColumnarRoster.of(List.of());
+        };
+        StartupWarmup warmup = new StartupWarmup(
+                new RosterCache(loader, TTL, Duration.ZERO),
+                EmployeeQueryClient.disabled(),
+                true,
+                Duration.ZERO,
+                Duration.ofMillis(10),
+                1,
+                WarmupFallback.REFUSE_TRAFFIC,
+                Clock.systemUTC());
+
+        Thread thread = new Thread(() -> warmup.run(null));
+        thread.start();
+        while (warmup.getLastFailure() == null) {
+            Thread.onSpinWait();
+        }
+
+        assertFalse(warmup.isReady());
+        assertTrue(warmup.isTimedOut());
+
+        release.countDown();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(warmup.isReady());
+    }
+
+    @Test
+    void isReady_WhenDisabled_ShouldBeReadyImmediately() {
+        StartupWarmup warmup = new StartupWarmup(
+                RosterCache.disabled(),
+                EmployeeQueryClient.disabled(),
+                false,
+                Duration.ofSeconds(30),
+                Duration.ZERO,
+                1,
+                WarmupFallback.REFUSE_TRAFFIC,
+                Clock.systemUTC());
+
+        assertTrue(warmup.isReady());
+        assertEquals(StartupWarmup.State.DISABLED, warmup.getState());
+    }
+
+    private static StartupWarmup warmup(RosterCache rosterCache, Duration timeout, WarmupFallback fallback) {
+        return new StartupWarmup(
+                rosterCache,
+                EmployeeQueryClient.disabled(),
+                true,
+                timeout,
+                Duration.ZERO,
+                1,
+                fallback,
+                Clock.systemUTC());
+    }
+}
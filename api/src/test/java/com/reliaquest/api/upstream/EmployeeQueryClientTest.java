@@ -0,0 +1,142 @@
+package com.reliaquest.api.upstream;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@WireMockTest
+class EmployeeQueryClientTest {
+
+    private static final String CAPABILITIES_PATH = "/api/v1/employee/capabilities";
+
+    private String employeeUrl;
+
+    @BeforeEach
+    void setUp(WireMockRuntimeInfo wireMock) {
+        employeeUrl = wireMock.getHttpBaseUrl() + "/api/v1/employee";
+    }
+
+    @Test
+    void supportsQuery_WhenServerAdvertisesQuery_ShouldProbeOnce() {
+        stubCapabilities(WireMock.okJson("{\"data\": [\"query\"], \"status\": \"Successfully processed request.\"}"));
+        EmployeeQueryClient client = new EmployeeQueryClient(new RestTemplate(), employeeUrl, Duration.ZERO);
+
+        assertTrue(client.supportsQuery());
+        assertFalse(client.supportsStats());
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo(CAPABILITIES_PATH)));
+    }
+
+    @Test
+    void supportsQuery_WhenServerFailsProbe_ShouldRememberUnsupported() {
+        stubCapabilities(WireMock.serverError());
+        EmployeeQueryClient client = new EmployeeQueryClient(new RestTemplate(), employeeUrl, Duration.ZERO);
+
+        assertFalse(client.supportsQuery());
+        assertFalse(client.supportsQuery());
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo(CAPABILITIES_PATH)));
+    }
+
+    @Test
+    void supportsQuery_WhenRateLimited_ShouldProbeAgainAfterBackoff() {
+        stubCapabilities(WireMock.aResponse().withStatus(429));
+        EmployeeQueryClient client = new EmployeeQueryClient(new RestTemplate(), employeeUrl, Duration.ZERO);
+
+        assertFalse(client.supportsQuery());
+        assertFalse(client.supportsQuery());
+        WireMock.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo(CAPABILITIES_PATH)));
+    }
+
+    @Test
+    void supportsQuery_WhenDisabled_ShouldNotProbe() {
+        assertFalse(EmployeeQueryClient.disabled().supportsQuery());
+        WireMock.verify(0, WireMock.getRequestedFor(WireMock.urlEqualTo(CAPABILITIES_PATH)));
+    }
+
+    @Test
+    void topBySalary_ShouldPushDownSortAndLimit() {
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/api/v1/employee/query"))
+                .withQueryParam("sort", WireMock.equalTo("SALARY"))
+                .withQueryParam("direction", WireMock.equalTo("DESC"))
+                .withQueryParam("limit", WireMock.equalTo("2"))
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                  "data": [
+                                    {"id": "4", "employee_name": "Cedric Kelly", "employee_salary": 433060},
+                                    {"id": "1", "employee_name": "Tiger Nixon", "employee_salary": 320800}
+                                  ],
+                                  "status": "Successfully processed request."
+                                }
+                                """)));
+        EmployeeQueryClient client = new EmployeeQueryClient(new RestTemplate(), employeeUrl, Duration.ZERO);
+
+        List<Employee> top = client.topBySalary(2);
+
+        assertEquals(2, top.size());
+        assertEquals("Cedric Kelly", top.get(0).getEmployeeName());
+        assertEquals(320800, top.get(1).getEmployeeSalary());
+    }
+
+    @Test
+    void maxSalary_ShouldReadServerStats() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee/stats")
+                .willReturn(WireMock.okJson("""
+                        {
+                          "data": {"count": 2, "salarySum": 753860, "maxSalary": 433060, "titleCounts": {}},
+                          "status": "Successfully processed request."
+                        }
+                        """)));
+        EmployeeQueryClient client = new EmployeeQueryClient(new RestTemplate(), employeeUrl, Duration.ZERO);
+
+        assertEquals(433060, client.maxSalary().getAsInt());
+    }
+
+    @Test
+    void maxSalary_WithEmptyRoster_ShouldReturnEmpty() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee/stats")
+                .willReturn(WireMock.okJson("""
+                        {
+                          "data": {"count": 0, "salarySum": 0, "titleCounts": {}},
+                          "status": "Successfully processed request."
+                        }
+                        """)));
+        EmployeeQueryClient client = new EmployeeQueryClient(new RestTemplate(), employeeUrl, Duration.ZERO);
+
+        assertTrue(client.maxSalary().isEmpty());
+    }
+
+    @Test
+    void findByName_ShouldEncodeName() {
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/api/v1/employee/query"))
+                .withQueryParam("name", WireMock.equalTo("Tiger + Nixon"))
+                .willReturn(WireMock.okJson("""
+                        {
+                          "data": [{"id": "1", "employee_name": "Tiger + Nixon", "employee_salary": 320800}],
+                          "status": "Successfully processed request."
+                        }
+                        """)));
+        EmployeeQueryClient client = new EmployeeQueryClient(new RestTemplate(), employeeUrl, Duration.ZERO);
+
+        List<Employee> employees = client.findByName("Tiger + Nixon");
+
+        assertEquals(1, employees.size());
+        assertEquals("1", employees.get(0).getId());
+    }
+
+    private static void stubCapabilities(ResponseDefinitionBuilder response) {
+        WireMock.stubFor(WireMock.get(CAPABILITIES_PATH).willReturn(response));
+    }
+}
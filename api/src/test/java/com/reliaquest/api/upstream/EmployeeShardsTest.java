@@ -0,0 +1,108 @@
+package com.reliaquest.api.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeShardsTest {
+
+    private static final List<String> URLS = List.of(
+            "http://localhost:8112/api/v1/employee",
+            "http://localhost:8113/api/v1/employee",
+            "http://localhost:8114/api/v1/employee");
+
+    @Test
+    void ownerUrl_ShouldSpreadIdsAndIgnoreCase() {
+        try (EmployeeShards shards = new EmployeeShards(URLS, 128)) {
+            Map<String, Integer> owned = new HashMap<>();
+            for (int i = 0; i < 3_000; i++) {
+                String id = UUID.randomUUID().toString();
+                assertEquals(shards.ownerUrl(id), shards.ownerUrl(id.toUpperCase()));
+                owned.merge(shards.ownerUrl(id), 1, Integer::sum);
+            }
+
+            assertEquals(3, owned.size());
+            owned.values().forEach(count -> assertTrue(count > 600, "unbalanced ring: " + owned));
+        }
+    }
+
+    @Test
+    void ring_WhenShardIsAdded_ShouldOnlyMoveIdsToNewShard() {
+        ConsistentHashRing two = new ConsistentHashRing(2, 128);
+        ConsistentHashRing three = new ConsistentHashRing(3, 128);
+
+        for (int i = 0; i < 3_000; i++) {
+            String id = UUID.randomUUID().toString();
+            int owner = three.shardOf(id);
+            assertTrue(owner == 2 || owner == two.shardOf(id));
+        }
+    }
+
+    @Test
+    void scatter_ShouldCallShardsInParallelAndKeepShardOrder() {
+        CountDownLatch allStarted = new CountDownLatch(URLS.size());
+        try (EmployeeShards shards = new EmployeeShards(URLS, 128)) {
+            List<String> results = shards.scatter(shard -> {
+                allStarted.countDown();
+                try {
+                    assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return shards.employeeUrl(shard);
+            });
+
+            assertEquals(URLS, results);
+        }
+    }
+
+    @Test
+    void scatter_WhenShardFails_ShouldRethrowItsFailure() {
+        try (EmployeeShards shards = new EmployeeShards(URLS, 128)) {
+            IllegalStateException failure = assertThrows(IllegalStateException.class, () -> shards.scatter(shard -> {
+                if (shard == 1) {
+                    throw new IllegalStateException("Too many requests");
+                }
+                return shard;
+            }));
+
+            assertEquals("Too many requests", failure.getMessage());
+        }
+    }
+
+    @Test
+    void nextCreateUrl_ShouldRoundRobin() {
+        try (EmployeeShards shards = new EmployeeShards(URLS, 128)) {
+            assertEquals(List.of(URLS.get(0), URLS.get(1), URLS.get(2), URLS.get(0)),
+                    List.of(shards.nextCreateUrl(), shards.nextCreateUrl(), shards.nextCreateUrl(),
+                            shards.nextCreateUrl()));
+        }
+    }
+
+    @Test
+    void hasAlternative_ShouldHoldOnlyForReplicatedShards() {
+        try (EmployeeShards shards = EmployeeShards.replicated(
+                List.of(List.of(URLS.get(0), URLS.get(1)), List.of(URLS.get(2))), 128)) {
+            assertTrue(shards.hasAlternative(shards.replicas().get(0)));
+            assertTrue(shards.hasAlternative(shards.replicas().get(1)));
+            assertFalse(shards.hasAlternative(shards.replicas().get(2)));
+        }
+    }
+
+    @Test
+    void single_ShouldRunOnCallerThread() {
+        try (EmployeeShards shards = EmployeeShards.single(URLS.get(0))) {
+            Thread caller = Thread.currentThread();
+
+            assertEquals(List.of(true), shards.scatter(shard -> Thread.currentThread() == caller));
+            assertEquals(URLS.get(0), shards.ownerUrl("anything"));
+        }
+    }
+}
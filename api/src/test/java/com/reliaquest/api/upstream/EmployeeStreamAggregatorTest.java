@@ -0,0 +1,130 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.upstream.EmployeeStreamAggregator.SalaryAggregate;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeStreamAggregatorTest {
+
+    private final EmployeeStreamAggregator aggregator = new EmployeeStreamAggregator();
+
+    @Test
+    void aggregate_ShouldReturnTopEarnersInDescendingOrder() throws IOException {
+        SalaryAggregate aggregate = aggregate(envelope(
+                row("1", "Tiger Nixon", 320800),
+                row("2", "Garrett Winters", 170750),
+                row("3", "Ashton Cox", 86000),
+                row("4", "Cedric Kelly", 433060)), 2);
+
+        assertEquals(4, aggregate.count());
+        assertEquals(433060, aggregate.maxSalary());
+        assertEquals(List.of("Cedric Kelly", "Tiger Nixon"), names(aggregate.topEarners()));
+
+        Employee top = aggregate.topEarners().get(0);
+        assertEquals("4", top.getId());
+        assertEquals("30", top.getEmployeeAge());
+        assertEquals("Lead", top.getEmployeeTitle());
+        assertEquals("cedric@company.com", top.getEmployeeEmail());
+    }
+
+    @Test
+    void aggregate_WithEqualSalaries_ShouldKeepUpstreamOrder() throws IOException {
+        SalaryAggregate aggregate = aggregate(envelope(
+                row("1", "First", 100),
+                row("2", "Second", 100),
+                row("3", "Third", 100)), 2);
+
+        assertEquals(List.of("First", "Second"), names(aggregate.topEarners()));
+    }
+
+    @Test
+    void aggregate_WithZeroTopSize_ShouldOnlyComputeMaximum() throws IOException {
+        SalaryAggregate aggregate = aggregate(envelope(row("1", "Tiger Nixon", 320800), row("2", "Cedric Kelly", 433060)), 0);
+
+        assertEquals(2, aggregate.count());
+        assertEquals(433060, aggregate.maxSalary());
+        assertTrue(aggregate.topEarners().isEmpty());
+    }
+
+    @Test
+    void aggregate_ShouldSkipUnknownAndNestedFields() throws IOException {
+        String body = """
+                {
+                  "status": "Successfully processed request.",
+                  "meta": {"page": [1, 2]},
+                  "data": [
+                    {"id": "1", "extra": {"a": [1, {"b": 2}]}, "employee_name": "Tiger Nixon", "employee_salary": 5}
+                  ]
+                }
+                """;
+
+        SalaryAggregate aggregate = aggregate(body, 1);
+
+        assertEquals(1, aggregate.count());
+        assertEquals("Tiger Nixon", aggregate.topEarners().get(0).getEmployeeName());
+    }
+
+    @Test
+    void aggregate_WithEmptyRoster_ShouldReturnZeroCount() throws IOException {
+        SalaryAggregate aggregate = aggregate(envelope(), 10);
+
+        assertEquals(0, aggregate.count());
+        assertTrue(aggregate.topEarners().isEmpty());
+    }
+
+    @Test
+    void aggregate_WithoutDataArray_ShouldReturnEmpty() throws IOException {
+        Optional<SalaryAggregate> aggregate = aggregator.aggregate(stream("{\"status\": \"Failed to process request.\"}"), 1);
+
+        assertTrue(aggregate.isEmpty());
+    }
+
+    @Test
+    void merge_ShouldCombineShardsAsOneRoster() throws IOException {
+        SalaryAggregate first = aggregate(envelope(row("1", "Tiger Nixon", 320800), row("2", "Ashton Cox", 86000)), 2);
+        SalaryAggregate empty = aggregate(envelope(), 2);
+        SalaryAggregate second = aggregate(envelope(
+                row("3", "Cedric Kelly", 433060),
+                row("4", "Tiger Twin", 320800)), 2);
+
+        SalaryAggregate merged = SalaryAggregate.merge(List.of(first, empty, second), 2);
+
+        assertEquals(4, merged.count());
+        assertEquals(433060, merged.maxSalary());
+        assertEquals(List.of("Cedric Kelly", "Tiger Nixon"), names(merged.topEarners()));
+        assertEquals(0, SalaryAggregate.merge(List.of(empty, empty), 2).count());
+    }
+
+    private SalaryAggregate aggregate(String body, int topSize) throws IOException {
+        return aggregator.aggregate(stream(body), topSize).orElseThrow();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String envelope(String... rows) {
+        return "{\"data\": [" + String.join(",", rows) + "], \"status\": \"Successfully processed request.\"}";
+    }
+
+    private static String row(String id, String name, int salary) {
+        String email = name.split(" ")[0].toLowerCase() + "@company.com";
+        return """
+                {"id": "%s", "employee_name": "%s", "employee_salary": %d, "employee_age": 30,
+                 "employee_title": "Lead", "employee_email": "%s"}
+                """.formatted(id, name, salary, email);
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(Employee::getEmployeeName).collect(Collectors.toList());
+    }
+}
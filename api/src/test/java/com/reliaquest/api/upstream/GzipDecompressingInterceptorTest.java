@@ -0,0 +1,79 @@
+package com.reliaquest.api.upstream;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.reliaquest.api.entity.EmployeeResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@WireMockTest
+class GzipDecompressingInterceptorTest {
+
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        restTemplate = new RestTemplate(new JdkClientHttpRequestFactory(httpClient));
+        restTemplate.getInterceptors().add(new GzipDecompressingInterceptor());
+    }
+
+    @Test
+    void intercept_ShouldInflateGzipEncodedResponse(WireMockRuntimeInfo wireMock) throws IOException {
+        String body = """
+                {
+                  "data": [{"id": "1", "employee_name": "Tiger Nixon", "employee_salary": 320800}],
+                  "status": "Successfully processed request."
+                }
+                """;
+
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .withBody(gzip(body))));
+
+        EmployeeResponse response = restTemplate.getForObject(
+                wireMock.getHttpBaseUrl() + "/api/v1/employee", EmployeeResponse.class);
+
+        assertNotNull(response);
+        assertEquals("Tiger Nixon", response.getData().get(0).getEmployeeName());
+        WireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/api/v1/employee"))
+                .withHeader(HttpHeaders.ACCEPT_ENCODING, WireMock.containing("gzip")));
+    }
+
+    @Test
+    void intercept_ShouldPassThroughUncompressedResponse(WireMockRuntimeInfo wireMock) {
+        WireMock.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"data\": [], \"status\": \"Successfully processed request.\"}")));
+
+        EmployeeResponse response = restTemplate.getForObject(
+                wireMock.getHttpBaseUrl() + "/api/v1/employee", EmployeeResponse.class);
+
+        assertNotNull(response);
+        assertTrue(response.getData().isEmpty());
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
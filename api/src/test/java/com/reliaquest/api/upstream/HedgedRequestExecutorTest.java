@@ -0,0 +1,183 @@
+package com.reliaquest.api.upstream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedRequestExecutorTest {
+
+    private HedgedRequestExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    void execute_WhenPrimaryIsSlow_ShouldReturnHedgedResult() {
+        executor = newExecutor(new HedgeBudget(1, 5, Duration.ofSeconds(90)));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        String result = executor.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(release);
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+        release.countDown();
+    }
+
+    @Test
+    void execute_WhenPrimaryIsFast_ShouldNotHedge() {
+        executor = newExecutor(new HedgeBudget(1, 5, Duration.ofSeconds(90)));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(() -> {
+            attempts.incrementAndGet();
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void execute_ShouldRunPrimaryOnCallerThread() {
+        executor = newExecutor(new HedgeBudget(1, 5, Duration.ofSeconds(90)));
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, executor.execute(Thread::currentThread));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void execute_WhenEveryHedgeThreadIsBusy_ShouldWaitForPrimary() throws InterruptedException {
+        executor = newExecutor(new HedgeBudget(1, 5, Duration.ofSeconds(90)), 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(2);
+        Thread blocked = new Thread(() -> executor.execute(() -> {
+            running.countDown();
+            await(release);
+            return "blocked";
+        }));
+        blocked.start();
+        // Its primary and its hedge are both running, and the hedge holds the only hedge thread.
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger attempts = new AtomicInteger();
+        String result = executor.execute(() -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+        release.countDown();
+        blocked.join(5000);
+    }
+
+    @Test
+    void execute_WhenBudgetIsExhausted_ShouldWaitForPrimary() {
+        executor = newExecutor(new HedgeBudget(0, 0, Duration.ofSeconds(90)));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(() -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void execute_WhenUpstreamThrottles_ShouldPauseHedging() {
+        HedgeBudget budget = new HedgeBudget(1, 5, Duration.ofSeconds(90));
+        executor = newExecutor(budget);
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> executor.execute(() -> {
+            throw HttpClientErrorException.create(
+                    HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", new HttpHeaders(), new byte[0], null);
+        }));
+
+        budget.onRequest();
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void execute_WhenBothAttemptsFail_ShouldRethrowFailure() {
+        executor = newExecutor(new HedgeBudget(1, 5, Duration.ofSeconds(90)));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> executor.execute(() -> {
+            sleep(50);
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("boom", exception.getMessage());
+    }
+
+    @Test
+    void disabled_ShouldRunOnCallerThread() {
+        executor = HedgedRequestExecutor.disabled();
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, executor.execute(Thread::currentThread));
+    }
+
+    @Test
+    void latencyTracker_ShouldReportPercentileOnceWarmedUp() {
+        LatencyTracker tracker = new LatencyTracker(100, 10);
+        assertTrue(tracker.percentile(95).isEmpty());
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertEquals(95, tracker.percentile(95).getAsLong());
+        assertEquals(100, tracker.percentile(100).getAsLong());
+    }
+
+    private static HedgedRequestExecutor newExecutor(HedgeBudget budget) {
+        return newExecutor(budget, 4);
+    }
+
+    private static HedgedRequestExecutor newExecutor(HedgeBudget budget, int threads) {
+        return new HedgedRequestExecutor(
+                95, Duration.ofMillis(10), Duration.ofMillis(10), new LatencyTracker(16, 1), budget, threads);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.reliaquest.api.upstream;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires the same concurrent load at a delayed upstream over HTTP/1.1 and over h2c and reports the number of TCP
+ * connections opened and the latency distribution for each. Connections are counted by a pass-through proxy in front
+ * of the stub server. Run with {@code ./gradlew api:benchmark}; the last run is kept in
+ * {@code api/build/reports/benchmark/http2-transport.txt}.
+ */
+@Tag("benchmark")
+class Http2TransportBenchmarkTest {
+
+    private static final int CONCURRENCY = 32;
+    private static final int REQUESTS = 1_000;
+    private static final int UPSTREAM_DELAY_MILLIS = 20;
+
+    private WireMockServer upstream;
+    private ConnectionCountingProxy proxy;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = new WireMockServer(options().dynamicPort());
+        upstream.start();
+        upstream.stubFor(WireMock.get("/api/v1/employee")
+                .willReturn(WireMock.aResponse()
+                        .withFixedDelay(UPSTREAM_DELAY_MILLIS)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"data\": [], \"status\": \"Successfully processed request.\"}")));
+        proxy = new ConnectionCountingProxy(upstream.port());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        proxy.close();
+        upstream.stop();
+    }
+
+    @Test
+    void compareHttp1AndHttp2UnderConcurrentLoad() throws Exception {
+        Result http1 = run(HttpClient.Version.HTTP_1_1);
+        Result http2 = run(HttpClient.Version.HTTP_2);
+
+        List<String> report = List.of(
+                "%,d requests, concurrency %d, upstream delay %d ms".formatted(
+                        REQUESTS, CONCURRENCY, UPSTREAM_DELAY_MILLIS),
+                "HTTP/1.1 " + http1,
+                "h2c      " + http2);
+        report.forEach(System.out::println);
+        writeReport(report);
+
+        assertTrue(http2.connections() < http1.connections());
+    }
+
+    private Result run(HttpClient.Version version) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().version(version).build();
+        RestTemplate restTemplate = new RestTemplate(new JdkClientHttpRequestFactory(httpClient));
+        String url = "http://localhost:" + proxy.port() + "/api/v1/employee";
+
+        // One request first so the h2c upgrade has happened before the concurrent burst starts.
+        restTemplate.getForObject(url, String.class);
+        int connectionsBefore = proxy.connections();
+
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(REQUESTS);
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(callers.submit(() -> {
+                    long requestStart = System.nanoTime();
+                    assertNotNull(restTemplate.getForObject(url, String.class));
+                    return System.nanoTime() - requestStart;
+                }));
+            }
+
+            long[] latencies = new long[REQUESTS];
+            for (int i = 0; i < REQUESTS; i++) {
+                latencies[i] = futures.get(i).get();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            return new Result(
+                    proxy.connections() - connectionsBefore + 1,
+                    millis(latencies[REQUESTS / 2]),
+                    millis(latencies[(int) (REQUESTS * 0.99) - 1]),
+                    millis(elapsed));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    // The benchmark task points benchmark.reports-dir at build/reports/benchmark, where the last run is kept.
+    private static void writeReport(List<String> report) throws IOException {
+        String reportsDir = System.getProperty("benchmark.reports-dir");
+        if (reportsDir != null) {
+            Path file = Files.createDirectories(Path.of(reportsDir)).resolve("http2-transport.txt");
+            Files.write(file, report);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Result(int connections, double p50Millis, double p99Millis, double totalMillis) {
+
+        @Override
+        public String toString() {
+            return "connections=%d p50=%.1f ms p99=%.1f ms total=%.0f ms"
+                    .formatted(connections, p50Millis, p99Millis, totalMillis);
+        }
+    }
+
+    private static final class ConnectionCountingProxy implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final int targetPort;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final ExecutorService threads = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "connection-counting-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ConnectionCountingProxy(int targetPort) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.targetPort = targetPort;
+            threads.execute(this::acceptLoop);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket client = serverSocket.accept();
+                    Socket target = new Socket("localhost", targetPort);
+                    connections.incrementAndGet();
+                    threads.execute(() -> pump(client, target));
+                    threads.execute(() -> pump(target, client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static void pump(Socket from, Socket to) {
+            try {
+                InputStream in = from.getInputStream();
+                OutputStream out = to.getOutputStream();
+                in.transferTo(out);
+                to.shutdownOutput();
+            } catch (IOException e) {
+                // the other direction closed the connection
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            threads.shutdownNow();
+        }
+    }
+}
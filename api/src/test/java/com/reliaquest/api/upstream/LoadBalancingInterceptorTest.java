@@ -0,0 +1,106 @@
+package com.reliaquest.api.upstream;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@WireMockTest
+class LoadBalancingInterceptorTest {
+
+    private static final Duration EJECTION_TIME = Duration.ofSeconds(30);
+
+    private final Instant now = Instant.now();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private String localhost;
+    private String loopback;
+    private String localhostUrl;
+    private String loopbackUrl;
+    private EmployeeShards shards;
+    private RestTemplate restTemplate;
+
+    // Both replicas are the same WireMock server, told apart by the authority they are addressed with.
+    @BeforeEach
+    void setUp(WireMockRuntimeInfo wireMock) {
+        localhost = "localhost:" + wireMock.getHttpPort();
+        loopback = "127.0.0.1:" + wireMock.getHttpPort();
+        localhostUrl = "http://" + localhost + "/api/v1/employee";
+        loopbackUrl = "http://" + loopback + "/api/v1/employee";
+        shards = new EmployeeShards(List.of(new ReplicaPool(List.of(localhostUrl, loopbackUrl))), 1,
+                Clock.fixed(now, ZoneOffset.UTC));
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new LoadBalancingInterceptor(
+                shards, EJECTION_TIME, Duration.ofMinutes(2), meterRegistry, Clock.fixed(now, ZoneOffset.UTC)));
+    }
+
+    @Test
+    void intercept_WhenReplicaIsRateLimited_ShouldRouteAroundIt() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee").willReturn(WireMock.aResponse().withStatus(429)));
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class,
+                () -> restTemplate.getForObject(localhostUrl, String.class));
+
+        Replica ejected = shards.replica(localhost).orElseThrow();
+        assertFalse(ejected.isAdmitted(now));
+        assertEquals(now.plus(EJECTION_TIME), ejected.getEjectedUntil());
+        assertEquals(0, ejected.getOutstanding());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(loopbackUrl, shards.employeeUrl(0));
+        }
+        assertEquals(1, meterRegistry.get("employee.upstream.ejected").tag("replica", localhost).gauge().value());
+    }
+
+    @Test
+    void intercept_WhenReplicaKeepsFailing_ShouldBackOffUpToMaximum() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee").willReturn(WireMock.serverError()));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> restTemplate.getForObject(localhostUrl, String.class));
+        }
+
+        Replica ejected = shards.replica(localhost).orElseThrow();
+        assertEquals(now.plus(Duration.ofMinutes(2)), ejected.getEjectedUntil());
+    }
+
+    @Test
+    void intercept_ShouldRecordLatencyPerReplicaAndOutcome() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee").willReturn(WireMock.okJson("{\"data\": []}")));
+
+        restTemplate.getForObject(localhostUrl, String.class);
+        restTemplate.getForObject(loopbackUrl, String.class);
+        restTemplate.getForObject(loopbackUrl, String.class);
+
+        assertEquals(2, meterRegistry.get("employee.upstream.requests")
+                .tag("replica", loopback)
+                .tag("outcome", "success")
+                .timer().count());
+        shards.replicas().forEach(replica -> {
+            assertTrue(replica.isAdmitted(now));
+            assertTrue(replica.getLatencyMillis() > 0);
+        });
+    }
+
+    @Test
+    void choose_WhenEveryReplicaIsEjected_ShouldUseTheOneDueBackFirst() {
+        WireMock.stubFor(WireMock.get("/api/v1/employee").willReturn(WireMock.aResponse().withStatus(429)));
+
+        assertThrows(RuntimeException.class, () -> restTemplate.getForObject(localhostUrl, String.class));
+        assertThrows(RuntimeException.class, () -> restTemplate.getForObject(loopbackUrl, String.class));
+        assertThrows(RuntimeException.class, () -> restTemplate.getForObject(loopbackUrl, String.class));
+
+        assertEquals(localhostUrl, shards.employeeUrl(0));
+    }
+}
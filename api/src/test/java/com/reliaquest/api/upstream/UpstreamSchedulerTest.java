@@ -0,0 +1,175 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import com.reliaquest.api.upstream.UpstreamScheduler.Lane;
+import com.reliaquest.api.upstream.UpstreamScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamSchedulerTest {
+
+    private static final Duration LONG_WAIT = Duration.ofSeconds(10);
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void call_WhenDisabled_ShouldRunStraightAway() {
+        UpstreamScheduler scheduler = UpstreamScheduler.disabled();
+
+        assertFalse(scheduler.isEnabled());
+        assertEquals("ok", scheduler.call(Priority.BACKGROUND, () -> "ok"));
+    }
+
+    @Test
+    void call_ShouldAdmitUpToMaxConcurrentWithoutWaiting() throws Exception {
+        UpstreamScheduler scheduler = scheduler(2, 8, 4, 1, LONG_WAIT);
+        CountDownLatch release = new CountDownLatch(1);
+        hold(scheduler, Priority.BACKGROUND, release);
+        hold(scheduler, Priority.BACKGROUND, release);
+        awaitInFlight(scheduler, 2);
+
+        Future<String> third = callers.submit(() -> scheduler.call(Priority.INTERACTIVE, () -> "third"));
+        awaitWaiting(scheduler, Priority.INTERACTIVE, 1);
+        assertFalse(third.isDone());
+
+        release.countDown();
+        assertEquals("third", third.get(5, TimeUnit.SECONDS));
+        // The second held call may still be on its way out of its slot.
+        awaitInFlight(scheduler, 0);
+    }
+
+    @Test
+    void call_ShouldServeWaitingClassesInProportionToTheirWeights() throws Exception {
+        UpstreamScheduler scheduler = scheduler(1, 4, 2, 1, LONG_WAIT);
+        CountDownLatch release = new CountDownLatch(1);
+        hold(scheduler, Priority.WRITE, release);
+        awaitInFlight(scheduler, 1);
+
+        List<Priority> order = new ArrayList<>();
+        List<Future<?>> calls = new ArrayList<>();
+        for (Priority priority : List.of(Priority.BACKGROUND, Priority.WRITE, Priority.INTERACTIVE)) {
+            for (int i = 0; i < 4; i++) {
+                calls.add(callers.submit(() -> scheduler.call(priority, () -> {
+                    synchronized (order) {
+                        order.add(priority);
+                    }
+                    return null;
+                })));
+            }
+            awaitWaiting(scheduler, priority, 4);
+        }
+
+        release.countDown();
+        for (Future<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        // Finish times step by 1/4, 1/2 and 1, writes after the held one's 1/2; ties go to the higher priority.
+        assertEquals(List.of(
+                Priority.INTERACTIVE, Priority.INTERACTIVE, Priority.INTERACTIVE, Priority.INTERACTIVE, Priority.WRITE,
+                Priority.BACKGROUND, Priority.WRITE, Priority.WRITE, Priority.BACKGROUND, Priority.WRITE,
+                Priority.BACKGROUND, Priority.BACKGROUND), order);
+    }
+
+    @Test
+    void call_WhenClassQueueIsFull_ShouldShed() throws Exception {
+        UpstreamScheduler scheduler = new UpstreamScheduler(1,
+                new Lane(8, 4, LONG_WAIT), new Lane(4, 4, LONG_WAIT), new Lane(1, 1, LONG_WAIT));
+        CountDownLatch release = new CountDownLatch(1);
+        hold(scheduler, Priority.INTERACTIVE, release);
+        awaitInFlight(scheduler, 1);
+        Future<String> queued = callers.submit(() -> scheduler.call(Priority.BACKGROUND, () -> "queued"));
+        awaitWaiting(scheduler, Priority.BACKGROUND, 1);
+
+        EmployeeServiceException e = assertThrows(EmployeeServiceException.class,
+                () -> scheduler.call(Priority.BACKGROUND, () -> "shed"));
+        assertEquals(ErrorKind.QUEUE_FULL, e.getKind());
+
+        release.countDown();
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void call_WhenNotAdmittedInTime_ShouldDropWithoutCalling() throws Exception {
+        UpstreamScheduler scheduler = scheduler(1, 8, 4, 1, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        hold(scheduler, Priority.WRITE, release);
+        awaitInFlight(scheduler, 1);
+
+        long start = System.nanoTime();
+        EmployeeServiceException e = assertThrows(EmployeeServiceException.class,
+                () -> scheduler.call(Priority.INTERACTIVE, () -> fail("dropped call must not run")));
+        assertEquals(ErrorKind.DEADLINE_EXCEEDED, e.getKind());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+        assertEquals(0, scheduler.waiting(Priority.INTERACTIVE));
+
+        release.countDown();
+        assertEquals("next", scheduler.call(Priority.INTERACTIVE, () -> "next"));
+    }
+
+    @Test
+    void call_WhenCallFails_ShouldFreeItsSlot() {
+        UpstreamScheduler scheduler = scheduler(1, 8, 4, 1, LONG_WAIT);
+
+        assertThrows(IllegalStateException.class, () -> scheduler.call(Priority.WRITE, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(0, scheduler.inFlight());
+        assertEquals("ok", scheduler.call(Priority.WRITE, () -> "ok"));
+    }
+
+    private static UpstreamScheduler scheduler(
+            int maxConcurrent,
+            int interactiveWeight,
+            int writeWeight,
+            int backgroundWeight,
+            Duration maxWait
+    ) {
+        return new UpstreamScheduler(maxConcurrent, new Lane(interactiveWeight, 16, maxWait),
+                new Lane(writeWeight, 16, maxWait), new Lane(backgroundWeight, 16, maxWait));
+    }
+
+    // Occupies a slot until release is counted down.
+    private void hold(UpstreamScheduler scheduler, Priority priority, CountDownLatch release) {
+        callers.submit(() -> scheduler.call(priority, () -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+    }
+
+    private static void awaitInFlight(UpstreamScheduler scheduler, int calls) throws InterruptedException {
+        for (int i = 0; i < 500 && scheduler.inFlight() != calls; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(calls, scheduler.inFlight());
+    }
+
+    private static void awaitWaiting(UpstreamScheduler scheduler, Priority priority, int calls)
+            throws InterruptedException {
+        for (int i = 0; i < 500 && scheduler.waiting(priority) < calls; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(calls, scheduler.waiting(priority));
+    }
+}
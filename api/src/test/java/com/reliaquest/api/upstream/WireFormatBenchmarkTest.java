@@ -0,0 +1,111 @@
+package com.reliaquest.api.upstream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.reliaquest.api.entity.EmployeeResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the upstream roster envelope encoded as JSON and as Smile: payload size, full data binding time and
+ * streaming aggregation time. Run with {@code ./gradlew api:benchmark}.
+ */
+@Tag("benchmark")
+class WireFormatBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int ITERATIONS = 20;
+    private static final String[] TITLES = {
+            "Documentation Engineer", "Financial Advisor", "Vice Chair Executive", "Senior Javascript Developer",
+            "Regional Marketing Coordinator", "Lead Security Architect", "Dynamic Hospitality Technician"
+    };
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build());
+    private final EmployeeStreamAggregator aggregator = new EmployeeStreamAggregator(true);
+
+    @Test
+    void compareJsonAndSmile() throws IOException {
+        Map<String, Object> envelope = Map.of("data", roster(), "status", "Successfully processed request.");
+        byte[] json = jsonMapper.writeValueAsBytes(envelope);
+        byte[] smile = smileMapper.writeValueAsBytes(envelope);
+
+        double jsonBindMillis = averageMillis(() -> jsonMapper.readValue(json, EmployeeResponse.class));
+        double smileBindMillis = averageMillis(() -> smileMapper.readValue(smile, EmployeeResponse.class));
+        double jsonStreamMillis = averageMillis(() -> aggregator.aggregate(
+                new ByteArrayInputStream(json), MediaType.APPLICATION_JSON, 10));
+        double smileStreamMillis = averageMillis(() -> aggregator.aggregate(
+                new ByteArrayInputStream(smile), MediaType.parseMediaType("application/x-jackson-smile"), 10));
+
+        System.out.printf("%,d rows%n", ROWS);
+        System.out.printf("payload  json=%,d bytes  smile=%,d bytes  (%.1f%%)%n",
+                json.length, smile.length, 100.0 * smile.length / json.length);
+        System.out.printf("bind     json=%.2f ms  smile=%.2f ms%n", jsonBindMillis, smileBindMillis);
+        System.out.printf("stream   json=%.2f ms  smile=%.2f ms%n", jsonStreamMillis, smileStreamMillis);
+
+        EmployeeResponse fromJson = jsonMapper.readValue(json, EmployeeResponse.class);
+        EmployeeResponse fromSmile = smileMapper.readValue(smile, EmployeeResponse.class);
+        assertEquals(ROWS, fromSmile.getData().size());
+        assertEquals(
+                fromJson.getData().get(ROWS - 1).getEmployeeName(),
+                fromSmile.getData().get(ROWS - 1).getEmployeeName());
+        assertTrue(smile.length < json.length);
+    }
+
+    private static List<WireEmployee> roster() {
+        Random random = new Random(42);
+        List<WireEmployee> roster = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String name = "Employee " + Integer.toString(random.nextInt(1_000_000), 36);
+            roster.add(new WireEmployee(
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    name,
+                    30_000 + random.nextInt(470_000),
+                    16 + random.nextInt(54),
+                    TITLES[random.nextInt(TITLES.length)],
+                    name.replace(' ', '.').toLowerCase() + "@company.com"));
+        }
+        return roster;
+    }
+
+    private static double averageMillis(ThrowingSupplier<?> task) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertNotNull(task.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertNotNull(task.get());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier<T> {
+        T get() throws IOException;
+    }
+
+    // Same shape the mock server writes for MockEmployee, including the numeric age.
+    private record WireEmployee(
+            String id,
+            @JsonProperty("employee_name") String name,
+            @JsonProperty("employee_salary") int salary,
+            @JsonProperty("employee_age") int age,
+            @JsonProperty("employee_title") String title,
+            @JsonProperty("employee_email") String email) {}
+}
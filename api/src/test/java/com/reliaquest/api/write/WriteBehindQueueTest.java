@@ -0,0 +1,232 @@
+package com.reliaquest.api.write;
+
+import com.reliaquest.api.dto.EmployeeCreateRequest;
+import com.reliaquest.api.dto.WriteStatus;
+import com.reliaquest.api.dto.WriteStatus.Operation;
+import com.reliaquest.api.dto.WriteStatus.State;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.EmployeeByIdResponse;
+import com.reliaquest.api.exception.EmployeeServiceException;
+import com.reliaquest.api.exception.ErrorKind;
+import com.reliaquest.api.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WriteBehindQueueTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+    private static final Employee TIGER =
+            new Employee("1", "Tiger Nixon", 320800, "61", "System Architect", "tiger@company.com");
+
+    @TempDir
+    Path directory;
+
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+    private WriteBehindQueue queue;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    @Test
+    void drainOne_ShouldCreateEmployeeAndReportIt() {
+        queue = open(10, 3);
+        when(employeeService.createEmployee(any())).thenReturn(response(TIGER));
+
+        WriteStatus accepted = queue.submitCreate(request("Tiger Nixon"));
+        assertEquals(State.QUEUED, accepted.state());
+        assertNull(accepted.employeeId());
+
+        assertTrue(queue.drainOne());
+        assertFalse(queue.drainOne());
+
+        WriteStatus status = queue.status(accepted.trackingId()).orElseThrow();
+        assertEquals(State.SUCCEEDED, status.state());
+        assertEquals(Operation.CREATE, status.operation());
+        assertEquals("1", status.employeeId());
+        assertEquals(1, status.attempts());
+        assertSame(TIGER, status.employee());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void drainOne_ShouldDeleteEmployeeByName() {
+        queue = open(10, 3);
+        when(employeeService.getEmployeeById("1")).thenReturn(response(TIGER));
+
+        WriteStatus accepted = queue.submitDelete("1");
+        queue.drainOne();
+
+        verify(employeeService).deleteEmployee("Tiger Nixon");
+        WriteStatus status = queue.status(accepted.trackingId()).orElseThrow();
+        assertEquals(State.SUCCEEDED, status.state());
+        assertEquals("1", status.employeeId());
+    }
+
+    @Test
+    void drainOne_WhenRateLimited_ShouldRetryBeforeLaterWrites() {
+        queue = open(10, 3);
+        when(employeeService.getEmployeeById("1")).thenReturn(response(TIGER));
+        doThrow(new EmployeeServiceException(ErrorKind.RATE_LIMITED, "Too many requests"))
+                .doNothing()
+                .when(employeeService).deleteEmployee("Tiger Nixon");
+        when(employeeService.createEmployee(any())).thenReturn(response(TIGER));
+
+        WriteStatus delete = queue.submitDelete("1");
+        WriteStatus create = queue.submitCreate(request("Tiger Nixon"));
+
+        queue.drainOne();
+        WriteStatus retried = queue.status(delete.trackingId()).orElseThrow();
+        assertEquals(State.QUEUED, retried.state());
+        assertEquals("Too many requests", retried.error());
+        assertEquals(State.QUEUED, queue.status(create.trackingId()).orElseThrow().state());
+        verify(employeeService, never()).createEmployee(any());
+
+        queue.drainOne();
+        assertEquals(2, queue.status(delete.trackingId()).orElseThrow().attempts());
+        assertEquals(State.SUCCEEDED, queue.status(delete.trackingId()).orElseThrow().state());
+
+        queue.drainOne();
+        assertEquals(State.SUCCEEDED, queue.status(create.trackingId()).orElseThrow().state());
+    }
+
+    @Test
+    void drainOne_ShouldGiveUpOnFinalFailuresAndAfterMaxAttempts() {
+        queue = open(10, 2);
+        when(employeeService.getEmployeeById("missing"))
+                .thenThrow(new EmployeeServiceException(ErrorKind.NOT_FOUND, "Employee not found"));
+        when(employeeService.createEmployee(any()))
+                .thenThrow(new EmployeeServiceException(ErrorKind.UPSTREAM_ERROR, "Upstream failed"));
+
+        WriteStatus delete = queue.submitDelete("missing");
+        WriteStatus create = queue.submitCreate(request("Tiger Nixon"));
+
+        queue.drainOne();
+        WriteStatus failed = queue.status(delete.trackingId()).orElseThrow();
+        assertEquals(State.FAILED, failed.state());
+        assertEquals("Employee not found", failed.error());
+        assertEquals(1, failed.attempts());
+
+        queue.drainOne();
+        queue.drainOne();
+        WriteStatus exhausted = queue.status(create.trackingId()).orElseThrow();
+        assertEquals(State.FAILED, exhausted.state());
+        assertEquals(2, exhausted.attempts());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void submit_WhenFull_ShouldRefuseWithQueueFull() {
+        queue = open(2, 3);
+        queue.submitDelete("1");
+        queue.submitDelete("2");
+
+        EmployeeServiceException e = assertThrows(EmployeeServiceException.class, () -> queue.submitDelete("3"));
+        assertEquals(ErrorKind.QUEUE_FULL, e.getKind());
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    void open_ShouldRecoverPendingWritesAndFinishedStatuses() throws IOException {
+        queue = open(10, 3);
+        when(employeeService.getEmployeeById("1")).thenReturn(response(TIGER));
+        WriteStatus done = queue.submitDelete("1");
+        queue.drainOne();
+        WriteStatus pending = queue.submitCreate(request("Ashton Cox"));
+        queue.close();
+
+        queue = open(10, 3);
+
+        assertEquals(1, queue.size());
+        WriteStatus recoveredDone = queue.status(done.trackingId()).orElseThrow();
+        assertEquals(State.SUCCEEDED, recoveredDone.state());
+        assertEquals("Tiger Nixon", recoveredDone.employee().getEmployeeName());
+        assertEquals(State.QUEUED, queue.status(pending.trackingId()).orElseThrow().state());
+
+        when(employeeService.createEmployee(any())).thenReturn(response(TIGER));
+        queue.drainOne();
+        verify(employeeService).createEmployee(argThat(request -> request.getName().equals("Ashton Cox")
+                && request.getSalary() == 100 && request.getAge() == 30 && request.getTitle().equals("Engineer")));
+    }
+
+    @Test
+    void open_WhenJournalHasTornTail_ShouldKeepIntactWrites() throws IOException {
+        queue = open(10, 3);
+        WriteStatus kept = queue.submitDelete("1");
+        queue.close();
+        try (FileChannel channel = FileChannel.open(journalPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        queue = open(10, 3);
+
+        assertEquals(1, queue.size());
+        assertTrue(queue.status(kept.trackingId()).isPresent());
+        WriteStatus next = queue.submitDelete("2");
+        queue.close();
+        queue = open(10, 3);
+        assertEquals(2, queue.size());
+        assertTrue(queue.status(next.trackingId()).isPresent());
+    }
+
+    @Test
+    void finish_ShouldForgetOldestStatusesBeyondRetained() {
+        queue = new WriteBehindQueue(employeeService, new WriteJournal(journalPath()), 10, Duration.ZERO,
+                Duration.ZERO, 3, 1, CLOCK, true);
+        when(employeeService.getEmployeeById(any())).thenReturn(response(TIGER));
+        WriteStatus first = queue.submitDelete("1");
+        WriteStatus second = queue.submitDelete("1");
+
+        queue.drainOne();
+        queue.drainOne();
+
+        assertTrue(queue.status(first.trackingId()).isEmpty());
+        assertTrue(queue.status(second.trackingId()).isPresent());
+    }
+
+    @Test
+    void disabled_ShouldNotAcceptWrites() {
+        WriteBehindQueue disabled = WriteBehindQueue.disabled();
+
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, () -> disabled.submitDelete("1"));
+        assertTrue(disabled.status("unknown").isEmpty());
+    }
+
+    private WriteBehindQueue open(int capacity, int maxAttempts) {
+        return new WriteBehindQueue(employeeService, new WriteJournal(journalPath()), capacity, Duration.ZERO,
+                Duration.ZERO, maxAttempts, 100, CLOCK, true);
+    }
+
+    private Path journalPath() {
+        return directory.resolve("writes.journal");
+    }
+
+    private static EmployeeCreateRequest request(String name) {
+        return new EmployeeCreateRequest(name, 100, 30, "Engineer");
+    }
+
+    private static EmployeeByIdResponse response(Employee employee) {
+        EmployeeByIdResponse response = new EmployeeByIdResponse();
+        response.setData(employee);
+        return response;
+    }
+}
@@ -1,11 +1,21 @@
 package com.reliaquest.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.EmployeeShard;
+import com.reliaquest.server.service.HeapMockEmployeeStore;
+import com.reliaquest.server.service.MockEmployeeStore;
+import com.reliaquest.server.service.OffHeapMockEmployeeStore;
+import com.reliaquest.server.web.FaultInjectionFilter;
+import com.reliaquest.server.web.FaultInjectionProperties;
 import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import com.reliaquest.server.web.ResponseBytesCache;
+import jakarta.servlet.DispatcherType;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
@@ -14,8 +24,14 @@ import net.datafaker.transformations.Field;
 import net.datafaker.transformations.JavaObjectTransformer;
 import net.datafaker.transformations.Schema;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -31,13 +47,34 @@ public class ServerConfiguration implements WebMvcConfigurer {
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * Run N instances on different ports with mock.shard.index 0..N-1 and the same mock.shard.count to form a sharded
+     * cluster; each has its own rate limiter, roster and id partition. The defaults are a single unsharded server.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
+    public EmployeeShard employeeShard(
+            @Value("${mock.shard.index:0}") int index,
+            @Value("${mock.shard.count:1}") int count,
+            @Value("${mock.shard.virtual-nodes:128}") int virtualNodes) {
+        final var shard = new EmployeeShard(index, count, virtualNodes);
+        if (count > 1) {
+            log.info("Serving shard {} of {}", index, count);
+        }
+        return shard;
+    }
+
+    /*
+     * The heap store keeps the original modifiable list. The off-heap store is meant for load tests with rosters far
+     * larger than the default; generated employees are copied into it one at a time and never retained on the heap.
+     */
+    @Bean
+    public MockEmployeeStore mockEmployeeStore(
+            Faker faker,
+            EmployeeShard employeeShard,
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.off-heap.enabled:false}") boolean offHeap) {
         final var transformer = new JavaObjectTransformer();
         final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
+                Field.field("id", employeeShard::newId),
                 Field.field("name", () -> faker.name().fullName()),
                 Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
                 Field.field("age", () -> faker.number().numberBetween(16, 70)),
@@ -46,14 +83,80 @@ public class ServerConfiguration implements WebMvcConfigurer {
                         "email",
                         () -> EMAIL_TEMPLATE.formatted(
                                 faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
-                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
+        final var mockEmployees = IntStream.rangeClosed(1, maxEmployees)
+                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema));
+
+        if (offHeap) {
+            final var store = new OffHeapMockEmployeeStore(maxEmployees);
+            mockEmployees.forEach(store::add);
+            log.info("Created {} employees off-heap using {} bytes", store.size(), store.reservedBytes());
+            return store;
+        }
+        return new HeapMockEmployeeStore(mockEmployees
                 .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+                .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    @Bean
+    @ConfigurationProperties("mock.faults")
+    public FaultInjectionProperties faultInjectionProperties() {
+        return new FaultInjectionProperties();
+    }
+
+    /*
+     * Registered last, right in front of the dispatcher servlet, and for async dispatches too, as that is how delayed
+     * requests come back once their delay is over. Everything ahead of it has already run for the original dispatch.
+     */
+    @Bean
+    public FilterRegistrationBean<FaultInjectionFilter> faultInjectionFilter(
+            FaultInjectionProperties properties, ObjectMapper objectMapper) {
+        final var registration = new FilterRegistrationBean<>(new FaultInjectionFilter(properties, objectMapper));
+        registration.setEnabled(properties.isEnabled());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        if (properties.isEnabled()) {
+            log.info("Injecting faults with {} rule(s)", properties.getRules().size());
+        }
+        return registration;
+    }
+
+    /*
+     * GET /api/v1/employee is written from bytes encoded once per roster version, projection and media type. Rosters
+     * encoding to more than max-bytes, such as large off-heap ones, are streamed through the converters instead.
+     */
+    @Bean
+    public ResponseBytesCache responseBytesCache(
+            ObjectMapper objectMapper,
+            @Value("${mock.response-cache.enabled:false}") boolean enabled,
+            @Value("${mock.response-cache.max-bytes:16777216}") int maxBytes) {
+        if (!enabled) {
+            return ResponseBytesCache.disabled();
+        }
+        return new ResponseBytesCache(objectMapper, smileObjectMapper(), maxBytes);
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(new RandomRequestLimitInterceptor());
     }
+
+    /*
+     * Smile is only produced for clients that ask for it in their Accept header; keeping it last means JSON stays the
+     * default for everyone else. Shared names and values let the long employee_* keys and repeated titles be written
+     * once per response and back-referenced afterwards.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileObjectMapper()));
+    }
+
+    private static ObjectMapper smileObjectMapper() {
+        return Jackson2ObjectMapperBuilder.smile()
+                .factory(SmileFactory.builder()
+                        .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                        .build())
+                .build();
+    }
 }
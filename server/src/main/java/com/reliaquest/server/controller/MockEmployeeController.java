@@ -1,13 +1,28 @@
 package com.reliaquest.server.controller;
 
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.reliaquest.server.model.BulkItemResult;
+import com.reliaquest.server.model.Capability;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.EmployeeField;
+import com.reliaquest.server.model.EmployeeQuery;
+import com.reliaquest.server.model.EmployeeStats;
 import com.reliaquest.server.model.MockEmployee;
 import com.reliaquest.server.model.Response;
 import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.web.ResponseBytesCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +32,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -26,9 +42,50 @@ public class MockEmployeeController {
 
     private final MockEmployeeService mockEmployeeService;
 
+    private final Validator validator;
+
+    private final ResponseBytesCache responseBytesCache;
+
+    /*
+     * fields=id,employee_name,... projects every employee onto those fields, written straight from the store. The
+     * encoded envelope is kept per projection until the roster changes, and repeats are written from those bytes.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<JsonSerializable>> getEmployees(
+            @RequestParam(name = "fields", required = false) String fields,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        final Set<EmployeeField> projection;
+        try {
+            projection = EmployeeField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Response.error(e.getMessage()));
+        }
+        final var version = mockEmployeeService.getVersion();
+        final Supplier<Response<JsonSerializable>> envelope = () -> {
+            final var store = mockEmployeeService.getMockEmployees();
+            return Response.handledWith(projection.equals(EmployeeField.ALL) ? store : store.project(projection));
+        };
+        if (responseBytesCache.write(request, response, projection.toString(), version, envelope)) {
+            return null;
+        }
+        return ResponseEntity.ok(envelope.get());
+    }
+
+    @GetMapping("/capabilities")
+    public Response<Set<Capability>> getCapabilities() {
+        return Response.handledWith(mockEmployeeService.getCapabilities());
+    }
+
+    @GetMapping("/query")
+    public Response<List<MockEmployee>> queryEmployees(@Valid EmployeeQuery query) {
+        return Response.handledWith(mockEmployeeService.query(query));
+    }
+
+    @GetMapping("/stats")
+    public Response<EmployeeStats> getStats() {
+        return Response.handledWith(mockEmployeeService.getStats());
     }
 
     @GetMapping("/{id}")
@@ -48,4 +105,68 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /*
+     * The bulk endpoints apply a whole list with one store write and count as a single request against the rate
+     * limiter. Items are validated one by one; an invalid item is reported at its position and the rest still apply.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Response<List<BulkItemResult<MockEmployee>>>> createEmployees(
+            @RequestBody List<CreateMockEmployeeInput> inputs) {
+        if (inputs.size() > mockEmployeeService.getMaxBulkItems()) {
+            return tooManyItems();
+        }
+        final var errors = inputs.stream().map(this::validate).toList();
+        final var created = mockEmployeeService
+                .createAll(IntStream.range(0, inputs.size())
+                        .filter(item -> errors.get(item) == null)
+                        .mapToObj(inputs::get)
+                        .toList())
+                .iterator();
+        return ResponseEntity.ok(Response.handledWith(errors.stream()
+                .map(error ->
+                        error == null ? BulkItemResult.ok(created.next()) : BulkItemResult.<MockEmployee>failed(error))
+                .toList()));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<Response<List<BulkItemResult<Boolean>>>> deleteEmployees(
+            @RequestBody List<DeleteMockEmployeeInput> inputs) {
+        if (inputs.size() > mockEmployeeService.getMaxBulkItems()) {
+            return tooManyItems();
+        }
+        final var errors = inputs.stream().map(this::validate).toList();
+        final var deleted = mockEmployeeService
+                .deleteAll(IntStream.range(0, inputs.size())
+                        .filter(item -> errors.get(item) == null)
+                        .mapToObj(item -> inputs.get(item).getName())
+                        .toList())
+                .iterator();
+        return ResponseEntity.ok(Response.handledWith(errors.stream()
+                .map(error -> error == null ? BulkItemResult.ok(deleted.next()) : BulkItemResult.<Boolean>failed(error))
+                .toList()));
+    }
+
+    /**
+     * @return the constraint violations of the item, or null if it is valid
+     */
+    private String validate(Object input) {
+        if (input == null) {
+            return "item must not be null";
+        }
+        final var violations = validator.validate(input);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private <T> ResponseEntity<Response<T>> tooManyItems() {
+        return ResponseEntity.badRequest()
+                .body(Response.error(
+                        "At most %d items per bulk request".formatted(mockEmployeeService.getMaxBulkItems())));
+    }
 }
@@ -0,0 +1,19 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk request, at the same position as the item. Exactly one of {@code data} and
+ * {@code error} is set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult<T>(T data, String error) {
+
+    public static <T> BulkItemResult<T> ok(T data) {
+        return new BulkItemResult<>(data, null);
+    }
+
+    public static <T> BulkItemResult<T> failed(String error) {
+        return new BulkItemResult<>(null, error);
+    }
+}
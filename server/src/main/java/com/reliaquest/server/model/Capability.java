@@ -0,0 +1,20 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * Optional endpoints a client can discover through {@code GET /api/v1/employee/capabilities} before relying on them.
+ */
+public enum Capability {
+    QUERY("query"),
+    STATS("stats");
+
+    @JsonValue
+    @Getter
+    private final String value;
+
+    Capability(String value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,84 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The JSON fields of a {@link MockEmployee}, for the {@code fields} projection of {@code GET /api/v1/employee}.
+ * Projected employees are written field by field straight to the generator, in declaration order.
+ */
+public enum EmployeeField {
+    ID("id"),
+    NAME("employee_name"),
+    SALARY("employee_salary"),
+    AGE("employee_age"),
+    TITLE("employee_title"),
+    EMAIL("employee_email");
+
+    public static final Set<EmployeeField> ALL = Collections.unmodifiableSet(EnumSet.allOf(EmployeeField.class));
+
+    private final SerializableString jsonName;
+
+    EmployeeField(String jsonName) {
+        this.jsonName = new SerializedString(jsonName);
+    }
+
+    public SerializableString getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * @param fields comma separated JSON field names, or null or blank for all of them
+     * @throws IllegalArgumentException for a name that is not a field of {@link MockEmployee}
+     */
+    public static Set<EmployeeField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        final var parsed = EnumSet.noneOf(EmployeeField.class);
+        for (final var name : fields.split(",")) {
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.getValue().equals(name.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field '%s', expected any of %s"
+                            .formatted(
+                                    name.trim(),
+                                    Arrays.stream(values())
+                                            .map(field -> field.jsonName.getValue())
+                                            .collect(Collectors.joining(","))))));
+        }
+        return parsed;
+    }
+
+    public static void write(JsonGenerator gen, MockEmployee employee, Set<EmployeeField> fields) throws IOException {
+        gen.writeStartObject();
+        for (final var field : fields) {
+            gen.writeFieldName(field.jsonName);
+            switch (field) {
+                case ID -> gen.writeString(
+                        employee.getId() == null ? null : employee.getId().toString());
+                case NAME -> gen.writeString(employee.getName());
+                case SALARY -> writeInt(gen, employee.getSalary());
+                case AGE -> writeInt(gen, employee.getAge());
+                case TITLE -> gen.writeString(employee.getTitle());
+                case EMAIL -> gen.writeString(employee.getEmail());
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeInt(JsonGenerator gen, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
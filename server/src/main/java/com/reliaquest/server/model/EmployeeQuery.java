@@ -0,0 +1,79 @@
+package com.reliaquest.server.model;
+
+import jakarta.validation.constraints.Positive;
+import java.util.Comparator;
+import java.util.function.Function;
+import lombok.Data;
+
+/**
+ * Filter, sort and limit for {@code GET /api/v1/employee/query}. Every filter is optional. Name and title match
+ * ignoring case; salary and age bounds are inclusive. Rows that tie on the sort key keep roster order.
+ */
+@Data
+public class EmployeeQuery {
+
+    private String name;
+
+    private String title;
+
+    private Integer minSalary;
+
+    private Integer maxSalary;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    private SortField sort;
+
+    private Direction direction = Direction.ASC;
+
+    @Positive private Integer limit;
+
+    public boolean matches(MockEmployee employee) {
+        return (name == null || name.equalsIgnoreCase(employee.getName()))
+                && (title == null || title.equalsIgnoreCase(employee.getTitle()))
+                && inRange(employee.getSalary(), minSalary, maxSalary)
+                && inRange(employee.getAge(), minAge, maxAge);
+    }
+
+    public boolean isDescending() {
+        return direction == Direction.DESC;
+    }
+
+    /**
+     * @return the requested ordering with missing values last, or {@code null} when the query is unsorted
+     */
+    public Comparator<MockEmployee> comparator() {
+        if (sort == null) {
+            return null;
+        }
+        return switch (sort) {
+            case SALARY -> by(MockEmployee::getSalary, Comparator.<Integer>naturalOrder());
+            case AGE -> by(MockEmployee::getAge, Comparator.<Integer>naturalOrder());
+            case NAME -> by(MockEmployee::getName, String.CASE_INSENSITIVE_ORDER);
+        };
+    }
+
+    private static boolean inRange(Integer value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private <T> Comparator<MockEmployee> by(Function<MockEmployee, T> key, Comparator<T> order) {
+        return Comparator.comparing(key, Comparator.nullsLast(isDescending() ? order.reversed() : order));
+    }
+
+    public enum SortField {
+        SALARY,
+        AGE,
+        NAME
+    }
+
+    public enum Direction {
+        ASC,
+        DESC
+    }
+}
@@ -0,0 +1,8 @@
+package com.reliaquest.server.model;
+
+import java.util.Map;
+
+/**
+ * Roster aggregates as served by {@code GET /api/v1/employee/stats}. {@code maxSalary} is null for an empty roster.
+ */
+public record EmployeeStats(int count, long salarySum, Integer maxSalary, Map<String, Integer> titleCounts) {}
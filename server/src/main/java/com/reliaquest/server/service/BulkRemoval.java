@@ -0,0 +1,65 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bookkeeping for {@link MockEmployeeStore#removeFirstByNames}. Every requested name, case-folded, maps to the
+ * positions that asked for it, so one walk over the roster can hand each matching employee to the earliest position
+ * still waiting for its name. Repeating a name removes that many employees, as separate deletes would.
+ */
+final class BulkRemoval {
+
+    private final Map<String, ArrayDeque<Integer>> waiting = new HashMap<>();
+    private final List<Optional<MockEmployee>> removed;
+    private int pending;
+
+    BulkRemoval(List<String> names) {
+        this.removed = new ArrayList<>(Collections.nCopies(names.size(), Optional.empty()));
+        for (int position = 0; position < names.size(); position++) {
+            final var name = names.get(position);
+            if (name != null) {
+                waiting.computeIfAbsent(fold(name), key -> new ArrayDeque<>()).add(position);
+                pending++;
+            }
+        }
+    }
+
+    /**
+     * @return the position the employee with this name is removed for, or {@code -1} to keep it
+     */
+    int claim(String name) {
+        if (name == null || pending == 0) {
+            return -1;
+        }
+        final var positions = waiting.get(fold(name));
+        if (positions == null || positions.isEmpty()) {
+            return -1;
+        }
+        pending--;
+        return positions.poll();
+    }
+
+    void removed(int position, MockEmployee employee) {
+        removed.set(position, Optional.of(employee));
+    }
+
+    boolean isDone() {
+        return pending == 0;
+    }
+
+    List<Optional<MockEmployee>> results() {
+        return removed;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
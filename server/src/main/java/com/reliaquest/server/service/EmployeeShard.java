@@ -0,0 +1,45 @@
+package com.reliaquest.server.service;
+
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * The partition of employee ids this instance owns when several mock servers run as one sharded cluster. Every id it
+ * generates, for the initial roster and for created employees, hashes to this shard, so clients can route a by-id call
+ * to the one instance that can answer it.
+ */
+public class EmployeeShard {
+
+    @Getter
+    private final int index;
+
+    @Getter
+    private final int count;
+
+    private final ConsistentHashRing ring;
+
+    public EmployeeShard(int index, int count, int virtualNodes) {
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index %d is outside 0..%d".formatted(index, count - 1));
+        }
+        this.index = index;
+        this.count = count;
+        this.ring = new ConsistentHashRing(count, virtualNodes);
+    }
+
+    public boolean owns(@NonNull UUID id) {
+        return ring.shardOf(id.toString()) == index;
+    }
+
+    /**
+     * Draws random ids until one lands in this shard's partition, which takes {@code count} draws on average.
+     */
+    public UUID newId() {
+        var id = UUID.randomUUID();
+        while (!owns(id)) {
+            id = UUID.randomUUID();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,142 @@
+package com.reliaquest.server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The original store: a plain modifiable list of {@link MockEmployee} objects. A read-write lock keeps bulk writes
+ * from interleaving with reads, so a reader never sees a roster torn halfway through one.
+ */
+@RequiredArgsConstructor
+public class HeapMockEmployeeStore implements MockEmployeeStore {
+
+    private final List<MockEmployee> mockEmployees;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return mockEmployees.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a copy, so callers can iterate it while the roster changes
+     */
+    @Override
+    public List<MockEmployee> findAll() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(mockEmployees);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super MockEmployee> visitor) {
+        lock.readLock().lock();
+        try {
+            mockEmployees.forEach(visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            return mockEmployees.stream()
+                    .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
+                            && mockEmployee.getId().equals(uuid))
+                    .findFirst();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(MockEmployee mockEmployee) {
+        lock.writeLock().lock();
+        try {
+            mockEmployees.add(mockEmployee);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> removeFirstByName(String name) {
+        lock.writeLock().lock();
+        try {
+            final var mockEmployee = mockEmployees.stream()
+                    .filter(employee -> Objects.nonNull(employee.getName())
+                            && employee.getName().equalsIgnoreCase(name))
+                    .findFirst();
+            mockEmployee.ifPresent(mockEmployees::remove);
+            return mockEmployee;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAll(List<MockEmployee> mockEmployees) {
+        lock.writeLock().lock();
+        try {
+            this.mockEmployees.addAll(mockEmployees);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> removeFirstByNames(List<String> names) {
+        final var removal = new BulkRemoval(names);
+        lock.writeLock().lock();
+        try {
+            mockEmployees.removeIf(employee -> {
+                final var position = removal.claim(employee.getName());
+                if (position < 0) {
+                    return false;
+                }
+                removal.removed(position, employee);
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removal.results();
+    }
+
+    /**
+     * Writes a copy taken under the read lock, so a client that reads slowly does not hold up writers.
+     */
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        serializers.defaultSerializeValue(findAll(), gen);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -0,0 +1,136 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.EmployeeQuery;
+import com.reliaquest.server.model.EmployeeQuery.SortField;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Secondary indexes over the roster, kept in step with every create and delete. Salary and age are sorted maps from
+ * value to the employees holding it in roster order, so a sorted, limited query walks only as many entries as it
+ * returns. Names and titles are hashed on a case-folded key.
+ *
+ * <p>A query is driven by the most selective index it can use; the remaining filters, and the sort when the driving
+ * index does not already provide it, are applied to those candidates only.
+ */
+final class MockEmployeeIndex {
+
+    private final NavigableMap<Integer, List<MockEmployee>> bySalary = new TreeMap<>();
+    private final NavigableMap<Integer, List<MockEmployee>> byAge = new TreeMap<>();
+    private final Map<String, List<MockEmployee>> byName = new HashMap<>();
+    private final Map<String, List<MockEmployee>> byTitle = new HashMap<>();
+
+    synchronized void add(MockEmployee employee) {
+        put(bySalary, employee.getSalary(), employee);
+        put(byAge, employee.getAge(), employee);
+        put(byName, fold(employee.getName()), employee);
+        put(byTitle, fold(employee.getTitle()), employee);
+    }
+
+    synchronized void remove(MockEmployee employee) {
+        remove(bySalary, employee.getSalary(), employee);
+        remove(byAge, employee.getAge(), employee);
+        remove(byName, fold(employee.getName()), employee);
+        remove(byTitle, fold(employee.getTitle()), employee);
+    }
+
+    synchronized void addAll(Collection<MockEmployee> employees) {
+        employees.forEach(this::add);
+    }
+
+    synchronized void removeAll(Collection<MockEmployee> employees) {
+        employees.forEach(this::remove);
+    }
+
+    /**
+     * @param scan answers the query from the whole roster, only called when no index applies
+     */
+    synchronized List<MockEmployee> query(EmployeeQuery query, Supplier<List<MockEmployee>> scan) {
+        if (query.getName() != null) {
+            return finish(query, lookup(byName, query.getName()), false);
+        }
+        if (query.getTitle() != null) {
+            return finish(query, lookup(byTitle, query.getTitle()), false);
+        }
+        if (query.getSort() == SortField.SALARY || query.getMinSalary() != null || query.getMaxSalary() != null) {
+            final var sorted = query.getSort() == SortField.SALARY;
+            return finish(
+                    query,
+                    range(bySalary, query.getMinSalary(), query.getMaxSalary(), sorted && query.isDescending()),
+                    sorted);
+        }
+        if (query.getSort() == SortField.AGE || query.getMinAge() != null || query.getMaxAge() != null) {
+            final var sorted = query.getSort() == SortField.AGE;
+            return finish(
+                    query, range(byAge, query.getMinAge(), query.getMaxAge(), sorted && query.isDescending()), sorted);
+        }
+        return scan.get();
+    }
+
+    /**
+     * Answers a query by filtering and sorting the whole roster, for when no index is maintained.
+     */
+    static List<MockEmployee> scan(EmployeeQuery query, Collection<MockEmployee> mockEmployees) {
+        return finish(query, mockEmployees.stream(), false);
+    }
+
+    private static List<MockEmployee> finish(EmployeeQuery query, Stream<MockEmployee> candidates, boolean sorted) {
+        var results = candidates.filter(query::matches);
+        if (!sorted && query.getSort() != null) {
+            results = results.sorted(query.comparator());
+        }
+        if (query.getLimit() != null) {
+            results = results.limit(query.getLimit());
+        }
+        return results.toList();
+    }
+
+    private static Stream<MockEmployee> lookup(Map<String, List<MockEmployee>> index, String value) {
+        return index.getOrDefault(fold(value), List.of()).stream();
+    }
+
+    // Lazily walks the value range, so a following limit stops after the first few entries.
+    private static Stream<MockEmployee> range(
+            NavigableMap<Integer, List<MockEmployee>> index, Integer min, Integer max, boolean descending) {
+        var range =
+                index.subMap(min == null ? Integer.MIN_VALUE : min, true, max == null ? Integer.MAX_VALUE : max, true);
+        if (descending) {
+            range = range.descendingMap();
+        }
+        return range.values().stream().flatMap(List::stream);
+    }
+
+    private static <K> void put(Map<K, List<MockEmployee>> index, K key, MockEmployee employee) {
+        if (key != null) {
+            index.computeIfAbsent(key, ignored -> new ArrayList<>()).add(employee);
+        }
+    }
+
+    private static <K> void remove(Map<K, List<MockEmployee>> index, K key, MockEmployee employee) {
+        if (key == null) {
+            return;
+        }
+        final var employees = index.get(key);
+        if (employees != null && employees.remove(employee) && employees.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // Folds each character the way String.equalsIgnoreCase compares it.
+    private static String fold(String value) {
+        if (value == null) {
+            return null;
+        }
+        final var folded = new StringBuilder(value.length());
+        value.chars().map(c -> Character.toLowerCase(Character.toUpperCase(c))).forEach(c -> folded.append((char) c));
+        return folded.toString();
+    }
+}
@@ -1,58 +1,218 @@
 package com.reliaquest.server.service;
 
 import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.Capability;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.EmployeeQuery;
+import com.reliaquest.server.model.EmployeeStats;
 import com.reliaquest.server.model.MockEmployee;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MockEmployeeService {
 
     private final Faker faker;
 
     @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeStore mockEmployees;
+
+    /*
+     * Null when disabled, and always for an off-heap roster, which it would mirror on the heap; queries then scan the
+     * store.
+     */
+    private final MockEmployeeIndex index;
+
+    private final RosterAggregates aggregates;
+
+    private final EmployeeShard shard;
+
+    @Getter
+    private final int maxBulkItems;
+
+    /*
+     * Bumped after every change to the roster, so whatever was derived from it at one version, such as encoded
+     * responses, stays valid until the version moves on.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /*
+     * Writers change the store, index, aggregates and version together under the write lock, so a query or stats read
+     * never sees one updated without the others. Taken before the store's own lock.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MockEmployeeService(
+            Faker faker,
+            MockEmployeeStore mockEmployees,
+            EmployeeShard shard,
+            @Value("${mock.employees.query-index.enabled:true}") boolean queryIndex,
+            @Value("${mock.employees.bulk.max-items:1000}") int maxBulkItems) {
+        this.faker = faker;
+        this.mockEmployees = mockEmployees;
+        this.shard = shard;
+        this.maxBulkItems = maxBulkItems;
+        final var offHeap = mockEmployees instanceof OffHeapMockEmployeeStore;
+        if (queryIndex && offHeap) {
+            log.info("Not indexing the off-heap roster for queries; they scan its records instead");
+        }
+        final var index = queryIndex && !offHeap ? new MockEmployeeIndex() : null;
+        final var aggregates = new RosterAggregates();
+        mockEmployees.forEach(employee -> {
+            if (index != null) {
+                index.add(employee);
+            }
+            aggregates.add(employee);
+        });
+        this.index = index;
+        this.aggregates = aggregates;
+    }
+
+    public Set<Capability> getCapabilities() {
+        return EnumSet.allOf(Capability.class);
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        lock.readLock().lock();
+        try {
+            return mockEmployees.findById(uuid);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MockEmployee> query(@NonNull EmployeeQuery query) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return mockEmployees.scan(query);
+            }
+            return index.query(query, () -> mockEmployees.scan(query));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public EmployeeStats getStats() {
+        lock.readLock().lock();
+        try {
+            return aggregates.snapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read this before the roster: data read afterwards is at least as new as the version.
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
-        final var mockEmployee = MockEmployee.from(
-                ServerConfiguration.EMAIL_TEMPLATE.formatted(
-                        faker.twitter().userName().toLowerCase()),
-                input);
-        mockEmployees.add(mockEmployee);
+        final var mockEmployee = newEmployee(input);
+        lock.writeLock().lock();
+        try {
+            mockEmployees.add(mockEmployee);
+            if (index != null) {
+                index.add(mockEmployee);
+            }
+            aggregates.add(mockEmployee);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    /**
+     * Creates every employee with a single write to the store. Ids and emails are generated before the store is
+     * locked.
+     */
+    public List<MockEmployee> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        final var created = inputs.stream().map(this::newEmployee).toList();
+        lock.writeLock().lock();
+        try {
+            mockEmployees.addAll(created);
+            if (index != null) {
+                index.addAll(created);
+            }
+            aggregates.addAll(created);
+            if (!created.isEmpty()) {
+                version.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Added {} employees", created.size());
+        return created;
+    }
+
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
+        final Optional<MockEmployee> mockEmployee;
+        lock.writeLock().lock();
+        try {
+            mockEmployee = mockEmployees.removeFirstByName(input.getName());
+            mockEmployee.ifPresent(employee -> {
+                if (index != null) {
+                    index.remove(employee);
+                }
+                aggregates.remove(employee);
+                version.incrementAndGet();
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        mockEmployee.ifPresent(employee -> log.debug("Removed employee: {}", employee));
+        return mockEmployee.isPresent();
+    }
+
+    /**
+     * Deletes, for each name in order, the first employee with that name, in one pass over the store.
+     *
+     * @return for each name, whether an employee was deleted for it
+     */
+    public List<Boolean> deleteAll(@NonNull List<String> names) {
+        final List<Optional<MockEmployee>> removed;
+        final List<MockEmployee> employees;
+        lock.writeLock().lock();
+        try {
+            removed = mockEmployees.removeFirstByNames(names);
+            employees = removed.stream().flatMap(Optional::stream).toList();
+            if (index != null) {
+                index.removeAll(employees);
+            }
+            aggregates.removeAll(employees);
+            if (!employees.isEmpty()) {
+                version.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
+        log.debug("Removed {} of {} employees", employees.size(), names.size());
+        return removed.stream().map(Optional::isPresent).toList();
+    }
 
-        return false;
+    private MockEmployee newEmployee(CreateMockEmployeeInput input) {
+        return MockEmployee.from(
+                shard.newId(),
+                ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                        faker.twitter().userName().toLowerCase()),
+                input);
     }
 }
@@ -0,0 +1,86 @@
+package com.reliaquest.server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.reliaquest.server.model.EmployeeField;
+import com.reliaquest.server.model.EmployeeQuery;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Backing store for the mock roster. Implementations serialize themselves as the JSON array of employees, so the list
+ * endpoint can write the roster without first copying it into {@link MockEmployee} objects.
+ */
+public interface MockEmployeeStore extends JsonSerializable {
+
+    int size();
+
+    /**
+     * @return every employee in insertion order
+     */
+    List<MockEmployee> findAll();
+
+    /**
+     * Visits every employee in insertion order without collecting them. Stores that do not keep {@link MockEmployee}
+     * objects hand out a short-lived one per employee.
+     */
+    void forEach(Consumer<? super MockEmployee> visitor);
+
+    /**
+     * Answers a query by filtering and sorting the whole roster, for when no index is maintained.
+     */
+    default List<MockEmployee> scan(EmployeeQuery query) {
+        return MockEmployeeIndex.scan(query, findAll());
+    }
+
+    Optional<MockEmployee> findById(UUID uuid);
+
+    void add(MockEmployee mockEmployee);
+
+    /**
+     * Adds every employee in order under a single acquisition of the store's write lock.
+     */
+    void addAll(List<MockEmployee> mockEmployees);
+
+    /**
+     * Removes the first employee whose name matches ignoring case.
+     */
+    Optional<MockEmployee> removeFirstByName(String name);
+
+    /**
+     * Same as calling {@link #removeFirstByName} for each name in order, but in one pass over the roster and under a
+     * single acquisition of the store's write lock.
+     *
+     * @return for each name, the employee removed for it
+     */
+    List<Optional<MockEmployee>> removeFirstByNames(List<String> names);
+
+    /**
+     * @return the roster serializing only the given fields of each employee
+     */
+    default JsonSerializable project(Set<EmployeeField> fields) {
+        return new JsonSerializable.Base() {
+            @Override
+            public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                gen.writeStartArray();
+                for (final var employee : findAll()) {
+                    EmployeeField.write(gen, employee, fields);
+                }
+                gen.writeEndArray();
+            }
+
+            @Override
+            public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+                    throws IOException {
+                serialize(gen, serializers);
+            }
+        };
+    }
+}
@@ -0,0 +1,527 @@
+package com.reliaquest.server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.reliaquest.server.model.EmployeeField;
+import com.reliaquest.server.model.EmployeeQuery;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the roster outside the Java heap, for load tests with tens of millions of employees. Every employee is a
+ * fixed-width record in a direct buffer: the id as two longs, salary and age as ints and references into an
+ * append-only {@link OffHeapStrings} area for name, title and email. Ids are indexed by an open-addressing table that
+ * also lives in direct memory.
+ *
+ * <p>The heap only ever holds a few hundred buffer objects, whatever the roster size, so GC pauses stay flat. The list
+ * endpoint serializes straight from the records and queries are matched against them in place; {@link MockEmployee}
+ * objects are only built for single lookups, query results and one at a time by {@link #forEach}. {@link #findAll}
+ * copies the whole roster onto the heap and is best avoided. Deleted records are tombstoned and their strings are not
+ * reclaimed.
+ */
+public class OffHeapMockEmployeeStore implements MockEmployeeStore {
+
+    private static final int RECORD_BYTES = 56;
+    private static final int RECORDS_PER_CHUNK = 1 << 16;
+    private static final int ID_MSB = 0;
+    private static final int ID_LSB = 8;
+    private static final int SALARY = 16;
+    private static final int AGE = 20;
+    private static final int NAME = 24;
+    private static final int TITLE = 32;
+    private static final int EMAIL = 40;
+    private static final int FLAGS = 48;
+
+    private static final int DELETED = 1;
+    private static final int NO_ID = 2;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int MAX_INDEX_CAPACITY = 1 << 28;
+
+    private static final SerializableString ID_FIELD = EmployeeField.ID.getJsonName();
+    private static final SerializableString NAME_FIELD = EmployeeField.NAME.getJsonName();
+    private static final SerializableString SALARY_FIELD = EmployeeField.SALARY.getJsonName();
+    private static final SerializableString AGE_FIELD = EmployeeField.AGE.getJsonName();
+    private static final SerializableString TITLE_FIELD = EmployeeField.TITLE.getJsonName();
+    private static final SerializableString EMAIL_FIELD = EmployeeField.EMAIL.getJsonName();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final List<ByteBuffer> records = new ArrayList<>();
+    private final OffHeapStrings strings = new OffHeapStrings();
+    private final Map<String, Long> titleRefs = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slots hold row + 1, zero marks an empty slot.
+    private IntBuffer index;
+    private int indexed;
+    private int rows;
+    private int live;
+
+    public OffHeapMockEmployeeStore(int expectedSize) {
+        this.index = allocateIndex(indexCapacityFor(expectedSize));
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<MockEmployee> findAll() {
+        lock.readLock().lock();
+        try {
+            final var mockEmployees = new ArrayList<MockEmployee>(live);
+            for (int row = 0; row < rows; row++) {
+                if ((flags(row) & DELETED) == 0) {
+                    mockEmployees.add(toMockEmployee(row));
+                }
+            }
+            return mockEmployees;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super MockEmployee> visitor) {
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < rows; row++) {
+                if ((flags(row) & DELETED) == 0) {
+                    visitor.accept(toMockEmployee(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Matches salary and age in the records, decoding names and titles only when the query filters on them, so only
+     * matching employees are built. Without a sort, the scan stops once the limit is reached.
+     */
+    @Override
+    public List<MockEmployee> scan(EmployeeQuery query) {
+        lock.readLock().lock();
+        try {
+            final var matches = new ArrayList<MockEmployee>();
+            final var limit =
+                    query.getSort() == null && query.getLimit() != null ? query.getLimit() : Integer.MAX_VALUE;
+            for (int row = 0; row < rows && matches.size() < limit; row++) {
+                if ((flags(row) & DELETED) == 0 && matches(row, query)) {
+                    matches.add(toMockEmployee(row));
+                }
+            }
+            return MockEmployeeIndex.scan(query, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            final var row = rowOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            return row < 0 ? Optional.empty() : Optional.of(toMockEmployee(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(MockEmployee mockEmployee) {
+        lock.writeLock().lock();
+        try {
+            if (rows == records.size() * RECORDS_PER_CHUNK) {
+                records.add(ByteBuffer.allocateDirect(RECORD_BYTES * RECORDS_PER_CHUNK));
+            }
+            final var row = rows;
+            final var chunk = chunk(row);
+            final var offset = offset(row);
+            final var id = mockEmployee.getId();
+            chunk.putLong(offset + ID_MSB, id == null ? 0 : id.getMostSignificantBits());
+            chunk.putLong(offset + ID_LSB, id == null ? 0 : id.getLeastSignificantBits());
+            chunk.putInt(offset + SALARY, orNull(mockEmployee.getSalary()));
+            chunk.putInt(offset + AGE, orNull(mockEmployee.getAge()));
+            chunk.putLong(offset + NAME, strings.add(mockEmployee.getName()));
+            chunk.putLong(offset + TITLE, titleRef(mockEmployee.getTitle()));
+            chunk.putLong(offset + EMAIL, strings.add(mockEmployee.getEmail()));
+            chunk.putInt(offset + FLAGS, id == null ? NO_ID : 0);
+            rows++;
+            live++;
+
+            if (id != null) {
+                if (2L * (indexed + 1) > index.capacity()) {
+                    rebuildIndex(index.capacity() * 2);
+                }
+                insert(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> removeFirstByName(String name) {
+        lock.writeLock().lock();
+        try {
+            for (int row = 0; row < rows; row++) {
+                if ((flags(row) & DELETED) == 0
+                        && name.equalsIgnoreCase(strings.get(chunk(row).getLong(offset(row) + NAME)))) {
+                    chunk(row).putInt(offset(row) + FLAGS, flags(row) | DELETED);
+                    live--;
+                    return Optional.of(toMockEmployee(row));
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAll(List<MockEmployee> mockEmployees) {
+        lock.writeLock().lock();
+        try {
+            mockEmployees.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> removeFirstByNames(List<String> names) {
+        lock.writeLock().lock();
+        try {
+            final var removal = new BulkRemoval(names);
+            for (int row = 0; row < rows && !removal.isDone(); row++) {
+                if ((flags(row) & DELETED) != 0) {
+                    continue;
+                }
+                final var position = removal.claim(strings.get(chunk(row).getLong(offset(row) + NAME)));
+                if (position >= 0) {
+                    chunk(row).putInt(offset(row) + FLAGS, flags(row) | DELETED);
+                    live--;
+                    removal.removed(position, toMockEmployee(row));
+                }
+            }
+            return removal.results();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the roster as the same array of objects Jackson would produce for {@code List<MockEmployee>}, decoding
+     * strings from direct memory into one reused buffer. Only taking the snapshot holds the read lock; the records are
+     * written to the client after it is released, so a slow client does not hold up writers.
+     */
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        serialize(gen, EmployeeField.ALL);
+    }
+
+    @Override
+    public JsonSerializable project(Set<EmployeeField> fields) {
+        return new JsonSerializable.Base() {
+            @Override
+            public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                OffHeapMockEmployeeStore.this.serialize(gen, fields);
+            }
+
+            @Override
+            public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+                    throws IOException {
+                serialize(gen, serializers);
+            }
+        };
+    }
+
+    private void serialize(JsonGenerator gen, Set<EmployeeField> fields) throws IOException {
+        final var snapshot = snapshot();
+        final var scratch = new Scratch();
+        gen.writeStartArray();
+        final var live = snapshot.live();
+        for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+            final var chunk = snapshot.records().get(row / RECORDS_PER_CHUNK);
+            writeRecord(gen, chunk, offset(row), fields, snapshot.strings(), scratch);
+        }
+        gen.writeEndArray();
+    }
+
+    /*
+     * Records and strings are only ever appended and deletes only set a flag, so the rows added so far, the buffers
+     * holding them and which of them are live are a consistent view of the roster, whatever is written afterwards.
+     */
+    private Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            final var live = new BitSet(rows);
+            for (int row = 0; row < rows; row++) {
+                if ((flags(row) & DELETED) == 0) {
+                    live.set(row);
+                }
+            }
+            return new Snapshot(List.copyOf(records), strings.snapshot(), live);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    /**
+     * @return direct memory held by records, strings and the id index
+     */
+    public long reservedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) records.size() * RECORD_BYTES * RECORDS_PER_CHUNK
+                    + strings.reservedBytes()
+                    + (long) index.capacity() * Integer.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // NO_ID is fixed when the record is added, so the flags can be read without the lock.
+    private static void writeRecord(
+            JsonGenerator gen,
+            ByteBuffer chunk,
+            int offset,
+            Set<EmployeeField> fields,
+            OffHeapStrings strings,
+            Scratch scratch)
+            throws IOException {
+        gen.writeStartObject();
+        if (fields.contains(EmployeeField.ID)) {
+            gen.writeFieldName(ID_FIELD);
+            if ((chunk.getInt(offset + FLAGS) & NO_ID) != 0) {
+                gen.writeNull();
+            } else {
+                formatUuid(chunk.getLong(offset + ID_MSB), chunk.getLong(offset + ID_LSB), scratch.uuid);
+                gen.writeString(scratch.uuid, 0, scratch.uuid.length);
+            }
+        }
+        if (fields.contains(EmployeeField.NAME)) {
+            gen.writeFieldName(NAME_FIELD);
+            writeString(gen, chunk.getLong(offset + NAME), strings, scratch);
+        }
+        if (fields.contains(EmployeeField.SALARY)) {
+            gen.writeFieldName(SALARY_FIELD);
+            writeInt(gen, chunk.getInt(offset + SALARY));
+        }
+        if (fields.contains(EmployeeField.AGE)) {
+            gen.writeFieldName(AGE_FIELD);
+            writeInt(gen, chunk.getInt(offset + AGE));
+        }
+        if (fields.contains(EmployeeField.TITLE)) {
+            gen.writeFieldName(TITLE_FIELD);
+            writeString(gen, chunk.getLong(offset + TITLE), strings, scratch);
+        }
+        if (fields.contains(EmployeeField.EMAIL)) {
+            gen.writeFieldName(EMAIL_FIELD);
+            writeString(gen, chunk.getLong(offset + EMAIL), strings, scratch);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, long ref, OffHeapStrings strings, Scratch scratch)
+            throws IOException {
+        if (ref == OffHeapStrings.NULL) {
+            gen.writeNull();
+            return;
+        }
+        final var bytes = strings.bytes(ref);
+        final var chars = scratch.chars(bytes.remaining());
+        scratch.decoder.reset();
+        scratch.decoder.decode(bytes, chars, true);
+        scratch.decoder.flush(chars);
+        gen.writeString(chars.array(), 0, chars.position());
+    }
+
+    private static void writeInt(JsonGenerator gen, int value) throws IOException {
+        if (value == NULL_INT) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private MockEmployee toMockEmployee(int row) {
+        final var chunk = chunk(row);
+        final var offset = offset(row);
+        final var salary = chunk.getInt(offset + SALARY);
+        final var age = chunk.getInt(offset + AGE);
+        return new MockEmployee(
+                (flags(row) & NO_ID) != 0
+                        ? null
+                        : new UUID(chunk.getLong(offset + ID_MSB), chunk.getLong(offset + ID_LSB)),
+                strings.get(chunk.getLong(offset + NAME)),
+                salary == NULL_INT ? null : salary,
+                age == NULL_INT ? null : age,
+                strings.get(chunk.getLong(offset + TITLE)),
+                strings.get(chunk.getLong(offset + EMAIL)));
+    }
+
+    private boolean matches(int row, EmployeeQuery query) {
+        final var chunk = chunk(row);
+        final var offset = offset(row);
+        return inRange(chunk.getInt(offset + SALARY), query.getMinSalary(), query.getMaxSalary())
+                && inRange(chunk.getInt(offset + AGE), query.getMinAge(), query.getMaxAge())
+                && (query.getName() == null
+                        || query.getName().equalsIgnoreCase(strings.get(chunk.getLong(offset + NAME))))
+                && (query.getTitle() == null
+                        || query.getTitle().equalsIgnoreCase(strings.get(chunk.getLong(offset + TITLE))));
+    }
+
+    // Same bounds as EmployeeQuery.matches: inclusive, and a missing value only matches without bounds.
+    private static boolean inRange(int value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != NULL_INT && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    // Titles repeat heavily, so each distinct title is stored once.
+    private long titleRef(String title) {
+        return title == null ? OffHeapStrings.NULL : titleRefs.computeIfAbsent(title, strings::add);
+    }
+
+    private int rowOf(long msb, long lsb) {
+        final var mask = index.capacity() - 1;
+        for (int slot = hash(msb, lsb) & mask; index.get(slot) != 0; slot = (slot + 1) & mask) {
+            final var row = index.get(slot) - 1;
+            final var chunk = chunk(row);
+            final var offset = offset(row);
+            if ((flags(row) & (DELETED | NO_ID)) == 0
+                    && chunk.getLong(offset + ID_MSB) == msb
+                    && chunk.getLong(offset + ID_LSB) == lsb) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(int row) {
+        final var mask = index.capacity() - 1;
+        var slot = hash(chunk(row).getLong(offset(row) + ID_MSB), chunk(row).getLong(offset(row) + ID_LSB)) & mask;
+        while (index.get(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index.put(slot, row + 1);
+        indexed++;
+    }
+
+    // Deleted records are dropped from the index whenever it is rebuilt.
+    private void rebuildIndex(int capacity) {
+        if (capacity > MAX_INDEX_CAPACITY) {
+            throw new IllegalStateException("Off-heap id index cannot grow beyond " + MAX_INDEX_CAPACITY + " slots");
+        }
+        index = allocateIndex(capacity);
+        indexed = 0;
+        for (int row = 0; row < rows; row++) {
+            if ((flags(row) & (DELETED | NO_ID)) == 0) {
+                insert(row);
+            }
+        }
+    }
+
+    private ByteBuffer chunk(int row) {
+        return records.get(row / RECORDS_PER_CHUNK);
+    }
+
+    private static int offset(int row) {
+        return (row % RECORDS_PER_CHUNK) * RECORD_BYTES;
+    }
+
+    private int flags(int row) {
+        return chunk(row).getInt(offset(row) + FLAGS);
+    }
+
+    private static int orNull(Integer value) {
+        return value == null ? NULL_INT : value;
+    }
+
+    private static int indexCapacityFor(int expectedSize) {
+        final var wanted = Math.max(16L, 2L * expectedSize);
+        return (int) Math.min(MAX_INDEX_CAPACITY, Long.highestOneBit(wanted - 1) << 1);
+    }
+
+    private static IntBuffer allocateIndex(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+    }
+
+    private static int hash(long msb, long lsb) {
+        var hash = msb ^ lsb;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    // Same lower-case 8-4-4-4-12 layout as UUID.toString().
+    private static void formatUuid(long msb, long lsb, char[] out) {
+        hex(msb >>> 32, 8, out, 0);
+        out[8] = '-';
+        hex(msb >>> 16, 4, out, 9);
+        out[13] = '-';
+        hex(msb, 4, out, 14);
+        out[18] = '-';
+        hex(lsb >>> 48, 4, out, 19);
+        out[23] = '-';
+        hex(lsb, 12, out, 24);
+    }
+
+    private static void hex(long value, int digits, char[] out, int offset) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private record Snapshot(List<ByteBuffer> records, OffHeapStrings strings, BitSet live) {}
+
+    private static final class Scratch {
+
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        private final char[] uuid = new char[36];
+        private CharBuffer chars = CharBuffer.allocate(256);
+
+        CharBuffer chars(int maxLength) {
+            if (chars.capacity() < maxLength) {
+                chars = CharBuffer.allocate(maxLength);
+            }
+            chars.clear();
+            return chars;
+        }
+    }
+}
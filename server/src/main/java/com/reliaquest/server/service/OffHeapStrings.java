@@ -0,0 +1,74 @@
+package com.reliaquest.server.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only UTF-8 string area in direct memory. Each string is a length prefix followed by its bytes and is
+ * addressed by its absolute position; strings never straddle two chunks.
+ */
+final class OffHeapStrings {
+
+    static final long NULL = -1;
+
+    private static final int CHUNK_BYTES = 1 << 24;
+
+    private final List<ByteBuffer> chunks;
+    private int position = CHUNK_BYTES;
+
+    OffHeapStrings() {
+        this(new ArrayList<>());
+    }
+
+    private OffHeapStrings(List<ByteBuffer> chunks) {
+        this.chunks = chunks;
+    }
+
+    long add(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        final var encoded = value.getBytes(StandardCharsets.UTF_8);
+        final var needed = Integer.BYTES + encoded.length;
+        if (needed > CHUNK_BYTES) {
+            throw new IllegalArgumentException("String of " + encoded.length + " bytes is too long to store off-heap");
+        }
+        if (position + needed > CHUNK_BYTES) {
+            chunks.add(ByteBuffer.allocateDirect(CHUNK_BYTES));
+            position = 0;
+        }
+
+        final var chunk = chunks.get(chunks.size() - 1);
+        final var ref = (long) (chunks.size() - 1) * CHUNK_BYTES + position;
+        chunk.putInt(position, encoded.length);
+        chunk.put(position + Integer.BYTES, encoded);
+        position += needed;
+        return ref;
+    }
+
+    /**
+     * @return a view of the string's UTF-8 bytes, without copying them onto the heap
+     */
+    ByteBuffer bytes(long ref) {
+        final var chunk = chunks.get((int) (ref / CHUNK_BYTES));
+        final var offset = (int) (ref % CHUNK_BYTES);
+        return chunk.slice(offset + Integer.BYTES, chunk.getInt(offset));
+    }
+
+    String get(long ref) {
+        return ref == NULL ? null : StandardCharsets.UTF_8.decode(bytes(ref)).toString();
+    }
+
+    /**
+     * @return a read-only view of the strings added so far, which stays valid while more are added
+     */
+    OffHeapStrings snapshot() {
+        return new OffHeapStrings(List.copyOf(chunks));
+    }
+
+    long reservedBytes() {
+        return (long) chunks.size() * CHUNK_BYTES;
+    }
+}
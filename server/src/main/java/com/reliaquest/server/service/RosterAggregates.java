@@ -0,0 +1,59 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.EmployeeStats;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Count, salary sum, maximum salary and per-title counts, updated on every create and delete instead of being
+ * recomputed from the roster. Salaries are kept as a multiset so the maximum survives deleting its holder; reads only
+ * copy the current values.
+ */
+final class RosterAggregates {
+
+    private final NavigableMap<Integer, Integer> salaryCounts = new TreeMap<>();
+    private final Map<String, Integer> titleCounts = new HashMap<>();
+    private int count;
+    private long salarySum;
+    private Integer maxSalary;
+
+    synchronized void add(MockEmployee employee) {
+        count++;
+        if (employee.getSalary() != null) {
+            salarySum += employee.getSalary();
+            salaryCounts.merge(employee.getSalary(), 1, Integer::sum);
+            maxSalary = salaryCounts.lastKey();
+        }
+        if (employee.getTitle() != null) {
+            titleCounts.merge(employee.getTitle(), 1, Integer::sum);
+        }
+    }
+
+    synchronized void remove(MockEmployee employee) {
+        count--;
+        if (employee.getSalary() != null) {
+            salarySum -= employee.getSalary();
+            salaryCounts.computeIfPresent(employee.getSalary(), (salary, holders) -> holders == 1 ? null : holders - 1);
+            maxSalary = salaryCounts.isEmpty() ? null : salaryCounts.lastKey();
+        }
+        if (employee.getTitle() != null) {
+            titleCounts.computeIfPresent(employee.getTitle(), (title, holders) -> holders == 1 ? null : holders - 1);
+        }
+    }
+
+    synchronized void addAll(Collection<MockEmployee> employees) {
+        employees.forEach(this::add);
+    }
+
+    synchronized void removeAll(Collection<MockEmployee> employees) {
+        employees.forEach(this::remove);
+    }
+
+    synchronized EmployeeStats snapshot() {
+        return new EmployeeStats(count, salarySum, maxSalary, Map.copyOf(titleCounts));
+    }
+}
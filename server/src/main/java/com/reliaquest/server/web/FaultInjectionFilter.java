@@ -0,0 +1,216 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.Response;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes the mock server behave like a slow and flaky dependency, following the rules in
+ * {@link FaultInjectionProperties}. A matching request may be delayed, answered with an error, have its body trickled
+ * out in small chunks or have its connection closed halfway through the body.
+ *
+ * <p>None of this holds a worker thread. A delayed request is put into async mode and its thread returned to the pool;
+ * a single scheduler thread dispatches it back into the filter chain when the delay is over. Slow drip bodies are
+ * written with non-blocking IO: the scheduler only marks the next chunk as due, and a chunk is written once the
+ * connection can take it, so a client that stops reading holds up its own response and nothing else. Thousands of slow
+ * requests therefore cost a little memory each rather than a thread each.
+ *
+ * <p>It runs as a filter rather than next to {@link RandomRequestLimitInterceptor} because handler interceptors cannot
+ * suspend a request; delayed requests still reach the rate limiter, once, after their delay.
+ */
+@Slf4j
+public class FaultInjectionFilter implements Filter {
+
+    private static final String FAULT_ATTRIBUTE = FaultInjectionFilter.class.getName() + ".fault";
+
+    private final FaultInjectionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "fault-injection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FaultInjectionFilter(FaultInjectionProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        final var request = (HttpServletRequest) servletRequest;
+        final var response = (HttpServletResponse) servletResponse;
+
+        var fault = (Fault) request.getAttribute(FAULT_ATTRIBUTE);
+        if (fault == null) {
+            if (request.getDispatcherType() != DispatcherType.REQUEST) {
+                chain.doFilter(request, response);
+                return;
+            }
+            final var rule = properties.match(request.getMethod(), request.getRequestURI());
+            if (rule.isEmpty()) {
+                chain.doFilter(request, response);
+                return;
+            }
+            fault = Fault.sample(rule.get());
+            request.setAttribute(FAULT_ATTRIBUTE, fault);
+            if (fault.delayNanos() > 0) {
+                final var async = request.startAsync();
+                async.setTimeout(0);
+                scheduler.schedule(() -> async.dispatch(), fault.delayNanos(), TimeUnit.NANOSECONDS);
+                return;
+            }
+        }
+
+        if (fault.error()) {
+            writeError(response, fault.rule().getErrorStatus());
+            return;
+        }
+        if (!fault.reset() && fault.rule().getDripChunkBytes() <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final var buffered = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, buffered);
+        final var body = buffered.getContentAsByteArray();
+        if (fault.reset()) {
+            writeTruncated(response, body);
+        } else {
+            drip(request, response, body, fault.rule());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Response.error("Injected fault"));
+    }
+
+    /*
+     * The servlet API cannot abort a socket, so a reset is emulated the way clients experience most of them: the full
+     * Content-Length is announced, half the body is sent and the connection is closed. Over HTTP/1.1 that surfaces as a
+     * premature end of stream. HTTP/2 forbids the Connection header, so there the stream simply ends short.
+     */
+    private void writeTruncated(HttpServletResponse response, byte[] body) throws IOException {
+        response.setContentLength(body.length);
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.getOutputStream().write(body, 0, body.length / 2);
+        response.flushBuffer();
+    }
+
+    private void drip(
+            HttpServletRequest request, HttpServletResponse response, byte[] body, FaultInjectionProperties.Rule rule)
+            throws IOException {
+        if (body.length == 0) {
+            return;
+        }
+        // Headers and status went straight through the wrapper; only the body was held back.
+        response.flushBuffer();
+        final var async = request.startAsync();
+        async.setTimeout(0);
+        final var out = response.getOutputStream();
+        out.setWriteListener(new Drip(async, out, body, rule));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private record Fault(FaultInjectionProperties.Rule rule, long delayNanos, boolean error, boolean reset) {
+
+        static Fault sample(FaultInjectionProperties.Rule rule) {
+            final var random = ThreadLocalRandom.current();
+            return new Fault(
+                    rule,
+                    rule.sampleLatencyNanos(random),
+                    random.nextDouble() < rule.getErrorRate(),
+                    random.nextDouble() < rule.getResetRate());
+        }
+    }
+
+    /*
+     * The container calls onWritePossible once the listener is set and again whenever the connection drains after
+     * isReady() said no; the scheduler only makes the next chunk due. Whichever comes last writes the chunk.
+     */
+    private class Drip implements WriteListener {
+
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private final byte[] body;
+        private final int chunkBytes;
+        private final long intervalNanos;
+        private int written;
+        private boolean due = true;
+        private boolean done;
+
+        Drip(AsyncContext async, ServletOutputStream out, byte[] body, FaultInjectionProperties.Rule rule) {
+            this.async = async;
+            this.out = out;
+            this.body = body;
+            this.chunkBytes = rule.getDripChunkBytes();
+            this.intervalNanos = rule.getDripInterval().toNanos();
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            writeIfDue();
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            log.debug("Client went away during a slow drip response: {}", t.toString());
+            if (!done) {
+                done = true;
+                async.complete();
+            }
+        }
+
+        private synchronized void writeIfDue() throws IOException {
+            if (done || !due || !out.isReady()) {
+                return;
+            }
+            final var length = Math.min(chunkBytes, body.length - written);
+            out.write(body, written, length);
+            out.flush();
+            written += length;
+            due = false;
+            if (written == body.length) {
+                done = true;
+                async.complete();
+                return;
+            }
+            scheduler.schedule(this::makeDue, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void makeDue() {
+            due = true;
+            try {
+                writeIfDue();
+            } catch (IOException | RuntimeException e) {
+                onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Latency and fault profiles for {@link FaultInjectionFilter}, bound from {@code mock.faults}. Each request is matched
+ * against the rules in order and the first rule whose method and path pattern match applies; requests no rule matches
+ * are served untouched.
+ */
+@Data
+public class FaultInjectionProperties {
+
+    private boolean enabled;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    Optional<Rule> match(String method, String path) {
+        final var container = PathContainer.parsePath(path);
+        return rules.stream()
+                .filter(rule -> rule.getMethod() == null || rule.getMethod().equalsIgnoreCase(method))
+                .filter(rule -> rule.pattern().matches(container))
+                .findFirst();
+    }
+
+    public enum Distribution {
+        /** No added latency. */
+        NONE,
+        /** Always {@code latency-mean}. */
+        FIXED,
+        /** Normally distributed around {@code latency-mean} with {@code latency-stddev}, never negative. */
+        NORMAL,
+        /**
+         * Pareto with minimum {@code latency-mean} and tail index {@code latency-shape}: most requests are close to the
+         * minimum and a few take many times longer. A shape around 1.5 gives a realistic long tail.
+         */
+        PARETO
+    }
+
+    @Data
+    public static class Rule {
+
+        /** HTTP method to match, or any method when unset. */
+        private String method;
+
+        /** Path pattern to match, e.g. {@code /api/v1/employee/{id}} or {@code /api/v1/**}. */
+        private String path = "/**";
+
+        private Distribution latency = Distribution.NONE;
+        private Duration latencyMean = Duration.ZERO;
+        private Duration latencyStddev = Duration.ZERO;
+        private double latencyShape = 1.5;
+        private Duration latencyMax = Duration.ofSeconds(30);
+
+        /** Share of requests answered with {@code error-status} instead of reaching the controller. */
+        private double errorRate;
+
+        private int errorStatus = 503;
+
+        /** Share of requests whose connection is closed halfway through the response body. */
+        private double resetRate;
+
+        /** When positive, the body is written this many bytes at a time, {@code drip-interval} apart. */
+        private int dripChunkBytes;
+
+        private Duration dripInterval = Duration.ofMillis(100);
+
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        private PathPattern pattern = PathPatternParser.defaultInstance.parse(path);
+
+        public void setPath(String path) {
+            this.path = path;
+            this.pattern = PathPatternParser.defaultInstance.parse(path);
+        }
+
+        PathPattern pattern() {
+            return pattern;
+        }
+
+        long sampleLatencyNanos(RandomGenerator random) {
+            final var meanNanos = (double) latencyMean.toNanos();
+            final var sample =
+                    switch (latency) {
+                        case NONE -> 0d;
+                        case FIXED -> meanNanos;
+                        case NORMAL -> Math.max(0d, meanNanos + random.nextGaussian() * latencyStddev.toNanos());
+                        case PARETO -> meanNanos / Math.pow(1d - random.nextDouble(), 1d / latencyShape);
+                    };
+            return (long) Math.min(sample, latencyMax.toNanos());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Keeps the encoded bytes of a response body, as JSON or Smile and each plain or gzip-compressed, for the roster
+ * version it was built from. Until the roster changes, repeated reads are copied to the servlet output stream without
+ * being serialized, or compressed by Tomcat, again.
+ *
+ * <p>Each variant, e.g. a projection, and media type has one entry, replaced by the first read of a newer version. The
+ * gzip form is only made once a client accepts it. A body that encodes to more than {@code maxBytes} is not kept and,
+ * until the next version, goes through the message converters as before.
+ */
+@Slf4j
+public class ResponseBytesCache {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // Same threshold as Tomcat's server.compression.min-response-size default.
+    private static final int MIN_GZIP_BYTES = 2048;
+
+    private static final String GZIP = "gzip";
+
+    private final boolean enabled;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final int maxBytes;
+    private final Map<Key, Encoded> entries = new ConcurrentHashMap<>();
+
+    public ResponseBytesCache(ObjectMapper jsonMapper, ObjectMapper smileMapper, int maxBytes) {
+        this(true, jsonMapper, smileMapper, maxBytes);
+    }
+
+    private ResponseBytesCache(boolean enabled, ObjectMapper jsonMapper, ObjectMapper smileMapper, int maxBytes) {
+        this.enabled = enabled;
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+        this.maxBytes = maxBytes;
+    }
+
+    public static ResponseBytesCache disabled() {
+        return new ResponseBytesCache(false, null, null, 0);
+    }
+
+    /**
+     * Writes the bytes of {@code body} at {@code version} as a 200 response, encoding them first if not cached yet.
+     *
+     * @param version changes whenever {@code body} would, so older bytes are never written
+     * @return false, having written nothing, if disabled, if the request asks for neither JSON nor Smile, or if the
+     * body is too large to keep; the caller then answers as usual
+     */
+    public boolean write(
+            HttpServletRequest request, HttpServletResponse response, String variant, long version, Supplier<?> body)
+            throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        final var mediaType = negotiate(request);
+        if (mediaType == null) {
+            return false;
+        }
+        final var key = new Key(variant, mediaType);
+        var encoded = entries.get(key);
+        if (encoded == null || encoded.version != version) {
+            encoded = encode(mediaType, version, body.get());
+            entries.put(key, encoded);
+        }
+        if (encoded.plain == null) {
+            return false;
+        }
+
+        var bytes = encoded.plain;
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(mediaType.toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (bytes.length >= MIN_GZIP_BYTES && acceptsGzip(request)) {
+            bytes = encoded.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+        return true;
+    }
+
+    private Encoded encode(MediaType mediaType, long version, Object body) throws JsonProcessingException {
+        final var mapper = mediaType.equals(SMILE) ? smileMapper : jsonMapper;
+        final var bytes = mapper.writeValueAsBytes(body);
+        if (bytes.length > maxBytes) {
+            log.debug("Not caching {} bytes of {} at version {}", bytes.length, mediaType, version);
+            return new Encoded(version, null);
+        }
+        return new Encoded(version, bytes);
+    }
+
+    // Picks JSON or Smile as the message converters would: JSON first, Smile only when asked for.
+    private static MediaType negotiate(HttpServletRequest request) {
+        final List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(Collections.list(request.getHeaders(HttpHeaders.ACCEPT)));
+            if (acceptable.isEmpty()) {
+                return MediaType.APPLICATION_JSON;
+            }
+            MimeTypeUtils.sortBySpecificity(acceptable);
+        } catch (IllegalArgumentException e) {
+            // Malformed, or more types than Spring sorts; the converters answer those.
+            return null;
+        }
+        for (final var type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return SMILE;
+            }
+        }
+        return null;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        for (final var value : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (final var coding : value.split(",")) {
+                final var parts = coding.split(";");
+                final var name = parts[0].strip();
+                if ((name.equalsIgnoreCase(GZIP) || name.equals("*")) && !refused(parts)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // A coding listed with q=0 is explicitly not acceptable.
+    private static boolean refused(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final var parameter = parts[i].strip();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private record Key(String variant, MediaType mediaType) {}
+
+    /*
+     * plain is null for a body that was too large to keep. Racing requests may both compress; the results are equal.
+     */
+    private static final class Encoded {
+
+        private final long version;
+        private final byte[] plain;
+        private volatile byte[] gzip;
+
+        private Encoded(long version, byte[] plain) {
+            this.version = version;
+            this.plain = plain;
+        }
+
+        private byte[] gzip() {
+            var compressed = gzip;
+            if (compressed == null) {
+                final var out = new ByteArrayOutputStream(plain.length / 4 + 64);
+                try (final var gzipOut = new GZIPOutputStream(out)) {
+                    gzipOut.write(plain);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                compressed = out.toByteArray();
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+}
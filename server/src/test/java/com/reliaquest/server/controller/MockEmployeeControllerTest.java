@@ -0,0 +1,109 @@
+package com.reliaquest.server.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.EmployeeShard;
+import com.reliaquest.server.service.HeapMockEmployeeStore;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.web.ResponseBytesCache;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class MockEmployeeControllerTest {
+
+    private static final int MAX_BULK_ITEMS = 3;
+
+    private MockEmployeeService mockEmployeeService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        final var store = new HeapMockEmployeeStore(new ArrayList<>(List.of(
+                new MockEmployee(UUID.randomUUID(), "Tiger Nixon", 320800, 61, "System Architect", "tiger@company.com"),
+                new MockEmployee(UUID.randomUUID(), "Ashton Cox", 86000, 66, "Junior Author", "ashton@company.com"))));
+        mockEmployeeService =
+                new MockEmployeeService(new Faker(), store, new EmployeeShard(0, 1, 128), true, MAX_BULK_ITEMS);
+        final var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new MockEmployeeController(mockEmployeeService, validator, ResponseBytesCache.disabled()))
+                .build();
+    }
+
+    @Test
+    void createEmployees_ShouldCreateValidItemsAndReportInvalidOnesInPlace() throws Exception {
+        mockMvc.perform(
+                        post("/api/v1/employee/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        """
+                                [{"name": "Cedric Kelly", "salary": 433060, "age": 22, "title": "Developer"},
+                                 {"name": " ", "salary": -1, "age": 30, "title": "Developer"},
+                                 null]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].data.employee_name").value("Cedric Kelly"))
+                .andExpect(jsonPath("$.data[0].error").doesNotExist())
+                .andExpect(jsonPath("$.data[1].data").doesNotExist())
+                .andExpect(jsonPath("$.data[1].error").value("name must not be blank, salary must be greater than 0"))
+                .andExpect(jsonPath("$.data[2].error").value("item must not be null"));
+
+        assertEquals(3, mockEmployeeService.getMockEmployees().size());
+        assertEquals(3, mockEmployeeService.getStats().count());
+        assertEquals(1, mockEmployeeService.getVersion());
+    }
+
+    @Test
+    void createEmployees_WhenOverMaxItems_ShouldRejectWholeRequest() throws Exception {
+        final var item = "{\"name\": \"Cedric Kelly\", \"salary\": 433060, \"age\": 22, \"title\": \"Developer\"}";
+
+        mockMvc.perform(post("/api/v1/employee/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", List.of(item, item, item, item)) + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("At most 3 items per bulk request"));
+
+        assertEquals(2, mockEmployeeService.getMockEmployees().size());
+        assertEquals(0, mockEmployeeService.getVersion());
+    }
+
+    @Test
+    void deleteEmployees_ShouldDeleteValidItemsAndReportInvalidOnesInPlace() throws Exception {
+        mockMvc.perform(delete("/api/v1/employee/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"tiger nixon\"}, {\"name\": \"\"}, {\"name\": \"Nobody\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].data").value(true))
+                .andExpect(jsonPath("$.data[1].error").value("name must not be blank"))
+                .andExpect(jsonPath("$.data[2].data").value(false));
+
+        assertEquals(1, mockEmployeeService.getMockEmployees().size());
+        assertEquals(1, mockEmployeeService.getStats().count());
+    }
+
+    @Test
+    void deleteEmployees_WhenOverMaxItems_ShouldRejectWholeRequest() throws Exception {
+        mockMvc.perform(delete("/api/v1/employee/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Tiger Nixon\"}, {\"name\": \"Ashton Cox\"}, {\"name\": \"a\"},"
+                                + " {\"name\": \"b\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("At most 3 items per bulk request"));
+
+        assertEquals(2, mockEmployeeService.getMockEmployees().size());
+    }
+}
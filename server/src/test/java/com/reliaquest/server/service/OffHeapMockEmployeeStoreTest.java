@@ -0,0 +1,184 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.EmployeeField;
+import com.reliaquest.server.model.EmployeeQuery;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class OffHeapMockEmployeeStoreTest {
+
+    // Records are allocated in chunks of this many.
+    private static final int RECORDS_PER_CHUNK = 1 << 16;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void findById_ShouldRoundTripEveryField() {
+        final var store = new OffHeapMockEmployeeStore(4);
+        final var tiger = employee(1, "Tiger Nixon", 320800, 61, "System Architect");
+        final var unknown = new MockEmployee(UUID.randomUUID(), "Zo\u00eb \u00c5ngstr\u00f6m", null, null, null, null);
+        store.add(tiger);
+        store.add(unknown);
+
+        assertEquals(Optional.of(tiger), store.findById(tiger.getId()));
+        assertEquals(Optional.of(unknown), store.findById(unknown.getId()));
+        assertTrue(store.findById(UUID.randomUUID()).isEmpty());
+        assertEquals(List.of(tiger, unknown), store.findAll());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void add_ShouldKeepRecordsAcrossChunkBoundaries() {
+        final var store = new OffHeapMockEmployeeStore(16);
+        final var employees = IntStream.range(0, RECORDS_PER_CHUNK + 2)
+                .mapToObj(i -> employee(i, "Employee " + i, 30000 + i, 20 + i % 50, "Title " + i % 7))
+                .toList();
+        store.addAll(employees);
+
+        assertEquals(employees.size(), store.size());
+        for (final var row : List.of(0, RECORDS_PER_CHUNK - 1, RECORDS_PER_CHUNK, RECORDS_PER_CHUNK + 1)) {
+            final var expected = employees.get(row);
+            assertEquals(Optional.of(expected), store.findById(expected.getId()));
+        }
+        final var visited = new ArrayList<MockEmployee>();
+        store.forEach(visited::add);
+        assertEquals(employees, visited);
+    }
+
+    @Test
+    void remove_ShouldTombstoneFirstMatchOnly() {
+        final var store = new OffHeapMockEmployeeStore(4);
+        final var first = employee(1, "Tiger Nixon", 100, 30, "Lead");
+        final var second = employee(2, "tiger nixon", 200, 40, "Lead");
+        final var other = employee(3, "Ashton Cox", 300, 50, "Engineer");
+        store.addAll(List.of(first, second, other));
+
+        assertEquals(Optional.of(first), store.removeFirstByName("TIGER NIXON"));
+        assertEquals(List.of(second, other), store.findAll());
+        assertEquals(2, store.size());
+
+        assertEquals(
+                List.of(Optional.of(second), Optional.empty(), Optional.of(other)),
+                store.removeFirstByNames(List.of("Tiger Nixon", "Tiger Nixon", "ashton cox")));
+        assertEquals(0, store.size());
+        assertTrue(store.removeFirstByName("Tiger Nixon").isEmpty());
+    }
+
+    @Test
+    void findById_ShouldMissDeletedEmployeesAlsoAfterIndexGrows() {
+        final var store = new OffHeapMockEmployeeStore(2);
+        final var deleted = employee(0, "Deleted", 100, 30, "Lead");
+        store.add(deleted);
+        store.removeFirstByName("Deleted");
+        final var employees = IntStream.range(1, 40)
+                .mapToObj(i -> employee(i, "Employee " + i, 100 + i, 30, "Lead"))
+                .toList();
+        employees.forEach(store::add);
+        store.removeFirstByName("Employee 7");
+
+        assertTrue(store.findById(deleted.getId()).isEmpty());
+        assertTrue(store.findById(employees.get(6).getId()).isEmpty());
+        for (final var employee : employees) {
+            if (!employee.getName().equals("Employee 7")) {
+                assertEquals(Optional.of(employee), store.findById(employee.getId()));
+            }
+        }
+    }
+
+    @Test
+    void serialize_ShouldWriteSameJsonAsHeapStore() throws Exception {
+        final var employees = List.of(
+                employee(1, "Tiger Nixon", 320800, 61, "System Architect"),
+                new MockEmployee(null, "No Id \"Quoted\"", null, null, null, null),
+                employee(2, "Zo\u00eb \u00c5ngstr\u00f6m", 170750, 63, "System Architect"),
+                employee(3, "Ashton Cox", 86000, 66, "Junior Author"));
+        final var offHeap = new OffHeapMockEmployeeStore(employees.size());
+        offHeap.addAll(employees);
+        offHeap.add(employee(4, "Removed", 1, 1, "Gone"));
+        offHeap.removeFirstByName("Removed");
+        final var heap = new HeapMockEmployeeStore(new ArrayList<>(employees));
+
+        assertEquals(objectMapper.writeValueAsString(heap), objectMapper.writeValueAsString(offHeap));
+        final var fields = EnumSet.of(EmployeeField.ID, EmployeeField.SALARY, EmployeeField.TITLE);
+        assertEquals(
+                objectMapper.writeValueAsString(heap.project(fields)),
+                objectMapper.writeValueAsString(offHeap.project(fields)));
+    }
+
+    @Test
+    void serialize_ShouldNotHoldLockWhileWritingToClient() throws Exception {
+        final var employees = IntStream.range(0, 1000)
+                .mapToObj(i -> employee(i, "Employee " + i, 30000 + i, 30, "Lead"))
+                .toList();
+        final var offHeap = new OffHeapMockEmployeeStore(employees.size());
+        offHeap.addAll(employees);
+        final var heap = new HeapMockEmployeeStore(new ArrayList<>(employees));
+
+        for (final var store : List.<MockEmployeeStore>of(offHeap, heap)) {
+            // Writes from the thread that is serializing, which would deadlock if it still held the read lock.
+            final var out = new ByteArrayOutputStream() {
+                private boolean written;
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    if (!written) {
+                        written = true;
+                        store.removeFirstByName("Employee 0");
+                        store.add(employee(1000, "Employee 1000", 1, 1, "Lead"));
+                    }
+                    super.write(b, off, len);
+                }
+            };
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> objectMapper.writeValue(out, store));
+
+            final var written = objectMapper.readTree(out.toByteArray());
+            assertEquals(employees.size(), written.size());
+            assertEquals("Employee 0", written.get(0).get("employee_name").asText());
+            assertEquals("Employee 999", written.get(999).get("employee_name").asText());
+            assertEquals(employees.size(), store.size());
+        }
+    }
+
+    @Test
+    void scan_ShouldMatchScanOfHeapStore() {
+        final var employees = IntStream.range(0, 200)
+                .mapToObj(i -> employee(i, "Employee " + i % 20, 1000 * (i % 37), 20 + i % 45, "Title " + i % 5))
+                .toList();
+        final var offHeap = new OffHeapMockEmployeeStore(employees.size());
+        offHeap.addAll(employees);
+        offHeap.add(new MockEmployee(UUID.randomUUID(), null, null, null, null, null));
+        final var heap = new HeapMockEmployeeStore(new ArrayList<>(offHeap.findAll()));
+
+        final var byTitle = new EmployeeQuery();
+        byTitle.setTitle("title 3");
+        byTitle.setMinSalary(5000);
+        final var topEarners = new EmployeeQuery();
+        topEarners.setSort(EmployeeQuery.SortField.SALARY);
+        topEarners.setDirection(EmployeeQuery.Direction.DESC);
+        topEarners.setLimit(5);
+        final var firstByName = new EmployeeQuery();
+        firstByName.setName("EMPLOYEE 4");
+        firstByName.setMaxAge(40);
+        firstByName.setLimit(3);
+
+        for (final var query : List.of(byTitle, topEarners, firstByName, new EmployeeQuery())) {
+            assertEquals(heap.scan(query), offHeap.scan(query));
+        }
+    }
+
+    private static MockEmployee employee(int number, String name, int salary, int age, String title) {
+        return new MockEmployee(
+                new UUID(number, ~number), name, salary, age, title, "employee" + number + "@company.com");
+    }
+}
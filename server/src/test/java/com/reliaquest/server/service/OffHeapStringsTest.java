@@ -0,0 +1,53 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+class OffHeapStringsTest {
+
+    private final OffHeapStrings strings = new OffHeapStrings();
+
+    @Test
+    void get_ShouldReturnWhatWasAdded() {
+        final var empty = strings.add("");
+        final var ascii = strings.add("Tiger Nixon");
+        final var multiByte = strings.add("Zo\u00eb \u00c5ngstr\u00f6m \u6771\u4eac");
+
+        assertEquals("", strings.get(empty));
+        assertEquals("Tiger Nixon", strings.get(ascii));
+        assertEquals("Zo\u00eb \u00c5ngstr\u00f6m \u6771\u4eac", strings.get(multiByte));
+        assertEquals(
+                "Zo\u00eb \u00c5ngstr\u00f6m \u6771\u4eac".getBytes(StandardCharsets.UTF_8).length,
+                strings.bytes(multiByte).remaining());
+    }
+
+    @Test
+    void add_ShouldMapNullToNullRef() {
+        assertEquals(OffHeapStrings.NULL, strings.add(null));
+        assertNull(strings.get(OffHeapStrings.NULL));
+    }
+
+    @Test
+    void add_ShouldStartNewChunkInsteadOfStraddling() {
+        final var large = "x".repeat(5 << 20);
+        final var refs = new ArrayList<Long>();
+        for (int i = 0; i < 4; i++) {
+            refs.add(strings.add(i + large));
+            refs.add(strings.add("small " + i));
+        }
+
+        assertEquals(2L << 24, strings.reservedBytes());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + large, strings.get(refs.get(2 * i)));
+            assertEquals("small " + i, strings.get(refs.get(2 * i + 1)));
+        }
+    }
+
+    @Test
+    void add_WhenLongerThanChunk_ShouldRefuse() {
+        assertThrows(IllegalArgumentException.class, () -> strings.add("x".repeat(1 << 24)));
+    }
+}
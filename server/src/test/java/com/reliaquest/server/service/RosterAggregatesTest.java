@@ -0,0 +1,103 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class RosterAggregatesTest {
+
+    private final RosterAggregates aggregates = new RosterAggregates();
+
+    @Test
+    void remove_WhenTopEarnerIsDeleted_ShouldFallBackToNextHighestSalary() {
+        final var tiger = employee("Tiger Nixon", 320800, "System Architect");
+        final var cedric = employee("Cedric Kelly", 433060, "Developer");
+        aggregates.add(tiger);
+        aggregates.add(employee("Ashton Cox", 86000, "Junior Author"));
+        aggregates.add(cedric);
+
+        aggregates.remove(cedric);
+        assertEquals(320800, aggregates.snapshot().maxSalary());
+
+        aggregates.remove(tiger);
+        final var stats = aggregates.snapshot();
+        assertEquals(86000, stats.maxSalary());
+        assertEquals(1, stats.count());
+        assertEquals(86000, stats.salarySum());
+        assertEquals(Map.of("Junior Author", 1), stats.titleCounts());
+    }
+
+    @Test
+    void remove_WhenSalaryIsShared_ShouldKeepItAsMaxUntilLastHolderIsDeleted() {
+        final var tiger = employee("Tiger Nixon", 320800, "System Architect");
+        final var garrett = employee("Garrett Winters", 320800, "System Architect");
+        aggregates.add(employee("Ashton Cox", 86000, "Junior Author"));
+        aggregates.add(tiger);
+        aggregates.add(garrett);
+
+        aggregates.remove(tiger);
+        var stats = aggregates.snapshot();
+        assertEquals(320800, stats.maxSalary());
+        assertEquals(Map.of("System Architect", 1, "Junior Author", 1), stats.titleCounts());
+
+        aggregates.remove(garrett);
+        stats = aggregates.snapshot();
+        assertEquals(86000, stats.maxSalary());
+        assertEquals(Map.of("Junior Author", 1), stats.titleCounts());
+    }
+
+    @Test
+    void remove_WhenLastEmployeeIsDeleted_ShouldClearMax() {
+        final var tiger = employee("Tiger Nixon", 320800, "System Architect");
+        aggregates.add(tiger);
+        aggregates.remove(tiger);
+
+        final var stats = aggregates.snapshot();
+        assertNull(stats.maxSalary());
+        assertEquals(0, stats.count());
+        assertEquals(0, stats.salarySum());
+        assertTrue(stats.titleCounts().isEmpty());
+    }
+
+    @Test
+    void addAllAndRemoveAll_ShouldMatchAddingAndRemovingOneByOne() {
+        final var tiger = employee("Tiger Nixon", 320800, "System Architect");
+        final var cedric = employee("Cedric Kelly", 433060, "Developer");
+        final var ashton = employee("Ashton Cox", 86000, "Developer");
+        final var unknown = new MockEmployee(UUID.randomUUID(), "Zo\u00eb \u00c5ngstr\u00f6m", null, null, null, null);
+
+        aggregates.addAll(List.of(tiger, cedric, ashton, unknown));
+        var stats = aggregates.snapshot();
+        assertEquals(4, stats.count());
+        assertEquals(320800L + 433060 + 86000, stats.salarySum());
+        assertEquals(433060, stats.maxSalary());
+        assertEquals(Map.of("System Architect", 1, "Developer", 2), stats.titleCounts());
+
+        aggregates.removeAll(List.of(cedric, ashton, unknown));
+        stats = aggregates.snapshot();
+        assertEquals(1, stats.count());
+        assertEquals(320800, stats.salarySum());
+        assertEquals(320800, stats.maxSalary());
+        assertEquals(Map.of("System Architect", 1), stats.titleCounts());
+    }
+
+    @Test
+    void snapshot_ShouldNotChangeWithLaterWrites() {
+        aggregates.add(employee("Tiger Nixon", 320800, "System Architect"));
+        final var before = aggregates.snapshot();
+
+        aggregates.add(employee("Cedric Kelly", 433060, "System Architect"));
+
+        assertEquals(1, before.count());
+        assertEquals(320800, before.maxSalary());
+        assertEquals(Map.of("System Architect", 1), before.titleCounts());
+    }
+
+    private static MockEmployee employee(String name, int salary, String title) {
+        return new MockEmployee(UUID.randomUUID(), name, salary, 30, title, name.toLowerCase() + "@company.com");
+    }
+}
@@ -0,0 +1,248 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FaultInjectionFilterTest {
+
+    private static final String PATH = "/api/v1/employee";
+    private static final byte[] BODY = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final FaultInjectionProperties.Rule rule = new FaultInjectionProperties.Rule();
+    private final FaultInjectionProperties properties = properties(rule);
+    private final FaultInjectionFilter filter = new FaultInjectionFilter(properties, new ObjectMapper());
+
+    // Stands in for the dispatcher servlet, where RandomRequestLimitInterceptor counts the request.
+    private final AtomicInteger handled = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> {
+        handled.incrementAndGet();
+        response.getOutputStream().write(BODY);
+    };
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void doFilter_WithLatency_ShouldReleaseThreadAndReachHandlerOnceAfterDelay() throws Exception {
+        rule.setLatency(FaultInjectionProperties.Distribution.FIXED);
+        rule.setLatencyMean(Duration.ofMillis(100));
+        final var request = request();
+        final var response = new MockHttpServletResponse();
+
+        final var start = System.nanoTime();
+        filter.doFilter(request, response, chain);
+
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0, handled.get());
+
+        final var dispatched = new CountDownLatch(1);
+        ((MockAsyncContext) request.getAsyncContext()).addDispatchHandler(dispatched::countDown);
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+
+        // What the container does once the scheduler has called dispatch().
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, chain);
+
+        assertEquals(1, handled.get());
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WithDrip_ShouldWriteBodyInChunks() throws Exception {
+        rule.setDripChunkBytes(4);
+        rule.setDripInterval(Duration.ofMillis(10));
+        final var request = request();
+        final var mockResponse = new MockHttpServletResponse();
+        final var response = new ChunkRecordingResponse(mockResponse);
+
+        filter.doFilter(request, response, chain);
+
+        assertTrue(request.isAsyncStarted());
+        awaitCompletion(request);
+        assertEquals(1, handled.get());
+        assertEquals(List.of(4, 4, 2), response.chunks);
+        assertArrayEquals(BODY, mockResponse.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WhenDripClientStopsReading_ShouldNotHoldUpOtherRequests() throws Exception {
+        rule.setPath("/api/v1/employee/{id}");
+        rule.setDripChunkBytes(4);
+        rule.setDripInterval(Duration.ofMillis(1));
+        final var delay = new FaultInjectionProperties.Rule();
+        delay.setLatency(FaultInjectionProperties.Distribution.FIXED);
+        delay.setLatencyMean(Duration.ofMillis(10));
+        properties.setRules(List.of(rule, delay));
+
+        final var stalledRequest = request(PATH + "/" + UUID.randomUUID());
+        final var stalled = new ChunkRecordingResponse(new MockHttpServletResponse());
+        stalled.ready = false;
+        filter.doFilter(stalledRequest, stalled, chain);
+
+        final var delayed = request(PATH);
+        filter.doFilter(delayed, new MockHttpServletResponse(), chain);
+        final var dispatched = new CountDownLatch(1);
+        ((MockAsyncContext) delayed.getAsyncContext()).addDispatchHandler(dispatched::countDown);
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        assertTrue(stalled.chunks.isEmpty());
+        assertTrue(stalledRequest.isAsyncStarted());
+
+        stalled.resume();
+        awaitCompletion(stalledRequest);
+        assertEquals(List.of(4, 4, 2), stalled.chunks);
+    }
+
+    @Test
+    void doFilter_WithErrorRate_ShouldAnswerWithErrorStatusWithoutReachingHandler() throws Exception {
+        rule.setErrorRate(1);
+        rule.setErrorStatus(502);
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, chain);
+
+        assertEquals(0, handled.get());
+        assertEquals(502, response.getStatus());
+        final var body = new ObjectMapper().readTree(response.getContentAsByteArray());
+        assertEquals("Failed to process request.", body.get("status").asText());
+        assertEquals("Injected fault", body.get("error").asText());
+    }
+
+    @Test
+    void doFilter_WithResetRate_ShouldAnnounceFullLengthAndSendHalfTheBody() throws Exception {
+        rule.setResetRate(1);
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, chain);
+
+        assertEquals(1, handled.get());
+        assertEquals(BODY.length, response.getContentLength());
+        assertEquals("close", response.getHeader(HttpHeaders.CONNECTION));
+        assertEquals("01234", response.getContentAsString());
+        assertTrue(response.isCommitted());
+    }
+
+    @Test
+    void doFilter_WhenNoRuleMatches_ShouldPassThrough() throws Exception {
+        rule.setPath("/api/v1/employee/{id}");
+        rule.setErrorRate(1);
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, chain);
+
+        assertEquals(1, handled.get());
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    private static FaultInjectionProperties properties(FaultInjectionProperties.Rule rule) {
+        final var properties = new FaultInjectionProperties();
+        properties.setEnabled(true);
+        properties.setRules(List.of(rule));
+        return properties;
+    }
+
+    private static MockHttpServletRequest request() {
+        return request(PATH);
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        final var request = new MockHttpServletRequest("GET", path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static void awaitCompletion(MockHttpServletRequest request) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (request.isAsyncStarted() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(request.isAsyncStarted());
+    }
+
+    /**
+     * Records the length of every write, which the drip makes once per chunk. Clearing {@code ready} stands in for a
+     * client that has stopped reading, until {@link #resume} lets the container report the connection writable again.
+     */
+    private static final class ChunkRecordingResponse extends HttpServletResponseWrapper {
+
+        private final List<Integer> chunks = new CopyOnWriteArrayList<>();
+        private volatile boolean ready = true;
+        private volatile WriteListener listener;
+
+        ChunkRecordingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void resume() throws IOException {
+            ready = true;
+            listener.onWritePossible();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            final var out = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return ready;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    listener = writeListener;
+                    if (ready) {
+                        try {
+                            writeListener.onWritePossible();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    chunks.add(1);
+                    out.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    chunks.add(len);
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+            };
+        }
+    }
+}